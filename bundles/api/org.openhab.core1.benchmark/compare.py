@@ -0,0 +1,87 @@
+#!/usr/bin/env python3
+#
+# Copyright (c) 2010-2019 Contributors to the openHAB project
+#
+# See the NOTICE file(s) distributed with this work for additional
+# information.
+#
+# This program and the accompanying materials are made available under the
+# terms of the Eclipse Public License 2.0 which is available at
+# http://www.eclipse.org/legal/epl-2.0
+#
+# SPDX-License-Identifier: EPL-2.0
+#
+"""Compares two JMH result files written with -rf json.
+
+Prints the change of every benchmark found in both files and exits with
+status 1 if any benchmark got slower by more than the threshold, taking the
+error margins of both runs into account, so that it can gate an upgrade.
+
+usage: compare.py [--threshold PERCENT] baseline.json candidate.json
+"""
+
+import argparse
+import json
+import sys
+
+
+def load(path):
+    with open(path) as f:
+        results = {}
+        for result in json.load(f):
+            params = result.get("params") or {}
+            key = result["benchmark"] + "".join(
+                ":%s=%s" % (name, params[name]) for name in sorted(params))
+            results[key] = result
+    return results
+
+
+def higher_is_better(result):
+    # throughput is reported as ops/time, all other modes as time/op
+    return result["mode"] == "thrpt"
+
+
+def main():
+    parser = argparse.ArgumentParser(description="Compares two JMH json result files.")
+    parser.add_argument("--threshold", type=float, default=5.0,
+                        help="allowed slowdown in percent (default: 5)")
+    parser.add_argument("baseline")
+    parser.add_argument("candidate")
+    args = parser.parse_args()
+
+    baseline = load(args.baseline)
+    candidate = load(args.candidate)
+
+    regressions = []
+    print("%-90s %14s %14s %9s" % ("Benchmark", "Baseline", "Candidate", "Change"))
+    for key in sorted(baseline):
+        if key not in candidate:
+            print("%-90s %14s" % (key, "missing"))
+            continue
+        old = baseline[key]["primaryMetric"]
+        new = candidate[key]["primaryMetric"]
+        if old["score"] == 0:
+            continue
+        change = (new["score"] - old["score"]) / old["score"] * 100.0
+        slowdown = -change if higher_is_better(baseline[key]) else change
+
+        # a difference within the error margins of the two runs is noise
+        error = (abs(old.get("scoreError") or 0) + abs(new.get("scoreError") or 0)) / old["score"] * 100.0
+        regressed = slowdown > args.threshold and slowdown > error
+        print("%-90s %14.3f %14.3f %+8.1f%% %s" % (key, old["score"], new["score"], change,
+                                                   "REGRESSION" if regressed else ""))
+        if regressed:
+            regressions.append(key)
+
+    for key in sorted(candidate):
+        if key not in baseline:
+            print("%-90s %14s" % (key, "new"))
+
+    if regressions:
+        print("\n%d benchmark(s) regressed by more than %.1f%%" % (len(regressions), args.threshold))
+        return 1
+    return 0
+
+
+if __name__ == "__main__":
+    sys.exit(main())
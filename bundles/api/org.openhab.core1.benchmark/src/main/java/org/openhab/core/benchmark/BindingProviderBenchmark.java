@@ -0,0 +1,132 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.core.benchmark;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+import org.openhab.core.binding.AbstractBinding;
+import org.openhab.core.binding.BindingConfig;
+import org.openhab.core.binding.BindingProvider;
+import org.openhab.core.items.Item;
+import org.openhab.core.library.items.SwitchItem;
+import org.openhab.core.library.types.OnOffType;
+import org.openhab.core.types.Command;
+import org.openhab.model.item.binding.AbstractGenericBindingProvider;
+import org.openhab.model.item.binding.BindingConfigParseException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the lookups of an {@link AbstractGenericBindingProvider} with a
+ * number of bound items, directly and through
+ * {@link AbstractBinding#receiveCommand(String, Command)}.
+ *
+ * @since 1.15.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BindingProviderBenchmark {
+
+    @Param({ "10", "1000", "10000" })
+    public int items;
+
+    private BenchmarkBindingProvider provider;
+    private BenchmarkBinding binding;
+    private String boundItem;
+    private String unboundItem;
+
+    @Setup
+    public void setUp() throws BindingConfigParseException {
+        provider = new BenchmarkBindingProvider();
+        for (int i = 0; i < items; i++) {
+            provider.processBindingConfiguration("benchmark.items", new SwitchItem("Switch" + i), "" + i);
+        }
+        binding = new BenchmarkBinding();
+        binding.addBindingProvider(provider);
+        boundItem = "Switch" + (items / 2);
+        unboundItem = "Other" + (items / 2);
+    }
+
+    @Benchmark
+    public boolean providesBindingForBound() {
+        return provider.providesBindingFor(boundItem);
+    }
+
+    @Benchmark
+    public boolean providesBindingForUnbound() {
+        return provider.providesBindingFor(unboundItem);
+    }
+
+    @Benchmark
+    public Collection<String> getItemNames() {
+        return provider.getItemNames();
+    }
+
+    @Benchmark
+    public long receiveCommandBound() {
+        binding.receiveCommand(boundItem, OnOffType.ON);
+        return binding.received;
+    }
+
+    @Benchmark
+    public long receiveCommandUnbound() {
+        binding.receiveCommand(unboundItem, OnOffType.ON);
+        return binding.received;
+    }
+
+    private static class BenchmarkBindingConfig implements BindingConfig {
+    }
+
+    private static class BenchmarkBindingProvider extends AbstractGenericBindingProvider {
+
+        @Override
+        public String getBindingType() {
+            return "benchmark";
+        }
+
+        @Override
+        public void validateItemType(Item item, String bindingConfig) throws BindingConfigParseException {
+        }
+
+        @Override
+        public void processBindingConfiguration(String context, Item item, String bindingConfig)
+                throws BindingConfigParseException {
+            super.processBindingConfiguration(context, item, bindingConfig);
+            addBindingConfig(item, new BenchmarkBindingConfig());
+        }
+    }
+
+    private static class BenchmarkBinding extends AbstractBinding<BindingProvider> {
+
+        private long received;
+
+        @Override
+        protected void internalReceiveCommand(String itemName, Command command) {
+            received++;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.core.benchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openhab.core.events.AbstractEventSubscriber;
+import org.openhab.core.events.EventConstants;
+import org.openhab.core.library.types.DecimalType;
+import org.openhab.core.library.types.OnOffType;
+import org.openhab.core.types.Command;
+import org.openhab.core.types.EventType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.osgi.service.event.Event;
+
+/**
+ * Measures {@link AbstractEventSubscriber#handleEvent(Event)} for update and
+ * command events and for events of other topics, which every subscriber
+ * receives as well.
+ *
+ * @since 1.15.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventSubscriberBenchmark {
+
+    private CountingSubscriber subscriber;
+    private Event update;
+    private Event command;
+    private Event other;
+
+    @Setup
+    public void setUp() {
+        subscriber = new CountingSubscriber();
+        update = createEvent(EventType.UPDATE.toString(), "state", new DecimalType(21));
+        command = createEvent(EventType.COMMAND.toString(), "command", OnOffType.ON);
+        other = createEvent("refresh", "state", new DecimalType(21));
+    }
+
+    private static Event createEvent(String operation, String property, Object value) {
+        String itemName = "Living_Temperature";
+        Map<String, Object> properties = new HashMap<String, Object>();
+        properties.put("item", itemName);
+        properties.put(property, value);
+        String topic = EventConstants.TOPIC_PREFIX + EventConstants.TOPIC_SEPERATOR + operation
+                + EventConstants.TOPIC_SEPERATOR + itemName;
+        return new Event(topic, properties);
+    }
+
+    @Benchmark
+    public long handleUpdate() {
+        subscriber.handleEvent(update);
+        return subscriber.received;
+    }
+
+    @Benchmark
+    public long handleCommand() {
+        subscriber.handleEvent(command);
+        return subscriber.received;
+    }
+
+    @Benchmark
+    public long handleOtherTopic() {
+        subscriber.handleEvent(other);
+        return subscriber.received;
+    }
+
+    private static class CountingSubscriber extends AbstractEventSubscriber {
+
+        private long received;
+
+        @Override
+        public void receiveCommand(String itemName, Command command) {
+            received++;
+        }
+
+        @Override
+        public void receiveUpdate(String itemName, org.openhab.core.types.State newState) {
+            received++;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.core.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openhab.core.items.Item;
+import org.openhab.core.items.StateChangeListener;
+import org.openhab.core.library.items.NumberItem;
+import org.openhab.core.library.types.DecimalType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link org.openhab.core.items.GenericItem#setState(org.openhab.core.types.State)}
+ * with a number of state change listeners, both for updates which change
+ * the state and for updates which don't.
+ *
+ * @since 1.15.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GenericItemBenchmark {
+
+    @Param({ "0", "1", "10", "100" })
+    public int listeners;
+
+    private NumberItem item;
+    private final DecimalType[] states = { new DecimalType(20), new DecimalType(21) };
+    private int next;
+
+    /** counts the notifications so that the listeners can't be optimized away */
+    private long notifications;
+
+    @Setup
+    public void setUp() {
+        item = new NumberItem("Temperature");
+        for (int i = 0; i < listeners; i++) {
+            item.addStateChangeListener(new StateChangeListener() {
+                @Override
+                public void stateChanged(Item item, org.openhab.core.types.State oldState,
+                        org.openhab.core.types.State newState) {
+                    notifications++;
+                }
+
+                @Override
+                public void stateUpdated(Item item, org.openhab.core.types.State state) {
+                    notifications++;
+                }
+            });
+        }
+        item.setState(states[0]);
+    }
+
+    @Benchmark
+    public long setStateChanged() {
+        item.setState(states[next++ & 1]);
+        return notifications;
+    }
+
+    @Benchmark
+    public long setStateUnchanged() {
+        item.setState(states[0]);
+        return notifications;
+    }
+}
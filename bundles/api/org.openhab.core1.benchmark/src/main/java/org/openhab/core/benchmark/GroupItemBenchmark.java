@@ -0,0 +1,133 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.core.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openhab.core.items.GenericItem;
+import org.openhab.core.items.GroupFunction;
+import org.openhab.core.items.GroupItem;
+import org.openhab.core.library.items.NumberItem;
+import org.openhab.core.library.items.SwitchItem;
+import org.openhab.core.library.types.ArithmeticGroupFunction;
+import org.openhab.core.library.types.DecimalType;
+import org.openhab.core.library.types.OnOffType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the {@link ArithmeticGroupFunction}s of a {@link GroupItem}, both
+ * calculating the state over all members and the full path of a member
+ * update which makes the group recalculate its state.
+ *
+ * @since 1.15.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GroupItemBenchmark {
+
+    @Param({ "10", "100", "1000" })
+    public int members;
+
+    @Param({ "AND", "OR", "NAND", "NOR", "AVG", "SUM", "MIN", "MAX" })
+    public String function;
+
+    private GroupItem group;
+    private GroupFunction groupFunction;
+    private GenericItem member;
+    private org.openhab.core.types.State[] memberStates;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        boolean logical = true;
+        boolean conjunction = function.equals("AND") || function.equals("NAND");
+        switch (function) {
+            case "AND":
+                groupFunction = new ArithmeticGroupFunction.And(OnOffType.ON, OnOffType.OFF);
+                break;
+            case "OR":
+                groupFunction = new ArithmeticGroupFunction.Or(OnOffType.ON, OnOffType.OFF);
+                break;
+            case "NAND":
+                groupFunction = new ArithmeticGroupFunction.NAnd(OnOffType.ON, OnOffType.OFF);
+                break;
+            case "NOR":
+                groupFunction = new ArithmeticGroupFunction.NOr(OnOffType.ON, OnOffType.OFF);
+                break;
+            case "AVG":
+                groupFunction = new ArithmeticGroupFunction.Avg();
+                logical = false;
+                break;
+            case "SUM":
+                groupFunction = new ArithmeticGroupFunction.Sum();
+                logical = false;
+                break;
+            case "MIN":
+                groupFunction = new ArithmeticGroupFunction.Min();
+                logical = false;
+                break;
+            case "MAX":
+                groupFunction = new ArithmeticGroupFunction.Max();
+                logical = false;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown group function " + function);
+        }
+
+        group = new GroupItem("Group", logical ? new SwitchItem("Base") : new NumberItem("Base"), groupFunction);
+        for (int i = 0; i < members; i++) {
+            GenericItem item;
+            if (logical) {
+                item = new SwitchItem("Switch" + i);
+                // only the last member decides, so AND and OR have to look at all of them
+                item.setState(conjunction ? OnOffType.ON : OnOffType.OFF);
+            } else {
+                item = new NumberItem("Number" + i);
+                item.setState(new DecimalType(i * 0.5));
+            }
+            group.addMember(item);
+        }
+
+        member = (GenericItem) group.getMembers().get(members - 1);
+        if (logical) {
+            memberStates = new org.openhab.core.types.State[] { OnOffType.OFF, OnOffType.ON };
+        } else {
+            memberStates = new org.openhab.core.types.State[] { new DecimalType(10), new DecimalType(11) };
+        }
+    }
+
+    @Benchmark
+    public org.openhab.core.types.State calculate() {
+        return groupFunction.calculate(group.getMembers());
+    }
+
+    @Benchmark
+    public org.openhab.core.types.State memberUpdate() {
+        member.setState(memberStates[next++ & 1]);
+        return group.getState();
+    }
+}
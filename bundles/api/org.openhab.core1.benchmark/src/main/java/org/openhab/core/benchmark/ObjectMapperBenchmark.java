@@ -0,0 +1,94 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.core.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.codehaus.jackson.JsonNode;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares reading recorded cloud service responses with a new
+ * {@link ObjectMapper} per response, as the bindings did before, with the
+ * mapper a binding now keeps for all responses. Run with <code>-prof gc</code>
+ * to see the allocation rate.
+ *
+ * @since 1.15.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ObjectMapperBenchmark {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Param({ "netatmo_stationsdata", "hue_lights", "myq_devices" })
+    public String payload;
+
+    private String json;
+
+    @Setup
+    public void setUp() throws IOException {
+        json = readResource("/json/" + payload + ".json");
+    }
+
+    private static String readResource(String resource) throws IOException {
+        try (InputStream in = ObjectMapperBenchmark.class.getResourceAsStream(resource)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[1024];
+            int read;
+            while ((read = in.read(buffer)) >= 0) {
+                out.write(buffer, 0, read);
+            }
+            return out.toString("UTF-8");
+        }
+    }
+
+    @Benchmark
+    public JsonNode readTreeNewMapper() throws IOException {
+        return new ObjectMapper().readTree(json);
+    }
+
+    @Benchmark
+    public JsonNode readTreeBindingMapper() throws IOException {
+        return MAPPER.readTree(json);
+    }
+
+    @Benchmark
+    public Map<?, ?> readMapNewMapper() throws IOException {
+        return new ObjectMapper().readValue(json, Map.class);
+    }
+
+    @Benchmark
+    public Map<?, ?> readMapBindingMapper() throws IOException {
+        return MAPPER.readValue(json, Map.class);
+    }
+}
@@ -0,0 +1,211 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.core.benchmark;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openhab.core.items.Item;
+import org.openhab.core.library.items.ColorItem;
+import org.openhab.core.library.items.ContactItem;
+import org.openhab.core.library.items.DateTimeItem;
+import org.openhab.core.library.items.DimmerItem;
+import org.openhab.core.library.items.LocationItem;
+import org.openhab.core.library.items.NumberItem;
+import org.openhab.core.library.items.RollershutterItem;
+import org.openhab.core.library.items.StringItem;
+import org.openhab.core.library.items.SwitchItem;
+import org.openhab.core.types.Command;
+import org.openhab.core.types.Type;
+import org.openhab.core.types.TypeParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link TypeParser} with the accepted state and command types of
+ * each item type, for a valid value and for a value none of the types
+ * accepts. The <code>Reflective</code> variants run the parser used before,
+ * which looked up <code>valueOf</code> for every type on every call and
+ * relied on the exceptions of the types which don't accept the value.
+ *
+ * @since 1.15.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TypeParserBenchmark {
+
+    @Param({ "Color", "Contact", "DateTime", "Dimmer", "Location", "Number", "Rollershutter", "String", "Switch" })
+    public String itemType;
+
+    private List<Class<? extends org.openhab.core.types.State>> stateTypes;
+    private List<Class<? extends Command>> commandTypes;
+    private String state;
+    private String command;
+    private String invalid;
+
+    @Setup
+    public void setUp() {
+        Item item;
+        switch (itemType) {
+            case "Color":
+                item = new ColorItem("Color");
+                state = "120,100,50";
+                command = "ON";
+                invalid = "120,100";
+                break;
+            case "Contact":
+                item = new ContactItem("Contact");
+                state = "OPEN";
+                command = "CLOSED";
+                invalid = "AJAR";
+                break;
+            case "DateTime":
+                item = new DateTimeItem("DateTime");
+                state = "2019-01-31T12:30:15";
+                command = "2019-01-31T12:30:15";
+                invalid = "12:30:15";
+                break;
+            case "Dimmer":
+                item = new DimmerItem("Dimmer");
+                state = "42";
+                command = "INCREASE";
+                invalid = "142";
+                break;
+            case "Location":
+                item = new LocationItem("Location");
+                state = "52.5200,13.4050,34";
+                command = "52.5200,13.4050";
+                invalid = "52.5200";
+                break;
+            case "Number":
+                item = new NumberItem("Number");
+                state = "21.5";
+                command = "21";
+                invalid = "ON";
+                break;
+            case "Rollershutter":
+                item = new RollershutterItem("Rollershutter");
+                state = "75";
+                command = "STOP";
+                invalid = "OPEN";
+                break;
+            case "String":
+                item = new StringItem("String");
+                state = "Hello World";
+                command = "Hello World";
+                // any string is a StringType
+                invalid = "";
+                break;
+            case "Switch":
+                item = new SwitchItem("Switch");
+                state = "ON";
+                command = "OFF";
+                invalid = "42";
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown item type " + itemType);
+        }
+        stateTypes = item.getAcceptedDataTypes();
+        // contact, date time and location items accept no commands at all
+        commandTypes = item.getAcceptedCommandTypes();
+    }
+
+    @Benchmark
+    public Object parseState() {
+        return TypeParser.parseState(stateTypes, state);
+    }
+
+    @Benchmark
+    public Object parseCommand() {
+        return TypeParser.parseCommand(commandTypes, command);
+    }
+
+    @Benchmark
+    public Object parseInvalidState() {
+        return TypeParser.parseState(stateTypes, invalid);
+    }
+
+    @Benchmark
+    public Object parseStateReflective() {
+        return ReflectiveTypeParser.parseState(stateTypes, state);
+    }
+
+    @Benchmark
+    public Object parseCommandReflective() {
+        return ReflectiveTypeParser.parseCommand(commandTypes, command);
+    }
+
+    @Benchmark
+    public Object parseInvalidStateReflective() {
+        return ReflectiveTypeParser.parseState(stateTypes, invalid);
+    }
+
+    /**
+     * The type parser before the <code>valueOf</code> methods were cached,
+     * for comparison.
+     */
+    private static class ReflectiveTypeParser {
+
+        private static org.openhab.core.types.State parseState(
+                List<Class<? extends org.openhab.core.types.State>> types, String s) {
+            for (Class<? extends Type> type : types) {
+                try {
+                    Method valueOf = type.getMethod("valueOf", String.class);
+                    org.openhab.core.types.State state = (org.openhab.core.types.State) valueOf.invoke(type, s);
+                    if (state != null) {
+                        return state;
+                    }
+                } catch (NoSuchMethodException e) {
+                } catch (IllegalArgumentException e) {
+                } catch (IllegalAccessException e) {
+                } catch (InvocationTargetException e) {
+                }
+            }
+            return null;
+        }
+
+        private static Command parseCommand(List<Class<? extends Command>> types, String s) {
+            if (s != null) {
+                for (Class<? extends Command> type : types) {
+                    try {
+                        Method valueOf = type.getMethod("valueOf", String.class);
+                        Command value = (Command) valueOf.invoke(type, s);
+                        if (value != null) {
+                            return value;
+                        }
+                    } catch (NoSuchMethodException e) {
+                    } catch (IllegalArgumentException e) {
+                    } catch (IllegalAccessException e) {
+                    } catch (InvocationTargetException e) {
+                    }
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,391 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.core.benchmark;
+
+import java.math.BigDecimal;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openhab.core.library.types.DateTimeType;
+import org.openhab.core.library.types.DecimalType;
+import org.openhab.core.library.types.HSBType;
+import org.openhab.core.library.types.PercentType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures creating, comparing and formatting the number and date types,
+ * which bindings do for every value they receive. Run with
+ * <code>-prof gc</code> to see the allocation rate. The
+ * <code>BigDecimal</code> variants run copies of the number types before
+ * integral values were kept as a <code>long</code>, the
+ * <code>SimpleDateFormat</code> variants the date parsing and formatting
+ * with new formats per call, for comparison.
+ *
+ * @since 1.15.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TypesBenchmark {
+
+    private DecimalType integral;
+    private DecimalType fractional;
+    private DateTimeType dateTime;
+    private Calendar calendar;
+    private HSBType color;
+    private HSBType sameColor;
+    private BigDecimalType bigIntegral;
+    private BigDecimalType bigFractional;
+    private BigDecimalHSBType bigColor;
+    private BigDecimalHSBType bigSameColor;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        integral = new DecimalType(42);
+        fractional = new DecimalType("21.5");
+        dateTime = new DateTimeType("2019-01-31T12:30:15");
+        calendar = dateTime.getCalendar();
+        color = new HSBType("120,100,50");
+        sameColor = new HSBType("120,100,50");
+        bigIntegral = new BigDecimalType(42);
+        bigFractional = new BigDecimalType("21.5");
+        bigColor = new BigDecimalHSBType("120,100,50");
+        bigSameColor = new BigDecimalHSBType("120,100,50");
+    }
+
+    @Benchmark
+    public DecimalType decimalFromLong() {
+        return new DecimalType(next++);
+    }
+
+    @Benchmark
+    public DecimalType decimalFromString() {
+        return DecimalType.valueOf("1234");
+    }
+
+    @Benchmark
+    public DecimalType decimalFromFractionalString() {
+        return DecimalType.valueOf("21.5");
+    }
+
+    @Benchmark
+    public boolean decimalEquals() {
+        return integral.equals(new DecimalType(42));
+    }
+
+    @Benchmark
+    public int decimalCompare() {
+        return integral.compareTo(fractional);
+    }
+
+    @Benchmark
+    public PercentType percentFromString() {
+        return PercentType.valueOf("75");
+    }
+
+    @Benchmark
+    public String hsbToString() {
+        return HSBType.valueOf("120,100,50").toString();
+    }
+
+    @Benchmark
+    public boolean hsbEquals() {
+        return color.equals(sameColor) && color.hashCode() == sameColor.hashCode();
+    }
+
+    @Benchmark
+    public BigDecimalType decimalFromLongBigDecimal() {
+        return new BigDecimalType(next++);
+    }
+
+    @Benchmark
+    public BigDecimalType decimalFromStringBigDecimal() {
+        return BigDecimalType.valueOf("1234");
+    }
+
+    @Benchmark
+    public BigDecimalType decimalFromFractionalStringBigDecimal() {
+        return BigDecimalType.valueOf("21.5");
+    }
+
+    @Benchmark
+    public boolean decimalEqualsBigDecimal() {
+        return bigIntegral.equals(new BigDecimalType(42));
+    }
+
+    @Benchmark
+    public int decimalCompareBigDecimal() {
+        return bigIntegral.compareTo(bigFractional);
+    }
+
+    @Benchmark
+    public BigDecimalPercentType percentFromStringBigDecimal() {
+        return BigDecimalPercentType.valueOf("75");
+    }
+
+    @Benchmark
+    public String hsbToStringBigDecimal() {
+        return BigDecimalHSBType.valueOf("120,100,50").toString();
+    }
+
+    @Benchmark
+    public boolean hsbEqualsBigDecimal() {
+        return bigColor.equals(bigSameColor) && bigColor.hashCode() == bigSameColor.hashCode();
+    }
+
+    @Benchmark
+    public DateTimeType dateTimeParse() {
+        return DateTimeType.valueOf("2019-01-31T12:30:15");
+    }
+
+    @Benchmark
+    public DateTimeType dateTimeParseWithZone() {
+        return DateTimeType.valueOf("2019-01-31T12:30:15.000+0100");
+    }
+
+    @Benchmark
+    public DateTimeType dateTimeParseWithOffset() {
+        return DateTimeType.valueOf("2019-01-31T12:30:15+0100");
+    }
+
+    @Benchmark
+    public String dateTimeToString() {
+        return dateTime.toString();
+    }
+
+    @Benchmark
+    public String dateTimeFromCalendarToString() {
+        // a new instance, so the cached string form isn't used
+        return new DateTimeType(calendar).toString();
+    }
+
+    @Benchmark
+    public Calendar dateTimeParseSimpleDateFormat() {
+        return SimpleDateFormatDateTime.parse("2019-01-31T12:30:15");
+    }
+
+    @Benchmark
+    public Calendar dateTimeParseWithZoneSimpleDateFormat() {
+        return SimpleDateFormatDateTime.parse("2019-01-31T12:30:15.000+0100");
+    }
+
+    @Benchmark
+    public Calendar dateTimeParseWithOffsetSimpleDateFormat() {
+        return SimpleDateFormatDateTime.parse("2019-01-31T12:30:15+0100");
+    }
+
+    @Benchmark
+    public String dateTimeToStringSimpleDateFormat() {
+        return SimpleDateFormatDateTime.toString(calendar);
+    }
+
+    /**
+     * The parsing and formatting of {@link DateTimeType} as it was with new
+     * formats per call.
+     */
+    private static class SimpleDateFormatDateTime {
+
+        private static Calendar parse(String calendarValue) {
+            Date date = null;
+            try {
+                try {
+                    date = new SimpleDateFormat(DateTimeType.DATE_PATTERN_WITH_TZ).parse(calendarValue);
+                } catch (ParseException fpe2) {
+                    date = new SimpleDateFormat(DateTimeType.DATE_PATTERN).parse(calendarValue);
+                }
+            } catch (ParseException fpe) {
+                throw new IllegalArgumentException(calendarValue + " is not in a valid format.", fpe);
+            }
+            Calendar calendar = Calendar.getInstance();
+            calendar.setTime(date);
+            return calendar;
+        }
+
+        private static String toString(Calendar calendar) {
+            return new SimpleDateFormat(DateTimeType.DATE_PATTERN).format(calendar.getTime());
+        }
+    }
+
+    /**
+     * The parts of {@link DecimalType} measured here, as they were when the
+     * value was always a BigDecimal.
+     */
+    public static class BigDecimalType {
+
+        protected BigDecimal value;
+
+        BigDecimalType(BigDecimal value) {
+            this.value = value;
+        }
+
+        BigDecimalType(long value) {
+            this.value = new BigDecimal(value);
+        }
+
+        BigDecimalType(String value) {
+            this.value = new BigDecimal(value);
+        }
+
+        static BigDecimalType valueOf(String value) {
+            return new BigDecimalType(value);
+        }
+
+        @Override
+        public String toString() {
+            return value.toPlainString();
+        }
+
+        @Override
+        public int hashCode() {
+            final int prime = 31;
+            int result = 1;
+            result = prime * result + ((value == null) ? 0 : value.hashCode());
+            return result;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null) {
+                return false;
+            }
+            if (!(obj instanceof BigDecimalType)) {
+                return false;
+            }
+            BigDecimalType other = (BigDecimalType) obj;
+            if (value == null) {
+                if (other.value != null) {
+                    return false;
+                }
+            } else if (value.compareTo(other.value) != 0) {
+                return false;
+            }
+            return true;
+        }
+
+        int compareTo(BigDecimalType o) {
+            return value.compareTo(o.value);
+        }
+    }
+
+    /**
+     * The parts of {@link PercentType} measured here, as they were when the
+     * value was always a BigDecimal.
+     */
+    public static class BigDecimalPercentType extends BigDecimalType {
+
+        BigDecimalPercentType(BigDecimal value) {
+            super(value);
+            validateValue(this.value);
+        }
+
+        BigDecimalPercentType(String value) {
+            super(value);
+            validateValue(this.value);
+        }
+
+        private void validateValue(BigDecimal value) {
+            if (BigDecimal.ZERO.compareTo(value) > 0 || new BigDecimal(100).compareTo(value) < 0) {
+                throw new IllegalArgumentException("Value must be between 0 and 100");
+            }
+        }
+
+        static BigDecimalPercentType valueOf(String value) {
+            return new BigDecimalPercentType(value);
+        }
+    }
+
+    /**
+     * The parts of {@link HSBType} measured here, as they were when the
+     * string form and the comparison went through a new type per constituent.
+     */
+    public static class BigDecimalHSBType extends BigDecimalPercentType {
+
+        protected BigDecimal hue;
+        protected BigDecimal saturation;
+
+        BigDecimalHSBType(String value) {
+            super(BigDecimal.ZERO);
+            String[] constituents = value.split(",");
+            if (constituents.length != 3) {
+                throw new IllegalArgumentException(value + " is not a valid HSBType syntax");
+            }
+            this.hue = new BigDecimal(constituents[0]);
+            this.saturation = new BigDecimal(constituents[1]);
+            this.value = new BigDecimal(constituents[2]);
+        }
+
+        static BigDecimalHSBType valueOf(String value) {
+            return new BigDecimalHSBType(value);
+        }
+
+        BigDecimalType getHue() {
+            return new BigDecimalType(hue);
+        }
+
+        BigDecimalPercentType getSaturation() {
+            return new BigDecimalPercentType(saturation);
+        }
+
+        BigDecimalPercentType getBrightness() {
+            return new BigDecimalPercentType(value);
+        }
+
+        @Override
+        public String toString() {
+            return getHue() + "," + getSaturation() + "," + getBrightness();
+        }
+
+        @Override
+        public int hashCode() {
+            int tmp = 10000 * (getHue() == null ? 0 : getHue().hashCode());
+            tmp += 100 * (getSaturation() == null ? 0 : getSaturation().hashCode());
+            tmp += (getBrightness() == null ? 0 : getBrightness().hashCode());
+            return tmp;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null) {
+                return false;
+            }
+            if (!(obj instanceof BigDecimalHSBType)) {
+                return false;
+            }
+            BigDecimalHSBType other = (BigDecimalHSBType) obj;
+            return getHue().equals(other.getHue()) && getSaturation().equals(other.getSaturation())
+                    && getBrightness().equals(other.getBrightness());
+        }
+    }
+}
@@ -25,30 +25,48 @@ import org.osgi.service.event.EventHandler;
  * @author Kai Kreuzer - Initial contribution
  */
 abstract public class AbstractEventSubscriber implements EventHandler {
-    @Override
-    public void handleEvent(Event event) {
-        String itemName = (String) event.getProperty("item");
 
-        String topic = event.getTopic();
-        String[] topicParts = topic.split(TOPIC_SEPERATOR);
+    /** the topic prefix of update events, <code>openhab/update/</code> */
+    private static final String UPDATE_TOPIC_PREFIX = TOPIC_PREFIX + TOPIC_SEPERATOR + EventType.UPDATE
+            + TOPIC_SEPERATOR;
 
-        if (!(topicParts.length > 2) || !topicParts[0].equals(TOPIC_PREFIX)) {
-            return; // we have received an event with an invalid topic
-        }
-        String operation = topicParts[1];
+    /** the topic prefix of command events, <code>openhab/command/</code> */
+    private static final String COMMAND_TOPIC_PREFIX = TOPIC_PREFIX + TOPIC_SEPERATOR + EventType.COMMAND
+            + TOPIC_SEPERATOR;
 
-        if (operation.equals(EventType.UPDATE.toString())) {
+    @Override
+    public void handleEvent(Event event) {
+        // classify the topic without splitting it, this is called for every event
+        String topic = event.getTopic();
+        if (isTopic(topic, UPDATE_TOPIC_PREFIX)) {
             State newState = (State) event.getProperty("state");
             if (newState != null) {
-                receiveUpdate(itemName, newState);
+                receiveUpdate((String) event.getProperty("item"), newState);
             }
-        }
-        if (operation.equals(EventType.COMMAND.toString())) {
+        } else if (isTopic(topic, COMMAND_TOPIC_PREFIX)) {
             Command command = (Command) event.getProperty("command");
             if (command != null) {
-                receiveCommand(itemName, command);
+                receiveCommand((String) event.getProperty("item"), command);
+            }
+        }
+        // otherwise we have received an event with an invalid topic
+    }
+
+    /**
+     * Returns true if the topic starts with the prefix and has at least one
+     * more non-empty part, which is what <code>topic.split("/")</code> would
+     * yield as a third element.
+     */
+    private static boolean isTopic(String topic, String prefix) {
+        if (!topic.startsWith(prefix)) {
+            return false;
+        }
+        for (int i = prefix.length(); i < topic.length(); i++) {
+            if (topic.charAt(i) != TOPIC_SEPERATOR.charAt(0)) {
+                return true;
             }
         }
+        return false;
     }
 
     public void receiveCommand(String itemName, Command command) {
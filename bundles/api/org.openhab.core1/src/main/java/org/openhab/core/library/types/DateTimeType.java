@@ -12,17 +12,23 @@
  */
 package org.openhab.core.library.types;
 
-import java.text.ParseException;
+import java.text.ParsePosition;
 import java.text.SimpleDateFormat;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.GregorianCalendar;
 import java.util.Locale;
+import java.util.TimeZone;
 
 import org.openhab.core.types.Command;
 import org.openhab.core.types.PrimitiveType;
 import org.openhab.core.types.State;
 
 /**
+ * The date and time type. Strings in the common forms
+ * <code>yyyy-MM-ddTHH:mm:ss</code> and <code>yyyy-MM-ddTHH:mm:ss+hhmm</code>
+ * are parsed without a {@link SimpleDateFormat}, all other strings with a
+ * format kept per thread. The string form is created once per point in time.
  *
  * @author Kai Kreuzer - Initial contribution
  */
@@ -31,8 +37,27 @@ public class DateTimeType implements PrimitiveType, State, Command {
     public static final String DATE_PATTERN = "yyyy-MM-dd'T'HH:mm:ss";
     public static final String DATE_PATTERN_WITH_TZ = "yyyy-MM-dd'T'HH:mm:ssz";
 
+    /** the length of a string in the form <code>yyyy-MM-ddTHH:mm:ss</code> */
+    private static final int DATE_LENGTH = 19;
+
+    /** the length of a string in the form <code>yyyy-MM-ddTHH:mm:ss+hhmm</code> */
+    private static final int DATE_WITH_OFFSET_LENGTH = 24;
+
+    private static final ThreadLocal<SimpleDateFormat> DATE_FORMAT = new ThreadLocal<SimpleDateFormat>() {
+        @Override
+        protected SimpleDateFormat initialValue() {
+            return new SimpleDateFormat(DATE_PATTERN);
+        }
+    };
+
     protected Calendar calendar;
 
+    /**
+     * the string form, kept with the time and default time zone it was
+     * created for, as the calendar is mutable
+     */
+    private volatile FormattedTime formattedTime;
+
     public DateTimeType() {
         this(Calendar.getInstance());
     }
@@ -42,22 +67,85 @@ public class DateTimeType implements PrimitiveType, State, Command {
     }
 
     public DateTimeType(String calendarValue) {
-        Date date = null;
+        Date date = parseDate(calendarValue);
+        if (date == null) {
+            // parsing a time zone name changes the time zone of the format, so it is not reused
+            date = new SimpleDateFormat(DATE_PATTERN_WITH_TZ).parse(calendarValue, new ParsePosition(0));
+            if (date == null) {
+                date = getDateFormat(TimeZone.getDefault()).parse(calendarValue, new ParsePosition(0));
+            }
+        }
+        if (date == null) {
+            throw new IllegalArgumentException(calendarValue + " is not in a valid format.");
+        }
 
-        try {
-            try {
-                date = new SimpleDateFormat(DATE_PATTERN_WITH_TZ).parse(calendarValue);
-            } catch (ParseException fpe2) {
-                date = new SimpleDateFormat(DATE_PATTERN).parse(calendarValue);
+        calendar = Calendar.getInstance();
+        calendar.setTime(date);
+    }
+
+    /**
+     * Parses the common forms <code>yyyy-MM-ddTHH:mm:ss</code> and
+     * <code>yyyy-MM-ddTHH:mm:ss+hhmm</code> like the {@link SimpleDateFormat}s
+     * of {@link #DATE_PATTERN} and {@link #DATE_PATTERN_WITH_TZ} do.
+     *
+     * @return the date, or <code>null</code> if the string is not in one of
+     *         the common forms
+     */
+    private static Date parseDate(String value) {
+        if (value == null || (value.length() != DATE_LENGTH && value.length() != DATE_WITH_OFFSET_LENGTH)) {
+            return null;
+        }
+        if (value.charAt(4) != '-' || value.charAt(7) != '-' || value.charAt(10) != 'T' || value.charAt(13) != ':'
+                || value.charAt(16) != ':') {
+            return null;
+        }
+        int year = parseDigits(value, 0, 4);
+        int month = parseDigits(value, 5, 2);
+        int day = parseDigits(value, 8, 2);
+        int hour = parseDigits(value, 11, 2);
+        int minute = parseDigits(value, 14, 2);
+        int second = parseDigits(value, 17, 2);
+        if (year < 0 || month < 0 || day < 0 || hour < 0 || minute < 0 || second < 0) {
+            return null;
+        }
+
+        Calendar calendar = Calendar.getInstance();
+        if (calendar.getClass() != GregorianCalendar.class) {
+            // other calendar systems count years differently
+            return null;
+        }
+        calendar.clear();
+        calendar.set(year, month - 1, day, hour, minute, second);
+
+        if (value.length() == DATE_WITH_OFFSET_LENGTH) {
+            char sign = value.charAt(19);
+            int offsetHours = parseDigits(value, 20, 2);
+            int offsetMinutes = parseDigits(value, 22, 2);
+            if ((sign != '+' && sign != '-') || offsetHours < 0 || offsetHours > 23 || offsetMinutes < 0
+                    || offsetMinutes > 59) {
+                return null;
             }
-        } catch (ParseException fpe) {
-            throw new IllegalArgumentException(calendarValue + " is not in a valid format.", fpe);
+            int offset = (offsetHours * 60 + offsetMinutes) * 60000;
+            calendar.set(Calendar.ZONE_OFFSET, sign == '-' ? -offset : offset);
+            calendar.set(Calendar.DST_OFFSET, 0);
         }
+        return calendar.getTime();
+    }
 
-        if (date != null) {
-            calendar = Calendar.getInstance();
-            calendar.setTime(date);
+    /**
+     * Returns the value of <code>length</code> ASCII digits at
+     * <code>start</code>, or -1 if there is another character.
+     */
+    private static int parseDigits(String value, int start, int length) {
+        int result = 0;
+        for (int i = start; i < start + length; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            result = result * 10 + c - '0';
         }
+        return result;
     }
 
     public Calendar getCalendar() {
@@ -73,7 +161,7 @@ public class DateTimeType implements PrimitiveType, State, Command {
         try {
             return String.format(pattern, calendar);
         } catch (NullPointerException npe) {
-            return new SimpleDateFormat(DATE_PATTERN).format(calendar.getTime());
+            return toString();
         }
     }
 
@@ -83,7 +171,26 @@ public class DateTimeType implements PrimitiveType, State, Command {
 
     @Override
     public String toString() {
-        return new SimpleDateFormat(DATE_PATTERN).format(calendar.getTime());
+        long time = calendar.getTimeInMillis();
+        TimeZone zone = TimeZone.getDefault();
+        FormattedTime formatted = formattedTime;
+        if (formatted == null || formatted.time != time || !formatted.zone.equals(zone)) {
+            formatted = new FormattedTime(time, zone, getDateFormat(zone).format(new Date(time)));
+            formattedTime = formatted;
+        }
+        return formatted.string;
+    }
+
+    /**
+     * Returns the format of {@link #DATE_PATTERN} of the current thread,
+     * set to the given default time zone.
+     */
+    private static SimpleDateFormat getDateFormat(TimeZone zone) {
+        SimpleDateFormat format = DATE_FORMAT.get();
+        if (!zone.equals(format.getTimeZone())) {
+            format.setTimeZone(zone);
+        }
+        return format;
     }
 
     @Override
@@ -116,4 +223,15 @@ public class DateTimeType implements PrimitiveType, State, Command {
         return true;
     }
 
+    private static class FormattedTime {
+        final long time;
+        final TimeZone zone;
+        final String string;
+
+        FormattedTime(long time, TimeZone zone, String string) {
+            this.time = time;
+            this.zone = zone;
+            this.string = string;
+        }
+    }
 }
@@ -12,6 +12,8 @@
  */
 package org.openhab.core.library.types;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.math.BigDecimal;
 
 import org.openhab.core.types.Command;
@@ -22,6 +24,10 @@ import org.openhab.core.types.State;
  * The decimal type uses a BigDecimal internally and thus can be used for
  * integers, longs and floating point numbers alike.
  *
+ * Integral values which fit into a <code>long</code> are kept as a primitive
+ * and the BigDecimal is only created when it is requested, so that comparing
+ * and converting the common integral sensor values doesn't allocate.
+ *
  * @author Kai Kreuzer
  *
  */
@@ -31,8 +37,31 @@ public class DecimalType extends Number implements PrimitiveType, State, Command
 
     final static public DecimalType ZERO = new DecimalType(0);
 
+    /** the largest absolute value of a double up to which all integers are exact */
+    private static final double MAX_EXACT_DOUBLE = 9007199254740992d;
+
+    /** the largest number of digits which always fit into a long */
+    private static final int MAX_LONG_DIGITS = 18;
+
+    /** the values returned by {@link #valueOf(String)} for "0" to "100" */
+    private static final DecimalType[] COMMON_VALUES = new DecimalType[101];
+
+    static {
+        for (int i = 0; i < COMMON_VALUES.length; i++) {
+            COMMON_VALUES[i] = i == 0 ? ZERO : new DecimalType(i);
+        }
+    }
+
+    /**
+     * The value; <code>null</code> until it is requested if the value is
+     * kept as {@link #longValue}.
+     */
     protected BigDecimal value;
 
+    /** true if the value is kept as {@link #longValue}, which then is authoritative */
+    private transient boolean compact;
+    private transient long longValue;
+
     public DecimalType() {
         this.value = BigDecimal.ZERO;
     }
@@ -42,36 +71,99 @@ public class DecimalType extends Number implements PrimitiveType, State, Command
     }
 
     public DecimalType(long value) {
-        this.value = new BigDecimal(value);
+        this.compact = true;
+        this.longValue = value;
     }
 
     public DecimalType(double value) {
-        this.value = new BigDecimal(value);
+        if (value == Math.rint(value) && Math.abs(value) <= MAX_EXACT_DOUBLE) {
+            // the BigDecimal of an integral double has no fraction digits
+            this.compact = true;
+            this.longValue = (long) value;
+        } else {
+            this.value = new BigDecimal(value);
+        }
     }
 
     public DecimalType(String value) {
-        this.value = new BigDecimal(value);
+        if (isLong(value)) {
+            this.compact = true;
+            this.longValue = Long.parseLong(value);
+        } else {
+            this.value = new BigDecimal(value);
+        }
+    }
+
+    /**
+     * Returns true if the string is an integer which always fits into a
+     * long, which {@link BigDecimal#BigDecimal(String)} parses without
+     * fraction digits.
+     */
+    private static boolean isLong(String value) {
+        int length = value.length();
+        int start = length > 0 && (value.charAt(0) == '-' || value.charAt(0) == '+') ? 1 : 0;
+        if (length == start || length - start > MAX_LONG_DIGITS) {
+            return false;
+        }
+        for (int i = start; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the index of the shared instance for the strings "0" to "100",
+     * -1 for all other strings.
+     */
+    static int getCommonIndex(String value) {
+        int length = value.length();
+        if (length == 0 || length > 3 || (length > 1 && value.charAt(0) == '0')) {
+            return -1;
+        }
+        int result = 0;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            result = result * 10 + c - '0';
+        }
+        return result <= 100 ? result : -1;
+    }
+
+    /**
+     * Returns true if the value is kept as a long.
+     */
+    boolean isCompact() {
+        return compact;
     }
 
     @Override
     public String toString() {
-        return value.toPlainString();
+        return compact ? Long.toString(longValue) : value.toPlainString();
     }
 
     public static DecimalType valueOf(String value) {
-        return new DecimalType(value);
+        int index = getCommonIndex(value);
+        return index >= 0 ? COMMON_VALUES[index] : new DecimalType(value);
     }
 
     @Override
     public String format(String pattern) {
         if (pattern.contains("%d")) {
-            return String.format(pattern, value.toBigInteger());
+            return String.format(pattern, toBigDecimal().toBigInteger());
         } else {
-            return String.format(pattern, value);
+            return String.format(pattern, toBigDecimal());
         }
     }
 
     public BigDecimal toBigDecimal() {
+        if (compact && value == null) {
+            value = BigDecimal.valueOf(longValue);
+        }
         return value;
     }
 
@@ -79,7 +171,8 @@ public class DecimalType extends Number implements PrimitiveType, State, Command
     public int hashCode() {
         final int prime = 31;
         int result = 1;
-        result = prime * result + ((value == null) ? 0 : value.hashCode());
+        BigDecimal bigDecimal = toBigDecimal();
+        result = prime * result + ((bigDecimal == null) ? 0 : bigDecimal.hashCode());
         return result;
     }
 
@@ -95,11 +188,15 @@ public class DecimalType extends Number implements PrimitiveType, State, Command
             return false;
         }
         DecimalType other = (DecimalType) obj;
-        if (value == null) {
-            if (other.value != null) {
+        if (compact && other.compact) {
+            return longValue == other.longValue;
+        }
+        BigDecimal bigDecimal = toBigDecimal();
+        if (bigDecimal == null) {
+            if (other.toBigDecimal() != null) {
                 return false;
             }
-        } else if (value.compareTo(other.value) != 0) {
+        } else if (bigDecimal.compareTo(other.toBigDecimal()) != 0) {
             return false;
         }
         return true;
@@ -107,26 +204,35 @@ public class DecimalType extends Number implements PrimitiveType, State, Command
 
     @Override
     public int compareTo(DecimalType o) {
-        return value.compareTo(o.toBigDecimal());
+        if (compact && o.compact) {
+            return Long.compare(longValue, o.longValue);
+        }
+        return toBigDecimal().compareTo(o.toBigDecimal());
     }
 
     @Override
     public double doubleValue() {
-        return value.doubleValue();
+        return compact ? longValue : value.doubleValue();
     }
 
     @Override
     public float floatValue() {
-        return value.floatValue();
+        return compact ? longValue : value.floatValue();
     }
 
     @Override
     public int intValue() {
-        return value.intValue();
+        return compact ? (int) longValue : value.intValue();
     }
 
     @Override
     public long longValue() {
-        return value.longValue();
+        return compact ? longValue : value.longValue();
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        // the compact form is transient
+        toBigDecimal();
+        out.defaultWriteObject();
     }
 }
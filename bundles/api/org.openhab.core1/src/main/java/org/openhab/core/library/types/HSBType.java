@@ -49,6 +49,9 @@ public class HSBType extends PercentType implements ComplexType, State, Command
     protected BigDecimal hue;
     protected BigDecimal saturation;
 
+    /** the string form, created on first use */
+    private transient String string;
+
     // the inherited field "value" of the parent DecimalType corresponds to the
     // "brightness"
 
@@ -133,14 +136,19 @@ public class HSBType extends PercentType implements ComplexType, State, Command
 
     @Override
     public String toString() {
-        return getHue() + "," + getSaturation() + "," + getBrightness();
+        String result = string;
+        if (result == null) {
+            result = hue.toPlainString() + "," + saturation.toPlainString() + "," + value.toPlainString();
+            string = result;
+        }
+        return result;
     }
 
     @Override
     public int hashCode() {
-        int tmp = 10000 * (getHue() == null ? 0 : getHue().hashCode());
-        tmp += 100 * (getSaturation() == null ? 0 : getSaturation().hashCode());
-        tmp += (getBrightness() == null ? 0 : getBrightness().hashCode());
+        int tmp = 10000 * decimalHashCode(hue);
+        tmp += 100 * decimalHashCode(saturation);
+        tmp += decimalHashCode(value);
         return tmp;
     }
 
@@ -156,17 +164,26 @@ public class HSBType extends PercentType implements ComplexType, State, Command
             return false;
         }
         HSBType other = (HSBType) obj;
-        if ((getHue() != null && other.getHue() == null) || (getHue() == null && other.getHue() != null)
-                || (getSaturation() != null && other.getSaturation() == null)
-                || (getSaturation() == null && other.getSaturation() != null)
-                || (getBrightness() != null && other.getBrightness() == null)
-                || (getBrightness() == null && other.getBrightness() != null)) {
-            return false;
-        }
-        if (!getHue().equals(other.getHue()) || !getSaturation().equals(other.getSaturation())
-                || !getBrightness().equals(other.getBrightness())) {
-            return false;
+        return decimalEquals(hue, other.hue) && decimalEquals(saturation, other.saturation)
+                && decimalEquals(value, other.value);
+    }
+
+    /**
+     * Returns the hash code of a {@link DecimalType} of the value, without
+     * creating it.
+     */
+    private static int decimalHashCode(BigDecimal value) {
+        return 31 + (value == null ? 0 : value.hashCode());
+    }
+
+    /**
+     * Compares two values like {@link DecimalType#equals(Object)}, without
+     * creating the DecimalTypes.
+     */
+    private static boolean decimalEquals(BigDecimal value, BigDecimal other) {
+        if (value == null) {
+            return other == null;
         }
-        return true;
+        return other != null && value.compareTo(other) == 0;
     }
 }
@@ -28,33 +28,46 @@ public class PercentType extends DecimalType {
     final static public PercentType ZERO = new PercentType(0);
     final static public PercentType HUNDRED = new PercentType(100);
 
+    private static final BigDecimal BIG_DECIMAL_HUNDRED = BigDecimal.valueOf(100);
+
+    /** the values returned by {@link #valueOf(String)} for "0" to "100" */
+    private static final PercentType[] COMMON_VALUES = new PercentType[101];
+
+    static {
+        for (int i = 0; i < COMMON_VALUES.length; i++) {
+            COMMON_VALUES[i] = i == 0 ? ZERO : i == 100 ? HUNDRED : new PercentType(i);
+        }
+    }
+
     public PercentType() {
         super();
     }
 
     public PercentType(int value) {
         super(value);
-        validateValue(this.value);
+        validateValue();
     }
 
     public PercentType(String value) {
         super(value);
-        validateValue(this.value);
+        validateValue();
     }
 
     public PercentType(BigDecimal value) {
         super(value);
-        validateValue(this.value);
+        validateValue();
     }
 
-    private void validateValue(BigDecimal value) {
-        if (BigDecimal.ZERO.compareTo(value) > 0 || new BigDecimal(100).compareTo(value) < 0) {
+    private void validateValue() {
+        if (isCompact() ? longValue() < 0 || longValue() > 100
+                : BigDecimal.ZERO.compareTo(value) > 0 || BIG_DECIMAL_HUNDRED.compareTo(value) < 0) {
             throw new IllegalArgumentException("Value must be between 0 and 100");
         }
     }
 
     public static PercentType valueOf(String value) {
-        return new PercentType(value);
+        int index = getCommonIndex(value);
+        return index >= 0 ? COMMON_VALUES[index] : new PercentType(value);
     }
 
 }
@@ -12,19 +12,40 @@
  */
 package org.openhab.core.types;
 
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.openhab.core.library.types.DateTimeType;
+import org.openhab.core.library.types.DecimalType;
+import org.openhab.core.library.types.HSBType;
+import org.openhab.core.library.types.PercentType;
+import org.openhab.core.library.types.PointType;
 
 /**
  * This is a helper class that helps parsing a string into an openHAB type (state or command).
  *
+ * The <code>valueOf(String)</code> method of each type is looked up once and
+ * kept as a {@link MethodHandle}. Enum types are resolved by their constant
+ * names and strings which can't be a valid value of one of the core types
+ * (e.g. "ON" for a {@link DecimalType}) are rejected by a syntax check,
+ * without calling <code>valueOf</code> and having it throw an exception.
+ *
  * @author Kai Kreuzer
  * @since 0.1.0
  *
  */
 public class TypeParser {
 
+    private static final ConcurrentMap<Class<?>, ValueParser> parsers = new ConcurrentHashMap<>();
+
     /**
      * <p>
      * Determines a state from a string. Possible state types are passed as a parameter.
@@ -43,16 +64,9 @@ public class TypeParser {
      */
     public static State parseState(List<Class<? extends State>> types, String s) {
         for (Class<? extends Type> type : types) {
-            try {
-                Method valueOf = type.getMethod("valueOf", String.class);
-                State state = (State) valueOf.invoke(type, s);
-                if (state != null) {
-                    return state;
-                }
-            } catch (NoSuchMethodException e) {
-            } catch (IllegalArgumentException e) {
-            } catch (IllegalAccessException e) {
-            } catch (InvocationTargetException e) {
+            Object value = getParser(type).parse(s);
+            if (value instanceof State) {
+                return (State) value;
             }
         }
         return null;
@@ -77,19 +91,188 @@ public class TypeParser {
     public static Command parseCommand(List<Class<? extends Command>> types, String s) {
         if (s != null) {
             for (Class<? extends Command> type : types) {
-                try {
-                    Method valueOf = type.getMethod("valueOf", String.class);
-                    Command value = (Command) valueOf.invoke(type, s);
-                    if (value != null) {
-                        return value;
-                    }
-                } catch (NoSuchMethodException e) {
-                } catch (IllegalArgumentException e) {
-                } catch (IllegalAccessException e) {
-                } catch (InvocationTargetException e) {
+                Object value = getParser(type).parse(s);
+                if (value instanceof Command) {
+                    return (Command) value;
                 }
             }
         }
         return null;
     }
+
+    private static ValueParser getParser(Class<?> type) {
+        ValueParser parser = parsers.get(type);
+        if (parser == null) {
+            parser = ValueParser.create(type);
+            ValueParser existing = parsers.putIfAbsent(type, parser);
+            if (existing != null) {
+                parser = existing;
+            }
+        }
+        return parser;
+    }
+
+    /**
+     * Returns true if the string is accepted by {@link java.math.BigDecimal#BigDecimal(String)}
+     * as far as the syntax is concerned.
+     */
+    static boolean isNumber(String s) {
+        int length = s.length();
+        int i = 0;
+        if (i < length && (s.charAt(i) == '+' || s.charAt(i) == '-')) {
+            i++;
+        }
+        int digits = 0;
+        while (i < length && Character.isDigit(s.charAt(i))) {
+            i++;
+            digits++;
+        }
+        if (i < length && s.charAt(i) == '.') {
+            i++;
+            while (i < length && Character.isDigit(s.charAt(i))) {
+                i++;
+                digits++;
+            }
+        }
+        if (digits == 0) {
+            return false;
+        }
+        if (i < length && (s.charAt(i) == 'e' || s.charAt(i) == 'E')) {
+            i++;
+            if (i < length && (s.charAt(i) == '+' || s.charAt(i) == '-')) {
+                i++;
+            }
+            int exponentDigits = 0;
+            while (i < length && Character.isDigit(s.charAt(i))) {
+                i++;
+                exponentDigits++;
+            }
+            if (exponentDigits == 0) {
+                return false;
+            }
+        }
+        return i == length;
+    }
+
+    /**
+     * Returns true if the string has the syntax of an {@link HSBType}: three
+     * comma separated numbers.
+     */
+    static boolean isHSB(String s) {
+        String[] constituents = s.split(",");
+        return constituents.length == 3 && isNumber(constituents[0]) && isNumber(constituents[1])
+                && isNumber(constituents[2]);
+    }
+
+    /**
+     * Returns true if the string has the syntax of a {@link PointType}: comma
+     * separated latitude, longitude and optional altitude.
+     */
+    static boolean isPoint(String s) {
+        String[] elements = s.split(",");
+        return elements.length >= 2 && isNumber(elements[0]) && isNumber(elements[1])
+                && (elements.length != 3 || isNumber(elements[2]));
+    }
+
+    /**
+     * Returns true if the string contains the separators of a
+     * {@link DateTimeType}, e.g. <code>2019-01-31T12:00:00</code>.
+     */
+    static boolean isDateTime(String s) {
+        return s.indexOf('-') >= 0 && s.indexOf('T') >= 0 && s.indexOf(':') >= 0;
+    }
+
+    /**
+     * Parses the strings for one type.
+     */
+    private static class ValueParser {
+
+        private static final int SYNTAX_ANY = 0;
+        private static final int SYNTAX_NUMBER = 1;
+        private static final int SYNTAX_HSB = 2;
+        private static final int SYNTAX_POINT = 3;
+        private static final int SYNTAX_DATE_TIME = 4;
+
+        /** the valueOf(String) method as (String)Object, or null if there is none */
+        private final MethodHandle valueOf;
+
+        /** the constants by name if the type is an enum */
+        private final Map<String, Object> constants;
+
+        private final int syntax;
+
+        private ValueParser(MethodHandle valueOf, Map<String, Object> constants, int syntax) {
+            this.valueOf = valueOf;
+            this.constants = constants;
+            this.syntax = syntax;
+        }
+
+        static ValueParser create(Class<?> type) {
+            if (type.isEnum()) {
+                Map<String, Object> constants = new HashMap<>();
+                for (Object constant : type.getEnumConstants()) {
+                    constants.put(((Enum<?>) constant).name(), constant);
+                }
+                return new ValueParser(null, constants, SYNTAX_ANY);
+            }
+
+            MethodHandle valueOf = null;
+            try {
+                Method method = type.getMethod("valueOf", String.class);
+                if (Modifier.isStatic(method.getModifiers())) {
+                    valueOf = MethodHandles.publicLookup().unreflect(method)
+                            .asType(MethodType.methodType(Object.class, String.class));
+                }
+            } catch (NoSuchMethodException e) {
+            } catch (IllegalAccessException e) {
+            } catch (SecurityException e) {
+            }
+
+            int syntax = SYNTAX_ANY;
+            if (type == DecimalType.class || type == PercentType.class) {
+                syntax = SYNTAX_NUMBER;
+            } else if (type == HSBType.class) {
+                syntax = SYNTAX_HSB;
+            } else if (type == PointType.class) {
+                syntax = SYNTAX_POINT;
+            } else if (type == DateTimeType.class) {
+                syntax = SYNTAX_DATE_TIME;
+            }
+            return new ValueParser(valueOf, null, syntax);
+        }
+
+        /**
+         * Returns the value of the type for the string, or <code>null</code>
+         * if the string is no valid value of the type.
+         */
+        Object parse(String s) {
+            if (constants != null) {
+                return s == null ? null : constants.get(s);
+            }
+            if (valueOf == null || !accepts(s)) {
+                return null;
+            }
+            try {
+                return valueOf.invokeExact(s);
+            } catch (Throwable e) {
+                // not a valid value of this type
+                return null;
+            }
+        }
+
+        private boolean accepts(String s) {
+            switch (syntax) {
+                case SYNTAX_NUMBER:
+                    return s != null && isNumber(s);
+                case SYNTAX_HSB:
+                    return s != null && isHSB(s);
+                case SYNTAX_POINT:
+                    return s != null && isPoint(s);
+                case SYNTAX_DATE_TIME:
+                    return s != null && isDateTime(s);
+                default:
+                    return true;
+            }
+        }
+    }
 }
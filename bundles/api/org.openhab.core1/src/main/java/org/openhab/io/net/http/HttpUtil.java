@@ -14,6 +14,8 @@ package org.openhab.io.net.http;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.Properties;
@@ -108,6 +110,29 @@ public class HttpUtil {
      */
     public static String executeUrl(String httpMethod, String url, Properties httpHeaders, InputStream content,
             String contentType, int timeout) {
+        return executeUrl(httpMethod, url, httpHeaders, content, contentType, timeout, 0);
+    }
+
+    /**
+     * Executes the given <code>url</code> with the given <code>httpMethod</code>.
+     * Furthermore the <code>http.proxyXXX</code> System variables are read and
+     * set into the {@link HttpClient}.
+     *
+     * @param httpMethod the HTTP method to use
+     * @param url the url to execute (in milliseconds)
+     * @param httpHeaders optional http request headers which has to be sent within request
+     * @param content the content to be send to the given <code>url</code> or
+     *            <code>null</code> if no content should be send.
+     * @param contentType the content type of the given <code>content</code>
+     * @param timeout the socket timeout to wait for data
+     * @param maxResponseSize the maximum number of characters of the response
+     *            body, responses exceeding it are discarded; 0 for no limit
+     *
+     * @return the response body or <code>NULL</code> when the request went wrong
+     * @since 1.15.0
+     */
+    public static String executeUrl(String httpMethod, String url, Properties httpHeaders, InputStream content,
+            String contentType, int timeout, int maxResponseSize) {
         String proxySet = System.getProperty("http.proxySet");
 
         String proxyHost = null;
@@ -132,7 +157,7 @@ public class HttpUtil {
         }
 
         return executeUrl(httpMethod, url, httpHeaders, content, contentType, timeout, proxyHost, proxyPort, proxyUser,
-                proxyPassword, nonProxyHosts);
+                proxyPassword, nonProxyHosts, maxResponseSize);
 
     }
 
@@ -156,6 +181,33 @@ public class HttpUtil {
     public static String executeUrl(String httpMethod, String url, Properties httpHeaders, InputStream content,
             String contentType, int timeout, String proxyHost, Integer proxyPort, String proxyUser,
             String proxyPassword, String nonProxyHosts) {
+        return executeUrl(httpMethod, url, httpHeaders, content, contentType, timeout, proxyHost, proxyPort, proxyUser,
+                proxyPassword, nonProxyHosts, 0);
+    }
+
+    /**
+     * Executes the given <code>url</code> with the given <code>httpMethod</code>
+     *
+     * @param httpMethod the HTTP method to use
+     * @param url the url to execute (in milliseconds)
+     * @param httpHeaders optional HTTP headers which has to be set on request
+     * @param content the content to be send to the given <code>url</code> or
+     *            <code>null</code> if no content should be send.
+     * @param contentType the content type of the given <code>content</code>
+     * @param timeout the socket timeout to wait for data
+     * @param proxyHost the hostname of the proxy
+     * @param proxyPort the port of the proxy
+     * @param proxyUser the username to authenticate with the proxy
+     * @param proxyPassword the password to authenticate with the proxy
+     * @param nonProxyHosts the hosts that won't be routed through the proxy
+     * @param maxResponseSize the maximum number of characters of the response
+     *            body, responses exceeding it are discarded; 0 for no limit
+     * @return the response body or <code>NULL</code> when the request went wrong
+     * @since 1.15.0
+     */
+    public static String executeUrl(String httpMethod, String url, Properties httpHeaders, InputStream content,
+            String contentType, int timeout, String proxyHost, Integer proxyPort, String proxyUser,
+            String proxyPassword, String nonProxyHosts, int maxResponseSize) {
 
         HttpClient client = new HttpClient();
 
@@ -203,8 +255,10 @@ public class HttpUtil {
                 logger.debug("Method failed: {}", method.getStatusLine());
             }
 
-            String responseBody = IOUtils.toString(method.getResponseBodyAsStream());
-            if (!responseBody.isEmpty()) {
+            String responseBody = readResponseBody(method, maxResponseSize);
+            if (responseBody == null) {
+                logger.warn("Discarding response of '{}', it exceeds {} characters", url, maxResponseSize);
+            } else if (!responseBody.isEmpty()) {
                 logger.debug("{}", responseBody);
             }
 
@@ -220,6 +274,49 @@ public class HttpUtil {
         return null;
     }
 
+    /**
+     * Reads the response body in chunks, without buffering more than
+     * <code>maxResponseSize</code> characters.
+     *
+     * @return the response body, or <code>null</code> if it exceeds
+     *         <code>maxResponseSize</code>
+     */
+    private static String readResponseBody(HttpMethod method, int maxResponseSize) throws IOException {
+        InputStream stream = method.getResponseBodyAsStream();
+        if (stream == null) {
+            return "";
+        }
+        if (maxResponseSize <= 0) {
+            return IOUtils.toString(stream);
+        }
+
+        Header contentLength = method.getResponseHeader("Content-Length");
+        int capacity = 4096;
+        if (contentLength != null) {
+            try {
+                long length = Long.parseLong(contentLength.getValue().trim());
+                if (length > maxResponseSize) {
+                    return null;
+                }
+                capacity = (int) length;
+            } catch (NumberFormatException e) {
+                // keep the default capacity
+            }
+        }
+
+        Reader reader = new InputStreamReader(stream);
+        StringBuilder body = new StringBuilder(Math.max(capacity, 16));
+        char[] buffer = new char[4096];
+        int read;
+        while ((read = reader.read(buffer)) != -1) {
+            if (body.length() + read > maxResponseSize) {
+                return null;
+            }
+            body.append(buffer, 0, read);
+        }
+        return body.toString();
+    }
+
     /**
      * Determines whether the list of <code>nonProxyHosts</code> contains the
      * host (which is part of the given <code>urlString</code> or not.
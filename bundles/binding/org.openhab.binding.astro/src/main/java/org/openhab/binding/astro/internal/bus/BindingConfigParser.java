@@ -13,6 +13,7 @@
 package org.openhab.binding.astro.internal.bus;
 
 import org.apache.commons.lang.StringUtils;
+import org.openhab.binding.astro.internal.common.AstroConfig;
 import org.openhab.binding.astro.internal.common.AstroContext;
 import org.openhab.binding.astro.internal.config.AstroBindingConfig;
 import org.openhab.binding.astro.internal.model.PlanetName;
@@ -43,6 +44,8 @@ import org.slf4j.LoggerFactory;
  *
  * Number   Sunset_Duration                         {astro="planet=sun, type=set, property=duration"}
  * String   Sunset_Duration_Str                     {astro="planet=sun, type=set, property=duration"}
+ *
+ * DateTime Office_Sunrise "Office sunrise [%1$tH:%1$tM]"  {astro="planet=sun, type=rise, property=start, location=office"}
  * </pre>
  *
  * @author Gerhard Riegler
@@ -101,7 +104,7 @@ public class BindingConfigParser {
         }
 
         AstroBindingConfig astroConfig = new AstroBindingConfig(planetName, helper.type, helper.property,
-                helper.offset);
+                helper.offset, helper.location);
 
         if (!PropertyUtils.hasProperty(context.getPlanet(astroConfig.getPlanetName()),
                 astroConfig.getPlanetProperty())) {
@@ -155,9 +158,11 @@ public class BindingConfigParser {
         public String type;
         public String property;
         public int offset = 0;
+        public String location = AstroConfig.DEFAULT_LOCATION;
 
         protected boolean isValid() {
-            return StringUtils.isNotBlank(planet) && StringUtils.isNotBlank(type) && StringUtils.isNotBlank(property);
+            return StringUtils.isNotBlank(planet) && StringUtils.isNotBlank(type) && StringUtils.isNotBlank(property)
+                    && StringUtils.isNotBlank(location);
         }
 
         protected boolean isOldStyle() {
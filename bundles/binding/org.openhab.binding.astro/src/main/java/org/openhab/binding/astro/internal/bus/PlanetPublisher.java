@@ -24,6 +24,7 @@ import org.apache.commons.lang.ObjectUtils;
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.lang.WordUtils;
 import org.openhab.binding.astro.AstroBindingProvider;
+import org.openhab.binding.astro.internal.common.AstroConfig;
 import org.openhab.binding.astro.internal.common.AstroContext;
 import org.openhab.binding.astro.internal.config.AstroBindingConfig;
 import org.openhab.binding.astro.internal.model.Planet;
@@ -87,20 +88,32 @@ public class PlanetPublisher {
             logger.warn("Astro binding for item {} not found", itemName);
         } else {
             itemCache.remove(itemName);
-            publish(bindingConfig.getPlanetName());
+            publish(bindingConfig.getLocation(), bindingConfig.getPlanetName());
         }
     }
 
     /**
-     * Iterates through all items and publishes the states.
+     * Iterates through all items of the default location and publishes the
+     * states.
      */
-    public void publish(final PlanetName planetName) {
-        final Planet planet = context.getPlanet(planetName);
+    public void publish(PlanetName planetName) {
+        publish(AstroConfig.DEFAULT_LOCATION, planetName);
+    }
+
+    /**
+     * Iterates through all items of the location and publishes the states.
+     */
+    public void publish(final String location, final PlanetName planetName) {
+        final Planet planet = context.getPlanet(location, planetName);
+        if (planet == null) {
+            logger.debug("No {} calculated for location {}", planetName, location);
+            return;
+        }
         new ItemIterator().iterate(new ItemIteratorCallback() {
 
             @Override
             public void next(AstroBindingConfig bindingConfig, Item item) {
-                if (planetName == bindingConfig.getPlanetName()) {
+                if (planetName == bindingConfig.getPlanetName() && location.equals(bindingConfig.getLocation())) {
                     try {
                         Object value = PropertyUtils.getPropertyValue(planet, bindingConfig.getPlanetProperty());
                         if (!equalsCachedValue(value, item)) {
@@ -0,0 +1,297 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.astro.internal.calc;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Calendar;
+import java.util.TimeZone;
+
+import org.openhab.binding.astro.internal.model.Moon;
+import org.openhab.binding.astro.internal.model.MoonPhase;
+import org.openhab.binding.astro.internal.model.Range;
+import org.openhab.binding.astro.internal.model.Sun;
+import org.openhab.binding.astro.internal.util.DateTimeUtils;
+
+/**
+ * Precomputed sun rise, set and twilight ranges, moon rise and set and the
+ * next moon phases of a location for a number of consecutive days.
+ *
+ * The table is calculated in one pass, reusing the twilights and moon rises
+ * of the neighbouring days which are needed to calculate a day. Everything
+ * that depends on the time of day (positions, distances, illumination) or
+ * not on the location (eclipses, zodiac, season) is not contained and has to
+ * be calculated on the {@link Sun} and {@link Moon} returned by the lookups.
+ *
+ * @since 1.15.0
+ */
+public class EphemerisTable {
+    private static final int FILE_VERSION = 1;
+    private static final long NONE = Long.MIN_VALUE;
+
+    private static final int SUN_RANGES = 13;
+    private static final int MOON_VALUES = 6;
+
+    private final double latitude;
+    private final double longitude;
+    private final String timeZone;
+    private final long firstDay;
+    private final int days;
+
+    private final long[] sunValues;
+    private final long[] moonValues;
+
+    private EphemerisTable(double latitude, double longitude, String timeZone, long firstDay, int days) {
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.timeZone = timeZone;
+        this.firstDay = firstDay;
+        this.days = days;
+        this.sunValues = new long[days * SUN_RANGES * 2];
+        this.moonValues = new long[days * MOON_VALUES];
+    }
+
+    /**
+     * Calculates the table for the specified coordinates, starting at the day
+     * of the calendar.
+     */
+    public static EphemerisTable calculate(Calendar calendar, int days, double latitude, double longitude) {
+        Calendar first = DateTimeUtils.truncateToMidnight(calendar);
+        EphemerisTable table = new EphemerisTable(latitude, longitude, first.getTimeZone().getID(),
+                first.getTimeInMillis(), days);
+
+        SunCalc sunCalc = new SunCalc();
+        MoonCalc moonCalc = new MoonCalc();
+
+        // the astro twilights of the day before and after each day
+        Sun[] astroTwilights = new Sun[days + 2];
+        for (int i = 0; i < astroTwilights.length; i++) {
+            astroTwilights[i] = sunCalc.getAstroTwilight(addDays(first, i - 1), latitude, longitude);
+        }
+
+        // the moon rise and set of each day and the day after
+        double[][] moonRiseSets = new double[days + 1][];
+        for (int i = 0; i < moonRiseSets.length; i++) {
+            moonRiseSets[i] = moonCalc.getRiseSet(addDays(first, i), latitude, longitude);
+        }
+
+        for (int day = 0; day < days; day++) {
+            Calendar cal = addDays(first, day);
+
+            Sun sun = sunCalc.getSunRanges(cal, latitude, longitude, astroTwilights[day], astroTwilights[day + 2]);
+            table.putSun(day, sun);
+
+            Moon moon = new Moon();
+            moonCalc.setRiseSet(cal, latitude, longitude, moonRiseSets[day], moonRiseSets[day + 1], moon);
+            moonCalc.setPhases(cal, moon);
+            table.putMoon(day, moon);
+        }
+        return table;
+    }
+
+    /**
+     * Returns true, if the table has been calculated for the coordinates and
+     * the timezone and contains the day of the calendar.
+     */
+    public boolean isValid(Calendar calendar, double latitude, double longitude) {
+        return this.latitude == latitude && this.longitude == longitude
+                && timeZone.equals(calendar.getTimeZone().getID()) && getDayIndex(calendar) >= 0;
+    }
+
+    /**
+     * Returns the sun ranges of the day of the calendar, null if the day is
+     * not contained in the table.
+     */
+    public Sun getSun(Calendar calendar) {
+        int day = getDayIndex(calendar);
+        if (day < 0) {
+            return null;
+        }
+        int i = day * SUN_RANGES * 2;
+        Sun sun = new Sun();
+        sun.setRise(getRange(sunValues, i));
+        sun.setSet(getRange(sunValues, i + 2));
+        sun.setNoon(getRange(sunValues, i + 4));
+        sun.setNight(getRange(sunValues, i + 6));
+        sun.setMorningNight(getRange(sunValues, i + 8));
+        sun.setAstroDawn(getRange(sunValues, i + 10));
+        sun.setNauticDawn(getRange(sunValues, i + 12));
+        sun.setCivilDawn(getRange(sunValues, i + 14));
+        sun.setAstroDusk(getRange(sunValues, i + 16));
+        sun.setNauticDusk(getRange(sunValues, i + 18));
+        sun.setCivilDusk(getRange(sunValues, i + 20));
+        sun.setEveningNight(getRange(sunValues, i + 22));
+        sun.setDaylight(getRange(sunValues, i + 24));
+        return sun;
+    }
+
+    /**
+     * Returns the moon rise, set and next phases of the day of the calendar,
+     * null if the day is not contained in the table.
+     */
+    public Moon getMoon(Calendar calendar) {
+        int day = getDayIndex(calendar);
+        if (day < 0) {
+            return null;
+        }
+        int i = day * MOON_VALUES;
+        Moon moon = new Moon();
+        Calendar rise = toCalendar(moonValues[i]);
+        moon.setRise(new Range(rise, rise));
+        Calendar set = toCalendar(moonValues[i + 1]);
+        moon.setSet(new Range(set, set));
+        MoonPhase phase = moon.getPhase();
+        phase.setNew(toCalendar(moonValues[i + 2]));
+        phase.setFirstQuarter(toCalendar(moonValues[i + 3]));
+        phase.setFull(toCalendar(moonValues[i + 4]));
+        phase.setThirdQuarter(toCalendar(moonValues[i + 5]));
+        return moon;
+    }
+
+    /**
+     * Returns the number of days in the table.
+     */
+    public int getDays() {
+        return days;
+    }
+
+    /**
+     * Writes the table to the file.
+     */
+    public void save(File file) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+        try {
+            out.writeInt(FILE_VERSION);
+            out.writeDouble(latitude);
+            out.writeDouble(longitude);
+            out.writeUTF(timeZone);
+            out.writeLong(firstDay);
+            out.writeInt(days);
+            for (long value : sunValues) {
+                out.writeLong(value);
+            }
+            for (long value : moonValues) {
+                out.writeLong(value);
+            }
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Reads a table from the file.
+     *
+     * @throws IOException if the file can not be read or has an unknown
+     *             format
+     */
+    public static EphemerisTable load(File file) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+        try {
+            int version = in.readInt();
+            if (version != FILE_VERSION) {
+                throw new IOException("Unsupported ephemeris file version " + version + ": " + file);
+            }
+            double latitude = in.readDouble();
+            double longitude = in.readDouble();
+            String timeZone = in.readUTF();
+            long firstDay = in.readLong();
+            int days = in.readInt();
+            if (days < 0) {
+                throw new IOException("Invalid ephemeris file: " + file);
+            }
+            EphemerisTable table = new EphemerisTable(latitude, longitude, timeZone, firstDay, days);
+            for (int i = 0; i < table.sunValues.length; i++) {
+                table.sunValues[i] = in.readLong();
+            }
+            for (int i = 0; i < table.moonValues.length; i++) {
+                table.moonValues[i] = in.readLong();
+            }
+            return table;
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * Returns the index of the day of the calendar, -1 if the day is not
+     * contained in the table.
+     */
+    private int getDayIndex(Calendar calendar) {
+        long midnight = DateTimeUtils.truncateToMidnight(calendar).getTimeInMillis();
+        // rounded, days with a daylight saving time change are not 24 hours long
+        long day = Math.round((midnight - firstDay) / DateTimeUtils.MILLISECONDS_PER_DAY);
+        return day >= 0 && day < days ? (int) day : -1;
+    }
+
+    private void putSun(int day, Sun sun) {
+        int i = day * SUN_RANGES * 2;
+        putRange(sunValues, i, sun.getRise());
+        putRange(sunValues, i + 2, sun.getSet());
+        putRange(sunValues, i + 4, sun.getNoon());
+        putRange(sunValues, i + 6, sun.getNight());
+        putRange(sunValues, i + 8, sun.getMorningNight());
+        putRange(sunValues, i + 10, sun.getAstroDawn());
+        putRange(sunValues, i + 12, sun.getNauticDawn());
+        putRange(sunValues, i + 14, sun.getCivilDawn());
+        putRange(sunValues, i + 16, sun.getAstroDusk());
+        putRange(sunValues, i + 18, sun.getNauticDusk());
+        putRange(sunValues, i + 20, sun.getCivilDusk());
+        putRange(sunValues, i + 22, sun.getEveningNight());
+        putRange(sunValues, i + 24, sun.getDaylight());
+    }
+
+    private void putMoon(int day, Moon moon) {
+        int i = day * MOON_VALUES;
+        moonValues[i] = toMillis(moon.getRise().getStart());
+        moonValues[i + 1] = toMillis(moon.getSet().getStart());
+        MoonPhase phase = moon.getPhase();
+        moonValues[i + 2] = toMillis(phase.getNew());
+        moonValues[i + 3] = toMillis(phase.getFirstQuarter());
+        moonValues[i + 4] = toMillis(phase.getFull());
+        moonValues[i + 5] = toMillis(phase.getThirdQuarter());
+    }
+
+    private static void putRange(long[] values, int i, Range range) {
+        values[i] = toMillis(range.getStart());
+        values[i + 1] = toMillis(range.getEnd());
+    }
+
+    private Range getRange(long[] values, int i) {
+        return new Range(toCalendar(values[i]), toCalendar(values[i + 1]));
+    }
+
+    private static long toMillis(Calendar calendar) {
+        return calendar == null ? NONE : calendar.getTimeInMillis();
+    }
+
+    private Calendar toCalendar(long millis) {
+        if (millis == NONE) {
+            return null;
+        }
+        Calendar calendar = Calendar.getInstance(TimeZone.getTimeZone(timeZone));
+        calendar.setTimeInMillis(millis);
+        return calendar;
+    }
+
+    private static Calendar addDays(Calendar calendar, int days) {
+        Calendar cal = (Calendar) calendar.clone();
+        cal.add(Calendar.DAY_OF_MONTH, days);
+        return cal;
+    }
+}
@@ -54,11 +54,19 @@ public class MoonCalc {
      */
     public Moon getMoonInfo(Calendar calendar, double latitude, double longitude) {
         Moon moon = new Moon();
+        setRiseSet(calendar, latitude, longitude, getRiseSet(calendar, latitude, longitude), null, moon);
+        setPhases(calendar, moon);
+        setMoonDetails(calendar, latitude, longitude, moon);
+        return moon;
+    }
 
-        double julianDate = DateTimeUtils.dateToJulianDate(calendar);
-        double julianDateMidnight = DateTimeUtils.midnightDateToJulianDate(calendar);
-
-        double[] riseSet = getRiseSet(calendar, latitude, longitude);
+    /**
+     * Sets the moon rise and set from the rise and set times of the day. If
+     * the moon does not rise or set on that day, the times of the next day are
+     * used, which are calculated unless they are specified.
+     */
+    public void setRiseSet(Calendar calendar, double latitude, double longitude, double[] riseSet,
+            double[] riseSetTomorrow, Moon moon) {
         Calendar rise = DateTimeUtils.timeToCalendar(calendar, riseSet[0]);
         Calendar set = DateTimeUtils.timeToCalendar(calendar, riseSet[1]);
 
@@ -66,23 +74,41 @@ public class MoonCalc {
             Calendar tomorrow = (Calendar) calendar.clone();
             tomorrow.add(Calendar.DAY_OF_MONTH, 1);
 
-            double[] riseSeTomorrow = getRiseSet(tomorrow, latitude, longitude);
+            if (riseSetTomorrow == null) {
+                riseSetTomorrow = getRiseSet(tomorrow, latitude, longitude);
+            }
             if (rise == null) {
-                rise = DateTimeUtils.timeToCalendar(tomorrow, riseSeTomorrow[0]);
+                rise = DateTimeUtils.timeToCalendar(tomorrow, riseSetTomorrow[0]);
             }
             if (set == null) {
-                set = DateTimeUtils.timeToCalendar(tomorrow, riseSeTomorrow[1]);
+                set = DateTimeUtils.timeToCalendar(tomorrow, riseSetTomorrow[1]);
             }
         }
 
         moon.setRise(new Range(rise, rise));
         moon.setSet(new Range(set, set));
+    }
+
+    /**
+     * Calculates the next new, first quarter, full and third quarter moon.
+     */
+    public void setPhases(Calendar calendar, Moon moon) {
+        double julianDateMidnight = DateTimeUtils.midnightDateToJulianDate(calendar);
 
         MoonPhase phase = moon.getPhase();
         phase.setNew(DateTimeUtils.toCalendar(getNextPhase(calendar, julianDateMidnight, NEW_MOON)));
         phase.setFirstQuarter(DateTimeUtils.toCalendar(getNextPhase(calendar, julianDateMidnight, FIRST_QUARTER)));
         phase.setFull(DateTimeUtils.toCalendar(getNextPhase(calendar, julianDateMidnight, FULL_MOON)));
         phase.setThirdQuarter(DateTimeUtils.toCalendar(getNextPhase(calendar, julianDateMidnight, LAST_QUARTER)));
+    }
+
+    /**
+     * Calculates the eclipses, apogee, perigee, position, age and phase name
+     * of the moon. The phases must have been set before.
+     */
+    public void setMoonDetails(Calendar calendar, double latitude, double longitude, Moon moon) {
+        double julianDate = DateTimeUtils.dateToJulianDate(calendar);
+        double julianDateMidnight = DateTimeUtils.midnightDateToJulianDate(calendar);
 
         Eclipse eclipse = moon.getEclipse();
         double eclipseJd = getEclipse(calendar, ECLIPSE_TYPE_MOON, julianDateMidnight, ECLIPSE_MODE_PARTIAL);
@@ -102,8 +128,7 @@ public class MoonCalc {
         perigee.setKilometer(getDistance(perigeeJd));
 
         setMoonPosition(julianDate, latitude, longitude, moon);
-        setAgeAndPhaseName(calendar, phase);
-        return moon;
+        setAgeAndPhaseName(calendar, moon.getPhase());
     }
 
     /**
@@ -155,7 +180,7 @@ public class MoonCalc {
     /**
      * Calculates moonrise and moonset.
      */
-    private double[] getRiseSet(Calendar calendar, double latitude, double longitude) {
+    public double[] getRiseSet(Calendar calendar, double latitude, double longitude) {
         double lambda = prepareCoordinate(longitude, 180);
         if (longitude > 0) {
             lambda *= -1;
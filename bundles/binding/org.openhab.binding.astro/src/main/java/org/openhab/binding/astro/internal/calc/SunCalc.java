@@ -99,10 +99,47 @@ public class SunCalc {
      * Calculates all sun rise and sets at the specified coordinates.
      */
     public Sun getSunInfo(Calendar calendar, double latitude, double longitude) {
-        return getSunInfo(calendar, latitude, longitude, false);
+        Sun sun = getSunInfo(calendar, latitude, longitude, false, null, null);
+        setEclipse(calendar, sun);
+        return sun;
+    }
+
+    /**
+     * Calculates all sun rise and sets at the specified coordinates, without
+     * the eclipses. The astronomical twilights of the previous and the next
+     * day are calculated, unless they are specified.
+     */
+    public Sun getSunRanges(Calendar calendar, double latitude, double longitude, Sun astroYesterday,
+            Sun astroTomorrow) {
+        return getSunInfo(calendar, latitude, longitude, false, astroYesterday, astroTomorrow);
+    }
+
+    /**
+     * Calculates only the astronomical dawn and dusk at the specified
+     * coordinates.
+     */
+    public Sun getAstroTwilight(Calendar calendar, double latitude, double longitude) {
+        return getSunInfo(calendar, latitude, longitude, true, null, null);
     }
 
-    private Sun getSunInfo(Calendar calendar, double latitude, double longitude, boolean onlyAstro) {
+    /**
+     * Calculates the next sun eclipses, which do not depend on the location.
+     */
+    public void setEclipse(Calendar calendar, Sun sun) {
+        double j = DateTimeUtils.midnightDateToJulianDate(calendar) + 0.5;
+        SunEclipse eclipse = sun.getEclipse();
+        MoonCalc mc = new MoonCalc();
+
+        double partial = mc.getEclipse(calendar, MoonCalc.ECLIPSE_TYPE_SUN, j, MoonCalc.ECLIPSE_MODE_PARTIAL);
+        eclipse.setPartial(DateTimeUtils.toCalendar(partial));
+        double ring = mc.getEclipse(calendar, MoonCalc.ECLIPSE_TYPE_SUN, j, MoonCalc.ECLIPSE_MODE_RING);
+        eclipse.setRing(DateTimeUtils.toCalendar(ring));
+        double total = mc.getEclipse(calendar, MoonCalc.ECLIPSE_TYPE_SUN, j, MoonCalc.ECLIPSE_MODE_TOTAL);
+        eclipse.setTotal(DateTimeUtils.toCalendar(total));
+    }
+
+    private Sun getSunInfo(Calendar calendar, double latitude, double longitude, boolean onlyAstro,
+            Sun sunYesterday, Sun sunTomorrow) {
         double lw = -longitude * DEG2RAD;
         double phi = latitude * DEG2RAD;
         double j = DateTimeUtils.midnightDateToJulianDate(calendar) + 0.5;
@@ -164,7 +201,9 @@ public class SunCalc {
         sun.setDaylight(daylightRange);
 
         // morning night
-        Sun sunYesterday = getSunInfo(addDays(calendar, -1), latitude, longitude, true);
+        if (sunYesterday == null) {
+            sunYesterday = getAstroTwilight(addDays(calendar, -1), latitude, longitude);
+        }
         Range morningNightRange = null;
         if (sunYesterday.getAstroDusk().getEnd() != null
                 && DateUtils.isSameDay(sunYesterday.getAstroDusk().getEnd(), calendar)) {
@@ -190,21 +229,12 @@ public class SunCalc {
         if (isSunUpAllDay) {
             sun.setNight(new Range());
         } else {
-            Sun sunTomorrow = getSunInfo(addDays(calendar, 1), latitude, longitude, true);
+            if (sunTomorrow == null) {
+                sunTomorrow = getAstroTwilight(addDays(calendar, 1), latitude, longitude);
+            }
             sun.setNight(new Range(sun.getAstroDusk().getEnd(), sunTomorrow.getAstroDawn().getStart()));
         }
 
-        // eclipse
-        SunEclipse eclipse = sun.getEclipse();
-        MoonCalc mc = new MoonCalc();
-
-        double partial = mc.getEclipse(calendar, MoonCalc.ECLIPSE_TYPE_SUN, j, MoonCalc.ECLIPSE_MODE_PARTIAL);
-        eclipse.setPartial(DateTimeUtils.toCalendar(partial));
-        double ring = mc.getEclipse(calendar, MoonCalc.ECLIPSE_TYPE_SUN, j, MoonCalc.ECLIPSE_MODE_RING);
-        eclipse.setRing(DateTimeUtils.toCalendar(ring));
-        double total = mc.getEclipse(calendar, MoonCalc.ECLIPSE_TYPE_SUN, j, MoonCalc.ECLIPSE_MODE_TOTAL);
-        eclipse.setTotal(DateTimeUtils.toCalendar(total));
-
         return sun;
     }
 
@@ -14,8 +14,14 @@ package org.openhab.binding.astro.internal.common;
 
 import java.text.SimpleDateFormat;
 import java.util.Calendar;
+import java.util.Collections;
 import java.util.Dictionary;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.TimeZone;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.lang.builder.ToStringBuilder;
@@ -36,6 +42,13 @@ import org.osgi.service.cm.ConfigurationException;
  *
  * # Refresh interval for sun azimuth/elevation and moon distance/illumination calculation in seconds (optional, defaults to disabled)
  * astro:interval=nnn
+ *
+ * # Additional locations, referenced by location=&lt;locationId&gt; in the item binding (optional)
+ * astro:&lt;locationId&gt;.latitude=nn.nnnnnn
+ * astro:&lt;locationId&gt;.longitude=nn.nnnnnn
+ *
+ * # Number of days precomputed in the ephemeris tables, 0 to calculate every day (optional, defaults to 0)
+ * astro:ephemerisDays=nnn
  * </pre>
  *
  * @author Gerhard Riegler
@@ -45,10 +58,20 @@ public class AstroConfig {
     private static final String CONFIG_KEY_LATITUDE = "latitude";
     private static final String CONFIG_KEY_LONGITUDE = "longitude";
     private static final String CONFIG_KEY_INTERVAL = "interval";
+    private static final String CONFIG_KEY_EPHEMERIS_DAYS = "ephemerisDays";
+    private static final Pattern LOCATION_KEY_PATTERN = Pattern
+            .compile("^([^.]+)\\.(" + CONFIG_KEY_LATITUDE + "|" + CONFIG_KEY_LONGITUDE + ")$");
+
+    /** The id of the location configured with latitude and longitude */
+    public static final String DEFAULT_LOCATION = "default";
+
+    private static final int DEFAULT_EPHEMERIS_DAYS = 0;
 
     private double latitude;
     private double longitude;
     private int interval;
+    private int ephemerisDays;
+    private Map<String, AstroLocation> locations = Collections.emptyMap();
     private boolean valid;
 
     /**
@@ -74,10 +97,50 @@ public class AstroConfig {
         }
 
         interval = parseInt(properties, CONFIG_KEY_INTERVAL, 0);
+        ephemerisDays = parseInt(properties, CONFIG_KEY_EPHEMERIS_DAYS, DEFAULT_EPHEMERIS_DAYS);
+        if (ephemerisDays < 0) {
+            throw new ConfigurationException("astro",
+                    "Parameter " + CONFIG_KEY_EPHEMERIS_DAYS + " must not be negative. Please check your openhab.cfg!");
+        }
+
+        locations = parseLocations(properties);
 
         valid = true;
     }
 
+    /**
+     * Parses the default location and the additional locations configured
+     * with &lt;locationId&gt;.latitude and &lt;locationId&gt;.longitude.
+     */
+    private Map<String, AstroLocation> parseLocations(Dictionary<String, ?> properties)
+            throws ConfigurationException {
+        Map<String, AstroLocation> result = new LinkedHashMap<String, AstroLocation>();
+        result.put(DEFAULT_LOCATION, new AstroLocation(DEFAULT_LOCATION, latitude, longitude));
+
+        Enumeration<String> keys = properties.keys();
+        while (keys.hasMoreElements()) {
+            Matcher matcher = LOCATION_KEY_PATTERN.matcher(keys.nextElement());
+            if (!matcher.matches() || result.containsKey(matcher.group(1))) {
+                continue;
+            }
+            String id = matcher.group(1);
+            String cfgLatitude = (String) properties.get(id + "." + CONFIG_KEY_LATITUDE);
+            String cfgLongitude = (String) properties.get(id + "." + CONFIG_KEY_LONGITUDE);
+            if (StringUtils.isBlank(cfgLatitude) || StringUtils.isBlank(cfgLongitude)) {
+                throw new ConfigurationException("astro", "Parameters " + id + ".latitude and " + id
+                        + ".longitude must both be configured. Please check your openhab.cfg!");
+            }
+            try {
+                result.put(id,
+                        new AstroLocation(id, Double.parseDouble(cfgLatitude), Double.parseDouble(cfgLongitude)));
+            } catch (NumberFormatException ex) {
+                throw new ConfigurationException("astro", "Parameters " + id + ".latitude and/or " + id
+                        + ".longitude in wrong format. Please check your openhab.cfg!");
+            }
+        }
+        return result;
+    }
+
     /**
      * Parses a integer property.
      */
@@ -125,6 +188,21 @@ public class AstroConfig {
         return interval;
     }
 
+    /**
+     * Returns the number of days precomputed in the ephemeris tables, 0 if
+     * the planets are calculated every day.
+     */
+    public int getEphemerisDays() {
+        return ephemerisDays;
+    }
+
+    /**
+     * Returns all locations by their id, the default location first.
+     */
+    public Map<String, AstroLocation> getLocations() {
+        return locations;
+    }
+
     @Override
     public String toString() {
         String intervallMessage = (interval == 0 ? "disabled" : String.valueOf(interval));
@@ -137,6 +215,7 @@ public class AstroConfig {
         tzInfo.append(")");
         return new ToStringBuilder(this, ToStringStyle.SHORT_PREFIX_STYLE).append("latitude", latitude)
                 .append("longitude", longitude).append("interval", intervallMessage)
+                .append("ephemerisDays", ephemerisDays).append("locations", locations.keySet())
                 .append("systemTimezone", tzInfo.toString())
                 .append("daylightSavings", Calendar.getInstance().get(Calendar.DST_OFFSET) != 0).toString();
     }
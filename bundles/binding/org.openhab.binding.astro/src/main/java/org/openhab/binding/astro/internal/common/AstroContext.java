@@ -35,8 +35,9 @@ public class AstroContext {
     private Collection<AstroBindingProvider> providers;
     private AstroConfig config = new AstroConfig();
     private JobScheduler jobScheduler = new JobScheduler(this);
+    private EphemerisCache ephemerisCache = new EphemerisCache();
 
-    private Map<PlanetName, Planet> planets = new HashMap<PlanetName, Planet>();
+    private Map<String, Map<PlanetName, Planet>> planets = new HashMap<String, Map<PlanetName, Planet>>();
 
     private static AstroContext instance;
 
@@ -49,8 +50,8 @@ public class AstroContext {
     public static AstroContext getInstance() {
         if (instance == null) {
             instance = new AstroContext();
-            instance.planets.put(PlanetName.SUN, new Sun());
-            instance.planets.put(PlanetName.MOON, new Moon());
+            instance.setPlanet(AstroConfig.DEFAULT_LOCATION, PlanetName.SUN, new Sun());
+            instance.setPlanet(AstroConfig.DEFAULT_LOCATION, PlanetName.MOON, new Moon());
         }
         return instance;
     }
@@ -98,16 +99,44 @@ public class AstroContext {
     }
 
     /**
-     * Returns the specified planet.
+     * Returns the EphemerisCache.
+     */
+    public EphemerisCache getEphemerisCache() {
+        return ephemerisCache;
+    }
+
+    /**
+     * Returns the specified planet of the default location.
      */
     public Planet getPlanet(PlanetName planetName) {
-        return planets.get(planetName);
+        return getPlanet(AstroConfig.DEFAULT_LOCATION, planetName);
     }
 
     /**
-     * Sets the planet data.
+     * Returns the specified planet of the location, null if the planet has
+     * not been calculated for the location.
+     */
+    public Planet getPlanet(String location, PlanetName planetName) {
+        Map<PlanetName, Planet> locationPlanets = planets.get(location);
+        return locationPlanets == null ? null : locationPlanets.get(planetName);
+    }
+
+    /**
+     * Sets the planet data of the default location.
      */
     public void setPlanet(PlanetName planetName, Planet planet) {
-        planets.put(planetName, planet);
+        setPlanet(AstroConfig.DEFAULT_LOCATION, planetName, planet);
+    }
+
+    /**
+     * Sets the planet data of the location.
+     */
+    public void setPlanet(String location, PlanetName planetName, Planet planet) {
+        Map<PlanetName, Planet> locationPlanets = planets.get(location);
+        if (locationPlanets == null) {
+            locationPlanets = new HashMap<PlanetName, Planet>();
+            planets.put(location, locationPlanets);
+        }
+        locationPlanets.put(planetName, planet);
     }
 }
@@ -0,0 +1,100 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.astro.internal.common;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.openhab.binding.astro.internal.calc.EphemerisTable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps the {@link EphemerisTable} of each location in memory and on disk. A
+ * table is only calculated if neither the table in memory nor the one on disk
+ * contains the requested day for the configured coordinates.
+ *
+ * @since 1.15.0
+ */
+public class EphemerisCache {
+    private static final Logger logger = LoggerFactory.getLogger(EphemerisCache.class);
+
+    private static final String EPHEMERIS_BASE = "etc/astro";
+
+    private Map<String, EphemerisTable> tables = new HashMap<String, EphemerisTable>();
+
+    /**
+     * Returns the table of the location which contains the day of the
+     * calendar, loads or calculates the table if necessary.
+     */
+    public synchronized EphemerisTable getTable(AstroLocation location, Calendar calendar, int days) {
+        EphemerisTable table = tables.get(location.getId());
+        if (table != null && table.isValid(calendar, location.getLatitude(), location.getLongitude())) {
+            return table;
+        }
+
+        File file = getFile(location);
+        if (file.exists()) {
+            try {
+                table = EphemerisTable.load(file);
+                if (table.isValid(calendar, location.getLatitude(), location.getLongitude())) {
+                    logger.debug("Loaded ephemeris table for location {} from {}", location.getId(), file);
+                    tables.put(location.getId(), table);
+                    return table;
+                }
+            } catch (IOException ex) {
+                logger.warn("Can't read ephemeris table {}: {}", file, ex.getMessage());
+            }
+        }
+
+        long start = System.currentTimeMillis();
+        table = EphemerisTable.calculate(calendar, days, location.getLatitude(), location.getLongitude());
+        logger.debug("Calculated ephemeris table of {} days for location {} in {} ms", days, location.getId(),
+                System.currentTimeMillis() - start);
+        tables.put(location.getId(), table);
+
+        try {
+            file.getParentFile().mkdirs();
+            table.save(file);
+        } catch (IOException ex) {
+            logger.warn("Can't write ephemeris table {}: {}", file, ex.getMessage());
+        }
+        return table;
+    }
+
+    /**
+     * Removes all tables from memory.
+     */
+    public synchronized void clear() {
+        tables.clear();
+    }
+
+    /**
+     * Returns the file of the table of the location.
+     */
+    private File getFile(AstroLocation location) {
+        return new File(getEphemerisFolder(), "ephemeris-" + location.getId() + ".dat");
+    }
+
+    private static String getEphemerisFolder() {
+        String progArg = System.getProperty("smarthome.userdata");
+        if (progArg != null) {
+            return progArg + File.separator + "astro";
+        } else {
+            return EPHEMERIS_BASE;
+        }
+    }
+}
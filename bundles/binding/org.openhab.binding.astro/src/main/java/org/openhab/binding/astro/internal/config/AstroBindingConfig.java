@@ -16,6 +16,7 @@ import org.apache.commons.lang.builder.EqualsBuilder;
 import org.apache.commons.lang.builder.HashCodeBuilder;
 import org.apache.commons.lang.builder.ToStringBuilder;
 import org.apache.commons.lang.builder.ToStringStyle;
+import org.openhab.binding.astro.internal.common.AstroConfig;
 import org.openhab.binding.astro.internal.model.PlanetName;
 import org.openhab.core.binding.BindingConfig;
 
@@ -30,6 +31,7 @@ public class AstroBindingConfig implements BindingConfig {
     private String type;
     private String property;
     private int offset;
+    private String location;
 
     /**
      * Creates a astro config without an offset.
@@ -39,9 +41,17 @@ public class AstroBindingConfig implements BindingConfig {
     }
 
     /**
-     * Creates a astro config.
+     * Creates a astro config for the default location.
      */
     public AstroBindingConfig(PlanetName planetName, String type, String property, int offset) {
+        this(planetName, type, property, offset, AstroConfig.DEFAULT_LOCATION);
+    }
+
+    /**
+     * Creates a astro config.
+     */
+    public AstroBindingConfig(PlanetName planetName, String type, String property, int offset, String location) {
+        this.location = location;
         this.planetName = planetName;
         this.type = type;
         this.property = property;
@@ -83,9 +93,17 @@ public class AstroBindingConfig implements BindingConfig {
         return offset;
     }
 
+    /**
+     * Returns the id of the location.
+     */
+    public String getLocation() {
+        return location;
+    }
+
     @Override
     public int hashCode() {
-        return new HashCodeBuilder().append(planetName).append(type).append(property).append(offset).toHashCode();
+        return new HashCodeBuilder().append(planetName).append(type).append(property).append(offset).append(location)
+                .toHashCode();
     }
 
     @Override
@@ -95,7 +113,8 @@ public class AstroBindingConfig implements BindingConfig {
         }
         AstroBindingConfig comp = (AstroBindingConfig) obj;
         return new EqualsBuilder().append(planetName, comp.getPlanetName()).append(type, comp.getType())
-                .append(property, comp.getProperty()).append(offset, comp.getOffset()).isEquals();
+                .append(property, comp.getProperty()).append(offset, comp.getOffset())
+                .append(location, comp.getLocation()).isEquals();
     }
 
     @Override
@@ -105,6 +124,9 @@ public class AstroBindingConfig implements BindingConfig {
         if (offset != 0) {
             tsb.append("offset", offset);
         }
+        if (!AstroConfig.DEFAULT_LOCATION.equals(location)) {
+            tsb.append("location", location);
+        }
         return tsb.toString();
     }
 }
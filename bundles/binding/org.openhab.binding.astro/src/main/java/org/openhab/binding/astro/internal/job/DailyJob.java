@@ -14,10 +14,13 @@ package org.openhab.binding.astro.internal.job;
 
 import java.util.Calendar;
 
+import org.openhab.binding.astro.internal.calc.EphemerisTable;
 import org.openhab.binding.astro.internal.calc.MoonCalc;
 import org.openhab.binding.astro.internal.calc.SeasonCalc;
 import org.openhab.binding.astro.internal.calc.SunCalc;
 import org.openhab.binding.astro.internal.calc.SunZodiacCalc;
+import org.openhab.binding.astro.internal.common.AstroConfig;
+import org.openhab.binding.astro.internal.common.AstroLocation;
 import org.openhab.binding.astro.internal.model.Moon;
 import org.openhab.binding.astro.internal.model.PlanetName;
 import org.openhab.binding.astro.internal.model.Sun;
@@ -26,7 +29,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Calculates and publishes the Sun data.
+ * Calculates and publishes the Sun data of all locations. The rise, set and
+ * twilight times are looked up in the ephemeris tables, if enabled.
  *
  * @author Gerhard Riegler
  * @since 1.6.0
@@ -37,28 +41,55 @@ public class DailyJob extends AbstractBaseJob {
     @Override
     protected void executeJob(JobDataMap jobDataMap) {
         Calendar now = Calendar.getInstance();
+        AstroConfig config = context.getConfig();
+
+        for (AstroLocation location : config.getLocations().values()) {
+            EphemerisTable table = null;
+            if (config.getEphemerisDays() > 0) {
+                table = context.getEphemerisCache().getTable(location, now, config.getEphemerisDays());
+            }
+            calculate(now, location, table);
+        }
+    }
+
+    /**
+     * Calculates and publishes the planets of the location.
+     */
+    private void calculate(Calendar now, AstroLocation location, EphemerisTable table) {
+        double latitude = location.getLatitude();
+        double longitude = location.getLongitude();
 
         // sun
         SunCalc sunCalc = new SunCalc();
-        Sun sun = sunCalc.getSunInfo(now, context.getConfig().getLatitude(), context.getConfig().getLongitude());
-        sunCalc.setSunPosition(now, context.getConfig().getLatitude(), context.getConfig().getLongitude(), sun);
+        Sun sun = table == null ? null : table.getSun(now);
+        if (sun == null) {
+            sun = sunCalc.getSunInfo(now, latitude, longitude);
+        } else {
+            sunCalc.setEclipse(now, sun);
+        }
+        sunCalc.setSunPosition(now, latitude, longitude, sun);
 
         SunZodiacCalc zodiacCalc = new SunZodiacCalc();
         sun.setZodiac(zodiacCalc.getZodiac(now));
 
         SeasonCalc seasonCalc = new SeasonCalc();
-        sun.setSeason(seasonCalc.getSeason(now, context.getConfig().getLatitude()));
-        context.getJobScheduler().scheduleSeasonJob(sun.getSeason());
+        sun.setSeason(seasonCalc.getSeason(now, latitude));
+        context.getJobScheduler().scheduleSeasonJob(location.getId(), sun.getSeason());
 
-        context.setPlanet(PlanetName.SUN, sun);
-        logger.debug("{}", sun);
-        planetPublisher.publish(PlanetName.SUN);
+        context.setPlanet(location.getId(), PlanetName.SUN, sun);
+        logger.debug("{}: {}", location.getId(), sun);
+        planetPublisher.publish(location.getId(), PlanetName.SUN);
 
         // moon
         MoonCalc moonCalc = new MoonCalc();
-        Moon moon = moonCalc.getMoonInfo(now, context.getConfig().getLatitude(), context.getConfig().getLongitude());
-        context.setPlanet(PlanetName.MOON, moon);
-        logger.debug("{}", moon);
-        planetPublisher.publish(PlanetName.MOON);
+        Moon moon = table == null ? null : table.getMoon(now);
+        if (moon == null) {
+            moon = moonCalc.getMoonInfo(now, latitude, longitude);
+        } else {
+            moonCalc.setMoonDetails(now, latitude, longitude, moon);
+        }
+        context.setPlanet(location.getId(), PlanetName.MOON, moon);
+        logger.debug("{}: {}", location.getId(), moon);
+        planetPublisher.publish(location.getId(), PlanetName.MOON);
     }
 }
@@ -16,6 +16,7 @@ import java.util.Calendar;
 
 import org.openhab.binding.astro.internal.calc.MoonCalc;
 import org.openhab.binding.astro.internal.calc.SunCalc;
+import org.openhab.binding.astro.internal.common.AstroLocation;
 import org.openhab.binding.astro.internal.model.Moon;
 import org.openhab.binding.astro.internal.model.PlanetName;
 import org.openhab.binding.astro.internal.model.Sun;
@@ -23,7 +24,7 @@ import org.quartz.JobDataMap;
 
 /**
  * Calculates and publishes the current sun azimuth and elevation and moon
- * illumination end distance.
+ * illumination end distance of all locations.
  *
  * @author Gerhard Riegler
  * @since 1.5.0
@@ -33,17 +34,23 @@ public class IntervalJob extends AbstractBaseJob {
     @Override
     protected void executeJob(JobDataMap jobDataMap) {
         Calendar now = Calendar.getInstance();
-
-        // sun
         SunCalc sunCalc = new SunCalc();
-        Sun sun = (Sun) context.getPlanet(PlanetName.SUN);
-        sunCalc.setSunPosition(now, context.getConfig().getLatitude(), context.getConfig().getLongitude(), sun);
-        planetPublisher.publish(PlanetName.SUN);
-
-        // moon
         MoonCalc moonCalc = new MoonCalc();
-        Moon moon = (Moon) context.getPlanet(PlanetName.MOON);
-        moonCalc.setMoonPosition(now, context.getConfig().getLatitude(), context.getConfig().getLongitude(), moon);
-        planetPublisher.publish(PlanetName.MOON);
+
+        for (AstroLocation location : context.getConfig().getLocations().values()) {
+            // sun
+            Sun sun = (Sun) context.getPlanet(location.getId(), PlanetName.SUN);
+            if (sun != null) {
+                sunCalc.setSunPosition(now, location.getLatitude(), location.getLongitude(), sun);
+                planetPublisher.publish(location.getId(), PlanetName.SUN);
+            }
+
+            // moon
+            Moon moon = (Moon) context.getPlanet(location.getId(), PlanetName.MOON);
+            if (moon != null) {
+                moonCalc.setMoonPosition(now, location.getLatitude(), location.getLongitude(), moon);
+                planetPublisher.publish(location.getId(), PlanetName.MOON);
+            }
+        }
     }
 }
@@ -123,15 +123,17 @@ public class JobScheduler {
      */
     private boolean isBindingForIntervalJobAvailable() {
         List<AstroBindingConfig> intervalBindings = new ArrayList<AstroBindingConfig>();
-        intervalBindings.add(new AstroBindingConfig(PlanetName.SUN, "position", "azimuth"));
-        intervalBindings.add(new AstroBindingConfig(PlanetName.SUN, "position", "elevation"));
-        intervalBindings.add(new AstroBindingConfig(PlanetName.MOON, "distance", "kilometer"));
-        intervalBindings.add(new AstroBindingConfig(PlanetName.MOON, "distance", "miles"));
-        intervalBindings.add(new AstroBindingConfig(PlanetName.MOON, "distance", "date"));
-        intervalBindings.add(new AstroBindingConfig(PlanetName.MOON, "phase", "illumination"));
-        intervalBindings.add(new AstroBindingConfig(PlanetName.MOON, "zodiac", "sign"));
-        intervalBindings.add(new AstroBindingConfig(PlanetName.MOON, "position", "azimuth"));
-        intervalBindings.add(new AstroBindingConfig(PlanetName.MOON, "position", "elevation"));
+        for (String location : context.getConfig().getLocations().keySet()) {
+            intervalBindings.add(new AstroBindingConfig(PlanetName.SUN, "position", "azimuth", 0, location));
+            intervalBindings.add(new AstroBindingConfig(PlanetName.SUN, "position", "elevation", 0, location));
+            intervalBindings.add(new AstroBindingConfig(PlanetName.MOON, "distance", "kilometer", 0, location));
+            intervalBindings.add(new AstroBindingConfig(PlanetName.MOON, "distance", "miles", 0, location));
+            intervalBindings.add(new AstroBindingConfig(PlanetName.MOON, "distance", "date", 0, location));
+            intervalBindings.add(new AstroBindingConfig(PlanetName.MOON, "phase", "illumination", 0, location));
+            intervalBindings.add(new AstroBindingConfig(PlanetName.MOON, "zodiac", "sign", 0, location));
+            intervalBindings.add(new AstroBindingConfig(PlanetName.MOON, "position", "azimuth", 0, location));
+            intervalBindings.add(new AstroBindingConfig(PlanetName.MOON, "position", "elevation", 0, location));
+        }
 
         for (AstroBindingProvider provider : context.getProviders()) {
             for (AstroBindingConfig astroBindingConfig : intervalBindings) {
@@ -175,14 +177,16 @@ public class JobScheduler {
     }
 
     /**
-     * Schedules next Season job.
+     * Schedules next Season job of the location.
      */
-    public void scheduleSeasonJob(Season season) {
+    public void scheduleSeasonJob(String location, Season season) {
         Calendar nextSeason = season.getNextSeason();
         if (nextSeason == null) {
             nextSeason = DateTimeUtils.getFirstDayOfNextYear();
         }
-        schedule(nextSeason, "Season", new JobDataMap(), SeasonJob.class);
+        JobDataMap jobDataMap = new JobDataMap();
+        jobDataMap.put("location", location);
+        schedule(nextSeason, "Season-" + location, jobDataMap, SeasonJob.class);
     }
 
     /**
@@ -15,12 +15,13 @@ package org.openhab.binding.astro.internal.job;
 import java.util.Calendar;
 
 import org.openhab.binding.astro.internal.calc.SeasonCalc;
+import org.openhab.binding.astro.internal.common.AstroLocation;
 import org.openhab.binding.astro.internal.model.PlanetName;
 import org.openhab.binding.astro.internal.model.Sun;
 import org.quartz.JobDataMap;
 
 /**
- * Calculates and publishes the current season name.
+ * Calculates and publishes the current season name of a location.
  * Used to update the season name on season change.
  *
  * @author Gerhard Riegler
@@ -30,11 +31,18 @@ public class SeasonJob extends AbstractBaseJob {
 
     @Override
     protected void executeJob(JobDataMap jobDataMap) {
-        Sun sun = (Sun) context.getPlanet(PlanetName.SUN);
+        AstroLocation location = context.getConfig().getLocations().get(jobDataMap.getString("location"));
+        if (location == null) {
+            return;
+        }
+        Sun sun = (Sun) context.getPlanet(location.getId(), PlanetName.SUN);
+        if (sun == null) {
+            return;
+        }
 
         SeasonCalc seasonCalc = new SeasonCalc();
-        sun.setSeason(seasonCalc.getSeason(Calendar.getInstance(), context.getConfig().getLatitude()));
+        sun.setSeason(seasonCalc.getSeason(Calendar.getInstance(), location.getLatitude()));
 
-        planetPublisher.publish(PlanetName.SUN);
+        planetPublisher.publish(location.getId(), PlanetName.SUN);
     }
 }
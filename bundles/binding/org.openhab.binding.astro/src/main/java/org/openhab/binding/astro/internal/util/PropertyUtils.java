@@ -12,17 +12,26 @@
  */
 package org.openhab.binding.astro.internal.util;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.commons.lang.StringUtils;
 
 /**
- * Methods to get the value from a property of an object.
+ * Methods to get the value from a property of an object. The getter chain of
+ * a property is compiled once per class into a method handle and cached.
  *
  * @author Gerhard Riegler
  * @since 1.6.0
  */
 public class PropertyUtils {
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private static final ConcurrentMap<Class<?>, ConcurrentMap<String, MethodHandle>> getters = new ConcurrentHashMap<Class<?>, ConcurrentMap<String, MethodHandle>>();
 
     /**
      * Returns the property value from the object instance, nested properties
@@ -30,8 +39,16 @@ public class PropertyUtils {
      * getRise().getStart() are called.
      */
     public static Object getPropertyValue(Object instance, String property) throws Exception {
-        String[] properties = StringUtils.split(property, ".");
-        return getPropertyValue(instance, properties, 0);
+        MethodHandle getter = getGetter(instance.getClass(), property);
+        try {
+            return (Object) getter.invokeExact(instance);
+        } catch (Exception ex) {
+            throw ex;
+        } catch (Error err) {
+            throw err;
+        } catch (Throwable t) {
+            throw new RuntimeException(t);
+        }
     }
 
     /**
@@ -47,19 +64,42 @@ public class PropertyUtils {
     }
 
     /**
-     * Iterates through the nested properties and returns the getter value.
+     * Returns the cached getter chain of the property of the class.
      */
-    @SuppressWarnings("all")
-    private static Object getPropertyValue(Object instance, String[] properties, int nestedIndex) throws Exception {
-        String propertyName = properties[nestedIndex];
-        Method m = instance.getClass().getMethod(toGetterString(propertyName), null);
-        Object result = m.invoke(instance, (Object[]) null);
-        if (++nestedIndex < properties.length) {
-            return getPropertyValue(result, properties, nestedIndex);
+    private static MethodHandle getGetter(Class<?> clazz, String property) throws Exception {
+        ConcurrentMap<String, MethodHandle> classGetters = getters.get(clazz);
+        if (classGetters == null) {
+            classGetters = new ConcurrentHashMap<String, MethodHandle>();
+            ConcurrentMap<String, MethodHandle> existing = getters.putIfAbsent(clazz, classGetters);
+            if (existing != null) {
+                classGetters = existing;
+            }
+        }
+
+        MethodHandle getter = classGetters.get(property);
+        if (getter == null) {
+            getter = compileGetter(clazz, property);
+            classGetters.putIfAbsent(property, getter);
         }
-        return result;
+        return getter;
     }
 
+    /**
+     * Compiles the getter methods of the nested properties into a single
+     * method handle.
+     */
+    private static MethodHandle compileGetter(Class<?> clazz, String property) throws Exception {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        MethodHandle getter = MethodHandles.identity(Object.class);
+        Class<?> nestedClass = clazz;
+        for (String propertyName : StringUtils.split(property, ".")) {
+            Method m = nestedClass.getMethod(toGetterString(propertyName));
+            m.setAccessible(true);
+            getter = MethodHandles.filterReturnValue(getter, lookup.unreflect(m).asType(GETTER_TYPE));
+            nestedClass = m.getReturnType();
+        }
+        return getter;
+    }
     /**
      * Converts the string to a getter property.
      */
@@ -0,0 +1,140 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.astro.benchmark;
+
+import java.util.Calendar;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+import org.openhab.binding.astro.internal.calc.EphemerisTable;
+import org.openhab.binding.astro.internal.calc.MoonCalc;
+import org.openhab.binding.astro.internal.calc.SunCalc;
+import org.openhab.binding.astro.internal.model.Moon;
+import org.openhab.binding.astro.internal.model.Sun;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the astro {@link EphemerisTable} against the per-call
+ * calculation of {@link SunCalc#getSunInfo(Calendar, double, double)} and
+ * {@link MoonCalc#getMoonInfo(Calendar, double, double)}, both for the
+ * daily job of one location and for all days covered by a table.
+ *
+ * @since 1.15.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EphemerisTableBenchmark {
+
+    /** Vienna and Tromsø, where the sun does not rise or set on some days */
+    @Param({ "48.2082,16.3738", "69.6492,18.9553" })
+    public String location;
+
+    @Param({ "30", "400" })
+    public int days;
+
+    private double latitude;
+    private double longitude;
+    private Calendar start;
+    private Calendar now;
+    private EphemerisTable table;
+
+    @Setup
+    public void setUp() {
+        String[] coordinates = location.split(",");
+        latitude = Double.parseDouble(coordinates[0]);
+        longitude = Double.parseDouble(coordinates[1]);
+
+        start = Calendar.getInstance(TimeZone.getTimeZone("Europe/Vienna"));
+        start.clear();
+        start.set(2019, Calendar.JANUARY, 1);
+        now = (Calendar) start.clone();
+        now.add(Calendar.DAY_OF_MONTH, days / 2);
+        now.set(Calendar.HOUR_OF_DAY, 12);
+
+        table = EphemerisTable.calculate(start, days, latitude, longitude);
+        if (table.getSun(now) == null || table.getMoon(now) == null) {
+            throw new IllegalStateException("Day is not contained in the table");
+        }
+    }
+
+    /**
+     * The daily job with a table: the ranges are looked up, what depends on
+     * the time of day or not on the location is calculated.
+     */
+    @Benchmark
+    public void dailyJobTable(Blackhole blackhole) {
+        SunCalc sunCalc = new SunCalc();
+        Sun sun = table.getSun(now);
+        sunCalc.setEclipse(now, sun);
+        sunCalc.setSunPosition(now, latitude, longitude, sun);
+        blackhole.consume(sun);
+
+        MoonCalc moonCalc = new MoonCalc();
+        Moon moon = table.getMoon(now);
+        moonCalc.setMoonDetails(now, latitude, longitude, moon);
+        blackhole.consume(moon);
+    }
+
+    /**
+     * The daily job without a table.
+     */
+    @Benchmark
+    public void dailyJobPerCall(Blackhole blackhole) {
+        SunCalc sunCalc = new SunCalc();
+        Sun sun = sunCalc.getSunInfo(now, latitude, longitude);
+        sunCalc.setSunPosition(now, latitude, longitude, sun);
+        blackhole.consume(sun);
+
+        blackhole.consume(new MoonCalc().getMoonInfo(now, latitude, longitude));
+    }
+
+    @Benchmark
+    public EphemerisTable calculateTable() {
+        return EphemerisTable.calculate(start, days, latitude, longitude);
+    }
+
+    /**
+     * Calculates the contents of {@link #calculateTable()} one day at a time,
+     * without reusing the twilights and moon rises of the neighbouring days.
+     */
+    @Benchmark
+    public void calculatePerDay(Blackhole blackhole) {
+        SunCalc sunCalc = new SunCalc();
+        MoonCalc moonCalc = new MoonCalc();
+        Calendar day = (Calendar) start.clone();
+        for (int i = 0; i < days; i++) {
+            blackhole.consume(sunCalc.getSunRanges(day, latitude, longitude, null, null));
+
+            Moon moon = new Moon();
+            moonCalc.setRiseSet(day, latitude, longitude, moonCalc.getRiseSet(day, latitude, longitude), null, moon);
+            moonCalc.setPhases(day, moon);
+            blackhole.consume(moon);
+            day.add(Calendar.DAY_OF_MONTH, 1);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.dsmr.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openhab.binding.dsmr.internal.DSMRMeter;
+import org.openhab.binding.dsmr.internal.DSMRMeterType;
+import org.openhab.binding.dsmr.internal.messages.OBISMessage;
+import org.openhab.binding.dsmr.internal.messages.OBISMsgFactory;
+import org.openhab.binding.dsmr.internal.p1telegram.P1TelegramParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures {@link P1TelegramParser} by replaying a recorded P1 telegram of
+ * each DSMR version, split into the chunks the serial port delivers.
+ *
+ * @since 1.15.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class P1TelegramParserBenchmark {
+
+    @Param({ "22", "30", "40", "42", "50" })
+    public String dsmrVersion;
+
+    @Param({ "64", "1024" })
+    public int chunkSize;
+
+    private P1TelegramParser parser;
+    private byte[] telegram;
+
+    @Setup
+    public void setUp() throws IOException {
+        List<DSMRMeter> meters = Arrays.asList(new DSMRMeter(DSMRMeterType.ELECTRICITY, 0),
+                new DSMRMeter(DSMRMeterType.GAS, 1));
+
+        parser = new P1TelegramParser(new OBISMsgFactory(meters));
+        telegram = readTelegram("/dsmr/dsmr_" + dsmrVersion + ".txt");
+
+        // a telegram that is dropped would silently make the benchmark meaningless
+        if (parser.parseData(telegram, 0, telegram.length).isEmpty()) {
+            throw new IllegalStateException("Telegram of DSMR " + dsmrVersion + " is not parsed");
+        }
+    }
+
+    private static byte[] readTelegram(String resource) throws IOException {
+        try (InputStream in = P1TelegramParserBenchmark.class.getResourceAsStream(resource)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[1024];
+            int read;
+            while ((read = in.read(buffer)) >= 0) {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        }
+    }
+
+    @Benchmark
+    public void parseTelegram(Blackhole blackhole) {
+        for (int offset = 0; offset < telegram.length; offset += chunkSize) {
+            List<OBISMessage> messages = parser.parseData(telegram, offset,
+                    Math.min(chunkSize, telegram.length - offset));
+            blackhole.consume(messages);
+        }
+    }
+}
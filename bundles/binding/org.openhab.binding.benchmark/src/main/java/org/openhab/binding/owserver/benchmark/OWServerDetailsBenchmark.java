@@ -0,0 +1,184 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.owserver.benchmark;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLStreamException;
+
+import org.openhab.binding.owserver.internal.OWServerDetails;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+
+/**
+ * Measures a refresh of the OW-Server binding with one item per sensor of a
+ * generated <code>details.xml</code>. The document is parsed once into an
+ * {@link OWServerDetails} snapshot all items read from, as the binding does,
+ * against parsing it into a new DOM for every item, as the binding did
+ * before.
+ *
+ * @since 1.15.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OWServerDetailsBenchmark {
+
+    @Param({ "80", "160" })
+    public int sensors;
+
+    private String details;
+    private String[] romIds;
+    private String[] names;
+
+    @Setup
+    public void setUp() throws XMLStreamException {
+        romIds = new String[sensors];
+        names = new String[sensors];
+        details = generateDetails();
+
+        // a sensor that is not found would silently make the benchmark meaningless
+        OWServerDetails snapshot = OWServerDetails.parse(details);
+        if (snapshot.getDeviceCount() != sensors) {
+            throw new IllegalStateException("Parsed " + snapshot.getDeviceCount() + " of " + sensors + " sensors");
+        }
+        for (int i = 0; i < sensors; i++) {
+            if (snapshot.getValue(romIds[i], names[i]) == null) {
+                throw new IllegalStateException("Value " + names[i] + " of sensor " + romIds[i] + " not found");
+            }
+        }
+    }
+
+    /**
+     * Generates a <code>details.xml</code> of an OW-Server with thermometers
+     * and humidity sensors, in the format of the recorded document.
+     */
+    private String generateDetails() {
+        StringBuilder xml = new StringBuilder();
+        xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        xml.append("<Devices-Detail-Response xmlns=\"http://www.embeddeddatasystems.com/schema/owserver\" ");
+        xml.append("xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\">\n");
+        xml.append("<PollCount>28436</PollCount>\n");
+        xml.append("<DevicesConnected>").append(sensors).append("</DevicesConnected>\n");
+        xml.append("<LoopTime>1.189</LoopTime>\n");
+        xml.append("<DeviceName>OWServer_v2-Enet</DeviceName>\n");
+        xml.append("<HostName>EDSOWSERVER2</HostName>\n");
+        xml.append("<DateTime>2019-03-14 19:24:06</DateTime>\n");
+
+        for (int i = 0; i < sensors; i++) {
+            boolean humidity = i % 4 == 3;
+            String type = humidity ? "DS2438" : "DS18B20";
+            String family = humidity ? "26" : "28";
+            romIds[i] = String.format(Locale.ROOT, "%08X%06X%s", i, 0xB3C4A1, family);
+            names[i] = humidity ? "Humidity" : "Temperature";
+            double value = humidity ? 40 + i % 20 : 15 + (i % 40) / 4.0;
+
+            xml.append("<owd_").append(type).append(" Description=\"")
+                    .append(humidity ? "Smart battery monitor" : "Programmable resolution thermometer")
+                    .append("\">\n");
+            xml.append("<Name>").append(type).append("</Name>\n");
+            xml.append("<Family>").append(family).append("</Family>\n");
+            xml.append("<ROMId>").append(romIds[i]).append("</ROMId>\n");
+            xml.append("<Health>7</Health>\n");
+            xml.append("<Channel>").append(1 + i % 3).append("</Channel>\n");
+            xml.append("<RawData>A1A1A1A1A1A1A1A1A1A1A1A1A1A1A1A1A1A1A1A1A1A1A1A1</RawData>\n");
+            xml.append("<PrimaryValue>").append(value).append(humidity ? " Perc" : " Cent").append("</PrimaryValue>\n");
+            xml.append("<").append(names[i]).append(" Units=\"")
+                    .append(humidity ? "PercentRelativeHumidity" : "Centigrade").append("\">").append(value)
+                    .append("</").append(names[i]).append(">\n");
+            xml.append("<UserByte1 Writable=\"True\">0</UserByte1>\n");
+            xml.append("<UserByte2 Writable=\"True\">0</UserByte2>\n");
+            xml.append("</owd_").append(type).append(">\n");
+        }
+
+        xml.append("</Devices-Detail-Response>\n");
+        return xml.toString();
+    }
+
+    @Benchmark
+    public OWServerDetails parse() throws XMLStreamException {
+        return OWServerDetails.parse(details);
+    }
+
+    @Benchmark
+    public void refreshFromSnapshot(Blackhole blackhole) throws XMLStreamException {
+        OWServerDetails snapshot = OWServerDetails.parse(details);
+        for (int i = 0; i < sensors; i++) {
+            blackhole.consume(snapshot.getValue(romIds[i], names[i]));
+        }
+    }
+
+    @Benchmark
+    public void refreshFromDomPerItem(Blackhole blackhole)
+            throws IOException, SAXException, ParserConfigurationException {
+        for (int i = 0; i < sensors; i++) {
+            blackhole.consume(getVariable(details, romIds[i], names[i]));
+        }
+    }
+
+    /**
+     * The lookup of a value the binding used before, parsing the whole
+     * document for every item.
+     */
+    private static String getVariable(String response, String romId, String name)
+            throws IOException, SAXException, ParserConfigurationException {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        Document document = factory.newDocumentBuilder().parse(new InputSource(new StringReader(response)));
+
+        NodeList nodeList = document.getDocumentElement().getChildNodes();
+        for (int i = 0; i < nodeList.getLength(); i++) {
+            Node node = nodeList.item(i);
+            if (node.getNodeName().startsWith("owd_")) {
+                boolean romMatch = false;
+                NodeList childNodes = node.getChildNodes();
+                for (int j = 0; j < childNodes.getLength(); j++) {
+                    Node cNode = childNodes.item(j);
+                    if (cNode instanceof Element) {
+                        String content = cNode.getLastChild().getTextContent().trim();
+                        if (cNode.getNodeName().equals("ROMId") & content.equals(romId)) {
+                            romMatch = true;
+                        }
+                        if (cNode.getNodeName().equals(name) & romMatch) {
+                            return content;
+                        }
+                    }
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,186 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.serial.benchmark;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.openhab.binding.serial.internal.RegexPatternMatcher;
+import org.openhab.binding.serial.internal.RegexPatternMatcher.CompiledRegex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the REGEX matching of the serial binding by replaying a recorded
+ * log of sensor and rollershutter messages against the patterns of eleven
+ * items, through the compiled patterns evaluated once per message for all
+ * items using them, and through the matcher used before, which is run for
+ * every item and compiles substitutions for every message.
+ *
+ * @since 1.15.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerialPatternBenchmark {
+
+    /** Items and their REGEX, the rollershutter pattern is shared by two items */
+    private static final String[][] ITEMS = { { "Temperature1", "ID:1.*,T:([0-9.]*)" },
+            { "Temperature2", "ID:2.*,T:([0-9.]*)" }, { "Temperature3", "ID:3.*,T:([0-9.]*)" },
+            { "Humidity1", "ID:1.*,H:([0-9]*)" }, { "Humidity2", "ID:2.*,H:([0-9]*)" },
+            { "Humidity3", "ID:3.*,H:([0-9]*)" }, { "Battery", "ID:([0-9]),.*,B:1" },
+            { "Rollo", "Position:([0-9.]*)" }, { "RolloText", "Position:([0-9.]*)" },
+            { "RolloAt100", "s/Position:100/ON/" }, { "Motion", "s/Motion:(\\d)/$1/g" } };
+
+    private String[] messages;
+    private List<PatternGroup> patternIndex;
+
+    @Setup
+    public void setUp() throws IOException {
+        messages = readMessages("/serial/sensors.log");
+
+        // grouped like the pattern index of the serial device
+        Map<String, PatternGroup> groups = new LinkedHashMap<>();
+        for (String[] item : ITEMS) {
+            PatternGroup group = groups.get(item[1]);
+            if (group == null) {
+                group = new PatternGroup(RegexPatternMatcher.compile(item[1]));
+                groups.put(item[1], group);
+            }
+            group.itemNames.add(item[0]);
+        }
+        patternIndex = new ArrayList<>(groups.values());
+
+        // patterns which never match would silently make the benchmark meaningless
+        int matches = 0;
+        for (String message : messages) {
+            matches += RegexPatternMatcher.compile(ITEMS[0][1]).getMatches(message).length;
+        }
+        if (matches == 0) {
+            throw new IllegalStateException("Recorded messages are not matched");
+        }
+    }
+
+    private static String[] readMessages(String resource) throws IOException {
+        List<String> lines = new ArrayList<>();
+        try (InputStream in = SerialPatternBenchmark.class.getResourceAsStream(resource)) {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, "UTF-8"));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line + "\r\n");
+            }
+        }
+        return lines.toArray(new String[lines.size()]);
+    }
+
+    @Benchmark
+    public void replay(Blackhole blackhole) {
+        for (String message : messages) {
+            for (PatternGroup group : patternIndex) {
+                String[] matches = group.regex.getMatches(message);
+                for (String itemName : group.itemNames) {
+                    blackhole.consume(itemName);
+                    blackhole.consume(matches);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void replayPerItem(Blackhole blackhole) {
+        for (String message : messages) {
+            for (String[] item : ITEMS) {
+                blackhole.consume(item[0]);
+                blackhole.consume(LegacyRegexPatternMatcher.getMatches(item[1], message));
+            }
+        }
+    }
+
+    private static class PatternGroup {
+        private final CompiledRegex regex;
+        private final List<String> itemNames = new ArrayList<>();
+
+        private PatternGroup(CompiledRegex regex) {
+            this.regex = regex;
+        }
+    }
+
+    /**
+     * The pattern matcher of the serial binding before substitutions were
+     * compiled once, for comparison.
+     */
+    private static class LegacyRegexPatternMatcher {
+        private static Map<String, Pattern> patternCache = new HashMap<>();
+
+        private static final Pattern SUBST_PATTERN = Pattern.compile("^s/(.*?[^\\\\])/(.*?[^\\\\])/(.*)$");
+
+        private static synchronized Pattern cache(String regExpression) {
+            if (!patternCache.containsKey(regExpression)) {
+                Matcher substMatcher = SUBST_PATTERN.matcher(regExpression);
+                if (substMatcher.matches()) {
+                    patternCache.put(regExpression, null);
+                } else {
+                    patternCache.put(regExpression, Pattern.compile(regExpression, Pattern.DOTALL));
+                }
+            }
+            return patternCache.get(regExpression);
+        }
+
+        private static String[] getMatches(String regExpression, String source) {
+            Pattern pattern = cache(regExpression);
+            if (pattern == null) {
+                Matcher substMatcher = SUBST_PATTERN.matcher(regExpression);
+                String result = source;
+                if (substMatcher.matches()) {
+                    String regex = substMatcher.group(1);
+                    String substitution = substMatcher.group(2);
+                    if (substMatcher.group(3).equals("g")) {
+                        result = source.trim().replaceAll(regex, substitution);
+                    } else {
+                        result = source.trim().replaceFirst(regex, substitution);
+                    }
+                }
+                return new String[] { result };
+            }
+
+            Matcher matcher = pattern.matcher(source.trim());
+            List<String> results = new ArrayList<>();
+            while (matcher.find()) {
+                results.add(matcher.group(1));
+            }
+            return results.toArray(new String[results.size()]);
+        }
+    }
+}
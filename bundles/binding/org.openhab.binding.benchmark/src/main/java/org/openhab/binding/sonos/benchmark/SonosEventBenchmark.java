@@ -0,0 +1,220 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.sonos.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openhab.binding.sonos.SonosBindingProvider;
+import org.openhab.binding.sonos.SonosCommandType;
+import org.openhab.binding.sonos.internal.SonosEventRoutes;
+import org.openhab.binding.sonos.internal.SonosGenericBindingProvider;
+import org.openhab.binding.sonos.internal.SonosXMLParser;
+import org.openhab.core.items.Item;
+import org.openhab.core.library.items.DimmerItem;
+import org.openhab.core.library.items.StringItem;
+import org.openhab.core.library.items.SwitchItem;
+import org.openhab.model.item.binding.BindingConfigParseException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.teleal.cling.model.state.StateVariableValue;
+import org.xml.sax.SAXException;
+
+/**
+ * Replays recorded AVTransport and RenderingControl <code>LastChange</code>
+ * events of twelve zone players. The events are parsed with the pooled SAX
+ * parsers of {@link SonosXMLParser} and the changed state variables are
+ * dispatched to the bound items through the {@link SonosEventRoutes}, as the
+ * binding does, against searching the binding providers for every variable,
+ * as the binding did before.
+ *
+ * @since 1.15.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SonosEventBenchmark {
+
+    private static final int ZONES = 12;
+
+    private String[] ids;
+    private String[] udns;
+    private String avTransportEvent;
+    private String renderingControlEvent;
+
+    private Collection<SonosBindingProvider> providers;
+    private SonosEventRoutes routes;
+
+    @Setup
+    public void setUp() throws IOException, SAXException, BindingConfigParseException {
+        ids = new String[ZONES];
+        udns = new String[ZONES];
+        SonosGenericBindingProvider provider = new SonosGenericBindingProvider();
+        for (int i = 0; i < ZONES; i++) {
+            ids[i] = "zone" + (i + 1);
+            udns[i] = String.format(Locale.ROOT, "RINCON_000E58%06X01400", 0x2126EE + i);
+            bindItems(provider, i);
+        }
+        providers = Collections.<SonosBindingProvider> singletonList(provider);
+        routes = SonosEventRoutes.build(providers);
+
+        avTransportEvent = readResource("/sonos/avtransport_lastchange.xml");
+        renderingControlEvent = readResource("/sonos/renderingcontrol_lastchange.xml");
+
+        // an event that reaches no item would silently make the benchmark meaningless
+        int routed = replayWithRoutes(null);
+        int searched = replayWithSearch(null);
+        if (routed == 0 || routed != searched) {
+            throw new IllegalStateException(
+                    "Routed " + routed + " updates, but the search found " + searched + " updates");
+        }
+    }
+
+    /**
+     * Binds the items of a zone player like a typical sitemap does. Every
+     * other player has its volume bound by its UDN as well.
+     */
+    private void bindItems(SonosGenericBindingProvider provider, int zone) throws BindingConfigParseException {
+        String id = ids[zone];
+        bind(provider, new DimmerItem(id + "_Volume"), "[" + id + ":volume]");
+        bind(provider, new SwitchItem(id + "_Mute"), "[" + id + ":mute]");
+        bind(provider, new StringItem(id + "_TransportState"), "[" + id + ":transportstate]");
+        bind(provider, new SwitchItem(id + "_AlarmRunning"), "[" + id + ":alarmrunning]");
+        bind(provider, new StringItem(id + "_CurrentTrack"), "[" + id + ":currenttrack]");
+        bind(provider, new StringItem(id + "_CurrentTitle"), "[" + id + ":currenttitle]");
+        bind(provider, new StringItem(id + "_CurrentArtist"), "[" + id + ":currentartist]");
+        bind(provider, new StringItem(id + "_ZoneName"), "[" + id + ":zonename]");
+        bind(provider, new SwitchItem(id + "_Led"), "[ON:" + id + ":led], [OFF:" + id + ":led]");
+        bind(provider, new SwitchItem(id + "_Play"), "[ON:" + id + ":play], [OFF:" + id + ":pause]");
+        if (zone % 2 == 1) {
+            bind(provider, new DimmerItem(id + "_VolumeByUdn"), "[" + udns[zone] + ":volume]");
+        }
+    }
+
+    private static void bind(SonosGenericBindingProvider provider, Item item, String bindingConfig)
+            throws BindingConfigParseException {
+        provider.processBindingConfiguration("sonos.items", item, bindingConfig);
+    }
+
+    private static String readResource(String resource) throws IOException {
+        try (InputStream in = SonosEventBenchmark.class.getResourceAsStream(resource)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[1024];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return out.toString("UTF-8");
+        }
+    }
+
+    @Benchmark
+    public void parse(Blackhole blackhole) throws SAXException {
+        for (int i = 0; i < ZONES; i++) {
+            blackhole.consume(SonosXMLParser.getAVTransportFromXML(avTransportEvent));
+            blackhole.consume(SonosXMLParser.getRenderingControlFromXML(renderingControlEvent));
+        }
+    }
+
+    @Benchmark
+    public int replayWithRoutes(Blackhole blackhole) throws SAXException {
+        int updates = 0;
+        for (int i = 0; i < ZONES; i++) {
+            updates += route(blackhole, i, SonosXMLParser.getAVTransportFromXML(avTransportEvent));
+            updates += route(blackhole, i, SonosXMLParser.getRenderingControlFromXML(renderingControlEvent));
+        }
+        return updates;
+    }
+
+    @Benchmark
+    public int replayWithSearch(Blackhole blackhole) throws SAXException {
+        int updates = 0;
+        for (int i = 0; i < ZONES; i++) {
+            updates += search(blackhole, i, SonosXMLParser.getAVTransportFromXML(avTransportEvent));
+            updates += search(blackhole, i, SonosXMLParser.getRenderingControlFromXML(renderingControlEvent));
+        }
+        return updates;
+    }
+
+    private int route(Blackhole blackhole, int zone, Map<String, StateVariableValue> values) {
+        int updates = 0;
+        for (Map.Entry<String, StateVariableValue> entry : values.entrySet()) {
+            for (SonosEventRoutes.Route route : routes.getRoutes(ids[zone], udns[zone], entry.getKey())) {
+                for (String itemName : route.getItemNames()) {
+                    updates += update(blackhole, itemName, entry.getValue());
+                }
+            }
+        }
+        return updates;
+    }
+
+    /**
+     * The lookup of the items to update the binding used before, searching
+     * the binding configurations of all providers for every state variable.
+     */
+    private int search(Blackhole blackhole, int zone, Map<String, StateVariableValue> values) {
+        int updates = 0;
+        for (String stateVariable : values.keySet()) {
+            List<SonosCommandType> supportedCommands = SonosCommandType.getCommandByVariable(stateVariable);
+            StateVariableValue status = values.get(stateVariable);
+            for (SonosCommandType sonosCommandType : supportedCommands) {
+                for (SonosBindingProvider provider : providers) {
+                    List<String> qualifiedItems = provider.getItemNames(ids[zone],
+                            sonosCommandType.getSonosCommand());
+                    List<String> qualifiedItemsByUDN = provider.getItemNames(udns[zone],
+                            sonosCommandType.getSonosCommand());
+
+                    for (String item : qualifiedItemsByUDN) {
+                        if (!qualifiedItems.contains(item)) {
+                            qualifiedItems.add(item);
+                        }
+                    }
+                    for (String anItem : qualifiedItems) {
+                        provider.getCommands(anItem, sonosCommandType.getSonosCommand());
+                        if (provider.getAcceptedDataTypes(anItem).contains(sonosCommandType.getTypeClass())) {
+                            updates += update(blackhole, anItem, status);
+                        }
+                    }
+                }
+            }
+        }
+        return updates;
+    }
+
+    private static int update(Blackhole blackhole, String itemName, StateVariableValue value) {
+        if (blackhole != null) {
+            blackhole.consume(itemName);
+            blackhole.consume(value.getValue());
+        }
+        return 1;
+    }
+}
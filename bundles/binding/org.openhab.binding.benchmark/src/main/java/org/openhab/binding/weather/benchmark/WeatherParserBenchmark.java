@@ -0,0 +1,218 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.weather.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.Calendar;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang.reflect.FieldUtils;
+import org.apache.commons.lang.reflect.MethodUtils;
+import org.openhab.binding.weather.internal.metadata.MetadataHandler;
+import org.openhab.binding.weather.internal.metadata.ProviderMappingInfo;
+import org.openhab.binding.weather.internal.model.Forecast;
+import org.openhab.binding.weather.internal.model.ProviderName;
+import org.openhab.binding.weather.internal.model.Weather;
+import org.openhab.binding.weather.internal.parser.CommonIdHandler;
+import org.openhab.binding.weather.internal.parser.JsonWeatherParser;
+import org.openhab.binding.weather.internal.utils.PropertyResolver;
+import org.openhab.binding.weather.internal.utils.PropertyUtils;
+import org.openhab.core.library.types.DateTimeType;
+import org.openhab.core.library.types.DecimalType;
+import org.openhab.core.library.types.StringType;
+import org.openhab.core.types.State;
+import org.openhab.core.types.UnDefType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures parsing recorded OpenWeatherMap and Dark Sky (ForecastIO)
+ * responses into the weather model and publishing the usual item properties
+ * of the current weather and every forecast day. Each is measured through
+ * the compiled property accessors of the binding and through the reflective
+ * field and getter lookups the binding used before, for comparison.
+ *
+ * @since 1.15.0
+ */
+@org.openjdk.jmh.annotations.State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WeatherParserBenchmark {
+
+    /** Properties commonly bound to items, see the binding's README */
+    private static final String[] PROPERTIES = { "temperature.current", "temperature.min", "temperature.max",
+            "temperature.feel", "atmosphere.humidity", "atmosphere.pressure", "atmosphere.pressureTrend",
+            "wind.speed", "wind.degree", "wind.direction", "wind.gust", "condition.text", "condition.commonId",
+            "condition.observationTime", "precipitation.rain", "precipitation.snow", "clouds.percent" };
+
+    private static boolean metadataGenerated = false;
+
+    @Param({ "openweathermap", "forecastio" })
+    public String provider;
+
+    private ProviderName providerName;
+    private String[] responses;
+    private JsonWeatherParser parser;
+    private JsonWeatherParser reflectiveParser;
+    private Weather weather;
+
+    @Setup
+    public void setUp() throws Exception {
+        synchronized (WeatherParserBenchmark.class) {
+            if (!metadataGenerated) {
+                MetadataHandler.getInstance().generate(Weather.class);
+                CommonIdHandler.getInstance().loadMapping();
+                metadataGenerated = true;
+            }
+        }
+
+        if ("openweathermap".equals(provider)) {
+            providerName = ProviderName.OPENWEATHERMAP;
+            responses = new String[] { readResource("/weather/openweathermap_weather.json"),
+                    readResource("/weather/openweathermap_forecast.json") };
+        } else {
+            providerName = ProviderName.FORECASTIO;
+            responses = new String[] { readResource("/weather/forecastio_weather.json") };
+        }
+
+        parser = new JsonWeatherParser();
+        reflectiveParser = new ReflectiveJsonWeatherParser();
+        weather = parse();
+
+        // a response which isn't mapped would silently make the benchmark meaningless
+        if (weather.getTemperature().getCurrent() == null || weather.getForecast().isEmpty()) {
+            throw new IllegalStateException("Response of " + provider + " is not parsed");
+        }
+    }
+
+    private static String readResource(String resource) throws IOException {
+        try (InputStream in = WeatherParserBenchmark.class.getResourceAsStream(resource)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[1024];
+            int read;
+            while ((read = in.read(buffer)) >= 0) {
+                out.write(buffer, 0, read);
+            }
+            return out.toString("UTF-8");
+        }
+    }
+
+    @Benchmark
+    public Weather parse() throws Exception {
+        return parseWith(parser);
+    }
+
+    @Benchmark
+    public Weather parseReflective() throws Exception {
+        return parseWith(reflectiveParser);
+    }
+
+    private Weather parseWith(JsonWeatherParser weatherParser) throws Exception {
+        Weather parsed = new Weather(providerName);
+        for (String response : responses) {
+            weatherParser.parseInto(response, parsed);
+        }
+        return parsed;
+    }
+
+    @Benchmark
+    public void publish(Blackhole blackhole) throws Exception {
+        for (String property : PROPERTIES) {
+            blackhole.consume(toState(PropertyUtils.getPropertyValue(weather, property)));
+        }
+        for (Forecast forecast : weather.getForecast()) {
+            for (String property : PROPERTIES) {
+                blackhole.consume(toState(PropertyUtils.getPropertyValue(forecast, property)));
+            }
+        }
+    }
+
+    @Benchmark
+    public void publishReflective(Blackhole blackhole) throws Exception {
+        for (String property : PROPERTIES) {
+            blackhole.consume(toState(getPropertyValueReflective(weather, property)));
+        }
+        for (Forecast forecast : weather.getForecast()) {
+            for (String property : PROPERTIES) {
+                blackhole.consume(toState(getPropertyValueReflective(forecast, property)));
+            }
+        }
+    }
+
+    /**
+     * Creates the state the WeatherPublisher posts for a value, without rounding.
+     */
+    private static State toState(Object value) {
+        if (value == null) {
+            return UnDefType.UNDEF;
+        } else if (value instanceof Calendar) {
+            return new DateTimeType((Calendar) value);
+        } else if (value instanceof Number) {
+            return new DecimalType(new BigDecimal(value.toString()));
+        }
+        return new StringType(value.toString());
+    }
+
+    /**
+     * Reads a property through the nested field and getter lookups the
+     * binding used before the property accessors.
+     */
+    private static Object getPropertyValueReflective(Object instance, String property) throws Exception {
+        Object object = PropertyUtils.getNestedObject(instance, property);
+        String name = PropertyResolver.last(property);
+        return MethodUtils.invokeMethod(object, "get" + Character.toTitleCase(name.charAt(0)) + name.substring(1),
+                null);
+    }
+
+    /**
+     * Sets values through the nested field lookups and field writes the
+     * binding used before the property accessors.
+     */
+    private static class ReflectiveJsonWeatherParser extends JsonWeatherParser {
+
+        @Override
+        public void setValue(Weather weather, String propertyName, String value) {
+            ProviderMappingInfo providerMappingInfo = MetadataHandler.getInstance()
+                    .getProviderMappingInfo(weather.getProvider(), propertyName);
+            if (providerMappingInfo != null) {
+                try {
+                    String preparedValue = stripEmptyValues(value);
+                    Object valueToSet = preparedValue == null ? null
+                            : providerMappingInfo.getConverter().convert(preparedValue);
+                    if (valueToSet != null) {
+                        String targetProperty = providerMappingInfo.getTarget();
+                        Object target = PropertyUtils.getNestedObject(weather, targetProperty);
+                        FieldUtils.writeField(target, PropertyResolver.last(targetProperty), valueToSet, true);
+                    }
+                } catch (Exception ex) {
+                    // ignored like the binding does apart from logging
+                }
+            }
+        }
+    }
+}
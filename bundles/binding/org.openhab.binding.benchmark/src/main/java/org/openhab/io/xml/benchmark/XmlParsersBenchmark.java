@@ -0,0 +1,186 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.xml.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.annotation.XmlAccessType;
+import javax.xml.bind.annotation.XmlAccessorType;
+import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParserFactory;
+import javax.xml.stream.XMLStreamException;
+
+import org.openhab.io.xml.XmlParsers;
+import org.openhab.io.xml.XmlPathExtractor;
+import org.openhab.io.xml.XmlPathHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * Compares the shared parsers of {@link XmlParsers} with creating a parser
+ * per document, as the bindings did before, on a recorded OW-Server
+ * <code>details.xml</code> and a FRITZ! device list. Run with
+ * <code>-prof gc</code> to see the allocation rate.
+ *
+ * @since 1.15.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class XmlParsersBenchmark {
+
+    @XmlRootElement(name = "devicelist")
+    @XmlAccessorType(XmlAccessType.FIELD)
+    public static class DeviceList {
+        @XmlElement(name = "device")
+        List<Device> devices;
+    }
+
+    @XmlAccessorType(XmlAccessType.FIELD)
+    public static class Device {
+        @XmlAttribute
+        String identifier;
+        @XmlElement
+        String name;
+        @XmlElement
+        PowerMeter powermeter;
+    }
+
+    @XmlAccessorType(XmlAccessType.FIELD)
+    public static class PowerMeter {
+        @XmlElement
+        long power;
+        @XmlElement
+        long energy;
+    }
+
+    private static final XmlPathExtractor EXTRACTOR = new XmlPathExtractor("*/owd_*/*");
+
+    private String details;
+    private String deviceList;
+
+    @Setup
+    public void setUp() throws IOException {
+        details = readResource("/xml/owserver_details.xml");
+        deviceList = readResource("/xml/fritzaha_devicelist.xml");
+    }
+
+    private static String readResource(String resource) throws IOException {
+        try (InputStream in = XmlParsersBenchmark.class.getResourceAsStream(resource)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[1024];
+            int read;
+            while ((read = in.read(buffer)) >= 0) {
+                out.write(buffer, 0, read);
+            }
+            return out.toString("UTF-8");
+        }
+    }
+
+    private static class CountingHandler extends DefaultHandler {
+        private int elements;
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            elements++;
+        }
+    }
+
+    @Benchmark
+    public int saxNewParser() throws IOException, SAXException, ParserConfigurationException {
+        SAXParserFactory factory = SAXParserFactory.newInstance();
+        factory.setNamespaceAware(true);
+        XMLReader reader = factory.newSAXParser().getXMLReader();
+        CountingHandler handler = new CountingHandler();
+        reader.setContentHandler(handler);
+        reader.parse(new InputSource(new StringReader(details)));
+        return handler.elements;
+    }
+
+    @Benchmark
+    public int saxPooledParser() throws IOException, SAXException {
+        CountingHandler handler = new CountingHandler();
+        XmlParsers.parse(details, handler);
+        return handler.elements;
+    }
+
+    @Benchmark
+    public void domDeviceValues(Blackhole blackhole)
+            throws IOException, SAXException, ParserConfigurationException {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setNamespaceAware(true);
+        Document document = factory.newDocumentBuilder().parse(new InputSource(new StringReader(details)));
+        for (Node device = document.getDocumentElement().getFirstChild(); device != null; device = device
+                .getNextSibling()) {
+            if (device instanceof Element && device.getLocalName().startsWith("owd_")) {
+                for (Node value = device.getFirstChild(); value != null; value = value.getNextSibling()) {
+                    if (value instanceof Element) {
+                        blackhole.consume(value.getTextContent().trim());
+                    }
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void extractorDeviceValues(final Blackhole blackhole) throws XMLStreamException {
+        EXTRACTOR.extract(details, new XmlPathHandler() {
+            @Override
+            public void value(String path, String name, String value) {
+                blackhole.consume(value);
+            }
+        });
+    }
+
+    @Benchmark
+    public DeviceList jaxbNewContext() throws JAXBException {
+        JAXBContext context = JAXBContext.newInstance(DeviceList.class);
+        return (DeviceList) context.createUnmarshaller().unmarshal(new StringReader(deviceList));
+    }
+
+    @Benchmark
+    public DeviceList jaxbCachedContext() throws JAXBException {
+        return XmlParsers.unmarshal(deviceList, DeviceList.class);
+    }
+}
@@ -0,0 +1,237 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.digitalstrom.internal.client.job;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.digitalstrom.internal.client.DigitalSTROMAPI;
+import org.openhab.binding.digitalstrom.internal.client.entity.DSID;
+import org.openhab.binding.digitalstrom.internal.client.job.SensorJobScheduler.Priority;
+
+/**
+ * Tests the queueing and pacing of the {@link SensorJobScheduler}.
+ *
+ * @since 1.15.0
+ */
+public class SensorJobSchedulerTest {
+
+    private static final long MIN_INTERVAL = 100;
+    private static final long MAX_INTERVAL = 1000;
+
+    private static final String DSID_1 = "3504175fe000000000010001";
+    private static final String DSID_2 = "3504175fe000000000010002";
+
+    private static class TestJob implements SensorJob {
+        private final DSID dsid;
+        private final int index;
+
+        TestJob(String dsid, int index) {
+            this.dsid = new DSID(dsid);
+            this.index = index;
+        }
+
+        @Override
+        public DSID getDsid() {
+            return dsid;
+        }
+
+        @Override
+        public boolean execute(DigitalSTROMAPI digitalSTROM, String token) {
+            return true;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof TestJob && ((TestJob) obj).dsid.equals(dsid) && ((TestJob) obj).index == index;
+        }
+
+        @Override
+        public int hashCode() {
+            return dsid.hashCode() * 31 + index;
+        }
+    }
+
+    private SensorJobScheduler scheduler;
+
+    @Before
+    public void setUp() {
+        scheduler = new SensorJobScheduler(MIN_INTERVAL, MAX_INTERVAL);
+    }
+
+    @Test
+    public void take_returnsJobsByPriorityThenInQueueOrder() throws InterruptedException {
+        TestJob low = new TestJob(DSID_1, 0);
+        TestJob high1 = new TestJob(DSID_1, 1);
+        TestJob medium = new TestJob(DSID_1, 2);
+        TestJob high2 = new TestJob(DSID_2, 1);
+
+        scheduler.add(low, Priority.LOW);
+        scheduler.add(high1, Priority.HIGH);
+        scheduler.add(medium, Priority.MEDIUM);
+        scheduler.add(high2, Priority.HIGH);
+
+        assertSame(high1, scheduler.take());
+        assertSame(high2, scheduler.take());
+        assertSame(medium, scheduler.take());
+        assertSame(low, scheduler.take());
+    }
+
+    @Test
+    public void add_mergesEqualJobOfSamePriority() {
+        scheduler.add(new TestJob(DSID_1, 0), Priority.MEDIUM);
+        scheduler.add(new TestJob(DSID_1, 0), Priority.MEDIUM);
+
+        assertEquals(1, scheduler.getQueueSize(Priority.MEDIUM));
+        assertEquals(1, scheduler.getMergedJobs());
+    }
+
+    @Test
+    public void add_keepsHigherPriorityOfQueuedJob() {
+        scheduler.add(new TestJob(DSID_1, 0), Priority.HIGH);
+        scheduler.add(new TestJob(DSID_1, 0), Priority.LOW);
+
+        assertEquals(1, scheduler.getQueueSize(Priority.HIGH));
+        assertEquals(0, scheduler.getQueueSize(Priority.LOW));
+        assertEquals(1, scheduler.getMergedJobs());
+    }
+
+    @Test
+    public void add_promotesQueuedJobToHigherPriority() throws InterruptedException {
+        TestJob queued = new TestJob(DSID_1, 0);
+        TestJob promoted = new TestJob(DSID_2, 0);
+        scheduler.add(promoted, Priority.LOW);
+        scheduler.add(queued, Priority.HIGH);
+
+        scheduler.add(new TestJob(DSID_2, 0), Priority.HIGH);
+
+        assertEquals(0, scheduler.getQueueSize(Priority.LOW));
+        assertEquals(2, scheduler.getQueueSize(Priority.HIGH));
+        assertEquals(1, scheduler.getMergedJobs());
+        assertSame(queued, scheduler.take());
+        assertEquals(promoted, scheduler.take());
+    }
+
+    @Test
+    public void add_promotedJobKeepsItsQueueTime() throws InterruptedException {
+        scheduler.add(new TestJob(DSID_1, 0), Priority.LOW);
+        Thread.sleep(100);
+        scheduler.add(new TestJob(DSID_1, 0), Priority.HIGH);
+
+        scheduler.take();
+
+        assertTrue(scheduler.getMaxWaitTime(Priority.HIGH) >= 100);
+    }
+
+    @Test
+    public void remove_removesAllJobsOfDevice() throws InterruptedException {
+        TestJob other = new TestJob(DSID_2, 0);
+        scheduler.add(new TestJob(DSID_1, 0), Priority.HIGH);
+        scheduler.add(new TestJob(DSID_1, 1), Priority.LOW);
+        scheduler.add(other, Priority.LOW);
+
+        scheduler.remove(new DSID(DSID_1));
+
+        assertEquals(0, scheduler.getQueueSize(Priority.HIGH));
+        assertEquals(1, scheduler.getQueueSize(Priority.LOW));
+        assertSame(other, scheduler.take());
+    }
+
+    @Test
+    public void take_waitsForJob() throws InterruptedException {
+        final TestJob job = new TestJob(DSID_1, 0);
+        Thread producer = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                scheduler.add(job, Priority.LOW);
+            }
+        };
+        producer.start();
+
+        assertSame(job, scheduler.take());
+        producer.join();
+    }
+
+    @Test
+    public void close_wakesUpWaitingThreadAndDropsJobs() throws InterruptedException {
+        Thread closer = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                scheduler.close();
+            }
+        };
+        closer.start();
+
+        assertNull(scheduler.take());
+        closer.join();
+
+        scheduler.add(new TestJob(DSID_1, 0), Priority.HIGH);
+        assertEquals(0, scheduler.getQueueSize(Priority.HIGH));
+    }
+
+    @Test
+    public void jobFinished_followsAverageDurationWithinBounds() {
+        assertEquals(MIN_INTERVAL, scheduler.jobFinished(10, false));
+
+        scheduler = new SensorJobScheduler(MIN_INTERVAL, MAX_INTERVAL);
+        assertEquals(300, scheduler.jobFinished(300, false));
+        // 0.2 * 400 + 0.8 * 300
+        assertEquals(320, scheduler.jobFinished(400, false));
+    }
+
+    @Test
+    public void jobFinished_doublesIntervalAfterFailureUpToMaximum() {
+        assertEquals(200, scheduler.jobFinished(10, true));
+        assertEquals(400, scheduler.jobFinished(10, true));
+        assertEquals(800, scheduler.jobFinished(10, true));
+        assertEquals(MAX_INTERVAL, scheduler.jobFinished(10, true));
+        assertEquals(MAX_INTERVAL, scheduler.jobFinished(10, true));
+    }
+
+    @Test
+    public void jobFinished_doublesIntervalAfterSlowJob() {
+        assertEquals(200, scheduler.jobFinished(MAX_INTERVAL / 2 + 1, false));
+    }
+
+    @Test
+    public void jobFinished_halvesIntervalAfterEachJobInTime() {
+        scheduler.jobFinished(10, true);
+        scheduler.jobFinished(10, true);
+        assertEquals(800, scheduler.jobFinished(10, true));
+
+        assertEquals(400, scheduler.jobFinished(10, false));
+        assertEquals(200, scheduler.jobFinished(10, false));
+        assertEquals(MIN_INTERVAL, scheduler.jobFinished(10, false));
+        assertEquals(MIN_INTERVAL, scheduler.jobFinished(10, false));
+    }
+
+    @Test
+    public void setIntervals_resetsIntervalToMinimum() {
+        scheduler.jobFinished(10, true);
+
+        scheduler.setIntervals(50, 500);
+
+        assertEquals(50, scheduler.jobFinished(10, false));
+    }
+}
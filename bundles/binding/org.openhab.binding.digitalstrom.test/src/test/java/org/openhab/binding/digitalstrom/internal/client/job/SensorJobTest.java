@@ -0,0 +1,106 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.digitalstrom.internal.client.job;
+
+import static org.junit.Assert.*;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.digitalstrom.internal.client.DigitalSTROMAPI;
+import org.openhab.binding.digitalstrom.internal.client.constants.SensorIndexEnum;
+import org.openhab.binding.digitalstrom.internal.client.entity.DSID;
+import org.openhab.binding.digitalstrom.internal.client.entity.Device;
+
+/**
+ * Tests that the {@link SensorJob}s report a value the dSS did not return.
+ *
+ * @since 1.15.0
+ */
+public class SensorJobTest {
+
+    private Object apiResult;
+    private final List<String> deviceUpdates = new ArrayList<String>();
+
+    private DigitalSTROMAPI digitalSTROM;
+    private Device device;
+
+    @Before
+    public void setUp() {
+        digitalSTROM = (DigitalSTROMAPI) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { DigitalSTROMAPI.class }, new InvocationHandler() {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) {
+                        return apiResult;
+                    }
+                });
+        device = (Device) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { Device.class },
+                new InvocationHandler() {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) {
+                        if (method.getName().equals("getDSID")) {
+                            return new DSID("3504175fe000000000010001");
+                        }
+                        if (method.getName().startsWith("set")) {
+                            deviceUpdates.add(method.getName());
+                        }
+                        return null;
+                    }
+                });
+    }
+
+    @Test
+    public void deviceSensorValueJob_reportsMissingValue() {
+        apiResult = (short) -1;
+
+        assertFalse(new DeviceSensorValueJob(device, SensorIndexEnum.TEMPERATURE_INDOORS).execute(digitalSTROM, ""));
+        assertTrue(deviceUpdates.isEmpty());
+    }
+
+    @Test
+    public void deviceSensorValueJob_updatesDevice() {
+        apiResult = (short) 215;
+
+        assertTrue(new DeviceSensorValueJob(device, SensorIndexEnum.TEMPERATURE_INDOORS).execute(digitalSTROM, ""));
+        assertEquals("setTemperatureSensorValue", deviceUpdates.get(0));
+    }
+
+    @Test
+    public void deviceConsumptionSensorJob_reportsMissingValue() {
+        apiResult = (short) -1;
+
+        assertFalse(new DeviceConsumptionSensorJob(device, SensorIndexEnum.ACTIVE_POWER).execute(digitalSTROM, ""));
+        assertTrue(deviceUpdates.isEmpty());
+    }
+
+    @Test
+    public void deviceOutputValueSensorJob_reportsMissingValue() {
+        apiResult = -1;
+
+        assertFalse(new DeviceOutputValueSensorJob(device, (short) 0).execute(digitalSTROM, ""));
+        assertTrue(deviceUpdates.isEmpty());
+    }
+
+    @Test
+    public void sceneOutputValueSensorJob_reportsMissingConfig() {
+        apiResult = null;
+
+        assertFalse(new SceneOutputValueSensorJob(device, (short) 5).execute(digitalSTROM, ""));
+        assertTrue(deviceUpdates.isEmpty());
+    }
+}
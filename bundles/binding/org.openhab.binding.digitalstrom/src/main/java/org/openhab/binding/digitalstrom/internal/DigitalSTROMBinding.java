@@ -12,11 +12,13 @@
  */
 package org.openhab.binding.digitalstrom.internal;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Dictionary;
+import java.util.EnumMap;
 import java.util.HashMap;
-import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -57,6 +59,8 @@ import org.openhab.binding.digitalstrom.internal.client.job.DeviceOutputValueSen
 import org.openhab.binding.digitalstrom.internal.client.job.DeviceSensorValueJob;
 import org.openhab.binding.digitalstrom.internal.client.job.SceneOutputValueSensorJob;
 import org.openhab.binding.digitalstrom.internal.client.job.SensorJob;
+import org.openhab.binding.digitalstrom.internal.client.job.SensorJobScheduler;
+import org.openhab.binding.digitalstrom.internal.client.job.SensorJobScheduler.Priority;
 import org.openhab.binding.digitalstrom.internal.config.ConnectionConfig;
 import org.openhab.binding.digitalstrom.internal.config.ConsumptionConfig;
 import org.openhab.binding.digitalstrom.internal.config.ContextConfig;
@@ -95,6 +99,8 @@ public class DigitalSTROMBinding extends AbstractActiveBinding<DigitalSTROMBindi
 
     private static final Logger logger = LoggerFactory.getLogger(DigitalSTROMBinding.class);
 
+    private static final int DEFAULT_SENSOR_JOB_INTERVAL = 500;
+
     /**
      * the interval to find new refresh candidates (defaults to 1000
      * milliseconds)
@@ -111,6 +117,9 @@ public class DigitalSTROMBinding extends AbstractActiveBinding<DigitalSTROMBindi
 
     private int readTimeout = ConnectionConfig.DEFAULT_READ_TIMEOUT;
 
+    /** the minimum time between two sensor readings (defaults to 500 milliseconds) */
+    private int sensorJobInterval = DEFAULT_SENSOR_JOB_INTERVAL;
+
     private String user = null;
 
     private String password = null;
@@ -148,9 +157,7 @@ public class DigitalSTROMBinding extends AbstractActiveBinding<DigitalSTROMBindi
 
     private List<String> echoBox = Collections.synchronizedList(new LinkedList<String>());
 
-    private List<SensorJob> highPrioritySensorJobs = Collections.synchronizedList(new LinkedList<SensorJob>());
-    private List<SensorJob> mediumPrioritySensorJobs = Collections.synchronizedList(new LinkedList<SensorJob>());
-    private List<SensorJob> lowPrioritySensorJobs = Collections.synchronizedList(new LinkedList<SensorJob>());
+    private final SensorJobScheduler sensorJobScheduler = new SensorJobScheduler(sensorJobInterval, readTimeout);
 
     private SensorJobExecutor sensorJobExecutor = null;
 
@@ -176,6 +183,7 @@ public class DigitalSTROMBinding extends AbstractActiveBinding<DigitalSTROMBindi
             sensorJobExecutor.shutdown();
             sensorJobExecutor = null;
         }
+        sensorJobScheduler.close();
 
         removeAllDeviceListener();
         deallocateResources();
@@ -241,6 +249,10 @@ public class DigitalSTROMBinding extends AbstractActiveBinding<DigitalSTROMBindi
             }
         }
 
+        // consumption type - circuit consumption items to refresh
+        Map<ConsumptionConfig, List<DigitalSTROMBindingConfig>> dueCircuitItems = new EnumMap<ConsumptionConfig, List<DigitalSTROMBindingConfig>>(
+                ConsumptionConfig.class);
+
         for (DigitalSTROMBindingProvider provider : providers) {
             for (DigitalSTROMBindingConfig itemConf : provider.getAllCircuitConsumptionItems()) {
 
@@ -259,50 +271,16 @@ public class DigitalSTROMBinding extends AbstractActiveBinding<DigitalSTROMBindi
 
                     logger.debug("item '{}' is about to be refreshed now", itemName);
 
-                    int consumptionValue = -1;
-
                     if (itemConf.consumption == null || itemConf.consumption.equals(ConsumptionConfig.OUTPUT_CURRENT)) {
                         itemConf.consumption = ConsumptionConfig.ACTIVE_POWER;
                     }
 
-                    switch (itemConf.consumption) {
-
-                        case ACTIVE_POWER:
-                            List<CachedMeteringValue> consumptionList = digitalSTROM.getLatest(getSessionToken(),
-                                    MeteringTypeEnum.consumption,
-                                    ".meters(" + itemConf.dsmid.getValue().toLowerCase() + ")", null);
-                            if (consumptionList != null) {
-                                consumptionValue = 0;
-                                for (CachedMeteringValue value : consumptionList) {
-                                    consumptionValue += value.getValue();
-                                }
-                            }
-                            break;
-                        case ELECTRIC_METER:
-                            List<CachedMeteringValue> energyList = digitalSTROM.getLatest(getSessionToken(),
-                                    MeteringTypeEnum.energy, ".meters(" + itemConf.dsmid.getValue().toLowerCase() + ")",
-                                    MeteringUnitsEnum.Wh);
-                            if (energyList != null) {
-                                consumptionValue = 0;
-                                for (CachedMeteringValue value : energyList) {
-                                    consumptionValue += value.getValue();
-                                }
-                            }
-                            break;
-                        default:
-                            break;
-                    }
-
-                    org.openhab.core.types.State state = UnDefType.NULL;
-
-                    if (consumptionValue != -1) {
-                        state = new DecimalType(consumptionValue);
+                    List<DigitalSTROMBindingConfig> items = dueCircuitItems.get(itemConf.consumption);
+                    if (items == null) {
+                        items = new ArrayList<DigitalSTROMBindingConfig>();
+                        dueCircuitItems.put(itemConf.consumption, items);
                     }
-
-                    if (state != null) {
-                        eventPublisher.postUpdate(itemName, state);
-                    }
-                    lastUpdateMap.put(itemName, System.currentTimeMillis());
+                    items.add(itemConf);
                 }
             }
 
@@ -349,6 +327,63 @@ public class DigitalSTROMBinding extends AbstractActiveBinding<DigitalSTROMBindi
             }
 
         }
+
+        for (Map.Entry<ConsumptionConfig, List<DigitalSTROMBindingConfig>> entry : dueCircuitItems.entrySet()) {
+            refreshCircuitConsumptionItems(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Reads the consumption of all given circuits with a single metering
+     * query and updates their items.
+     *
+     * @param consumption the consumption type of the items
+     * @param items the circuit consumption items to refresh
+     */
+    private void refreshCircuitConsumptionItems(ConsumptionConfig consumption, List<DigitalSTROMBindingConfig> items) {
+        Set<String> meterIds = new LinkedHashSet<String>();
+        for (DigitalSTROMBindingConfig itemConf : items) {
+            meterIds.add(itemConf.dsmid.getValue().toLowerCase());
+        }
+        String meters = StringUtils.join(meterIds, ',');
+
+        List<CachedMeteringValue> valueList = null;
+        switch (consumption) {
+            case ACTIVE_POWER:
+                valueList = digitalSTROM.getLatest(getSessionToken(), MeteringTypeEnum.consumption,
+                        ".meters(" + meters + ")", null);
+                break;
+            case ELECTRIC_METER:
+                valueList = digitalSTROM.getLatest(getSessionToken(), MeteringTypeEnum.energy,
+                        ".meters(" + meters + ")", MeteringUnitsEnum.Wh);
+                break;
+            default:
+                break;
+        }
+
+        // meter dsid - consumption value
+        Map<String, Integer> values = new HashMap<String, Integer>();
+        if (valueList != null) {
+            for (CachedMeteringValue value : valueList) {
+                if (value.getDsid() != null) {
+                    String meter = value.getDsid().getValue().toLowerCase();
+                    Integer sum = values.get(meter);
+                    values.put(meter, (int) ((sum != null ? sum : 0) + value.getValue()));
+                }
+            }
+        }
+
+        for (DigitalSTROMBindingConfig itemConf : items) {
+            org.openhab.core.types.State state = UnDefType.NULL;
+
+            Integer consumptionValue = values.get(itemConf.dsmid.getValue().toLowerCase());
+            if (consumptionValue != null) {
+                state = new DecimalType(consumptionValue);
+            }
+
+            eventPublisher.postUpdate(itemConf.itemName, state);
+            lastUpdateMap.put(itemConf.itemName, System.currentTimeMillis());
+        }
     }
 
     /**
@@ -407,6 +442,12 @@ public class DigitalSTROMBinding extends AbstractActiveBinding<DigitalSTROMBindi
                 readTimeout = Integer.parseInt(readTimeoutStr);
             }
 
+            String sensorJobIntervalStr = (String) config.get("sensorJobInterval");
+            if (StringUtils.isNotBlank(sensorJobIntervalStr)) {
+                sensorJobInterval = Integer.parseInt(sensorJobIntervalStr);
+            }
+            sensorJobScheduler.setIntervals(sensorJobInterval, readTimeout);
+
             String applicationTokenStr = (String) config.get("loginToken");
             if (StringUtils.isNotBlank(applicationTokenStr)) {
                 applicationToken = applicationTokenStr;
@@ -1371,95 +1412,23 @@ public class DigitalSTROMBinding extends AbstractActiveBinding<DigitalSTROMBindi
     }
 
     private void addHighPriorityJob(DeviceOutputValueSensorJob deviceOutputValueSensorJob) {
-        synchronized (highPrioritySensorJobs) {
-            if (!highPrioritySensorJobs.contains(deviceOutputValueSensorJob)) {
-                highPrioritySensorJobs.add(deviceOutputValueSensorJob);
-            }
-        }
+        sensorJobScheduler.add(deviceOutputValueSensorJob, Priority.HIGH);
     }
 
     private void addHighPriorityJob(DeviceSensorValueJob deviceSensorValueJob) {
-        synchronized (highPrioritySensorJobs) {
-            if (!highPrioritySensorJobs.contains(deviceSensorValueJob)) {
-                highPrioritySensorJobs.add(deviceSensorValueJob);
-            }
-        }
+        sensorJobScheduler.add(deviceSensorValueJob, Priority.HIGH);
     }
 
     private void addMediumPriorityJob(SceneOutputValueSensorJob sceneOutputValueSensorJob) {
-        synchronized (mediumPrioritySensorJobs) {
-            if (!mediumPrioritySensorJobs.contains(sceneOutputValueSensorJob)) {
-                mediumPrioritySensorJobs.add(sceneOutputValueSensorJob);
-            }
-        }
+        sensorJobScheduler.add(sceneOutputValueSensorJob, Priority.MEDIUM);
     }
 
     private void addLowPriorityJob(DeviceConsumptionSensorJob deviceConsumptionSensorJob) {
-        synchronized (lowPrioritySensorJobs) {
-            if (!lowPrioritySensorJobs.contains(deviceConsumptionSensorJob)) {
-                lowPrioritySensorJobs.add(deviceConsumptionSensorJob);
-            }
-        }
-    }
-
-    private SensorJob getLowPriorityJob() {
-        SensorJob job = null;
-        synchronized (lowPrioritySensorJobs) {
-            if (lowPrioritySensorJobs.size() > 0) {
-                job = lowPrioritySensorJobs.get(0);
-                lowPrioritySensorJobs.remove(job);
-            }
-        }
-        return job;
-    }
-
-    private SensorJob getMediumPriorityJob() {
-        SensorJob job = null;
-        synchronized (mediumPrioritySensorJobs) {
-            if (mediumPrioritySensorJobs.size() > 0) {
-                job = mediumPrioritySensorJobs.get(0);
-                mediumPrioritySensorJobs.remove(job);
-            }
-        }
-        return job;
-    }
-
-    private SensorJob getHighPriorityJob() {
-        SensorJob job = null;
-        synchronized (highPrioritySensorJobs) {
-            if (highPrioritySensorJobs.size() > 0) {
-                job = highPrioritySensorJobs.get(0);
-                highPrioritySensorJobs.remove(job);
-            }
-        }
-        return job;
+        sensorJobScheduler.add(deviceConsumptionSensorJob, Priority.LOW);
     }
 
     private void removeSensorJobs(DSID dsid) {
-        synchronized (lowPrioritySensorJobs) {
-            for (Iterator<SensorJob> iter = lowPrioritySensorJobs.iterator(); iter.hasNext();) {
-                SensorJob job = iter.next();
-                if (job.getDsid().equals(dsid)) {
-                    iter.remove();
-                }
-            }
-        }
-        synchronized (mediumPrioritySensorJobs) {
-            for (Iterator<SensorJob> iter = mediumPrioritySensorJobs.iterator(); iter.hasNext();) {
-                SensorJob job = iter.next();
-                if (job.getDsid().equals(dsid)) {
-                    iter.remove();
-                }
-            }
-        }
-        synchronized (highPrioritySensorJobs) {
-            for (Iterator<SensorJob> iter = highPrioritySensorJobs.iterator(); iter.hasNext();) {
-                SensorJob job = iter.next();
-                if (job.getDsid().equals(dsid)) {
-                    iter.remove();
-                }
-            }
-        }
+        sensorJobScheduler.remove(dsid);
     }
 
     private void login() {
@@ -1502,6 +1471,9 @@ public class DigitalSTROMBinding extends AbstractActiveBinding<DigitalSTROMBindi
     }
 
     private void startSensorJobExecutor() {
+        if (this.sensorJobExecutor != null) {
+            this.sensorJobExecutor.shutdown();
+        }
         this.sensorJobExecutor = new SensorJobExecutor();
         this.sensorJobExecutor.start();
     }
@@ -1516,7 +1488,9 @@ public class DigitalSTROMBinding extends AbstractActiveBinding<DigitalSTROMBindi
 
     /**
      * In order to avoid many sensor readings in a time, this thread starts the
-     * jobs, after the old one is finished
+     * jobs, after the old one is finished. The time between two jobs is
+     * adapted by the {@link SensorJobScheduler} to the response times of the
+     * dSS.
      *
      * @author Alexander Betker
      * @since 1.3.0
@@ -1524,37 +1498,43 @@ public class DigitalSTROMBinding extends AbstractActiveBinding<DigitalSTROMBindi
      */
     private class SensorJobExecutor extends Thread {
 
-        private boolean shutdown = false;
-
-        private final int sleepTime = readTimeout;
+        private volatile boolean shutdown = false;
 
         @Override
         public void run() {
 
             while (!this.shutdown) {
-                SensorJob job = getHighPriorityJob();
-
-                if (job == null) {
-                    job = getMediumPriorityJob();
+                try {
+                    SensorJob job = sensorJobScheduler.take();
                     if (job == null) {
-                        job = getLowPriorityJob();
+                        break;
                     }
-                }
-                if (job != null) {
-                    job.execute(digitalSTROM, getSessionToken());
-                }
 
-                try {
-                    sleep(this.sleepTime);
+                    long start = System.currentTimeMillis();
+                    boolean failed = false;
+                    try {
+                        if (!job.execute(digitalSTROM, getSessionToken())) {
+                            failed = true;
+                            logger.debug("Sensor job for dsid {} got no value from the dSS", job.getDsid());
+                        }
+                    } catch (RuntimeException e) {
+                        failed = true;
+                        logger.warn("Sensor job for dsid {} failed: {}", job.getDsid(), e.getMessage());
+                    }
+
+                    sleep(sensorJobScheduler.jobFinished(System.currentTimeMillis() - start, failed));
                 } catch (InterruptedException e) {
-                    this.shutdown();
-                    logger.error("InterruptedException in SensorJobExecutor Thread ... " + e.getStackTrace());
+                    if (!this.shutdown) {
+                        this.shutdown();
+                        logger.error("InterruptedException in SensorJobExecutor Thread ... " + e.getStackTrace());
+                    }
                 }
             }
         }
 
-        public synchronized void shutdown() {
+        public void shutdown() {
             this.shutdown = true;
+            interrupt();
         }
     }
 
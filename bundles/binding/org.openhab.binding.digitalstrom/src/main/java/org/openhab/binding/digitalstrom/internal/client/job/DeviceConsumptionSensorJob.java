@@ -42,8 +42,11 @@ public class DeviceConsumptionSensorJob implements SensorJob {
      * internal.client.DigitalSTROMAPI, java.lang.String)
      */
     @Override
-    public void execute(DigitalSTROMAPI digitalSTROM, String token) {
+    public boolean execute(DigitalSTROMAPI digitalSTROM, String token) {
         int consumption = digitalSTROM.getDeviceSensorValue(token, this.device.getDSID(), null, this.sensorIndex);
+        if (consumption == -1) {
+            return false;
+        }
         logger.info("DeviceConsumption : " + consumption + ", DSID: " + this.device.getDSID().getValue());
 
         switch (this.sensorIndex) {
@@ -57,6 +60,7 @@ public class DeviceConsumptionSensorJob implements SensorJob {
             default:
                 break;
         }
+        return true;
     }
 
     @Override
@@ -69,6 +73,11 @@ public class DeviceConsumptionSensorJob implements SensorJob {
         return false;
     }
 
+    @Override
+    public int hashCode() {
+        return (this.device.getDSID().getValue() + this.sensorIndex.getIndex()).hashCode();
+    }
+
     @Override
     public DSID getDsid() {
         return device.getDSID();
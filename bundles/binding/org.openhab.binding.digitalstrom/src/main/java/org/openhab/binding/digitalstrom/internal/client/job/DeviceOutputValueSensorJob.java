@@ -41,8 +41,11 @@ public class DeviceOutputValueSensorJob implements SensorJob {
      * internal.client.DigitalSTROMAPI)
      */
     @Override
-    public void execute(DigitalSTROMAPI digitalSTROM, String token) {
+    public boolean execute(DigitalSTROMAPI digitalSTROM, String token) {
         int value = digitalSTROM.getDeviceOutputValue(token, this.device.getDSID(), null, this.index);
+        if (value == -1) {
+            return false;
+        }
         logger.info("DeviceOutputValue on Demand : " + value + ", DSID: " + this.device.getDSID().getValue());
 
         if (value != 1) {
@@ -58,6 +61,7 @@ public class DeviceOutputValueSensorJob implements SensorJob {
                     break;
             }
         }
+        return true;
     }
 
     @Override
@@ -70,6 +74,11 @@ public class DeviceOutputValueSensorJob implements SensorJob {
         return false;
     }
 
+    @Override
+    public int hashCode() {
+        return (this.device.getDSID().getValue() + this.index).hashCode();
+    }
+
     @Override
     public DSID getDsid() {
         return device.getDSID();
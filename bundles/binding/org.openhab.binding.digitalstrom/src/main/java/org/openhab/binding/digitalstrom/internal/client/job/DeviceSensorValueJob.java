@@ -42,8 +42,11 @@ public class DeviceSensorValueJob implements SensorJob {
      * internal.client.DigitalSTROMAPI, java.lang.String)
      */
     @Override
-    public void execute(DigitalSTROMAPI digitalSTROM, String token) {
+    public boolean execute(DigitalSTROMAPI digitalSTROM, String token) {
         int sensorValue = digitalSTROM.getDeviceSensorValue(token, this.device.getDSID(), null, this.sensorIndex);
+        if (sensorValue == -1) {
+            return false;
+        }
         logger.info(this.device.getName() + " DeviceSensorValue : " + this.sensorIndex + " "
                 + this.sensorIndex.ordinal() + " " + this.sensorIndex.getIndex() + " " + sensorValue + ", DSID: "
                 + this.device.getDSID().getValue());
@@ -66,6 +69,7 @@ public class DeviceSensorValueJob implements SensorJob {
             default:
                 break;
         }
+        return true;
     }
 
     @Override
@@ -78,6 +82,11 @@ public class DeviceSensorValueJob implements SensorJob {
         return false;
     }
 
+    @Override
+    public int hashCode() {
+        return (this.device.getDSID().getValue() + this.sensorIndex.getIndex()).hashCode();
+    }
+
     @Override
     public DSID getDsid() {
         return device.getDSID();
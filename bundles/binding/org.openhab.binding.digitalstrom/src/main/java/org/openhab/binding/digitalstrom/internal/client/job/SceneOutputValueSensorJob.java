@@ -44,15 +44,18 @@ public class SceneOutputValueSensorJob implements SensorJob {
      * internal.client.DigitalSTROMAPI, java.lang.String)
      */
     @Override
-    public void execute(DigitalSTROMAPI digitalSTROM, String token) {
+    public boolean execute(DigitalSTROMAPI digitalSTROM, String token) {
         DeviceConfig config = digitalSTROM.getDeviceConfig(token, this.device.getDSID(), null,
                 DeviceParameterClassEnum.CLASS_128, this.sceneId);
 
-        if (config != null) {
-            this.device.setSceneOutputValue(this.sceneId, (short) config.getValue());
-            logger.info("UPDATED sceneOutputValue for dsid: " + this.device.getDSID() + ", sceneID: " + sceneId
-                    + ", value: " + config.getValue());
+        if (config == null) {
+            return false;
         }
+
+        this.device.setSceneOutputValue(this.sceneId, (short) config.getValue());
+        logger.info("UPDATED sceneOutputValue for dsid: " + this.device.getDSID() + ", sceneID: " + sceneId
+                + ", value: " + config.getValue());
+        return true;
     }
 
     @Override
@@ -65,6 +68,11 @@ public class SceneOutputValueSensorJob implements SensorJob {
         return false;
     }
 
+    @Override
+    public int hashCode() {
+        return (this.device.getDSID().getValue() + "-" + this.sceneId).hashCode();
+    }
+
     @Override
     public DSID getDsid() {
         return device.getDSID();
@@ -23,6 +23,11 @@ import org.openhab.binding.digitalstrom.internal.client.entity.DSID;
 public interface SensorJob {
     public DSID getDsid();
 
-    public void execute(DigitalSTROMAPI digitalSTROM, String token);
+    /**
+     * Reads the value of this job from the dSS and updates the device.
+     *
+     * @return <code>false</code> if the dSS did not return the value
+     */
+    public boolean execute(DigitalSTROMAPI digitalSTROM, String token);
 
 }
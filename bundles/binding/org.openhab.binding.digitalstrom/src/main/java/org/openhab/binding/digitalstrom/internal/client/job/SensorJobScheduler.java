@@ -0,0 +1,254 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.digitalstrom.internal.client.job;
+
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.openhab.binding.digitalstrom.internal.client.entity.DSID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Queues the {@link SensorJob}s of the digitalSTROM binding by priority.
+ *
+ * A job which equals a queued job is merged into it: it keeps its place in
+ * the queue, and it is moved to the higher priority if it is added with a
+ * higher priority than before. Jobs of one priority are taken in the order
+ * they were queued.
+ *
+ * The time between two jobs adapts to the response times of the dSS: it
+ * follows the average duration of the recent jobs, it is doubled after a job
+ * failed or took so long that the dSS is likely overloaded, and it is halved
+ * again with every job that succeeds in time.
+ *
+ * The time jobs spent waiting in the queue is recorded per priority and
+ * logged periodically.
+ *
+ * @since 1.15.0
+ */
+public class SensorJobScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(SensorJobScheduler.class);
+
+    /**
+     * The priority of a sensor job
+     */
+    public enum Priority {
+        HIGH,
+        MEDIUM,
+        LOW
+    }
+
+    /** The interval in which the queue statistics are logged */
+    private static final long STATISTICS_LOG_INTERVAL = 5 * 60 * 1000;
+
+    /** The weight of the latest job duration in the average job duration */
+    private static final double DURATION_WEIGHT = 0.2;
+
+    private final Map<Priority, LinkedHashMap<SensorJob, Long>> queues = new EnumMap<Priority, LinkedHashMap<SensorJob, Long>>(
+            Priority.class);
+
+    private final long[] waitCount = new long[Priority.values().length];
+    private final long[] waitTotal = new long[Priority.values().length];
+    private final long[] waitMax = new long[Priority.values().length];
+    private long mergedJobs = 0;
+    private long lastStatisticsLog = System.currentTimeMillis();
+
+    private long minInterval;
+    private long maxInterval;
+    private double averageDuration = 0;
+    private long interval;
+
+    private boolean closed = false;
+
+    /**
+     * @param minInterval the minimum time in milliseconds between two jobs
+     * @param maxInterval the maximum time in milliseconds between two jobs;
+     *            jobs which take longer than half of this time are treated as
+     *            an overload of the dSS
+     */
+    public SensorJobScheduler(long minInterval, long maxInterval) {
+        for (Priority priority : Priority.values()) {
+            queues.put(priority, new LinkedHashMap<SensorJob, Long>());
+        }
+        setIntervals(minInterval, maxInterval);
+    }
+
+    /**
+     * Sets the bounds of the time between two jobs.
+     *
+     * @param minInterval the minimum time in milliseconds between two jobs
+     * @param maxInterval the maximum time in milliseconds between two jobs
+     */
+    public synchronized void setIntervals(long minInterval, long maxInterval) {
+        this.minInterval = minInterval;
+        this.maxInterval = Math.max(minInterval, maxInterval);
+        this.interval = minInterval;
+    }
+
+    /**
+     * Queues a job, unless an equal job is already queued with the same or a
+     * higher priority.
+     *
+     * @param job the job to queue
+     * @param priority the priority of the job
+     */
+    public synchronized void add(SensorJob job, Priority priority) {
+        if (closed) {
+            return;
+        }
+
+        Long queuedSince = null;
+        for (Priority queued : Priority.values()) {
+            LinkedHashMap<SensorJob, Long> queue = queues.get(queued);
+            if (queue.containsKey(job)) {
+                if (queued.compareTo(priority) <= 0) {
+                    mergedJobs++;
+                    return;
+                }
+                queuedSince = queue.remove(job);
+                mergedJobs++;
+                break;
+            }
+        }
+
+        queues.get(priority).put(job, queuedSince != null ? queuedSince : System.currentTimeMillis());
+        notifyAll();
+    }
+
+    /**
+     * Takes the job which has the highest priority and has been queued the
+     * longest, waiting until a job is queued or the scheduler is closed.
+     *
+     * @return the job, or <code>null</code> if the scheduler has been closed
+     * @throws InterruptedException if the thread was interrupted while waiting
+     */
+    public synchronized SensorJob take() throws InterruptedException {
+        while (!closed) {
+            for (Priority priority : Priority.values()) {
+                Iterator<Map.Entry<SensorJob, Long>> iter = queues.get(priority).entrySet().iterator();
+                if (iter.hasNext()) {
+                    Map.Entry<SensorJob, Long> entry = iter.next();
+                    iter.remove();
+                    recordWait(priority, System.currentTimeMillis() - entry.getValue());
+                    return entry.getKey();
+                }
+            }
+            wait();
+        }
+        return null;
+    }
+
+    /**
+     * Removes all queued jobs of a device.
+     *
+     * @param dsid the dSID of the device
+     */
+    public synchronized void remove(DSID dsid) {
+        for (LinkedHashMap<SensorJob, Long> queue : queues.values()) {
+            for (Iterator<SensorJob> iter = queue.keySet().iterator(); iter.hasNext();) {
+                if (iter.next().getDsid().equals(dsid)) {
+                    iter.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes all queued jobs and wakes up the threads waiting for a job.
+     */
+    public synchronized void close() {
+        closed = true;
+        for (LinkedHashMap<SensorJob, Long> queue : queues.values()) {
+            queue.clear();
+        }
+        notifyAll();
+    }
+
+    /**
+     * Records the outcome of a job and adapts the time until the next job.
+     *
+     * @param duration the time in milliseconds the job took
+     * @param failed <code>true</code> if the job failed or the dSS did not
+     *            return its value
+     * @return the time in milliseconds to wait before the next job
+     */
+    public synchronized long jobFinished(long duration, boolean failed) {
+        averageDuration = averageDuration == 0 ? duration
+                : DURATION_WEIGHT * duration + (1 - DURATION_WEIGHT) * averageDuration;
+
+        if (failed || duration > maxInterval / 2) {
+            interval = Math.min(maxInterval, Math.max(interval * 2, minInterval));
+            logger.debug("dSS is slow to respond (last job took {} ms), waiting {} ms between sensor jobs", duration,
+                    interval);
+        } else {
+            long target = Math.max(minInterval, Math.min(maxInterval, (long) averageDuration));
+            interval = interval > target ? Math.max(target, interval / 2) : target;
+        }
+        return interval;
+    }
+
+    /**
+     * Returns the number of queued jobs of a priority.
+     */
+    public synchronized int getQueueSize(Priority priority) {
+        return queues.get(priority).size();
+    }
+
+    /**
+     * Returns the average time in milliseconds the jobs of a priority waited
+     * in the queue.
+     */
+    public synchronized long getAverageWaitTime(Priority priority) {
+        int i = priority.ordinal();
+        return waitCount[i] == 0 ? 0 : waitTotal[i] / waitCount[i];
+    }
+
+    /**
+     * Returns the longest time in milliseconds a job of a priority waited in
+     * the queue.
+     */
+    public synchronized long getMaxWaitTime(Priority priority) {
+        return waitMax[priority.ordinal()];
+    }
+
+    /**
+     * Returns the number of jobs which have been merged into a queued job.
+     */
+    public synchronized long getMergedJobs() {
+        return mergedJobs;
+    }
+
+    private void recordWait(Priority priority, long waitTime) {
+        int i = priority.ordinal();
+        waitCount[i]++;
+        waitTotal[i] += waitTime;
+        waitMax[i] = Math.max(waitMax[i], waitTime);
+
+        long now = System.currentTimeMillis();
+        if (now - lastStatisticsLog >= STATISTICS_LOG_INTERVAL) {
+            lastStatisticsLog = now;
+            if (logger.isDebugEnabled()) {
+                for (Priority p : Priority.values()) {
+                    logger.debug("{} priority sensor jobs: {} queued, {} taken, wait avg={} ms, max={} ms", p,
+                            getQueueSize(p), waitCount[p.ordinal()], getAverageWaitTime(p), getMaxWaitTime(p));
+                }
+                logger.debug("{} sensor jobs merged, {} ms between jobs", mergedJobs, interval);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,196 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.dsmr.internal;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.dsmr.internal.cosem.CosemValue;
+import org.openhab.binding.dsmr.internal.messages.OBISMessage;
+import org.openhab.binding.dsmr.internal.messages.OBISMsgFactory;
+import org.openhab.binding.dsmr.internal.p1telegram.P1TelegramParser;
+import org.openhab.core.library.types.DecimalType;
+import org.openhab.io.simulator.Frame;
+import org.openhab.io.simulator.FrameLog;
+import org.openhab.io.simulator.FrameReplayer;
+import org.openhab.io.simulator.LatencyRecorder;
+import org.openhab.io.simulator.RecordingEventPublisher;
+
+/**
+ * Replays recorded DSMR v5.0 telegrams through the P1 telegram parser and
+ * publishes the values of the bound items the way {@link DSMRBinding} does,
+ * to catch regressions in the number of updates and in the time the binding
+ * needs to publish them.
+ *
+ * @since 1.15.0
+ */
+public class DSMRReplayTest {
+
+    /** DSMR v5.0 meters send a telegram every second */
+    private static final long TELEGRAM_INTERVAL_MICROS = 1000000;
+
+    private static final int TELEGRAMS = 50;
+
+    /** replays the telegrams 100 times faster, i.e. every 10 ms */
+    private static final double SPEED_UP = 100;
+
+    /** item name and DSMR item id of the bound items */
+    private static final Map<String, String> ITEMS = new LinkedHashMap<String, String>();
+
+    static {
+        ITEMS.put("Delivery1", "eDeliveryTariff1");
+        ITEMS.put("Delivery2", "eDeliveryTariff2");
+        ITEMS.put("Production1", "eProductionTariff1");
+        ITEMS.put("ActualDelivery", "eActualDelivery");
+        ITEMS.put("Gas", "gValue");
+    }
+
+    private LatencyRecorder recorder;
+    private RecordingEventPublisher publisher;
+    private PipedOutputStream meter;
+    private Thread reader;
+    private volatile Throwable readerFailure;
+
+    @Before
+    public void setUp() throws IOException {
+        recorder = new LatencyRecorder();
+        publisher = new RecordingEventPublisher(recorder);
+
+        final P1TelegramParser parser = new P1TelegramParser(new OBISMsgFactory(Arrays.asList(
+                new DSMRMeter(DSMRMeterType.ELECTRICITY, 0), new DSMRMeter(DSMRMeterType.GAS, 1))));
+        meter = new PipedOutputStream();
+        final InputStream port = new PipedInputStream(meter, 8192);
+
+        // reads the port like DSMRPort, but blocking instead of polling
+        reader = new Thread("DSMR replay reader") {
+            @Override
+            public void run() {
+                byte[] buffer = new byte[1024];
+                try {
+                    int read;
+                    while ((read = port.read(buffer)) > 0) {
+                        publish(parser.parseData(buffer, 0, read));
+                    }
+                } catch (IOException e) {
+                    // the replay has been closed
+                } catch (Throwable t) {
+                    readerFailure = t;
+                }
+            }
+        };
+        reader.start();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        meter.close();
+        reader.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    /**
+     * Publishes the values of the bound items like {@link DSMRBinding#execute()}.
+     */
+    private void publish(List<OBISMessage> messages) {
+        for (OBISMessage msg : messages) {
+            for (Entry<String, String> item : ITEMS.entrySet()) {
+                for (CosemValue<? extends Object> openHABValue : msg.getOpenHABValues()) {
+                    if (item.getValue().equals(openHABValue.getDsmrItemId())) {
+                        publisher.postUpdate(item.getKey(), openHABValue.getValue());
+                    }
+                }
+            }
+        }
+    }
+
+    private static byte[] readTelegram(String name) throws IOException {
+        try (InputStream in = DSMRReplayTest.class.getResourceAsStream("/" + name)) {
+            assertNotNull(name, in);
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[1024];
+            int read;
+            while ((read = in.read(buffer)) >= 0) {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        }
+    }
+
+    @Test
+    public void testReplayPublishesEveryTelegram() throws Exception {
+        byte[] telegram = readTelegram("dsmr_50.txt");
+        List<Frame> frames = new ArrayList<Frame>();
+        for (int i = 0; i < TELEGRAMS; i++) {
+            frames.add(new Frame(i * TELEGRAM_INTERVAL_MICROS, Frame.Direction.IN, telegram));
+        }
+
+        int written = new FrameReplayer(new FrameLog(frames), SPEED_UP).replay(meter, recorder);
+        assertEquals(TELEGRAMS, written);
+
+        int expectedUpdates = TELEGRAMS * ITEMS.size();
+        assertTrue("Only " + recorder.getSummary().getUpdates() + " of " + expectedUpdates + " updates received",
+                recorder.awaitUpdates(expectedUpdates, 10, TimeUnit.SECONDS));
+        // give a duplicate update the chance to show up
+        assertFalse(recorder.awaitUpdates(expectedUpdates + 1, 100, TimeUnit.MILLISECONDS));
+        assertNull(readerFailure);
+
+        LatencyRecorder.Summary summary = recorder.getSummary();
+        assertEquals(TELEGRAMS, summary.getFrames());
+        assertEquals(expectedUpdates, summary.getUpdates());
+        // a telegram must be published well before the next one arrives
+        assertTrue("Drain time " + summary, summary.getDrainMicros() < TELEGRAM_INTERVAL_MICROS / SPEED_UP);
+
+        assertEquals(new DecimalType(new BigDecimal("51.775")), publisher.getState("Delivery1"));
+        assertEquals(new DecimalType(new BigDecimal("0.335")), publisher.getState("ActualDelivery"));
+        assertEquals(new DecimalType(new BigDecimal("16.713")), publisher.getState("Gas"));
+    }
+
+    @Test
+    public void testTelegramUpdatesEachItemOnce() throws Exception {
+        byte[] telegram = readTelegram("dsmr_50.txt");
+        recorder.frameSent();
+        meter.write(telegram);
+        meter.flush();
+
+        assertTrue(recorder.awaitUpdates(ITEMS.size(), 10, TimeUnit.SECONDS));
+        assertFalse(recorder.awaitUpdates(ITEMS.size() + 1, 100, TimeUnit.MILLISECONDS));
+        assertEquals(Collections.emptyList(), unpublishedItems());
+    }
+
+    private List<String> unpublishedItems() {
+        List<String> items = new ArrayList<String>();
+        for (String itemName : ITEMS.keySet()) {
+            if (publisher.getState(itemName) == null) {
+                items.add(itemName);
+            }
+        }
+        return items;
+    }
+}
@@ -0,0 +1,102 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.dsmr.internal.cosem;
+
+import static org.junit.Assert.*;
+
+import java.math.BigDecimal;
+import java.text.ParseException;
+import java.util.Calendar;
+
+import org.junit.Test;
+import org.openhab.core.library.types.DecimalType;
+
+/**
+ * Tests the parsing of COSEM values
+ *
+ * @since 1.15.0
+ */
+public class CosemValueTest {
+
+    private static DecimalType parseFloat(String unit, String value) throws ParseException {
+        CosemFloat cosemFloat = new CosemFloat(unit, "");
+        cosemFloat.setValue(value);
+        return cosemFloat.getValue();
+    }
+
+    private static DecimalType parseInteger(String unit, String value) throws ParseException {
+        CosemInteger cosemInteger = new CosemInteger(unit, "");
+        cosemInteger.setValue(value);
+        return cosemInteger.getValue();
+    }
+
+    private static Calendar parseDate(String value) throws ParseException {
+        CosemDate cosemDate = new CosemDate("", "");
+        cosemDate.setValue(value);
+        return cosemDate.getValue().getCalendar();
+    }
+
+    @Test
+    public void float_isExact() throws ParseException {
+        assertEquals(new DecimalType(new BigDecimal("1234.567")), parseFloat("kWh", "001234.567*kWh"));
+        assertEquals(new DecimalType(new BigDecimal("-0.5")), parseFloat("kW", "-0.5*kW"));
+        assertEquals(new DecimalType(42), parseFloat("", "00042"));
+        assertEquals(new DecimalType(new BigDecimal("12345678901234567890.5")),
+                parseFloat("", "12345678901234567890.5"));
+    }
+
+    @Test
+    public void float_dropsTrailingZeros() throws ParseException {
+        assertEquals("229", parseFloat("V", "229.0*V").toString());
+        assertEquals("0.35", parseFloat("kW", "00.350*kW").toString());
+        assertEquals("0", parseFloat("kW", "000.000*kW").toString());
+        assertEquals("1234567890123456789000", parseFloat("", "1234567890123456789000.00").toString());
+    }
+
+    @Test(expected = ParseException.class)
+    public void float_rejectsWrongUnit() throws ParseException {
+        parseFloat("kWh", "001234.567*kW");
+    }
+
+    @Test(expected = ParseException.class)
+    public void float_rejectsInvalidNumber() throws ParseException {
+        parseFloat("", "12.3.4");
+    }
+
+    @Test
+    public void integer_isParsed() throws ParseException {
+        assertEquals(new DecimalType(240), parseInteger("s", "0000000240*s"));
+        assertEquals(new DecimalType(Integer.MAX_VALUE), parseInteger("s", "2147483647*s"));
+    }
+
+    @Test(expected = ParseException.class)
+    public void integer_rejectsOverflow() throws ParseException {
+        parseInteger("s", "4294967295*s");
+    }
+
+    @Test
+    public void date_isParsedInAllFormats() throws ParseException {
+        Calendar expected = Calendar.getInstance();
+        expected.clear();
+        expected.set(2017, Calendar.NOVEMBER, 5, 20, 13, 24);
+
+        assertEquals(expected.getTimeInMillis(), parseDate("171105201324W").getTimeInMillis());
+        assertEquals(expected.getTimeInMillis(), parseDate("171105201324").getTimeInMillis());
+        assertEquals(expected.getTimeInMillis(), parseDate("17-11-05 20:13:24").getTimeInMillis());
+    }
+
+    @Test(expected = ParseException.class)
+    public void date_rejectsInvalidDate() throws ParseException {
+        parseDate("17-11-05T20:13:24");
+    }
+}
@@ -0,0 +1,219 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.dsmr.internal.p1telegram;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.dsmr.internal.DSMRMeter;
+import org.openhab.binding.dsmr.internal.DSMRMeterType;
+import org.openhab.binding.dsmr.internal.messages.OBISMessage;
+import org.openhab.binding.dsmr.internal.messages.OBISMsgFactory;
+import org.openhab.binding.dsmr.internal.messages.OBISMsgType;
+import org.openhab.core.library.types.DecimalType;
+import org.openhab.core.types.State;
+
+/**
+ * Tests the P1TelegramParser with P1 telegrams of DSMR v2.2 up to v5.0
+ *
+ * @since 1.15.0
+ */
+public class P1TelegramParserTest {
+
+    private P1TelegramParser parser;
+
+    @Before
+    public void setUp() {
+        List<DSMRMeter> meters = Arrays.asList(new DSMRMeter(DSMRMeterType.ELECTRICITY, 0),
+                new DSMRMeter(DSMRMeterType.GAS, 1));
+
+        parser = new P1TelegramParser(new OBISMsgFactory(meters));
+    }
+
+    private static byte[] readTelegram(String name) throws IOException {
+        try (InputStream in = P1TelegramParserTest.class.getResourceAsStream("/" + name)) {
+            assertNotNull(name, in);
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[1024];
+            int read;
+            while ((read = in.read(buffer)) >= 0) {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        }
+    }
+
+    /** Counts the OBIS data lines of a telegram, i.e. the lines starting with a digit */
+    private static int countDataLines(byte[] telegram) {
+        int count = 0;
+        for (String line : new String(telegram, StandardCharsets.US_ASCII).split("\r\n")) {
+            if (!line.isEmpty() && Character.isDigit(line.charAt(0))) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static OBISMessage find(List<OBISMessage> messages, OBISMsgType msgType) {
+        for (OBISMessage message : messages) {
+            if (message.getMsgType() == msgType) {
+                return message;
+            }
+        }
+        fail(msgType + " not found in " + messages);
+        return null;
+    }
+
+    private static State value(List<OBISMessage> messages, OBISMsgType msgType, int index) {
+        return find(messages, msgType).getOpenHABValues().get(index).getValue();
+    }
+
+    private List<OBISMessage> parseInChunks(byte[] telegram, int chunkSize) {
+        List<OBISMessage> messages = new ArrayList<OBISMessage>();
+
+        for (int offset = 0; offset < telegram.length; offset += chunkSize) {
+            messages.addAll(parser.parseData(telegram, offset, Math.min(chunkSize, telegram.length - offset)));
+        }
+        return messages;
+    }
+
+    private void assertAllLinesParsed(String name) throws IOException {
+        byte[] telegram = readTelegram(name);
+
+        List<OBISMessage> messages = parser.parseData(telegram, 0, telegram.length);
+
+        assertEquals(name, countDataLines(telegram), messages.size());
+    }
+
+    @Test
+    public void dsmr22_isParsed() throws IOException {
+        assertAllLinesParsed("dsmr_22.txt");
+    }
+
+    @Test
+    public void dsmr30_isParsed() throws IOException {
+        assertAllLinesParsed("dsmr_30.txt");
+    }
+
+    @Test
+    public void dsmr40_isParsed() throws IOException {
+        assertAllLinesParsed("dsmr_40.txt");
+    }
+
+    @Test
+    public void dsmr42_isParsed() throws IOException {
+        assertAllLinesParsed("dsmr_42.txt");
+    }
+
+    @Test
+    public void dsmr50_isParsed() throws IOException {
+        assertAllLinesParsed("dsmr_50.txt");
+    }
+
+    @Test
+    public void values_areDecoded() throws IOException {
+        byte[] telegram = readTelegram("dsmr_50.txt");
+
+        List<OBISMessage> messages = parser.parseData(telegram, 0, telegram.length);
+
+        assertEquals(new DecimalType(new BigDecimal("51.775")),
+                value(messages, OBISMsgType.EMETER_DELIVERY_TARIFF1, 0));
+        assertEquals(new DecimalType(new BigDecimal("229.0")),
+                value(messages, OBISMsgType.EMETER_INSTANT_VOLTAGE_L1, 0));
+        assertEquals(new DecimalType(1), value(messages, OBISMsgType.EMETER_INSTANT_CURRENT_L3, 0));
+        assertEquals(new DecimalType(new BigDecimal("16.713")), value(messages, OBISMsgType.GMETER_VALUE_V4, 1));
+        assertEquals("50", value(messages, OBISMsgType.P1_VERSION_OUTPUT_V4, 0).toString());
+    }
+
+    @Test
+    public void incompatibleValue_fallsBackToNextMessageType() throws IOException {
+        byte[] telegram = readTelegram("dsmr_22.txt");
+
+        List<OBISMessage> messages = parser.parseData(telegram, 0, telegram.length);
+
+        // 0-0:17.0.0 is in A for DSMR v2.2 / v3, but this meter reports kW
+        assertEquals(new DecimalType(new BigDecimal("999.00")), value(messages, OBISMsgType.EMETER_TRESHOLD_V4, 0));
+        assertEquals(new DecimalType(new BigDecimal("302.511")), value(messages, OBISMsgType.GMETER_VALUE_V3, 6));
+    }
+
+    @Test
+    public void splitData_isParsedAsOneTelegram() throws IOException {
+        byte[] telegram = readTelegram("dsmr_42.txt");
+
+        for (int chunkSize : new int[] { 1, 7, 64 }) {
+            assertEquals(countDataLines(telegram), parseInChunks(telegram, chunkSize).size());
+        }
+    }
+
+    @Test
+    public void consecutiveTelegrams_areParsedSeparately() throws IOException {
+        byte[] first = readTelegram("dsmr_40.txt");
+        byte[] second = readTelegram("dsmr_50.txt");
+        byte[] data = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, data, first.length, second.length);
+
+        assertEquals(countDataLines(first) + countDataLines(second), parseInChunks(data, 100).size());
+    }
+
+    @Test
+    public void consecutiveTelegramsInOneBuffer_areAllReturned() throws IOException {
+        byte[] first = readTelegram("dsmr_40.txt");
+        byte[] second = readTelegram("dsmr_50.txt");
+        byte[] data = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, data, first.length, second.length);
+
+        assertEquals(countDataLines(first) + countDataLines(second), parser.parseData(data, 0, data.length).size());
+    }
+
+    @Test
+    public void crcMismatch_dropsTelegram() throws IOException {
+        byte[] telegram = readTelegram("dsmr_50.txt");
+        String text = new String(telegram, StandardCharsets.US_ASCII).replace("000051.775", "000051.776");
+        byte[] corrupted = text.getBytes(StandardCharsets.US_ASCII);
+
+        assertTrue(parser.parseData(corrupted, 0, corrupted.length).isEmpty());
+
+        // The parser recovers with the next telegram
+        assertEquals(countDataLines(telegram), parser.parseData(telegram, 0, telegram.length).size());
+    }
+
+    @Test
+    public void dataBeforeStart_isIgnored() throws IOException {
+        byte[] telegram = readTelegram("dsmr_40.txt");
+        byte[] data = new byte[telegram.length + 20];
+        System.arraycopy(telegram, telegram.length - 20, data, 0, 20);
+        System.arraycopy(telegram, 0, data, 20, telegram.length);
+
+        assertEquals(countDataLines(telegram), parser.parseData(data, 0, data.length).size());
+    }
+
+    @Test
+    public void crc_matchesCheckValue() {
+        int crc = 0;
+        for (byte b : "123456789".getBytes(StandardCharsets.US_ASCII)) {
+            crc = P1TelegramParserState.updateCrc(crc, b);
+        }
+        assertEquals(0xBB3D, crc);
+    }
+}
@@ -13,15 +13,9 @@
 package org.openhab.binding.dsmr.internal.cosem;
 
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.Calendar;
-import java.util.Date;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import org.openhab.core.library.types.DateTimeType;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 /**
  * CosemDate represents a datetime value and will try to autodetect the format
@@ -30,41 +24,20 @@ import org.slf4j.LoggerFactory;
  * @since 1.7.0
  */
 public class CosemDate extends CosemValue<DateTimeType> {
-    // logger
-    private static final Logger logger = LoggerFactory.getLogger(CosemDate.class);
-
-    /**
-     * This enum contains the known date formats for the DSMR-specification
+    /*
+     * Two digit years are resolved to the century starting 80 years before
+     * now, the same way as SimpleDateFormat does
      */
-    private enum CosemDateFormat {
-        /*
-         * Ignore DST setting for general format. We use local time that is
-         * already DST
-         */
-        COSEM_DATE_GENERAL("(\\d{12})([S,W]?)", "yyMMddHHmmss"),
-        COSEM_DATE_DSMR_V2("(\\d{2}-\\d{2}-\\d{2} \\d{2}:\\d{2}:\\d{2})", "yy-MM-dd HH:mm:ss");
-
-        /* Cached compiled pattern */
-        final Pattern pattern;
-
-        /* Cached java date formatter */
-        final SimpleDateFormat formatter;
-
-        /**
-         * Constructs a new CosemDateFormat
-         *
-         * @param regex
-         *            String containing the regular expression to check the
-         *            value against (the date format should at least contain 1
-         *            regex group
-         * @param javaDateFormat
-         *            String containing the datetime format to use for parsing
-         */
-        private CosemDateFormat(String regex, String javaDateFormat) {
-            pattern = Pattern.compile(regex);
-            formatter = new SimpleDateFormat(javaDateFormat);
-        }
-    }
+    private static final int CENTURY_START_YEAR = Calendar.getInstance().get(Calendar.YEAR) - 80;
+
+    /* Offsets of the date fields in the general format yyMMddHHmmss[S|W] */
+    private static final int[] GENERAL_FORMAT_OFFSETS = { 0, 2, 4, 6, 8, 10 };
+
+    /* Offsets of the date fields in the DSMR v2 format yy-MM-dd HH:mm:ss */
+    private static final int[] DSMR_V2_FORMAT_OFFSETS = { 0, 3, 6, 9, 12, 15 };
+
+    /* Separators of the date fields in the DSMR v2 format */
+    private static final char[] DSMR_V2_FORMAT_SEPARATORS = { '-', '-', ' ', ':', ':' };
 
     /**
      * Creates a new CosemDate
@@ -79,9 +52,9 @@ public class CosemDate extends CosemValue<DateTimeType> {
     }
 
     /**
-     * Parses a String value to an openHAB DateTimeType
+     * Parses a raw value to an openHAB DateTimeType
      * <p>
-     * The input string must be in the format yyMMddHHmmssX
+     * The input must be in the format yyMMddHHmmssX or yy-MM-dd HH:mm:ss
      * <p>
      * Based on the DSMR specification X is:
      * <p>
@@ -90,32 +63,74 @@ public class CosemDate extends CosemValue<DateTimeType> {
      * <li>'S'. Specifies a summer time (DST = 1) datetime
      * <li>'W'. Specifies a winter time (DST = 0) datetime
      * </ul>
+     * The DST indicator is ignored, the local time is already DST.
      *
-     * @param cosemValue
-     *            the value to parse
+     * @param data
+     *            buffer containing the value to parse
+     * @param offset
+     *            offset of the value in the buffer
+     * @param length
+     *            length of the value
      * @return {@link DateTimeType} on success
      * @throws ParseException
      *             if parsing failed
      */
     @Override
-    protected DateTimeType parse(String cosemValue) throws ParseException {
-        for (CosemDateFormat cosemDateFormat : CosemDateFormat.values()) {
-            logger.debug("Trying pattern: {}", cosemDateFormat.pattern);
+    protected DateTimeType parse(byte[] data, int offset, int length) throws ParseException {
+        int[] fields = null;
+
+        if (length == 12 || (length == 13 && isDSTIndicator(data[offset + 12]))) {
+            fields = parseFields(data, offset, GENERAL_FORMAT_OFFSETS);
+        } else if (length == 17 && hasDSMRV2Separators(data, offset)) {
+            fields = parseFields(data, offset, DSMR_V2_FORMAT_OFFSETS);
+        }
+        if (fields == null) {
+            throw new ParseException("value: " + toString(data, offset, length) + " is not a known CosemDate string",
+                    0);
+        }
+
+        int year = CENTURY_START_YEAR / 100 * 100 + fields[0];
+        if (year < CENTURY_START_YEAR) {
+            year += 100;
+        }
+
+        Calendar c = Calendar.getInstance();
+        c.clear();
+        c.set(year, fields[1] - 1, fields[2], fields[3], fields[4], fields[5]);
 
-            Matcher m = cosemDateFormat.pattern.matcher(cosemValue);
+        return new DateTimeType(c);
+    }
 
-            if (m.matches()) {
-                logger.debug("{} matches pattern: {}", cosemValue, cosemDateFormat.pattern);
+    /**
+     * Parses the two digit date fields at the specified offsets
+     *
+     * @return the field values or null if a field is not numeric
+     */
+    private static int[] parseFields(byte[] data, int offset, int[] fieldOffsets) {
+        int[] fields = new int[fieldOffsets.length];
 
-                Date date = cosemDateFormat.formatter.parse(m.group(1));
+        for (int i = 0; i < fieldOffsets.length; i++) {
+            int high = data[offset + fieldOffsets[i]] - '0';
+            int low = data[offset + fieldOffsets[i] + 1] - '0';
 
-                Calendar c = Calendar.getInstance();
-                c.setTime(date);
+            if (high < 0 || high > 9 || low < 0 || low > 9) {
+                return null;
+            }
+            fields[i] = high * 10 + low;
+        }
+        return fields;
+    }
+
+    private static boolean isDSTIndicator(byte b) {
+        return b == 'S' || b == 'W';
+    }
 
-                return new DateTimeType(c);
+    private static boolean hasDSMRV2Separators(byte[] data, int offset) {
+        for (int i = 1; i < DSMR_V2_FORMAT_OFFSETS.length; i++) {
+            if (data[offset + DSMR_V2_FORMAT_OFFSETS[i] - 1] != DSMR_V2_FORMAT_SEPARATORS[i - 1]) {
+                return false;
             }
-            logger.debug("{} does not match pattern: {}", cosemValue, cosemDateFormat.pattern);
         }
-        throw new ParseException("value: " + cosemValue + " is not a known CosemDate string", 0);
+        return true;
     }
 }
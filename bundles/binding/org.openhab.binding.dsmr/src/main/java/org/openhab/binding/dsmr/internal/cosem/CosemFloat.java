@@ -12,6 +12,7 @@
  */
 package org.openhab.binding.dsmr.internal.cosem;
 
+import java.math.BigDecimal;
 import java.text.ParseException;
 
 import org.openhab.core.library.types.DecimalType;
@@ -23,6 +24,8 @@ import org.openhab.core.library.types.DecimalType;
  * @since 1.7.0
  */
 public class CosemFloat extends CosemValue<DecimalType> {
+    /* Number of digits that always fit in a long */
+    private static final int MAX_LONG_DIGITS = 18;
 
     /**
      * Creates a new CosemFloat
@@ -37,20 +40,71 @@ public class CosemFloat extends CosemValue<DecimalType> {
     }
 
     /**
-     * Parses a String value (that represents a float) to an openHAB DecimalType
+     * Parses a raw value (that represents a decimal number) to an openHAB
+     * DecimalType
+     * <p>
+     * The digits are accumulated into an unscaled long value, so the value is
+     * taken over exactly as received without intermediate String or float.
+     * Trailing zeros of the fraction are dropped like the float parsing did
+     * before, e.g. <code>000229.0</code> becomes <code>229</code>.
      * 
-     * @param cosemValue
-     *            the value to parse
+     * @param data
+     *            buffer containing the value to parse
+     * @param offset
+     *            offset of the value in the buffer
+     * @param length
+     *            length of the value
      * @return {@link DecimalType} on success
      * @throws ParseException
      *             if parsing failed
      */
     @Override
-    protected DecimalType parse(String cosemValue) throws ParseException {
-        try {
-            return new DecimalType(Float.parseFloat(cosemValue));
-        } catch (NumberFormatException nfe) {
-            throw new ParseException("Failed to parse value " + value + " as float", 0);
+    protected DecimalType parse(byte[] data, int offset, int length) throws ParseException {
+        int i = offset;
+        int end = offset + length;
+        boolean negative = false;
+
+        if (i < end && (data[i] == '-' || data[i] == '+')) {
+            negative = data[i] == '-';
+            i++;
+        }
+
+        long unscaled = 0;
+        int digits = 0;
+        int scale = -1;
+        for (; i < end; i++) {
+            byte b = data[i];
+            if (b >= '0' && b <= '9') {
+                unscaled = unscaled * 10 + (b - '0');
+                digits++;
+                if (scale >= 0) {
+                    scale++;
+                }
+            } else if (b == '.' && scale < 0) {
+                scale = 0;
+            } else {
+                throw new ParseException("Failed to parse value " + toString(data, offset, length) + " as float", 0);
+            }
+        }
+        if (digits == 0) {
+            throw new ParseException("Failed to parse value " + toString(data, offset, length) + " as float", 0);
+        }
+
+        if (digits > MAX_LONG_DIGITS) {
+            BigDecimal value = new BigDecimal(toString(data, offset, length)).stripTrailingZeros();
+            // keep integral values out of exponent notation, e.g. 1E+3
+            return new DecimalType(value.scale() < 0 ? value.setScale(0) : value);
+        }
+        if (negative) {
+            unscaled = -unscaled;
+        }
+        while (scale > 0 && unscaled % 10 == 0) {
+            unscaled /= 10;
+            scale--;
+        }
+        if (scale <= 0) {
+            return new DecimalType(unscaled);
         }
+        return new DecimalType(BigDecimal.valueOf(unscaled, scale));
     }
 }
@@ -37,21 +37,53 @@ public class CosemInteger extends CosemValue<DecimalType> {
     }
 
     /**
-     * Parses a String value (that represents an integer) to an openHAB
+     * Parses a raw value (that represents an integer) to an openHAB
      * DecimalType
      * 
-     * @param cosemValue
-     *            the value to parse
+     * @param data
+     *            buffer containing the value to parse
+     * @param offset
+     *            offset of the value in the buffer
+     * @param length
+     *            length of the value
      * @return {@link DecimalType} on success
      * @throws ParseException
      *             if parsing failed
      */
     @Override
-    protected DecimalType parse(String cosemValue) throws ParseException {
-        try {
-            return new DecimalType(Integer.parseInt(cosemValue));
-        } catch (NumberFormatException nfe) {
-            throw new ParseException("Failed to parse value " + value + " as integer", 0);
+    protected DecimalType parse(byte[] data, int offset, int length) throws ParseException {
+        int i = offset;
+        int end = offset + length;
+        boolean negative = false;
+
+        if (i < end && (data[i] == '-' || data[i] == '+')) {
+            negative = data[i] == '-';
+            i++;
+        }
+        if (i == end) {
+            throw new ParseException("Failed to parse value " + toString(data, offset, length) + " as integer", 0);
+        }
+
+        long result = 0;
+        for (; i < end; i++) {
+            int digit = data[i] - '0';
+            if (digit < 0 || digit > 9) {
+                throw new ParseException("Failed to parse value " + toString(data, offset, length) + " as integer",
+                        0);
+            }
+            result = result * 10 + digit;
+            if (result > Integer.MAX_VALUE + 1L) {
+                throw new ParseException("Failed to parse value " + toString(data, offset, length) + " as integer",
+                        0);
+            }
         }
+        if (negative) {
+            result = -result;
+        }
+        if (result > Integer.MAX_VALUE) {
+            throw new ParseException("Failed to parse value " + toString(data, offset, length) + " as integer", 0);
+        }
+
+        return new DecimalType(result);
     }
 }
@@ -36,17 +36,20 @@ public class CosemString extends CosemValue<StringType> {
     }
 
     /**
-     * Parses a String value (that represents an integer) to an openHAB
-     * StringType
+     * Parses a raw value to an openHAB StringType
      * 
-     * @param cosemValue
-     *            the value to parse
+     * @param data
+     *            buffer containing the value to parse
+     * @param offset
+     *            offset of the value in the buffer
+     * @param length
+     *            length of the value
      * @return {@link StringType} on success
      * @throws ParseException
      *             if parsing failed
      */
     @Override
-    protected StringType parse(String cosemValue) throws ParseException {
-        return new StringType(cosemValue);
+    protected StringType parse(byte[] data, int offset, int length) throws ParseException {
+        return new StringType(toString(data, offset, length));
     }
 }
@@ -12,11 +12,9 @@
  */
 package org.openhab.binding.dsmr.internal.cosem;
 
+import java.nio.charset.StandardCharsets;
 import java.text.ParseException;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
-import org.openhab.binding.dsmr.internal.DSMRPort;
 import org.openhab.core.types.State;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -32,7 +30,7 @@ import org.slf4j.LoggerFactory;
  */
 public abstract class CosemValue<T extends State> {
     /* logger */
-    private static final Logger logger = LoggerFactory.getLogger(DSMRPort.class);
+    private static final Logger logger = LoggerFactory.getLogger(CosemValue.class);
 
     /** openHAB value */
     protected T value;
@@ -40,6 +38,9 @@ public abstract class CosemValue<T extends State> {
     /* unit of this cosemValue */
     private final String unit;
 
+    /* unit of this cosemValue as it appears in the P1 telegram */
+    private final byte[] unitBytes;
+
     /* DSMR item identifier used by openHAB items */
     private final String dsmrItemId;
 
@@ -58,47 +59,90 @@ public abstract class CosemValue<T extends State> {
         }
         this.dsmrItemId = dsmrItemId;
         this.unit = unit;
+        this.unitBytes = unit.getBytes(StandardCharsets.ISO_8859_1);
     }
 
     /**
-     * Parses the string value to the openHAB type
-     * 
-     * @param cosemValue
-     *            the COSEM value to parse
+     * Parses the raw value to the openHAB type
+     *
+     * @param data
+     *            buffer containing the COSEM value
+     * @param offset
+     *            offset of the value in the buffer
+     * @param length
+     *            length of the value (without unit)
      * @return T the openHAB value of this COSEM value
      * @throws ParseException
      *             if parsing failed
      */
-    protected abstract T parse(String cosemValue) throws ParseException;
+    protected abstract T parse(byte[] data, int offset, int length) throws ParseException;
 
     /**
      * Sets the value of this CosemValue
      * <p>
      * This method will automatically parse the unit and the value of the COSEM
      * value string
-     * 
+     *
      * @param cosemValue
      *            the cosemValue
      * @throws ParseException
      *             if parsing failed
      */
     public void setValue(String cosemValue) throws ParseException {
-        if (unit.length() > 0) {
-            // Check if COSEM value has a unit, check and parse the value
-            Pattern p = Pattern.compile("(.*)\\*" + unit);
-            Matcher m = p.matcher(cosemValue);
-
-            if (m.matches()) {
-                value = parse(m.group(1));
-            } else {
-                throw new ParseException("Unit of " + cosemValue + " is not " + unit, 0);
+        byte[] data = cosemValue.getBytes(StandardCharsets.ISO_8859_1);
+
+        setValue(data, 0, data.length);
+    }
+
+    /**
+     * Sets the value of this CosemValue directly from the received bytes
+     * <p>
+     * This method will automatically check the unit and parse the value
+     *
+     * @param data
+     *            buffer containing the COSEM value
+     * @param offset
+     *            offset of the value in the buffer
+     * @param length
+     *            length of the value including the unit
+     * @throws ParseException
+     *             if parsing failed
+     */
+    public void setValue(byte[] data, int offset, int length) throws ParseException {
+        if (unitBytes.length > 0) {
+            // Check if COSEM value ends with '*' and the unit, then parse the value
+            int valueLength = length - unitBytes.length - 1;
+
+            if (valueLength < 0 || data[offset + valueLength] != '*') {
+                throw new ParseException("Unit of " + toString(data, offset, length) + " is not " + unit, 0);
+            }
+            for (int i = 0; i < unitBytes.length; i++) {
+                if (data[offset + valueLength + 1 + i] != unitBytes[i]) {
+                    throw new ParseException("Unit of " + toString(data, offset, length) + " is not " + unit, 0);
+                }
             }
+            value = parse(data, offset, valueLength);
         } else {
             // COSEM value does not have a unit, parse value
-            value = parse(cosemValue);
+            value = parse(data, offset, length);
         }
     }
 
+    /**
+     * Returns the String representation of a raw COSEM value
+     *
+     * @param data
+     *            buffer containing the COSEM value
+     * @param offset
+     *            offset of the value in the buffer
+     * @param length
+     *            length of the value
+     * @return String representation of the raw value
+     */
+    protected static String toString(byte[] data, int offset, int length) {
+        return new String(data, offset, length, StandardCharsets.ISO_8859_1);
+    }
+
     /**
      * Return the openHAB value
      * 
@@ -12,6 +12,8 @@
  */
 package org.openhab.binding.dsmr.internal.cosem;
 
+import java.lang.reflect.Constructor;
+
 import org.openhab.core.types.State;
 
 /**
@@ -30,6 +32,9 @@ public class CosemValueDescriptor {
     /* String describing the dsmrItemId for openHAB items */
     private final String dsmrItemId;
 
+    /* Cached constructor of the CosemValue class */
+    private volatile Constructor<? extends CosemValue<? extends State>> cosemValueConstructor;
+
     /**
      * Creates a new CosemValueDescriptor
      * 
@@ -57,6 +62,23 @@ public class CosemValueDescriptor {
         return cosemValueClass;
     }
 
+    /**
+     * Creates a new, empty CosemValue as described by this descriptor
+     *
+     * @return the new CosemValue
+     * @throws ReflectiveOperationException
+     *             if the CosemValue can't be instantiated
+     */
+    public CosemValue<? extends State> newCosemValue() throws ReflectiveOperationException {
+        Constructor<? extends CosemValue<? extends State>> c = cosemValueConstructor;
+
+        if (c == null) {
+            c = cosemValueClass.getConstructor(String.class, String.class);
+            cosemValueConstructor = c;
+        }
+        return c.newInstance(unit, dsmrItemId);
+    }
+
     /**
      * Returns the unit
      * 
@@ -29,6 +29,15 @@ public class OBISIdentifier implements Comparable<OBISIdentifier> {
     /* OBIS ID pattern */
     private static final Pattern obisIdPattern = Pattern.compile(OBISID_REGEX);
 
+    /* Maximum value of a single group in a reduced key */
+    public static final int MAX_GROUP_VALUE = 0xFF;
+
+    /* Number of bits used for a single group in a reduced key */
+    private static final int GROUP_BITS = 8;
+
+    /* Reduced key of an OBIS identifier that can't be represented as a key */
+    public static final long INVALID_KEY = -1;
+
     /* the six individual group values of the OBIS ID */
     private Integer groupA;
     private Integer groupB;
@@ -237,6 +246,59 @@ public class OBISIdentifier implements Comparable<OBISIdentifier> {
                 + ((groupF != null) ? groupF.hashCode() : 0);
     }
 
+    /**
+     * Returns the key of the reduced OBIS Identifier (see {@link #getReducedKey(int, int, int, int, int)})
+     *
+     * @return reduced key or {@link #INVALID_KEY} if this identifier can't be represented as a key
+     */
+    public long getReducedKey() {
+        return getReducedKey(groupA != null ? groupA : 0, groupB != null ? groupB : 0, groupC, groupD,
+                groupE != null ? groupE : 0);
+    }
+
+    /**
+     * Packs the groups A to E of an OBIS identifier into a single key. Group F is not part of the key.
+     * <p>
+     * Absent optional groups must be passed as 0. This matches the lookup by {@link #hashCode()} and
+     * {@link #equals(Object)} where an absent group only resolves to identifiers having 0 for that group.
+     *
+     * @param groupA
+     *            A value
+     * @param groupB
+     *            B value
+     * @param groupC
+     *            C value
+     * @param groupD
+     *            D value
+     * @param groupE
+     *            E value
+     * @return reduced key or {@link #INVALID_KEY} if a group is outside 0..{@value #MAX_GROUP_VALUE}
+     */
+    public static long getReducedKey(int groupA, int groupB, int groupC, int groupD, int groupE) {
+        if (((groupA | groupB | groupC | groupD | groupE) & ~MAX_GROUP_VALUE) != 0) {
+            return INVALID_KEY;
+        }
+        return ((long) groupA << (4 * GROUP_BITS)) | ((long) groupB << (3 * GROUP_BITS))
+                | ((long) groupC << (2 * GROUP_BITS)) | (groupD << GROUP_BITS) | groupE;
+    }
+
+    /**
+     * Returns the String representation of a reduced key (see {@link #getReducedKey(int, int, int, int, int)})
+     *
+     * @param reducedKey
+     *            the reduced key
+     * @return String representation (A-B:C.D.E) of the reduced key
+     */
+    public static String reducedKeyToString(long reducedKey) {
+        if (reducedKey < 0) {
+            return "<invalid>";
+        }
+        return (reducedKey >> (4 * GROUP_BITS) & MAX_GROUP_VALUE) + "-"
+                + (reducedKey >> (3 * GROUP_BITS) & MAX_GROUP_VALUE) + ":"
+                + (reducedKey >> (2 * GROUP_BITS) & MAX_GROUP_VALUE) + "." + (reducedKey >> GROUP_BITS & MAX_GROUP_VALUE)
+                + "." + (reducedKey & MAX_GROUP_VALUE);
+    }
+
     /**
      * Returns an reduced OBIS Identifier. This means group F is set to null
      * (.i.e. not applicable)
@@ -12,7 +12,6 @@
  */
 package org.openhab.binding.dsmr.internal.messages;
 
-import java.lang.reflect.Constructor;
 import java.text.ParseException;
 import java.util.ArrayList;
 import java.util.Calendar;
@@ -102,8 +101,71 @@ public class OBISMessage {
      *             if parsing fails
      */
     public void parseCosemValues(List<String> cosemStringValues) throws ParseException {
-        logger.debug("Received items: {}, Needed items: {}", cosemStringValues.size(),
-                msgType.cosemValueDescriptors.size());
+        checkValueCount(cosemStringValues.size());
+
+        for (int i = 0; i < cosemStringValues.size(); i++) {
+            CosemValue<? extends State> cosemValue = getCosemValue(msgType.cosemValueDescriptors.get(i));
+            if (cosemValue != null) {
+                cosemValue.setValue(cosemStringValues.get(i));
+                cosemValues.add(cosemValue);
+            } else {
+                logger.error("Failed to parse: {} for OBISMsgType: {}", cosemStringValues.get(i), msgType);
+            }
+        }
+        postProcess();
+    }
+
+    /**
+     * Parses the COSEM values directly from the received bytes to internal
+     * openHAB values.
+     * <p>
+     * Value i of this message is located at valueOffsets[firstValue + i] and
+     * has length valueLengths[firstValue + i]. When the parser has problems it
+     * throws an {@link ParseException}. The already parsed values will still be
+     * available. It is up to the caller how to handle a partially parsed
+     * message.
+     *
+     * @param data
+     *            buffer containing the COSEM values
+     * @param valueOffsets
+     *            offsets of the COSEM values in the buffer
+     * @param valueLengths
+     *            lengths of the COSEM values
+     * @param firstValue
+     *            index of the first value of this message in valueOffsets and valueLengths
+     * @param valueCount
+     *            number of values of this message
+     * @throws ParseException
+     *             if parsing fails
+     */
+    public void parseCosemValues(byte[] data, int[] valueOffsets, int[] valueLengths, int firstValue, int valueCount)
+            throws ParseException {
+        checkValueCount(valueCount);
+
+        for (int i = 0; i < valueCount; i++) {
+            CosemValue<? extends State> cosemValue = getCosemValue(msgType.cosemValueDescriptors.get(i));
+            int idx = firstValue + i;
+
+            if (cosemValue != null) {
+                cosemValue.setValue(data, valueOffsets[idx], valueLengths[idx]);
+                cosemValues.add(cosemValue);
+            } else {
+                logger.error("Failed to parse value {} for OBISMsgType: {}", i, msgType);
+            }
+        }
+        postProcess();
+    }
+
+    /**
+     * Checks if the number of received values fits this message type
+     *
+     * @param valueCount
+     *            number of received values
+     * @throws ParseException
+     *             if there are more values than this message type supports
+     */
+    private void checkValueCount(int valueCount) throws ParseException {
+        logger.debug("Received items: {}, Needed items: {}", valueCount, msgType.cosemValueDescriptors.size());
 
         /*
          * It is not necessarily a problem if 'Needed items' > 'Received items'.
@@ -113,25 +175,16 @@ public class OBISMessage {
          * Since the minority of the messages has such features, differences
          * between received and needed could indicate problems
          */
-        if (cosemStringValues.size() <= msgType.cosemValueDescriptors.size()) {
-            for (int i = 0; i < cosemStringValues.size(); i++) {
-
-                CosemValue<? extends State> cosemValue = getCosemValue(msgType.cosemValueDescriptors.get(i));
-                if (cosemValue != null) {
-                    cosemValue.setValue(cosemStringValues.get(i));
-                    cosemValues.add(cosemValue);
-                } else {
-                    logger.error("Failed to parse: {} for OBISMsgType: {}", cosemStringValues.get(i), msgType);
-                }
-            }
-        } else {
-            throw new ParseException("Received items:" + cosemStringValues.size() + ", Needed items:"
-                    + msgType.cosemValueDescriptors.size(), 0);
+        if (valueCount > msgType.cosemValueDescriptors.size()) {
+            throw new ParseException(
+                    "Received items:" + valueCount + ", Needed items:" + msgType.cosemValueDescriptors.size(), 0);
         }
+    }
 
-        /*
-         * Here we do a post processing on the values
-         */
+    /**
+     * Here we do a post processing on the values
+     */
+    private void postProcess() {
         switch (msgType) {
             case EMETER_POWER_FAILURE_LOG:
                 postProcessKaifaE0003();
@@ -150,16 +203,8 @@ public class OBISMessage {
      *         CosemValueDescriptor
      */
     private CosemValue<? extends State> getCosemValue(CosemValueDescriptor cosemValueDescriptor) {
-        Class<? extends CosemValue<? extends State>> cosemValueClass = cosemValueDescriptor.getCosemValueClass();
-
-        String unit = cosemValueDescriptor.getUnit();
-        String dsmrItemId = cosemValueDescriptor.getDsmrItemId();
-
         try {
-            Constructor<? extends CosemValue<? extends State>> c = cosemValueClass.getConstructor(String.class,
-                    String.class);
-
-            return c.newInstance(unit, dsmrItemId);
+            return cosemValueDescriptor.newCosemValue();
         } catch (ReflectiveOperationException roe) {
             logger.error("Failed to create {} message", msgType.obisId, roe);
         }
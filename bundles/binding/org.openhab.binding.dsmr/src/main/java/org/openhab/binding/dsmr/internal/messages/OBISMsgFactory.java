@@ -12,8 +12,11 @@
  */
 package org.openhab.binding.dsmr.internal.messages;
 
+import java.nio.charset.StandardCharsets;
 import java.text.ParseException;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -33,8 +36,10 @@ public class OBISMsgFactory {
     /* logger */
     private static final Logger logger = LoggerFactory.getLogger(OBISMsgFactory.class);
 
-    /* internal lookup cache */
-    private final HashMap<OBISIdentifier, List<OBISMsgType>> obisLookupTable;
+    /* internal lookup table, open addressing on the reduced OBIS key */
+    private final long[] lookupKeys;
+    private final OBISMsgType[][] lookupMsgTypes;
+    private final int lookupMask;
 
     /**
      * Creates a new OBISMsgFactory
@@ -43,18 +48,34 @@ public class OBISMsgFactory {
      *            available DSMR meters (see {@link DSMRMeter}) in the binding
      */
     public OBISMsgFactory(List<DSMRMeter> dsmrMeters) {
+        // Create a convenience lookup table for a channel based on meter type
+        Map<DSMRMeterType, Integer> meterChannelMapping = new HashMap<DSMRMeterType, Integer>();
+        for (DSMRMeter meter : dsmrMeters) {
+            meterChannelMapping.put(meter.getMeterType(), meter.getChannel());
+        }
+
         /*
          * Fill a lookup table with OBIS message types based on the specified
          * channel - MeterType mapping
          */
-        obisLookupTable = new HashMap<OBISIdentifier, List<OBISMsgType>>();
+        Map<Long, List<OBISMsgType>> msgTypesByKey = collectMsgTypes(meterChannelMapping);
 
-        // Create a convenience lookup table for a channel based on meter type
-        Map<DSMRMeterType, Integer> meterChannelMapping = new HashMap<DSMRMeterType, Integer>();
-        for (DSMRMeter meter : dsmrMeters) {
-            meterChannelMapping.put(meter.getMeterType(), meter.getChannel());
+        int capacity = Integer.highestOneBit(Math.max(msgTypesByKey.size(), 1) * 4);
+        lookupKeys = new long[capacity];
+        lookupMsgTypes = new OBISMsgType[capacity][];
+        lookupMask = capacity - 1;
+        Arrays.fill(lookupKeys, OBISIdentifier.INVALID_KEY);
+
+        for (Map.Entry<Long, List<OBISMsgType>> entry : msgTypesByKey.entrySet()) {
+            long key = entry.getKey();
+            int slot = slot(key);
+
+            while (lookupKeys[slot] != OBISIdentifier.INVALID_KEY) {
+                slot = (slot + 1) & lookupMask;
+            }
+            lookupKeys[slot] = key;
+            lookupMsgTypes[slot] = entry.getValue().toArray(new OBISMsgType[0]);
         }
-        fillLookupTable(meterChannelMapping);
     }
 
     /**
@@ -68,56 +89,153 @@ public class OBISMsgFactory {
      * @return OBISMessage or null if parsing failed
      */
     public OBISMessage getMessage(String obisIdString, LinkedList<String> cosemStringValues) {
-        OBISIdentifier obisId = null;
-        OBISIdentifier reducedObisId = null;
+        long obisKey;
 
         try {
-            obisId = new OBISIdentifier(obisIdString);
-            reducedObisId = obisId.getReducedOBISIdentifier();
+            obisKey = new OBISIdentifier(obisIdString).getReducedKey();
         } catch (ParseException pe) {
             logger.error("Received invalid OBIS identifier: {}", obisIdString);
 
             return null;
         }
 
-        logger.debug("Received obisIdString {}, obisId: {}, values: {}", obisIdString, obisId, cosemStringValues);
+        int valueCount = cosemStringValues.size();
+        byte[][] values = new byte[valueCount][];
+        int[] valueOffsets = new int[valueCount];
+        int[] valueLengths = new int[valueCount];
+        int length = 0;
 
-        if (obisLookupTable.containsKey(reducedObisId)) {
-            List<OBISMsgType> compatibleMsgTypes = obisLookupTable.get(reducedObisId);
+        for (int i = 0; i < valueCount; i++) {
+            values[i] = cosemStringValues.get(i).getBytes(StandardCharsets.ISO_8859_1);
+            valueOffsets[i] = length;
+            valueLengths[i] = values[i].length;
+            length += values[i].length;
+        }
+        byte[] data = new byte[length];
+        for (int i = 0; i < valueCount; i++) {
+            System.arraycopy(values[i], 0, data, valueOffsets[i], valueLengths[i]);
+        }
+
+        return getMessage(obisKey, data, valueOffsets, valueLengths, 0, valueCount);
+    }
+
+    /**
+     * Return OBISMessage for the specified reduced OBIS key or null if the
+     * values couldn't be parsed correctly or no corresponding OBISMessage was
+     * found
+     * <p>
+     * The Cosem values are read directly from the specified buffer. Value i of
+     * this message is located at valueOffsets[firstValue + i] and has length
+     * valueLengths[firstValue + i].
+     *
+     * @param obisKey
+     *            reduced OBIS key (see {@link OBISIdentifier#getReducedKey(int, int, int, int, int)})
+     * @param data
+     *            buffer containing the Cosem values
+     * @param valueOffsets
+     *            offsets of the Cosem values in the buffer
+     * @param valueLengths
+     *            lengths of the Cosem values
+     * @param firstValue
+     *            index of the first value of this message in valueOffsets and valueLengths
+     * @param valueCount
+     *            number of values of this message
+     * @return OBISMessage or null if parsing failed
+     */
+    public OBISMessage getMessage(long obisKey, byte[] data, int[] valueOffsets, int[] valueLengths, int firstValue,
+            int valueCount) {
+        if (obisKey < 0) {
+            logger.error("Received invalid OBIS identifier");
+
+            return null;
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("Received obisId: {}, values: {}", OBISIdentifier.reducedKeyToString(obisKey),
+                    valuesToString(data, valueOffsets, valueLengths, firstValue, valueCount));
+        }
 
-            OBISMessage msg = null;
+        OBISMsgType[] compatibleMsgTypes = lookup(obisKey);
+        if (compatibleMsgTypes != null) {
+            logger.debug("Found {} compatible message type(s)", compatibleMsgTypes.length);
 
-            logger.debug("Found {} compatible message type(s)", compatibleMsgTypes.size());
             for (OBISMsgType msgType : compatibleMsgTypes) {
-                msg = new OBISMessage(msgType);
+                OBISMessage msg = new OBISMessage(msgType);
 
                 try {
                     logger.debug("Parse values for OBIS Message type: {}", msgType);
 
-                    msg.parseCosemValues(cosemStringValues);
+                    msg.parseCosemValues(data, valueOffsets, valueLengths, firstValue, valueCount);
 
                     return msg;
                 } catch (ParseException pe) {
-                    logger.debug("Failed to parse OBIS identifier {}, values: {} for type {} ", obisId,
-                            cosemStringValues, msgType, pe);
+                    if (logger.isDebugEnabled()) {
+                        logger.debug("Failed to parse OBIS identifier {}, values: {} for type {} ",
+                                OBISIdentifier.reducedKeyToString(obisKey),
+                                valuesToString(data, valueOffsets, valueLengths, firstValue, valueCount), msgType, pe);
+                    }
                 }
             }
-            logger.error("Failed to parse OBIS identifier {}, values: {}", obisId, cosemStringValues);
+            logger.error("Failed to parse OBIS identifier {}, values: {}", OBISIdentifier.reducedKeyToString(obisKey),
+                    valuesToString(data, valueOffsets, valueLengths, firstValue, valueCount));
         } else {
-            logger.warn("Received OBIS unknown message: {}", obisId);
+            logger.warn("Received OBIS unknown message: {}", OBISIdentifier.reducedKeyToString(obisKey));
         }
         return null;
     }
 
     /**
-     * This method fills a lookup table with the OBIS message types based on the
-     * mapping channel - {@link DSMRMeterType}
+     * Returns the compatible OBIS message types for the specified reduced key
+     *
+     * @param obisKey
+     *            reduced OBIS key
+     * @return compatible OBIS message types or null if there are none
+     */
+    private OBISMsgType[] lookup(long obisKey) {
+        int slot = slot(obisKey);
+
+        while (lookupKeys[slot] != OBISIdentifier.INVALID_KEY) {
+            if (lookupKeys[slot] == obisKey) {
+                return lookupMsgTypes[slot];
+            }
+            slot = (slot + 1) & lookupMask;
+        }
+        return null;
+    }
+
+    /**
+     * Returns the first slot in the lookup table for the specified reduced key
+     */
+    private int slot(long obisKey) {
+        long h = obisKey * 0x9E3779B97F4A7C15L;
+
+        return (int) (h ^ (h >>> 32)) & lookupMask;
+    }
+
+    /**
+     * Returns the String representation of the Cosem values (for logging purposes)
+     */
+    private static String valuesToString(byte[] data, int[] valueOffsets, int[] valueLengths, int firstValue,
+            int valueCount) {
+        List<String> values = new LinkedList<String>();
+
+        for (int i = firstValue; i < firstValue + valueCount; i++) {
+            values.add(new String(data, valueOffsets[i], valueLengths[i], StandardCharsets.ISO_8859_1));
+        }
+        return values.toString();
+    }
+
+    /**
+     * This method collects the OBIS message types by reduced OBIS key based on
+     * the mapping channel - {@link DSMRMeterType}
      * <p>
      *
      * @param mapping
      *            DSMRMeterType - channel mapping
+     * @return the OBIS message types by reduced OBIS key in declaration order
      */
-    private void fillLookupTable(Map<DSMRMeterType, Integer> mapping) {
+    private static Map<Long, List<OBISMsgType>> collectMsgTypes(Map<DSMRMeterType, Integer> mapping) {
+        Map<Long, List<OBISMsgType>> msgTypesByKey = new LinkedHashMap<Long, List<OBISMsgType>>();
+
         for (OBISMsgType t : OBISMsgType.values()) {
             OBISIdentifier obisId = t.obisId;
 
@@ -143,11 +261,18 @@ public class OBISMsgFactory {
                 }
             }
             if (obisId != null) {
-                if (!obisLookupTable.containsKey(obisId)) {
-                    obisLookupTable.put(obisId, new LinkedList<OBISMsgType>());
+                long key = obisId.getReducedKey();
+
+                if (key == OBISIdentifier.INVALID_KEY) {
+                    logger.debug("OBIS-identifier {} can't be looked up", obisId);
+                } else {
+                    if (!msgTypesByKey.containsKey(key)) {
+                        msgTypesByKey.put(key, new LinkedList<OBISMsgType>());
+                    }
+                    msgTypesByKey.get(key).add(t);
                 }
-                obisLookupTable.get(obisId).add(t);
             }
         }
+        return msgTypesByKey;
     }
 }
@@ -12,10 +12,13 @@
  */
 package org.openhab.binding.dsmr.internal.p1telegram;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.LinkedList;
+import java.util.Collections;
 import java.util.List;
 
+import org.openhab.binding.dsmr.internal.messages.OBISIdentifier;
 import org.openhab.binding.dsmr.internal.messages.OBISMessage;
 import org.openhab.binding.dsmr.internal.messages.OBISMsgFactory;
 import org.slf4j.Logger;
@@ -28,6 +31,12 @@ import org.slf4j.LoggerFactory;
  * This class parses data via the public method parseData. It will parse the
  * received data. If a complete P1 telegram is received the OBIS messages are
  * returned. Otherwise it will continue parsing with the next call op parseData.
+ * <p>
+ * The data is parsed byte by byte. OBIS Identifiers are decoded to their reduced
+ * key (see {@link OBISIdentifier#getReducedKey(int, int, int, int, int)}) and the
+ * values are stored in a reusable buffer, so no Strings are created while
+ * parsing. If the P1 telegram contains a CRC (DSMR V4 and up) the telegram is
+ * only accepted if the CRC matches.
  *
  * @author mvolaart
  * @since 1.7.0
@@ -36,6 +45,9 @@ public class P1TelegramParser {
     // Logger
     public static final Logger logger = LoggerFactory.getLogger(P1TelegramParser.class);
 
+    // Maximum number of value bytes of a single P1 telegram
+    private static final int MAX_VALUES_SIZE = 64 * 1024;
+
     // Helper classers
     private OBISMsgFactory factory;
 
@@ -43,8 +55,20 @@ public class P1TelegramParser {
     private P1TelegramParserState parserState;
 
     // Current P1Telegram values
-    private LinkedList<OBISDataLine> obisDataLines;
-    private OBISDataLine currentLine = null;
+    private byte[] values = new byte[1024];
+    private int valuesLength;
+    private int valueStart;
+    private int[] valueOffsets = new int[64];
+    private int[] valueLengths = new int[64];
+    private int valueCount;
+
+    // Current P1Telegram OBIS data lines, e.g. '0-0:96.3.10(1)'
+    private long[] lineKeys = new long[64];
+    private int[] lineFirstValues = new int[64];
+    private int[] lineValueCounts = new int[64];
+    private int lineCount;
+    private boolean lineOpen;
+    private long currentObisKey = OBISIdentifier.INVALID_KEY;
 
     /**
      * Creates a new P1TelegramParser
@@ -55,7 +79,6 @@ public class P1TelegramParser {
     public P1TelegramParser(OBISMsgFactory factory) {
         this.factory = factory;
 
-        obisDataLines = new LinkedList<OBISDataLine>();
         parserState = new P1TelegramParserState();
     }
 
@@ -74,19 +97,27 @@ public class P1TelegramParser {
      *         empty list if parsing is not ready or failed completely.
      */
     public List<OBISMessage> parseData(byte[] data, int offset, int length) {
-        List<OBISMessage> receivedMessages = new LinkedList<OBISMessage>();
+        List<OBISMessage> receivedMessages = Collections.emptyList();
 
         if (logger.isTraceEnabled()) {
-            logger.trace("Data: {}, state before parsing: {}", new String(Arrays.copyOfRange(data, offset, length)),
-                    parserState);
+            logger.trace("Data: {}, state before parsing: {}",
+                    new String(data, offset, length, StandardCharsets.ISO_8859_1), parserState);
         }
         for (int i = offset; i < (offset + length); i++) {
-            char c = (char) data[i];
+            byte b = data[i];
+            char c = (char) (b & 0xFF);
+
+            P1TelegramParserState.State state = parserState.getState();
+            if (state != P1TelegramParserState.State.WAIT_FOR_START
+                    && state != P1TelegramParserState.State.CRC_VALUE) {
+                parserState.handleCrcByte(b);
+            }
 
-            switch (parserState.getState()) {
+            switch (state) {
                 case WAIT_FOR_START:
                     if (c == '/') {
                         parserState.setState(P1TelegramParserState.State.STARTED);
+                        parserState.handleCrcByte(b);
 
                         handleNewP1Telegram();
                     }
@@ -101,10 +132,11 @@ public class P1TelegramParser {
                     }
                     break;
                 case CRLF:
-                    if (Character.isWhitespace(c)) {
+                    if (isWhitespace(c)) {
                         // do nothing
-                    } else if (Character.isDigit(c)) {
+                    } else if (isDigit(c)) {
                         parserState.setState(P1TelegramParserState.State.DATA_OBIS_ID);
+                        parserState.handleObisIdCharacter(c);
 
                         finishObisLine();
                     } else {
@@ -114,11 +146,13 @@ public class P1TelegramParser {
                     }
                     break;
                 case DATA_OBIS_ID:
-                    if (Character.isWhitespace(c)) {
+                    if (isWhitespace(c)) {
                         // ignore
-                    } else if (Character.isDigit(c) || c == ':' || c == '-' || c == '.' || c == '*') {
-                        // do nothing
+                    } else if (isDigit(c) || c == ':' || c == '-' || c == '.' || c == '*') {
+                        parserState.handleObisIdCharacter(c);
                     } else if (c == '(') {
+                        currentObisKey = parserState.getObisKey();
+
                         parserState.setState(P1TelegramParserState.State.DATA_OBIS_VALUE_START);
                     } else if (c == '!') {
                         logger.warn("Unexpected character '!'. Going to state: {}",
@@ -132,12 +166,15 @@ public class P1TelegramParser {
                     }
                     break;
                 case DATA_OBIS_VALUE_START:
+                    valueStart = valuesLength;
                     if (c == ')') {
                         handleObisValueReady();
 
                         parserState.setState(P1TelegramParserState.State.DATA_OBIS_VALUE_END);
                     } else {
                         parserState.setState(P1TelegramParserState.State.DATA_OBIS_VALUE);
+
+                        storeValueByte(b);
                     }
                     break;
 
@@ -146,15 +183,22 @@ public class P1TelegramParser {
                         handleObisValueReady();
 
                         parserState.setState(P1TelegramParserState.State.DATA_OBIS_VALUE_END);
+                    } else if (valuesLength < MAX_VALUES_SIZE) {
+                        storeValueByte(b);
+                    } else {
+                        logger.warn("P1 telegram exceeds {} bytes of values. Dropping P1Telegram", MAX_VALUES_SIZE);
+
+                        parserState.setState(P1TelegramParserState.State.WAIT_FOR_START);
                     }
                     break;
                 case DATA_OBIS_VALUE_END:
-                    if (Character.isWhitespace(c)) {
+                    if (isWhitespace(c)) {
                         // ignore
-                    } else if (Character.isDigit(c)) {
+                    } else if (isDigit(c)) {
                         finishObisLine();
 
                         parserState.setState(P1TelegramParserState.State.DATA_OBIS_ID);
+                        parserState.handleObisIdCharacter(c);
                     } else if (c == '(') {
                         parserState.setState(P1TelegramParserState.State.DATA_OBIS_VALUE_START);
                     } else if (c == '!') {
@@ -168,30 +212,62 @@ public class P1TelegramParser {
 
                 case CRC_VALUE:
                     if (c == '\r') {
-                        if (parserState.getCrcValue().length() > 0) {
-                            // TODO: Handle CRC here
+                        if (isCrcValid()) {
+                            // the data may contain the end of more than one telegram
+                            if (receivedMessages.isEmpty()) {
+                                receivedMessages = handleEndP1Telegram();
+                            } else {
+                                receivedMessages.addAll(handleEndP1Telegram());
+                            }
                         }
 
-                        receivedMessages.addAll(handleEndP1Telegram());
+                        parserState.setState(P1TelegramParserState.State.WAIT_FOR_START);
+                    } else if (!parserState.handleCrcValueCharacter(c)) {
+                        handleUnexpectedCharacter(c);
 
                         parserState.setState(P1TelegramParserState.State.WAIT_FOR_START);
                     }
                     break;
             }
-            parserState.handleCharacter(c);
         }
         logger.trace("State after parsing: {}", parserState);
 
         return receivedMessages;
     }
 
+    /**
+     * Checks the received CRC value against the CRC calculated over the P1
+     * telegram. P1 telegrams without a CRC value (DSMR V2.x and V3) are
+     * always valid.
+     *
+     * @return true if the P1 telegram is valid, false otherwise
+     */
+    private boolean isCrcValid() {
+        int crcDigits = parserState.getCrcDigits();
+
+        if (crcDigits == 0) {
+            return true;
+        } else if (crcDigits == P1TelegramParserState.CRC_DIGITS
+                && parserState.getCrcValue() == parserState.getCrc()) {
+            return true;
+        } else {
+            logger.warn("CRC mismatch (received: {}, calculated: {}). Dropping P1Telegram",
+                    Integer.toHexString(parserState.getCrcValue()), Integer.toHexString(parserState.getCrc()));
+
+            return false;
+        }
+    }
+
     /**
      * Handles the start of a new P1 telegram This method will clear internal
      * state
      */
     private void handleNewP1Telegram() {
-        obisDataLines.clear();
-        currentLine = null;
+        valuesLength = 0;
+        valueCount = 0;
+        lineCount = 0;
+        lineOpen = false;
+        currentObisKey = OBISIdentifier.INVALID_KEY;
     }
 
     /**
@@ -201,15 +277,16 @@ public class P1TelegramParser {
     private List<OBISMessage> handleEndP1Telegram() {
         finishObisLine();
 
-        List<OBISMessage> obisMessages = new LinkedList<OBISMessage>();
+        List<OBISMessage> obisMessages = new ArrayList<OBISMessage>(lineCount);
 
-        for (OBISDataLine obisDataLine : obisDataLines) {
-            OBISMessage obisMessage = factory.getMessage(obisDataLine.obisId, obisDataLine.obisStringValues);
-            logger.debug("Parsed: {}, to: {}", obisDataLine, obisMessage);
+        for (int i = 0; i < lineCount; i++) {
+            OBISMessage obisMessage = factory.getMessage(lineKeys[i], values, valueOffsets, valueLengths,
+                    lineFirstValues[i], lineValueCounts[i]);
+            logger.debug("Parsed: {}, to: {}", OBISIdentifier.reducedKeyToString(lineKeys[i]), obisMessage);
             if (obisMessage != null) {
                 obisMessages.add(obisMessage);
             } else {
-                logger.warn("Failed to parse: {}", obisDataLine);
+                logger.warn("Failed to parse OBIS data line: {}", OBISIdentifier.reducedKeyToString(lineKeys[i]));
             }
         }
 
@@ -218,68 +295,71 @@ public class P1TelegramParser {
 
     /**
      * Handles an unexpected character. The character will be logged and the P1
-     * telegram will be finished.
+     * telegram will be dropped.
      *
      * @param c
      *            the unexpected character
      */
     private void handleUnexpectedCharacter(char c) {
-        logger.warn("Unexpected character '{}' in state: {}. Publishing partial P1Telegram and wait for new P1Telegram",
-                c, parserState);
+        logger.warn("Unexpected character '{}' in state: {}. Dropping P1Telegram and wait for new P1Telegram", c,
+                parserState);
+    }
 
-        handleEndP1Telegram();
+    /**
+     * Stores a single byte of the current OBIS value
+     *
+     * @param b
+     *            the byte to store
+     */
+    private void storeValueByte(byte b) {
+        if (valuesLength == values.length) {
+            values = Arrays.copyOf(values, values.length * 2);
+        }
+        values[valuesLength++] = b;
     }
 
     /**
      * Handle if a full OBIS value is parsed. This method will store the OBIS
-     * value in the current OBISDataLine
+     * value in the current OBIS data line
      */
     private void handleObisValueReady() {
-        if (currentLine == null) {
-            currentLine = new OBISDataLine(parserState.getObisId());
+        if (!lineOpen) {
+            if (lineCount == lineKeys.length) {
+                lineKeys = Arrays.copyOf(lineKeys, lineCount * 2);
+                lineFirstValues = Arrays.copyOf(lineFirstValues, lineCount * 2);
+                lineValueCounts = Arrays.copyOf(lineValueCounts, lineCount * 2);
+            }
+            lineKeys[lineCount] = currentObisKey;
+            lineFirstValues[lineCount] = valueCount;
+            lineValueCounts[lineCount] = 0;
+            lineOpen = true;
         }
-        currentLine.obisStringValues.add(parserState.getObisValue());
+        if (valueCount == valueOffsets.length) {
+            valueOffsets = Arrays.copyOf(valueOffsets, valueCount * 2);
+            valueLengths = Arrays.copyOf(valueLengths, valueCount * 2);
+        }
+        valueOffsets[valueCount] = valueStart;
+        valueLengths[valueCount] = valuesLength - valueStart;
+        valueCount++;
+        lineValueCounts[lineCount]++;
     }
 
     /**
      * Handle the end of a OBIS Line (i.e. all values are parsed)
      */
     private void finishObisLine() {
-        if (currentLine != null) {
-            obisDataLines.add(currentLine);
+        if (lineOpen) {
+            lineCount++;
 
-            currentLine = null;
+            lineOpen = false;
         }
     }
 
-    /**
-     * Class representing a OBISDataLine, e.g. '0-0:96.3.10(1)'
-     *
-     * @author mvolaart
-     * @since 1.7.0
-     */
-    class OBISDataLine {
-        // OBIS identifier
-        final String obisId;
-
-        // List of OBIS values
-        final LinkedList<String> obisStringValues;
-
-        /**
-         * Creates a new OBISDataLine
-         *
-         * @param obisId
-         *            OBISIdentifer
-         */
-        OBISDataLine(String obisId) {
-            this.obisId = obisId;
-
-            obisStringValues = new LinkedList<String>();
-        }
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\r' || c == '\n' || c == '\t';
+    }
 
-        @Override
-        public String toString() {
-            return "OBISDataLine [OBIS id:" + obisId + ", obis values:" + obisStringValues;
-        }
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
     }
 }
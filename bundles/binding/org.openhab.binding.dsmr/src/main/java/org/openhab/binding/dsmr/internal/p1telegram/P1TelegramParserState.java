@@ -12,16 +12,16 @@
  */
 package org.openhab.binding.dsmr.internal.p1telegram;
 
+import org.openhab.binding.dsmr.internal.messages.OBISIdentifier;
+
 /**
  * P1TelegramParserState stores the state of the P1TelegramParser The state
  * consists of the following attributes:
  * <ul>
- * <li>receivedData (all parsed data of a single P1 telegram)
- * <li>header (the header string of a single P1 telegram)
- * <li>obisId (the last OBIS Identifier seen or parsing)
- * <li>obisValue (the last OBIS value seen or parsing)
- * <li>crcValue (the last crc value seen or parsing)
  * <li>state (state in the P1 telegram)
+ * <li>crc (the CRC16 over the P1 telegram so far)
+ * <li>crcValue (the last crc value seen or parsing)
+ * <li>obisId (the groups of the last OBIS Identifier seen or parsing)
  * </ul>
  *
  * @author mvolaart
@@ -49,13 +49,35 @@ class P1TelegramParserState {
         CRC_VALUE
     };
 
+    /* Number of hexadecimal digits of a CRC value */
+    static final int CRC_DIGITS = 4;
+
+    /* OBIS Identifier parts, following the A-B:C.D.E*F format */
+    private static final int OBIS_PART_AB = 0;
+    private static final int OBIS_PART_D = 1;
+    private static final int OBIS_PART_E = 2;
+    private static final int OBIS_PART_F = 3;
+
+    /* Value that marks an OBIS Identifier group as out of range */
+    private static final int OBIS_GROUP_OVERFLOW = OBISIdentifier.MAX_GROUP_VALUE + 1;
+
     /* internal state variables */
-    private String receivedData = "";
-    private String header = "";
-    private String obisId = "";
-    private String obisValue = "";
-    private String crcValue = "";
     private State state = State.WAIT_FOR_START;
+    private int crc;
+    private int crcValue;
+    private int crcDigits;
+
+    /* internal OBIS Identifier state variables */
+    private int groupA;
+    private int groupB;
+    private int groupC;
+    private int groupD;
+    private int groupE;
+    private boolean groupASeen;
+    private boolean groupBSeen;
+    private int obisPart;
+    private int obisNumber;
+    private boolean obisIdValid;
 
     /**
      * Creates a new P1TelegramParser object
@@ -64,74 +86,173 @@ class P1TelegramParserState {
     }
 
     /**
-     * Stores a single character
-     * 
+     * Updates the CRC16 (polynomial x^16 + x^15 + x^2 + 1, LSB first) with a
+     * single byte
+     *
+     * @param crc
+     *            the current CRC
+     * @param b
+     *            the byte to add
+     * @return the updated CRC
+     */
+    static int updateCrc(int crc, byte b) {
+        crc ^= b & 0xFF;
+        for (int i = 0; i < 8; i++) {
+            if ((crc & 1) != 0) {
+                crc = (crc >>> 1) ^ 0xA001;
+            } else {
+                crc >>>= 1;
+            }
+        }
+        return crc;
+    }
+
+    /**
+     * Adds a single byte of the P1 telegram to the CRC
+     *
+     * @param b
+     *            the byte to add
+     */
+    void handleCrcByte(byte b) {
+        crc = updateCrc(crc, b);
+    }
+
+    /**
+     * Stores a single digit of the CRC value
+     *
      * @param c
      *            the character to store
+     * @return true if the character is a valid CRC digit, false otherwise
      */
-    void handleCharacter(char c) {
+    boolean handleCrcValueCharacter(char c) {
+        int digit = Character.digit(c, 16);
 
-        switch (state) {
-            case WAIT_FOR_START:
-                // ignore the data
-                break;
-            case STARTED:
-                header += c;
-                receivedData += c;
-                break;
-            case HEADER:
-                header += c;
-                receivedData += c;
-                break;
-            case CRLF:
-                receivedData += c;
-                break;
-            case DATA_OBIS_ID:
-                obisId += c;
-                receivedData += c;
-                break;
-            case DATA_OBIS_VALUE_START:
-                receivedData += c;
+        if (digit < 0 || crcDigits == CRC_DIGITS) {
+            return false;
+        }
+        crcValue = (crcValue << 4) | digit;
+        crcDigits++;
+
+        return true;
+    }
+
+    /**
+     * Stores a single character of the OBIS Identifier
+     * <p>
+     * Invalid OBIS Identifiers are not rejected immediately, they result in
+     * the key {@link OBISIdentifier#INVALID_KEY}
+     *
+     * @param c
+     *            the character to store
+     */
+    void handleObisIdCharacter(char c) {
+        if (c >= '0' && c <= '9') {
+            if (obisNumber < 0) {
+                obisNumber = 0;
+            }
+            if (obisNumber < OBIS_GROUP_OVERFLOW) {
+                obisNumber = obisNumber * 10 + (c - '0');
+            }
+            return;
+        }
+        if (obisNumber < 0) {
+            // Separator without a group value
+            obisIdValid = false;
+            return;
+        }
+        switch (c) {
+            case '-':
+                if (obisPart == OBIS_PART_AB && !groupASeen && !groupBSeen) {
+                    groupA = obisNumber;
+                    groupASeen = true;
+                } else {
+                    obisIdValid = false;
+                }
                 break;
-            case DATA_OBIS_VALUE:
-                obisValue += c;
-                receivedData += c;
+            case ':':
+                if (obisPart == OBIS_PART_AB && !groupBSeen) {
+                    groupB = obisNumber;
+                    groupBSeen = true;
+                } else {
+                    obisIdValid = false;
+                }
                 break;
-            case DATA_OBIS_VALUE_END:
-                receivedData += c;
+            case '.':
+                if (obisPart == OBIS_PART_AB) {
+                    groupC = obisNumber;
+                    obisPart = OBIS_PART_D;
+                } else if (obisPart == OBIS_PART_D) {
+                    groupD = obisNumber;
+                    obisPart = OBIS_PART_E;
+                } else {
+                    obisIdValid = false;
+                }
                 break;
-            case CRC_VALUE:
-                crcValue += c;
-                // CRC data is not part of received data
+            case '*':
+                if (obisPart == OBIS_PART_D || obisPart == OBIS_PART_E) {
+                    finishObisGroup();
+                    obisPart = OBIS_PART_F;
+                } else {
+                    obisIdValid = false;
+                }
                 break;
             default:
+                obisIdValid = false;
                 break;
         }
+        obisNumber = -1;
     }
 
     /**
-     * Clear internal state
+     * Finishes the last group of the OBIS Identifier
      */
-    private void clearInternalData() {
-        header = "";
-        obisId = "";
-        obisValue = "";
-        receivedData = "";
-        crcValue = "";
+    private void finishObisGroup() {
+        if (obisPart == OBIS_PART_D) {
+            groupD = obisNumber;
+        } else if (obisPart == OBIS_PART_E) {
+            groupE = obisNumber;
+        }
     }
 
     /**
-     * Clears the received OBIS Identifer
+     * Finishes the OBIS Identifier and returns its reduced key
+     *
+     * @return reduced key of the OBIS Identifier (see {@link OBISIdentifier#getReducedKey(int, int, int, int, int)})
+     *         or {@link OBISIdentifier#INVALID_KEY} if the OBIS Identifier is invalid
      */
-    private void clearObisId() {
-        obisId = "";
+    long getObisKey() {
+        if (!obisIdValid || obisNumber < 0 || obisPart == OBIS_PART_AB) {
+            return OBISIdentifier.INVALID_KEY;
+        }
+        finishObisGroup();
+
+        return OBISIdentifier.getReducedKey(groupA, groupB, groupC, groupD, groupE);
     }
 
     /**
-     * Clears the current OBIS value
+     * Clear internal state
      */
-    private void clearObisValue() {
-        obisValue = "";
+    private void clearInternalData() {
+        crc = 0;
+        crcValue = 0;
+        crcDigits = 0;
+        clearObisId();
+    }
+
+    /**
+     * Clears the received OBIS Identifer
+     */
+    private void clearObisId() {
+        groupA = 0;
+        groupB = 0;
+        groupC = 0;
+        groupD = 0;
+        groupE = 0;
+        groupASeen = false;
+        groupBSeen = false;
+        obisPart = OBIS_PART_AB;
+        obisNumber = -1;
+        obisIdValid = true;
     }
 
     /**
@@ -152,12 +273,6 @@ class P1TelegramParserState {
                 break;
             case DATA_OBIS_ID:
                 clearObisId();
-                clearObisValue();
-                break;
-            case DATA_OBIS_VALUE_START:
-                break;
-            case DATA_OBIS_VALUE:
-                clearObisValue();
                 break;
             default:
                 break;
@@ -167,42 +282,29 @@ class P1TelegramParserState {
     }
 
     /**
-     * @return the meterId
-     */
-    String getHeader() {
-        return header;
-    }
-
-    /**
-     * @return the obisId
-     */
-    String getObisId() {
-        return obisId;
-    }
-
-    /**
-     * @return the obisValue
+     * @return the CRC16 of the P1 telegram so far
      */
-    String getObisValue() {
-        return obisValue;
+    int getCrc() {
+        return crc;
     }
 
     /**
      * @return the crcValue
      */
-    String getCrcValue() {
+    int getCrcValue() {
         return crcValue;
     }
 
     /**
-     * @return the receivedData
+     * @return the number of received crcValue digits
      */
-    String getReceivedData() {
-        return receivedData;
+    int getCrcDigits() {
+        return crcDigits;
     }
 
     @Override
     public String toString() {
-        return state + ", header = " + header + ", obisId = " + obisId + ", obisValue = " + obisValue;
+        return state + ", crc = " + Integer.toHexString(crc) + ", obisPart = " + obisPart + ", obisIdValid = "
+                + obisIdValid;
     }
 }
@@ -12,19 +12,17 @@
  */
 package org.openhab.binding.fritzaha.internal.hardware.callbacks;
 
-import java.io.StringReader;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 
-import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
-import javax.xml.bind.Unmarshaller;
 
 import org.openhab.binding.fritzaha.internal.hardware.FritzahaWebInterface;
 import org.openhab.binding.fritzaha.internal.hardware.interfaces.FritzahaOutletMeter.MeterType;
 import org.openhab.binding.fritzaha.internal.model.DeviceModel;
 import org.openhab.binding.fritzaha.internal.model.DevicelistModel;
 import org.openhab.core.library.types.DecimalType;
+import org.openhab.io.xml.XmlParsers;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -93,10 +91,7 @@ public class FritzahaWebserviceUpdateXmlCallback extends FritzahaReauthCallback
         if (validRequest) {
             logger.trace("Received State response " + response + " for item " + itemName);
             try {
-                JAXBContext jaxbContext = JAXBContext.newInstance(DevicelistModel.class);
-                Unmarshaller jaxbUM = jaxbContext.createUnmarshaller();
-
-                DevicelistModel model = (DevicelistModel) jaxbUM.unmarshal(new StringReader(response));
+                DevicelistModel model = XmlParsers.unmarshal(response, DevicelistModel.class);
                 ArrayList<DeviceModel> list = model.getDevicelist();
                 for (DeviceModel device : list) {
                     if (device.getIdentifier().equals(this.deviceAin)) {
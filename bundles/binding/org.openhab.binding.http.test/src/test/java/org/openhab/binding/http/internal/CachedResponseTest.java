@@ -0,0 +1,67 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.http.internal;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.openhab.core.transform.TransformationException;
+
+/**
+ * @since 1.15.0
+ */
+public class CachedResponseTest {
+
+    private static final String XML = "<weather><temp unit=\"C\">21.5</temp><wind>12</wind></weather>";
+
+    @Test
+    public void testEvaluateXPath() throws TransformationException {
+        CachedResponse response = new CachedResponse(XML);
+
+        Assert.assertEquals("21.5", response.evaluateXPath("/weather/temp"));
+        Assert.assertEquals("C", response.evaluateXPath("/weather/temp/@unit"));
+        Assert.assertEquals("12", response.evaluateXPath("/weather/wind"));
+        Assert.assertEquals("", response.evaluateXPath("/weather/rain"));
+    }
+
+    @Test(expected = TransformationException.class)
+    public void testEvaluateXPath_noXml() throws TransformationException {
+        CachedResponse response = new CachedResponse("{\"temp\":21.5}");
+
+        response.evaluateXPath("/weather/temp");
+    }
+
+    @Test(expected = TransformationException.class)
+    public void testEvaluateXPath_invalidExpression() throws TransformationException {
+        CachedResponse response = new CachedResponse(XML);
+
+        response.evaluateXPath("/weather/[");
+    }
+
+    @Test
+    public void testTransformed() {
+        CachedResponse response = new CachedResponse(XML);
+
+        Assert.assertNull(response.getTransformed("REGEX(.*<wind>(.*)</wind>.*)"));
+        response.putTransformed("REGEX(.*<wind>(.*)</wind>.*)", "12");
+        Assert.assertEquals("12", response.getTransformed("REGEX(.*<wind>(.*)</wind>.*)"));
+    }
+
+    @Test
+    public void testHasContent() {
+        CachedResponse response = new CachedResponse(XML);
+
+        Assert.assertTrue(response.hasContent(new String(XML)));
+        Assert.assertFalse(response.hasContent(XML.replace("21.5", "21.6")));
+        Assert.assertFalse(response.hasContent(null));
+    }
+}
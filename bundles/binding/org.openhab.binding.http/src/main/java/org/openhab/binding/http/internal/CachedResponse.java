@@ -0,0 +1,133 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.http.internal;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathExpression;
+import javax.xml.xpath.XPathExpressionException;
+import javax.xml.xpath.XPathFactory;
+
+import org.openhab.core.transform.TransformationException;
+import org.w3c.dom.Document;
+import org.xml.sax.EntityResolver;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+
+/**
+ * A response body of a cache item together with the forms derived from it:
+ * the parsed XML document and the results of the transformations applied to
+ * it. As long as the content does not change, items sharing the cache item
+ * reuse them instead of parsing and transforming the body again.
+ *
+ * @since 1.15.0
+ */
+class CachedResponse {
+
+    private final String data;
+    private final int contentHash;
+
+    /** transformation results by transformation, e.g. <code>JSONPATH($.temp)</code> */
+    private final ConcurrentMap<String, String> transformed = new ConcurrentHashMap<String, String>();
+
+    /** the parsed document and compiled expressions, guarded by <code>this</code> */
+    private Document document;
+    private TransformationException documentError;
+    private final Map<String, XPathExpression> xpathExpressions = new HashMap<String, XPathExpression>();
+
+    CachedResponse(String data) {
+        this.data = data;
+        this.contentHash = data.hashCode();
+    }
+
+    String getData() {
+        return data;
+    }
+
+    /**
+     * Returns true if the response has the given content.
+     */
+    boolean hasContent(String otherData) {
+        return otherData != null && otherData.hashCode() == contentHash && otherData.equals(data);
+    }
+
+    /**
+     * Returns the result of a transformation applied before, or
+     * <code>null</code> if it hasn't been applied yet.
+     */
+    String getTransformed(String transformation) {
+        return transformed.get(transformation);
+    }
+
+    void putTransformed(String transformation, String result) {
+        if (result != null) {
+            transformed.put(transformation, result);
+        }
+    }
+
+    /**
+     * Evaluates an XPath expression against the document, which is parsed on
+     * first use. Parses and evaluates the same way as the XPath
+     * transformation service.
+     *
+     * @throws TransformationException if the response is no XML document or
+     *             the expression is invalid
+     */
+    synchronized String evaluateXPath(String expression) throws TransformationException {
+        Document doc = getDocument();
+        try {
+            XPathExpression compiled = xpathExpressions.get(expression);
+            if (compiled == null) {
+                compiled = XPathFactory.newInstance().newXPath().compile(expression);
+                xpathExpressions.put(expression, compiled);
+            }
+            return (String) compiled.evaluate(doc, XPathConstants.STRING);
+        } catch (XPathExpressionException e) {
+            throw new TransformationException("transformation throws exceptions", e);
+        }
+    }
+
+    private Document getDocument() throws TransformationException {
+        if (document == null && documentError == null) {
+            try {
+                DocumentBuilderFactory domFactory = DocumentBuilderFactory.newInstance();
+                domFactory.setValidating(false);
+                domFactory.setNamespaceAware(true);
+                DocumentBuilder builder = domFactory.newDocumentBuilder();
+                builder.setEntityResolver(new EntityResolver() {
+                    @Override
+                    public InputSource resolveEntity(String publicId, String systemId) {
+                        // don't fetch external DTDs
+                        return new InputSource(new StringReader(""));
+                    }
+                });
+                document = builder.parse(new InputSource(new StringReader(data)));
+            } catch (ParserConfigurationException | SAXException | IOException e) {
+                documentError = new TransformationException("transformation throws exceptions", e);
+            }
+        }
+        if (documentError != null) {
+            throw documentError;
+        }
+        return document;
+    }
+}
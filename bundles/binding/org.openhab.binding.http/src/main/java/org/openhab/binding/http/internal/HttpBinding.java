@@ -16,10 +16,14 @@ import static org.openhab.binding.http.internal.HttpGenericBindingProvider.CHANG
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Arrays;
 import java.util.Calendar;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Dictionary;
 import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Properties;
@@ -60,6 +64,7 @@ public class HttpBinding extends AbstractActiveBinding<HttpBindingProvider> impl
     protected static final String CONFIG_TIMEOUT = "timeout";
     protected static final String CONFIG_GRANULARITY = "granularity";
     protected static final String CONFIG_FORMAT = "format";
+    protected static final String CONFIG_MAX_RESPONSE_SIZE = "maxResponseSize";
 
     /** the timeout to use for connecting to a given host (defaults to 5000 milliseconds) */
     private int timeout = 5000;
@@ -70,6 +75,9 @@ public class HttpBinding extends AbstractActiveBinding<HttpBindingProvider> impl
     /** whether to substitute time and/or state into the URL */
     private boolean format = true;
 
+    /** the maximum number of characters of a polled response (defaults to 10485760), 0 for no limit */
+    private int maxResponseSize = 10485760;
+
     private Map<String, Long> lastUpdateMap = new HashMap<String, Long>();
 
     /** RegEx to extract a parse a function String <code>'(.*?)\((.*)\)'</code> */
@@ -81,9 +89,19 @@ public class HttpBinding extends AbstractActiveBinding<HttpBindingProvider> impl
     /** RegEx to extract and parse a cache config url with headers <code>'(.*?)(\\{.*\\})?'</code> */
     private static final Pattern EXTRACT_CACHE_CONFIG_URL = Pattern.compile("(.*?)(\\{.*\\})?");
 
-    /** Map table to store cache data */
-    private Map<String, CacheConfig> itemCache = new HashMap<String, CacheConfig>();
-    private Object itemCacheLock = new Object();
+    /**
+     * The transformations whose result only depends on the function and the
+     * response, so that they can be reused as long as the response doesn't
+     * change
+     */
+    private static final Collection<String> CACHEABLE_TRANSFORMATIONS = Collections
+            .unmodifiableSet(new HashSet<String>(Arrays.asList("JSONPATH", "XPATH", "REGEX")));
+
+    /**
+     * Map table to store cache data; replaced as a whole when the
+     * configuration is updated, so that it can be read without locking
+     */
+    private volatile Map<String, CacheConfig> itemCache = Collections.emptyMap();
 
     // true when the binding is shutting down
     private boolean shuttingDown;
@@ -185,15 +203,19 @@ public class HttpBinding extends AbstractActiveBinding<HttpBindingProvider> impl
                     }
 
                     String response = null;
+                    CachedResponse cachedResponse = null;
 
                     // check if special URL is used and data should get from
                     // cache rather than directly from server
                     if (isCacheConfig(url)) {
                         logger.debug("item '{}' is fetched from cache", itemName);
-                        response = getCacheData(url);
+                        cachedResponse = getCacheData(url);
+                        if (cachedResponse != null) {
+                            response = cachedResponse.getData();
+                        }
                     } else if (isValidUrl(url)) {
                         logger.debug("item '{}' is about to be refreshed now", itemName);
-                        response = HttpUtil.executeUrl("GET", url, headers, null, null, timeout);
+                        response = HttpUtil.executeUrl("GET", url, headers, null, null, timeout, maxResponseSize);
                     } else {
                         logger.debug("item '{}' is not a valid URL or is a cache id yet to be initialised ({})",
                                 itemName, url);
@@ -212,10 +234,25 @@ public class HttpBinding extends AbstractActiveBinding<HttpBindingProvider> impl
                         String transformationType = parts[0];
                         String transformationFunction = parts[1];
 
+                        String reusedResponse = cachedResponse != null
+                                && CACHEABLE_TRANSFORMATIONS.contains(transformationType)
+                                        ? cachedResponse.getTransformed(transformation)
+                                        : null;
+
                         TransformationService transformationService = TransformationHelper
                                 .getTransformationService(HttpActivator.getContext(), transformationType);
-                        if (transformationService != null) {
+                        if (reusedResponse != null) {
+                            logger.debug("reusing transformed response of cache item '{}'", url);
+                            transformedResponse = reusedResponse;
+                        } else if (cachedResponse != null && "XPATH".equals(transformationType)) {
+                            // evaluate against the document parsed once for all items of the cache item
+                            transformedResponse = cachedResponse.evaluateXPath(transformationFunction);
+                            cachedResponse.putTransformed(transformation, transformedResponse);
+                        } else if (transformationService != null) {
                             transformedResponse = transformationService.transform(transformationFunction, response);
+                            if (cachedResponse != null && CACHEABLE_TRANSFORMATIONS.contains(transformationType)) {
+                                cachedResponse.putTransformed(transformation, transformedResponse);
+                            }
                         } else {
                             transformedResponse = response;
                             logger.warn(
@@ -409,53 +446,56 @@ public class HttpBinding extends AbstractActiveBinding<HttpBindingProvider> impl
     }
 
     /**
-     * Synchronized access to the item cache. Do a quick check to see if this
-     * <code>cacheId</code> references a cached item.
+     * Do a quick check to see if this <code>cacheId</code> references a
+     * cached item.
      *
      * @param cacheId
      * @return true if this <code>cacheId</code> is a cached item, false
      *         otherwise
      */
     private boolean isCacheConfig(String cacheId) {
-        synchronized (itemCacheLock) {
-            return itemCache.containsKey(cacheId);
-        }
+        return itemCache.containsKey(cacheId);
     }
 
     /**
-     * Synchronized access to the item cache. Checks the <code>cacheId</code>
-     * is a cached item and returns the cached value. If the cache has
-     * expired, refresh the cache value by making a new HTTP request.
+     * Checks the <code>cacheId</code> is a cached item and returns the cached
+     * value. If the cache has expired, refresh the cache value by making a new
+     * HTTP request. Only the refresh of a cache item is synchronized, reading
+     * a current value doesn't lock.
      *
      * @param cacheId
-     * @return the cached (or refreshed) dats
+     * @return the cached (or refreshed) data
      */
-    private String getCacheData(String cacheId) {
-        synchronized (itemCacheLock) {
-            // check again in case the cache was cleared in between taking
-            // the lock when checking in isCacheConfig() and now
-            if (!itemCache.containsKey(cacheId)) {
-                return null;
-            }
-
-            CacheConfig cacheConfig = itemCache.get(cacheId);
-
-            long cacheAge = System.currentTimeMillis() - cacheConfig.lastUpdate;
-            boolean cacheNeedsUpdate = cacheAge >= cacheConfig.updateInterval;
+    private CachedResponse getCacheData(String cacheId) {
+        // the cache might have been cleared in between checking in
+        // isCacheConfig() and now
+        CacheConfig cacheConfig = itemCache.get(cacheId);
+        if (cacheConfig == null) {
+            return null;
+        }
 
-            if (cacheNeedsUpdate) {
+        if (!cacheConfig.needsUpdate()) {
+            return cacheConfig.response;
+        }
 
+        synchronized (cacheConfig) {
+            // check again, another thread might have updated it meanwhile
+            if (cacheConfig.needsUpdate()) {
                 // update and store data on cache
                 logger.debug("updating cache for '{}' ('{}')", cacheId, cacheConfig.url);
-                cacheConfig.data = HttpUtil.executeUrl("GET", cacheConfig.url, cacheConfig.headers, null, null,
-                        timeout);
-
-                if (cacheConfig.data != null) {
+                String data = HttpUtil.executeUrl("GET", cacheConfig.url, cacheConfig.headers, null, null, timeout,
+                        maxResponseSize);
+
+                if (data != null) {
+                    CachedResponse previous = cacheConfig.response;
+                    if (previous == null || !previous.hasContent(data)) {
+                        // keep the parsed forms as long as the content doesn't change
+                        cacheConfig.response = new CachedResponse(data);
+                    }
                     cacheConfig.lastUpdate = System.currentTimeMillis();
                 }
             }
-
-            return cacheConfig.data;
+            return cacheConfig.response;
         }
     }
 
@@ -465,10 +505,9 @@ public class HttpBinding extends AbstractActiveBinding<HttpBindingProvider> impl
     @Override
     @SuppressWarnings("rawtypes")
     public void updated(Dictionary config) throws ConfigurationException {
-        synchronized (itemCacheLock) {
-            // clear any existing cache item configs
-            itemCache.clear();
-
+        // replaces any existing cache item configs
+        Map<String, CacheConfig> newItemCache = new HashMap<String, CacheConfig>();
+        try {
             if (config != null) {
                 String timeoutString = Objects.toString(config.get(CONFIG_TIMEOUT), null);
                 if (StringUtils.isNotBlank(timeoutString)) {
@@ -485,6 +524,11 @@ public class HttpBinding extends AbstractActiveBinding<HttpBindingProvider> impl
                     format = formatString.equalsIgnoreCase("true");
                 }
 
+                String maxResponseSizeString = Objects.toString(config.get(CONFIG_MAX_RESPONSE_SIZE), null);
+                if (StringUtils.isNotBlank(maxResponseSizeString)) {
+                    maxResponseSize = Integer.parseInt(maxResponseSizeString);
+                }
+
                 // Parse page cache config
 
                 @SuppressWarnings("unchecked")
@@ -496,7 +540,7 @@ public class HttpBinding extends AbstractActiveBinding<HttpBindingProvider> impl
                     // the config-key enumeration contains additional keys that we
                     // don't want to process here ...
                     if (CONFIG_TIMEOUT.equals(key) || CONFIG_GRANULARITY.equals(key) || CONFIG_FORMAT.equals(key)
-                            || "service.pid".equals(key)) {
+                            || CONFIG_MAX_RESPONSE_SIZE.equals(key) || "service.pid".equals(key)) {
                         continue;
                     }
 
@@ -513,11 +557,11 @@ public class HttpBinding extends AbstractActiveBinding<HttpBindingProvider> impl
 
                     String cacheId = matcher.group(1);
 
-                    CacheConfig cacheConfig = itemCache.get(cacheId);
+                    CacheConfig cacheConfig = newItemCache.get(cacheId);
 
                     if (cacheConfig == null) {
                         cacheConfig = new CacheConfig(cacheId);
-                        itemCache.put(cacheId, cacheConfig);
+                        newItemCache.put(cacheId, cacheConfig);
                     }
 
                     String configKey = matcher.group(2);
@@ -539,6 +583,8 @@ public class HttpBinding extends AbstractActiveBinding<HttpBindingProvider> impl
                     }
                 }
             }
+        } finally {
+            itemCache = Collections.unmodifiableMap(newItemCache);
         }
     }
 
@@ -580,16 +626,20 @@ public class HttpBinding extends AbstractActiveBinding<HttpBindingProvider> impl
         /** Update interval for cache */
         int updateInterval = 0;
 
-        /** Variable to store cached data */
-        String data;
+        /** The cached data and its parsed forms */
+        volatile CachedResponse response;
 
         /** Last time when data is updated */
-        long lastUpdate;
+        volatile long lastUpdate;
 
         public CacheConfig(String id) {
             this.id = id;
         }
 
+        boolean needsUpdate() {
+            return System.currentTimeMillis() - lastUpdate >= updateInterval;
+        }
+
         @Override
         public String toString() {
             return "CacheConfig [id=" + id + ", url=" + url + ", update interval=" + updateInterval + "]";
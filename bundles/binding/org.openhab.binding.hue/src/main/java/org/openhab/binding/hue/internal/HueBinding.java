@@ -15,11 +15,15 @@ package org.openhab.binding.hue.internal;
 import java.io.IOException;
 import java.util.Dictionary;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.lang.StringUtils;
 import org.openhab.binding.hue.HueBindingProvider;
 import org.openhab.binding.hue.internal.HueBindingConfig.BindingType;
+import org.openhab.binding.hue.internal.data.HueLight;
 import org.openhab.binding.hue.internal.data.HueSettings;
 import org.openhab.binding.hue.internal.hardware.HueBridge;
 import org.openhab.binding.hue.internal.hardware.HueBulb;
@@ -53,16 +57,32 @@ public class HueBinding extends AbstractActiveBinding<HueBindingProvider>impleme
 
     static final Logger logger = LoggerFactory.getLogger(HueBinding.class);
 
+    /**
+     * The time in milliseconds after a command during which the bridge is
+     * polled with the regular refresh interval
+     */
+    private static final long COMMAND_ACTIVITY_PERIOD = 60000;
+
     /** refresh interval is only set by configuration */
     private long refreshInterval;
 
+    /** refresh interval while no commands have been sent recently, 0 if the refresh interval is always used */
+    private long idleRefreshInterval = 0;
+
+    private volatile long lastCommandTime = 0;
+    private long lastRefreshTime = 0;
+
     private HueBridge activeBridge = null;
     private String bridgeIP = null;
 
     // Caches all bulbs controlled to prevent the recreation of the bulbs which
     // triggers a rereading of the settings from the bridge which is very
     // expensive.
-    private HashMap<String, HueBulb> bulbCache = new HashMap<String, HueBulb>();
+    private Map<String, HueBulb> bulbCache = new ConcurrentHashMap<String, HueBulb>();
+
+    // The fingerprints of the light states of the last refresh, to only
+    // update the items of lights whose state has changed.
+    private Map<String, Long> lightFingerprints = new HashMap<String, Long>();
 
     /**
      * Default constructor for the Hue binding.
@@ -93,6 +113,13 @@ public class HueBinding extends AbstractActiveBinding<HueBindingProvider>impleme
     @Override
     public void execute() {
         if (activeBridge != null) {
+            long now = System.currentTimeMillis();
+            if (idleRefreshInterval > refreshInterval && now - lastCommandTime > COMMAND_ACTIVITY_PERIOD
+                    && now - lastRefreshTime < idleRefreshInterval) {
+                return;
+            }
+            lastRefreshTime = now;
+
             // Get settings and update the bulbs
             // Observation : If the power of a hue lamp is removed, the status is not updated in hue hub.
             // The heartbeat functionality should fix this, but
@@ -106,7 +133,13 @@ public class HueBinding extends AbstractActiveBinding<HueBindingProvider>impleme
                 return;
             }
             Set<String> keys = settings.getKeys();
+            Set<String> changedKeys = new HashSet<String>();
             for (String key : keys) {
+                HueLight light = settings.getLight(key);
+                Long fingerprint = light.getFingerprint();
+                if (!fingerprint.equals(lightFingerprints.put(key, fingerprint))) {
+                    changedKeys.add(key);
+                }
                 try {
                     HueBulb bulb = bulbCache.get(key);
                     if (bulb == null) {
@@ -125,7 +158,10 @@ public class HueBinding extends AbstractActiveBinding<HueBindingProvider>impleme
                 for (String hueItemName : provider.getInBindingItemNames()) {
                     HueBindingConfig deviceConfig = getConfigForItemName(hueItemName);
 
-                    if (deviceConfig != null) {
+                    // Items which have been updated before only need an update if the state of their bulb has
+                    // changed
+                    if (deviceConfig != null && (changedKeys.contains(deviceConfig.getDeviceId())
+                            || deviceConfig.itemStateOnOffType == null)) {
                         HueBulb bulb = bulbCache.get(deviceConfig.getDeviceId());
                         if (bulb != null) {
 
@@ -183,7 +219,8 @@ public class HueBinding extends AbstractActiveBinding<HueBindingProvider>impleme
                     }
                 }
             }
-            logger.debug("Done Hue data refresh.");
+            lightFingerprints.keySet().retainAll(keys);
+            logger.debug("Done Hue data refresh, {} of {} lights changed.", changedKeys.size(), keys.size());
         }
     }
 
@@ -192,6 +229,7 @@ public class HueBinding extends AbstractActiveBinding<HueBindingProvider>impleme
         super.internalReceiveCommand(itemName, command);
 
         logger.debug("Hue binding received command '" + command + "' for item '" + itemName + "'");
+        lastCommandTime = System.currentTimeMillis();
 
         if (activeBridge != null) {
             computeCommandForItemOnBridge(command, itemName, activeBridge);
@@ -317,6 +355,13 @@ public class HueBinding extends AbstractActiveBinding<HueBindingProvider>impleme
                 // RefreshInterval is specified in openhap.cfg, therefore enable polling
                 setProperlyConfigured(true);
             }
+
+            String idleRefreshIntervalString = (String) config.get("idlerefresh");
+            if (StringUtils.isNotBlank(idleRefreshIntervalString)) {
+                idleRefreshInterval = Long.parseLong(idleRefreshIntervalString);
+            } else {
+                idleRefreshInterval = 0;
+            }
         }
     }
 }
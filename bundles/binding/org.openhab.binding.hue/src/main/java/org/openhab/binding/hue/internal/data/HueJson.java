@@ -0,0 +1,36 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.hue.internal.data;
+
+import org.codehaus.jackson.JsonFactory;
+import org.codehaus.jackson.map.ObjectMapper;
+
+/**
+ * Holds the Jackson mapper of the Hue binding. An {@link ObjectMapper} is
+ * expensive to create but thread-safe once configured, so it is created only
+ * once instead of once per response.
+ *
+ * @since 1.15.0
+ */
+public final class HueJson {
+
+    /** The mapper of all responses, which must not be reconfigured */
+    public static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /** The factory of the mapper, for streaming parsers */
+    public static final JsonFactory FACTORY = MAPPER.getJsonFactory();
+
+    private HueJson() {
+    }
+
+}
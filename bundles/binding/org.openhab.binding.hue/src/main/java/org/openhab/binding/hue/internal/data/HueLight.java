@@ -0,0 +1,96 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.hue.internal.data;
+
+/**
+ * The state of a single light as reported by the Hue bridge. Values the
+ * bridge did not report for the light are <code>null</code>.
+ *
+ * @since 1.15.0
+ */
+public class HueLight {
+
+    private final String modelId;
+    private final boolean on;
+    private final boolean reachable;
+    private final Integer brightness;
+    private final Integer colorTemperature;
+    private final Integer hue;
+    private final Integer saturation;
+
+    public HueLight(String modelId, boolean on, boolean reachable, Integer brightness, Integer colorTemperature,
+            Integer hue, Integer saturation) {
+        this.modelId = modelId;
+        this.on = on;
+        this.reachable = reachable;
+        this.brightness = brightness;
+        this.colorTemperature = colorTemperature;
+        this.hue = hue;
+        this.saturation = saturation;
+    }
+
+    public String getModelId() {
+        return modelId;
+    }
+
+    public boolean isOn() {
+        return on;
+    }
+
+    public boolean isReachable() {
+        return reachable;
+    }
+
+    public Integer getBrightness() {
+        return brightness;
+    }
+
+    public Integer getColorTemperature() {
+        return colorTemperature;
+    }
+
+    public Integer getHue() {
+        return hue;
+    }
+
+    public Integer getSaturation() {
+        return saturation;
+    }
+
+    /**
+     * Packs the state of the light into a single number. Two states of a
+     * light have the same fingerprint if and only if all their values are
+     * equal, as long as the values are within the ranges the bridge reports.
+     *
+     * @return the fingerprint of the state
+     */
+    public long getFingerprint() {
+        long fingerprint = on ? 1 : 0;
+        fingerprint = fingerprint << 1 | (reachable ? 1 : 0);
+        fingerprint = pack(fingerprint, brightness, 9);
+        fingerprint = pack(fingerprint, colorTemperature, 10);
+        fingerprint = pack(fingerprint, hue, 17);
+        fingerprint = pack(fingerprint, saturation, 9);
+        return fingerprint;
+    }
+
+    /**
+     * Appends a value of the given bit width; <code>null</code> is encoded
+     * as all bits set.
+     */
+    private static long pack(long fingerprint, Integer value, int bits) {
+        long mask = (1L << bits) - 1;
+        return fingerprint << bits | (value == null ? mask : value & mask);
+    }
+
+}
@@ -13,11 +13,14 @@
 package org.openhab.binding.hue.internal.data;
 
 import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
 
 import org.codehaus.jackson.JsonNode;
-import org.codehaus.jackson.map.ObjectMapper;
+import org.codehaus.jackson.JsonParser;
+import org.codehaus.jackson.JsonToken;
 import org.openhab.binding.hue.internal.hardware.HueBulb;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -42,31 +45,108 @@ public class HueSettings {
 
     static final Logger logger = LoggerFactory.getLogger(HueSettings.class);
 
-    private SettingsTree settingsData = null;
+    private Map<String, HueLight> lights = null;
     private static final int ERROR_TYPE_UNAUTHORIZED_USER = 1;
     private boolean isAuthorized = false;
 
     /**
-     * Constructor of HueSettings. It takes the settings of the Hue bridge to enable the HueSettings to determine the
-     * needed information about the bulbs.
+     * Constructor of HueSettings. It takes the lights of the Hue bridge to enable the HueSettings to determine the
+     * needed information about the bulbs. The Json is parsed in a streaming fashion, only the values of interest are
+     * kept.
      * 
      * @param settings
-     *            This is the settings string in Json format returned by the Hue bridge.
+     *            This is the lights string in Json format returned by the Hue bridge.
      */
-    @SuppressWarnings("unchecked")
     public HueSettings(String settings) {
-        ObjectMapper mapper = new ObjectMapper();
         try {
-            JsonNode rootNode = mapper.readTree(settings);
-            if (!isAuthorizationError(rootNode)) {
-                settingsData = new SettingsTree(mapper.readValue(rootNode, Map.class));
-                isAuthorized = true;
+            JsonParser parser = HueJson.FACTORY.createJsonParser(settings);
+            try {
+                JsonToken token = parser.nextToken();
+                if (token == JsonToken.START_ARRAY) {
+                    // While normal answers from the bridge are of type object, the error message is of type array
+                    JsonNode rootNode = HueJson.MAPPER.readTree(parser);
+                    if (!isAuthorizationError(rootNode)) {
+                        logger.error("Unexpected answer from Hue Bridge: {}", rootNode);
+                    }
+                } else if (token == JsonToken.START_OBJECT) {
+                    lights = Collections.unmodifiableMap(parseLights(parser));
+                    isAuthorized = true;
+                } else {
+                    logger.error("Unexpected answer from Hue Bridge: {}", settings);
+                }
+            } finally {
+                parser.close();
             }
         } catch (IOException e) {
             logger.error("Could not read Settings-Json from Hue Bridge.", e);
         }
     }
 
+    /**
+     * Parses the lights object the parser is positioned at.
+     */
+    private static Map<String, HueLight> parseLights(JsonParser parser) throws IOException {
+        Map<String, HueLight> lights = new HashMap<String, HueLight>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String deviceId = parser.getCurrentName();
+            if (parser.nextToken() == JsonToken.START_OBJECT) {
+                lights.put(deviceId, parseLight(parser));
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return lights;
+    }
+
+    /**
+     * Parses the light object the parser is positioned at, skipping all
+     * values that are not of interest.
+     */
+    private static HueLight parseLight(JsonParser parser) throws IOException {
+        String modelId = null;
+        boolean on = false;
+        boolean reachable = false;
+        Integer brightness = null;
+        Integer colorTemperature = null;
+        Integer hue = null;
+        Integer saturation = null;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+            if ("modelid".equals(field) && token == JsonToken.VALUE_STRING) {
+                modelId = parser.getText();
+            } else if ("state".equals(field) && token == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String name = parser.getCurrentName();
+                    token = parser.nextToken();
+                    if ("on".equals(name)) {
+                        on = token == JsonToken.VALUE_TRUE;
+                    } else if ("reachable".equals(name)) {
+                        reachable = token == JsonToken.VALUE_TRUE;
+                    } else if ("bri".equals(name)) {
+                        brightness = intValue(parser, token);
+                    } else if ("ct".equals(name)) {
+                        colorTemperature = intValue(parser, token);
+                    } else if ("hue".equals(name)) {
+                        hue = intValue(parser, token);
+                    } else if ("sat".equals(name)) {
+                        saturation = intValue(parser, token);
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return new HueLight(modelId, on, reachable, brightness, colorTemperature, hue, saturation);
+    }
+
+    private static Integer intValue(JsonParser parser, JsonToken token) throws IOException {
+        return token == JsonToken.VALUE_NUMBER_INT ? parser.getIntValue() : null;
+    }
+
     /**
      * Determines if the Hue Bridge reported an authorization error.
      * 
@@ -93,12 +173,8 @@ public class HueSettings {
      * @return The model-ID. Null if Hue bridge is not initialized correctly or if the ID was not parsed correctly
      */
     public String getModelId(String deviceId) {
-        if (settingsData == null) {
-            logger.error("Hue bridge settings not initialized correctly.");
-            return null;
-        }
-        Object modelId = settingsData.node("lights").node(deviceId).value("modelid");
-        return modelId != null ? modelId.toString() : null;
+        HueLight light = getLight(deviceId);
+        return light != null ? light.getModelId() : null;
     }
 
     /**
@@ -114,11 +190,26 @@ public class HueSettings {
      * @return the keys of lights connected to Hue hub
      */
     public Set<String> getKeys() {
-        if (settingsData == null) {
+        if (lights == null) {
             logger.error("Hue bridge settings not initialized correctly.");
             return null;
         }
-        return settingsData.node("lights").getKeys();
+        return lights.keySet();
+    }
+
+    /**
+     * Returns the state of the given bulb.
+     * 
+     * @param deviceId
+     *            The bulb id the bridge has filed the bulb under.
+     * @return The state of the bulb, null if the bulb is not known to the bridge.
+     */
+    public HueLight getLight(String deviceId) {
+        if (lights == null) {
+            logger.error("Hue bridge settings not initialized correctly.");
+            return null;
+        }
+        return lights.get(deviceId);
     }
 
     /**
@@ -129,11 +220,7 @@ public class HueSettings {
      * @return true if the bulb is turned on, false otherwise.
      */
     public boolean isValidId(String deviceId) {
-        if (settingsData == null) {
-            logger.error("Hue bridge settings not initialized correctly.");
-            return false;
-        }
-        return settingsData.node("lights").node(deviceId) != null;
+        return getLight(deviceId) != null;
     }
 
     /**
@@ -144,11 +231,8 @@ public class HueSettings {
      * @return true if the bulb is turned on, false otherwise.
      */
     public boolean isBulbOn(String deviceId) {
-        if (settingsData == null) {
-            logger.error("Hue bridge settings not initialized correctly.");
-            return false;
-        }
-        return (Boolean) settingsData.node("lights").node(deviceId).node("state").value("on");
+        HueLight light = getLight(deviceId);
+        return light != null && light.isOn();
     }
 
     /**
@@ -161,11 +245,8 @@ public class HueSettings {
      * @return true if the bulb is reachable, false otherwise.
      */
     public boolean isReachable(String deviceId) {
-        if (settingsData == null) {
-            logger.error("Hue bridge settings not initialized correctly.");
-            return false;
-        }
-        return (Boolean) settingsData.node("lights").node(deviceId).node("state").value("reachable");
+        HueLight light = getLight(deviceId);
+        return light != null && light.isReachable();
     }
 
     /**
@@ -176,13 +257,9 @@ public class HueSettings {
      * @return The color temperature as a value from 154 - 500
      */
     public int getColorTemperature(String deviceId) {
-        if (settingsData == null) {
-            logger.error("Hue bridge settings not initialized correctly.");
-            return 154;
-        }
-        Object ct = settingsData.node("lights").node(deviceId).node("state").value("ct");
-        if (ct instanceof Integer) {
-            return (Integer) ct;
+        HueLight light = getLight(deviceId);
+        if (light != null && light.getColorTemperature() != null) {
+            return light.getColorTemperature();
         } else {
             return 154;
         }
@@ -196,16 +273,14 @@ public class HueSettings {
      * @return The brightness as a value from 0 - {@link HueBulb#MAX_BRIGHTNESS}
      */
     public int getBrightness(String deviceId) {
-        if (settingsData == null) {
-            logger.error("Hue bridge settings not initialized correctly.");
+        HueLight light = getLight(deviceId);
+        if (light == null) {
             return 0;
-        }
-        Object bri = settingsData.node("lights").node(deviceId).node("state").value("bri");
-        if (bri instanceof Integer) {
-            return (Integer) bri;
+        } else if (light.getBrightness() != null) {
+            return light.getBrightness();
         } else {
             // probably not dimmable, return on state
-            return isBulbOn(deviceId) ? 254 : 0;
+            return light.isOn() ? 254 : 0;
         }
     }
 
@@ -217,14 +292,9 @@ public class HueSettings {
      * @return The hue as a value from 0 - 65535
      */
     public int getHue(String deviceId) {
-        if (settingsData == null) {
-            logger.error("Hue bridge settings not initialized correctly.");
-            return 0;
-        }
-
-        Object hue = settingsData.node("lights").node(deviceId).node("state").value("hue");
-        if (hue instanceof Integer) {
-            return (Integer) hue;
+        HueLight light = getLight(deviceId);
+        if (light != null && light.getHue() != null) {
+            return light.getHue();
         } else {
             return 0;
         }
@@ -238,72 +308,12 @@ public class HueSettings {
      * @return The saturation as a value from 0 - {@link HueBulb#MAX_BRIGHTNESS}
      */
     public int getSaturation(String deviceId) {
-        if (settingsData == null) {
-            logger.error("Hue bridge settings not initialized correctly.");
-            return 0;
-        }
-
-        Object sat = settingsData.node("lights").node(deviceId).node("state").value("sat");
-        if (sat instanceof Integer) {
-            return (Integer) sat;
+        HueLight light = getLight(deviceId);
+        if (light != null && light.getSaturation() != null) {
+            return light.getSaturation();
         } else {
             return 0;
         }
     }
 
-    /**
-     * The SettingsTree represents the settings Json as a tree with some
-     * convenience methods to get subtrees and the values of interest easily.
-     */
-    class SettingsTree {
-
-        private Map<String, Object> dataMap;
-
-        /**
-         * Constructor of the SettingsTree.
-         * 
-         * @param treeData
-         *            The Json data as it has been returned by the Json object
-         *            mapper.
-         */
-        public SettingsTree(Map<String, Object> treeData) {
-            this.dataMap = treeData;
-        }
-
-        /**
-         * @param nodeName
-         *            The name of the child node.
-         * @return The child node named like nodeName. This will be a sub tree.
-         */
-        @SuppressWarnings("unchecked")
-        protected SettingsTree node(String nodeName) {
-            if (dataMap.get(nodeName) == null){
-                return null;
-            }
-
-            return new SettingsTree((Map<String, Object>) dataMap.get(nodeName));
-        }
-
-        /**
-         * @return the amount of lights connected to Hue hub
-         */
-        protected int count() {
-            return dataMap.size();
-        }
-
-        protected Set<String> getKeys() {
-            return dataMap.keySet();
-        }
-
-        /**
-         * @param valueName
-         *            The name of the child node.
-         * @return The child node named like nodeName. This will be an object.
-         */
-        protected Object value(String valueName) {
-            return dataMap.get(valueName);
-        }
-
-    }
-
 }
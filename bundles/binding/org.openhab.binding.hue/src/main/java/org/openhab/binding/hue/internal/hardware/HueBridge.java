@@ -16,7 +16,7 @@ import java.io.IOException;
 
 import org.apache.commons.lang.StringUtils;
 import org.codehaus.jackson.JsonNode;
-import org.codehaus.jackson.map.ObjectMapper;
+import org.openhab.binding.hue.internal.data.HueJson;
 import org.openhab.binding.hue.internal.data.HueSettings;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -86,8 +86,9 @@ public class HueBridge {
     }
 
     /**
-     * Requests the settings of the Hue bridge that also contains the settings
-     * of all connected Hue devices.
+     * Requests the settings of all Hue lights connected to the bridge. Only
+     * the lights are requested, as the complete bridge configuration is
+     * considerably larger and more expensive for the bridge to compile.
      *
      * @return The settings determined from the bridge. Null if they could not
      *         be requested.
@@ -158,8 +159,7 @@ public class HueBridge {
 
     private JsonNode convertToJsonNode(String response) throws IOException {
         JsonNode rootNode;
-        ObjectMapper mapper = new ObjectMapper();
-        JsonNode arrayWrappedNode = mapper.readTree(response);
+        JsonNode arrayWrappedNode = HueJson.MAPPER.readTree(response);
         // Hue bridge returns the complete JSON response wrapped in an array, therefore the first
         // element of the array has to be extracted
         if (arrayWrappedNode.has(0)) {
@@ -171,13 +171,13 @@ public class HueBridge {
     }
 
     /**
-     * Determines the settings of the Hue bridge as a Json raw data String.
+     * Determines the settings of the Hue lights as a Json raw data String.
      *
-     * @return The settings of the bridge if they could be determined. Null
+     * @return The settings of the lights if they could be determined. Null
      *         otherwise.
      */
     private String getSettingsJson() {
-        WebResource webResource = client.resource(getUrl());
+        WebResource webResource = client.resource(getUrl() + "lights");
 
         try {
             ClientResponse response = webResource.accept("application/json").get(ClientResponse.class);
@@ -71,6 +71,8 @@ public class KoubachiBinding extends AbstractActiveBinding<KoubachiBindingProvid
 
     private static final Logger logger = LoggerFactory.getLogger(KoubachiBinding.class);
 
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
     /** Timeout of the HTTP Requests in ms (defaults to 10000ms) */
     private static final int HTTP_REQUEST_TIMEOUT = 10000;
 
@@ -300,7 +302,7 @@ public class KoubachiBinding extends AbstractActiveBinding<KoubachiBindingProvid
     private <T> T fromJSON(final TypeReference<T> type, final String jsonString) {
         T data = null;
         try {
-            data = new ObjectMapper().readValue(jsonString, type);
+            data = MAPPER.readValue(jsonString, type);
         } catch (Exception e) {
             logger.error("Mapping JSON to '" + type.getType() + "' throws an exception.", e);
         }
@@ -83,6 +83,8 @@ public class MiosUnitConnector {
 
     private static final Pattern ACTION_PATTERN = Pattern.compile("(?<serviceName>.+)/" + "(?<serviceAction>.+)");
 
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
     // the MiOS instance and openHAB event publisher handles
     private final MiosUnit unit;
     private final MiosBinding binding;
@@ -419,8 +421,6 @@ public class MiosUnitConnector {
         private Integer dataVersion = null;
         private int failures = 0;
 
-        private final ObjectMapper mapper = new ObjectMapper();
-
         private static final String BASE_URL = "http://%s:%d/data_request";
         private static final String STATUS2_URL = BASE_URL + "?id=status2";
         private static final String STATUS2_INCREMENTAL_URL = STATUS2_URL
@@ -741,7 +741,7 @@ public class MiosUnitConnector {
             }
 
             try {
-                return mapper.readValue(json, Map.class);
+                return MAPPER.readValue(json, Map.class);
             } catch (JsonParseException e) {
                 // TODO: Replace RuntimeException with a more specialized
                 // exception.
@@ -13,10 +13,8 @@
 package org.openhab.binding.myq.internal;
 
 import java.io.IOException;
-import java.util.Map;
 
 import org.codehaus.jackson.JsonNode;
-import org.codehaus.jackson.map.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -41,15 +39,12 @@ public class LoginData {
      * @param loginData
      *            The Json node from the myq website.
      */
-    @SuppressWarnings("unchecked")
     public LoginData(JsonNode root) throws IOException, InvalidDataException {
-        ObjectMapper mapper = new ObjectMapper();
-        Map<String, Object> treeData = mapper.readValue(root, Map.class);
-        Object data = treeData.get("SecurityToken");
-        if (data == null) {
+        JsonNode data = root.get("SecurityToken");
+        if (data == null || data.isNull()) {
             throw new InvalidDataException("Could not find SecurityToken in JSON data");
         }
-        securityToken = data.toString();
+        securityToken = data.asText();
         logger.trace("myq securityToken: {}", securityToken);
     }
 
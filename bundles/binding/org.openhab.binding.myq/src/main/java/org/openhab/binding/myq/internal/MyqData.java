@@ -54,6 +54,8 @@ public class MyqData {
 
     private static final String CULTURE = "en";
 
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
     private String userName;
     private String password;
     private String appId;
@@ -222,8 +224,7 @@ public class MyqData {
         }
 
         try {
-            ObjectMapper mapper = new ObjectMapper();
-            JsonNode rootNode = mapper.readTree(dataString);
+            JsonNode rootNode = MAPPER.readTree(dataString);
             int returnCode = rootNode.get("ReturnCode").asInt();
             logger.trace("myq ReturnCode: {}", returnCode);
 
@@ -0,0 +1,154 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.onewire.internal.connection;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Hashtable;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.onewire.internal.deviceproperties.AbstractOneWireDevicePropertyBindingConfig;
+import org.openhab.binding.onewire.internal.deviceproperties.OneWireDevicePropertyNumberBindingConfig;
+import org.openhab.model.item.binding.BindingConfigParseException;
+import org.osgi.service.cm.ConfigurationException;
+import org.owfs.jowfsclient.OwfsException;
+
+/**
+ * Tests reading from the 1-Wire bus through {@link OneWireConnection} with
+ * the connections of a {@link TestOwserver}.
+ *
+ * @since 1.15.0
+ */
+public class OneWireConnectionTest {
+
+    private static final int READERS = 5;
+
+    /** the time a DS18x20 needs for a temperature conversion */
+    private static final long CONVERSION_TIME = 750;
+
+    private TestOwserver owserver;
+    private OwserverConnectionPool pool;
+
+    @Before
+    public void setUp() throws ConfigurationException {
+        owserver = new TestOwserver();
+        pool = new OwserverConnectionPool(owserver.factory(), OneWireConnection.getMaxConnections());
+        OneWireConnection.setPool(pool);
+        configure(false);
+    }
+
+    @After
+    public void tearDown() throws ConfigurationException {
+        // without a pool, the configuration would connect to owserver
+        OneWireConnection.setPool(pool);
+        configure(false);
+        OneWireConnection.setPool(null);
+    }
+
+    private static void configure(boolean simultaneous) throws ConfigurationException {
+        Hashtable<String, Object> config = new Hashtable<String, Object>();
+        config.put("ip", "localhost");
+        config.put("simultaneous", String.valueOf(simultaneous));
+        OneWireConnection.updated(config);
+    }
+
+    private static AbstractOneWireDevicePropertyBindingConfig temperature(String deviceId)
+            throws BindingConfigParseException {
+        return new OneWireDevicePropertyNumberBindingConfig("deviceId=" + deviceId + ";propertyName=temperature");
+    }
+
+    @Test
+    public void readFromOneWire_mergesConcurrentReadsOfSamePath() throws Exception {
+        final AbstractOneWireDevicePropertyBindingConfig config = temperature("28.67C6697351FF");
+        owserver.readRelease = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(READERS);
+        try {
+            List<Future<String>> results = new ArrayList<Future<String>>();
+            for (int i = 0; i < READERS; i++) {
+                results.add(executor.submit(new Callable<String>() {
+                    @Override
+                    public String call() {
+                        return OneWireConnection.readFromOneWire(config);
+                    }
+                }));
+            }
+
+            assertTrue(owserver.readStarted.await(5, TimeUnit.SECONDS));
+            // give the other readers the time to join the pending read
+            Thread.sleep(200);
+            owserver.readRelease.countDown();
+
+            for (Future<String> result : results) {
+                assertEquals("21.5", result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, owserver.reads.get());
+    }
+
+    @Test
+    public void readFromOneWire_readsAgainAfterPendingReadFinished() throws BindingConfigParseException {
+        AbstractOneWireDevicePropertyBindingConfig config = temperature("28.67C6697351FF");
+
+        assertEquals("21.5", OneWireConnection.readFromOneWire(config));
+        owserver.value = "22.0";
+        assertEquals("22.0", OneWireConnection.readFromOneWire(config));
+
+        assertEquals(2, owserver.reads.get());
+    }
+
+    @Test
+    public void readFromOneWire_failsFastWithoutConnection() throws BindingConfigParseException {
+        OneWireConnection.setPool(null);
+
+        assertNull(OneWireConnection.readFromOneWire(temperature("28.67C6697351FF")));
+        assertEquals(0, owserver.reads.get());
+    }
+
+    @Test
+    public void readFromOneWire_waitsForStartedConversion() throws Exception {
+        configure(true);
+
+        long start = System.currentTimeMillis();
+        assertEquals("21.5", OneWireConnection.readFromOneWire(temperature("bus.0/28.67C6697351FF")));
+
+        assertTrue(System.currentTimeMillis() - start >= CONVERSION_TIME);
+        assertEquals("[bus.0/simultaneous/temperature]", owserver.writes.toString());
+    }
+
+    @Test
+    public void readFromOneWire_skipsConversionWaitWhenTriggerFails() throws Exception {
+        configure(true);
+        owserver.writeFailure = new OwfsException("simultaneous not supported", 1);
+
+        long start = System.currentTimeMillis();
+        assertEquals("21.5", OneWireConnection.readFromOneWire(temperature("bus.1/28.67C6697351FF")));
+        assertEquals("21.5", OneWireConnection.readFromOneWire(temperature("bus.1/28.1D3B9E0B0000")));
+
+        assertTrue(System.currentTimeMillis() - start < CONVERSION_TIME);
+        // the trigger is not retried for every read
+        assertEquals("[bus.1/simultaneous/temperature]", owserver.writes.toString());
+    }
+}
@@ -0,0 +1,119 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.onewire.internal.connection;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.owfs.jowfsclient.OwfsConnection;
+
+/**
+ * Tests borrowing, returning and invalidating the connections of an
+ * {@link OwserverConnectionPool}.
+ *
+ * @since 1.15.0
+ */
+public class OwserverConnectionPoolTest {
+
+    private static final long SHORT_TIMEOUT = 50;
+
+    private TestOwserver owserver;
+    private OwserverConnectionPool pool;
+
+    @Before
+    public void setUp() {
+        owserver = new TestOwserver();
+        pool = new OwserverConnectionPool(owserver.factory(), 2);
+    }
+
+    @Test
+    public void borrow_opensConnectionsUpToMaximum() throws InterruptedException {
+        OwfsConnection first = pool.borrow(SHORT_TIMEOUT);
+        OwfsConnection second = pool.borrow(SHORT_TIMEOUT);
+
+        assertNotNull(first);
+        assertNotNull(second);
+        assertNotSame(first, second);
+        assertNull(pool.borrow(SHORT_TIMEOUT));
+        assertEquals(2, owserver.connections.size());
+    }
+
+    @Test
+    public void borrow_reusesReleasedConnection() throws InterruptedException {
+        OwfsConnection first = pool.borrow(SHORT_TIMEOUT);
+        pool.release(first);
+
+        assertSame(first, pool.borrow(SHORT_TIMEOUT));
+        assertEquals(1, owserver.connections.size());
+    }
+
+    @Test
+    public void borrow_waitsForReleasedConnection() throws InterruptedException {
+        pool.borrow(SHORT_TIMEOUT);
+        final OwfsConnection second = pool.borrow(SHORT_TIMEOUT);
+        new Thread() {
+            @Override
+            public void run() {
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                pool.release(second);
+            }
+        }.start();
+
+        assertSame(second, pool.borrow(5000));
+    }
+
+    @Test
+    public void add_countsTowardsMaximum() throws InterruptedException {
+        TestOwserver.Connection added = owserver.newConnection();
+        pool.add(added);
+
+        assertSame(added, pool.borrow(SHORT_TIMEOUT));
+        assertNotNull(pool.borrow(SHORT_TIMEOUT));
+        assertNull(pool.borrow(SHORT_TIMEOUT));
+    }
+
+    @Test
+    public void invalidate_disconnectsConnectionAndFreesItsSlot() throws InterruptedException {
+        TestOwserver.Connection first = (TestOwserver.Connection) pool.borrow(SHORT_TIMEOUT);
+        pool.borrow(SHORT_TIMEOUT);
+
+        pool.invalidate(first);
+
+        assertTrue(first.disconnected);
+        OwfsConnection replacement = pool.borrow(SHORT_TIMEOUT);
+        assertNotNull(replacement);
+        assertNotSame(first, replacement);
+        assertEquals(3, owserver.connections.size());
+    }
+
+    @Test
+    public void close_disconnectsIdleAndLaterReleasedConnections() throws InterruptedException {
+        TestOwserver.Connection idle = (TestOwserver.Connection) pool.borrow(SHORT_TIMEOUT);
+        TestOwserver.Connection borrowed = (TestOwserver.Connection) pool.borrow(SHORT_TIMEOUT);
+        pool.release(idle);
+
+        pool.close();
+
+        assertTrue(idle.disconnected);
+        assertFalse(borrowed.disconnected);
+        assertNull(pool.borrow(SHORT_TIMEOUT));
+
+        pool.release(borrowed);
+        assertTrue(borrowed.disconnected);
+    }
+}
@@ -0,0 +1,118 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.onewire.internal.connection;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.owfs.jowfsclient.OwfsConnection;
+import org.owfs.jowfsclient.OwfsConnectionConfig;
+import org.owfs.jowfsclient.OwfsConnectionFactory;
+import org.owfs.jowfsclient.OwfsException;
+
+/**
+ * An owserver stand-in whose connections count the requests, return a fixed
+ * value for every read and can be made to block reads or fail writes.
+ *
+ * @since 1.15.0
+ */
+class TestOwserver {
+
+    final List<Connection> connections = new CopyOnWriteArrayList<Connection>();
+    final AtomicInteger reads = new AtomicInteger();
+    final List<String> writes = new CopyOnWriteArrayList<String>();
+
+    volatile String value = "21.5";
+    volatile OwfsException writeFailure;
+
+    /** if set, reads wait until it is counted down */
+    volatile CountDownLatch readRelease;
+    final CountDownLatch readStarted = new CountDownLatch(1);
+
+    class Connection implements OwfsConnection {
+
+        volatile boolean disconnected = false;
+
+        @Override
+        public void setConfiguration(OwfsConnectionConfig config) {
+        }
+
+        @Override
+        public void disconnect() {
+            disconnected = true;
+        }
+
+        @Override
+        public String read(String path) throws IOException {
+            reads.incrementAndGet();
+            readStarted.countDown();
+            CountDownLatch release = readRelease;
+            if (release != null) {
+                try {
+                    if (!release.await(10, TimeUnit.SECONDS)) {
+                        throw new IOException("read was not released");
+                    }
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+            }
+            return value;
+        }
+
+        @Override
+        public void write(String path, String value) throws OwfsException {
+            writes.add(path);
+            if (writeFailure != null) {
+                throw writeFailure;
+            }
+        }
+
+        @Override
+        public Boolean exists(String path) {
+            return true;
+        }
+
+        @Override
+        public List<String> listDirectoryAll(String path) {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public List<String> listDirectory(String path) {
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * @return a factory which creates connections to this owserver
+     */
+    OwfsConnectionFactory factory() {
+        return new OwfsConnectionFactory("localhost", 4304) {
+            @Override
+            public OwfsConnection createNewConnection() {
+                return newConnection();
+            }
+        };
+    }
+
+    Connection newConnection() {
+        Connection connection = new Connection();
+        connections.add(connection);
+        return connection;
+    }
+}
@@ -108,6 +108,9 @@ public class OneWireBinding extends AbstractBinding<OneWireBindingProvider>
 
             // Connection config
             OneWireConnection.updated(pvConfig);
+
+            // read with as many threads as there are connections
+            ivOneWireReaderScheduler.setNumberOfReaders(OneWireConnection.getMaxConnections());
         }
 
         for (OneWireBindingProvider lvProvider : providers) {
@@ -293,7 +296,7 @@ public class OneWireBinding extends AbstractBinding<OneWireBindingProvider>
      * @param pvItemName
      */
     public void updateItemFromOneWire(String pvItemName) {
-        if (OneWireConnection.getConnection() != null) {
+        if (OneWireConnection.ensureConnected()) {
 
             AbstractOneWireDevicePropertyBindingConfig pvBindingConfig = (AbstractOneWireDevicePropertyBindingConfig) getBindingConfig(
                     pvItemName);
@@ -16,6 +16,12 @@ import java.io.IOException;
 import java.util.Dictionary;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.commons.lang.StringUtils;
 import org.openhab.binding.onewire.internal.deviceproperties.AbstractOneWireDevicePropertyBindingConfig;
@@ -31,7 +37,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * This class establishes the connection to the 1-Wire-bus.
+ * This class establishes the connections to the 1-Wire-bus.
+ *
+ * Reads and writes borrow a connection from a bounded pool, so several
+ * device properties can be read from owserver in parallel. Concurrent reads
+ * of the same device property share a single request.
  *
  * @author Dennis Riegelbauer
  * @author Chris Carman (added server connection retry logic)
@@ -43,9 +53,26 @@ public class OneWireConnection {
     private static final Logger logger = LoggerFactory.getLogger(OneWireConnection.class);
 
     /**
-     * Connection to the owserver server
+     * The maximum time in milliseconds to wait for a free connection
+     */
+    private static final long BORROW_TIMEOUT = 30000;
+
+    /**
+     * The time in milliseconds a simultaneous temperature conversion is reused
+     * for reads of the same bus branch
+     */
+    private static final long SIMULTANEOUS_CONVERSION_VALIDITY = 10000;
+
+    /**
+     * The time in milliseconds a DS18x20 needs for a temperature conversion at
+     * the default 12 bit resolution
      */
-    private static OwfsConnection cvOwConnection = null;
+    private static final long SIMULTANEOUS_CONVERSION_TIME = 750;
+
+    /**
+     * Pool of connections to the owserver server
+     */
+    private static volatile OwserverConnectionPool cvPool = null;
 
     /**
      * ip of the owserver (must be set in obenHab.cfg)
@@ -79,23 +106,47 @@ public class OneWireConnection {
      */
     private static int cvServerRetryInterval = 60;
 
+    /**
+     * The maximum number of simultaneously open connections to owserver. Optional, defaults to 3.
+     */
+    private static int cvMaxConnections = 3;
+
+    /**
+     * Trigger a simultaneous temperature conversion per bus branch before temperatures are read.
+     * Optional, defaults to false.
+     */
+    private static boolean cvSimultaneous = false;
+
     /**
      * signals that the connection is established
      */
-    private static boolean cvIsEstablished = false;
+    private static volatile boolean cvIsEstablished = false;
+
+    /**
+     * reads which are currently in progress, by device property path
+     */
+    private static final ConcurrentMap<String, FutureTask<String>> cvPendingReads = new ConcurrentHashMap<String, FutureTask<String>>();
+
+    /**
+     * time of the last simultaneous temperature conversion, by bus branch
+     */
+    private static final ConcurrentMap<String, AtomicLong> cvConversions = new ConcurrentHashMap<String, AtomicLong>();
+
+    /**
+     * read latencies per device
+     */
+    private static final OneWireReadStatistics cvStatistics = new OneWireReadStatistics();
 
     /**
-     * Returns an OwfsConnection
+     * Connects to owserver, unless the connection is already established
      *
-     * @return the OwfsConnection network link
+     * @return true if the connection is established, false otherwise
      */
-    public static synchronized OwfsConnection getConnection() {
-        if (cvOwConnection == null) {
-            if (!connect()) {
-                return null;
-            }
+    public static synchronized boolean ensureConnected() {
+        if (cvPool != null && cvIsEstablished) {
+            return true;
         }
-        return cvOwConnection;
+        return connect();
     }
 
     /**
@@ -111,14 +162,14 @@ public class OneWireConnection {
         owConnectionConfig.setBusReturn(OwBusReturn.ON);
         owfsConnectorFactory.setConnectionConfig(owConnectionConfig);
 
-        cvOwConnection = owfsConnectorFactory.createNewConnection();
+        OwfsConnection lvOwConnection = owfsConnectorFactory.createNewConnection();
 
         boolean connected = false;
         int attempts = 0, retriesRemaining = cvServerRetries;
         List<String> result = null;
 
         try {
-            result = cvOwConnection.listDirectory("/");
+            result = lvOwConnection.listDirectory("/");
             if (result != null) {
                 connected = true;
             } else {
@@ -132,9 +183,9 @@ public class OneWireConnection {
 
         while (!connected && retriesRemaining > 0) {
             logger.warn("Connection failed. Will retry in {} seconds.", cvServerRetryInterval);
-            synchronized (cvOwConnection) {
+            synchronized (lvOwConnection) {
                 try {
-                    cvOwConnection.wait(cvServerRetryInterval * 1000L);
+                    lvOwConnection.wait(cvServerRetryInterval * 1000L);
                 } catch (InterruptedException e) {
                     logger.debug("Wait was interrupted.");
                 }
@@ -143,7 +194,7 @@ public class OneWireConnection {
             retriesRemaining--;
             logger.info("Retrying failed connection... Attempt {} of {}.", attempts, cvServerRetries);
             try {
-                result = cvOwConnection.listDirectory("/");
+                result = lvOwConnection.listDirectory("/");
                 if (result != null) {
                     connected = true;
                 }
@@ -156,11 +207,21 @@ public class OneWireConnection {
 
         if (!connected) {
             logger.error("Couldn't connect to owserver [IP '{}' Port '{}']", cvIp, cvPort);
+            try {
+                lvOwConnection.disconnect();
+            } catch (IOException e) {
+                logger.debug("Error while disconnecting from owserver: {}", e.getMessage());
+            }
             cvIsEstablished = false;
             return false;
         }
 
-        logger.info("Connected to owserver [IP '{}' Port '{}']", cvIp, cvPort);
+        OwserverConnectionPool lvPool = new OwserverConnectionPool(owfsConnectorFactory, cvMaxConnections);
+        lvPool.add(lvOwConnection);
+        cvPool = lvPool;
+
+        logger.info("Connected to owserver [IP '{}' Port '{}'] using up to {} connections", cvIp, cvPort,
+                cvMaxConnections);
         cvIsEstablished = true;
         return true;
     }
@@ -172,16 +233,25 @@ public class OneWireConnection {
      */
     public static synchronized boolean reconnect() {
         logger.info("Trying to reconnect to owserver...");
-        try {
-            cvOwConnection.disconnect();
-        } catch (Exception lvException) {
-            logger.error("Error while disconnecting from owserver: ", lvException);
+        OwserverConnectionPool lvPool = cvPool;
+        cvPool = null;
+        if (lvPool != null) {
+            lvPool.close();
         }
-        cvOwConnection = null;
         cvIsEstablished = false;
         return connect();
     }
 
+    /**
+     * Reconnects to owserver, unless another thread has already done so since
+     * <code>pvFailedPool</code> was used
+     */
+    private static synchronized void reconnect(OwserverConnectionPool pvFailedPool) {
+        if (cvPool == pvFailedPool) {
+            reconnect();
+        }
+    }
+
     public static synchronized void updated(Dictionary<String, ?> pvConfig) throws ConfigurationException {
         if (pvConfig == null) {
             logger.debug(
@@ -242,16 +312,47 @@ public class OneWireConnection {
         }
         logger.debug("onewire:server_retryInterval = {} seconds", cvServerRetryInterval);
 
-        if (cvOwConnection == null) {
+        int lvMaxConnections = cvMaxConnections;
+        String lvConnectionsString = Objects.toString(pvConfig.get("connections"), null);
+        if (StringUtils.isNotBlank(lvConnectionsString)) {
+            lvMaxConnections = Integer.parseInt(lvConnectionsString);
+            if (lvMaxConnections < 1) {
+                logger.error("connections was configured with an invalid value: {}", lvMaxConnections);
+                throw new ConfigurationException("onewire:connections",
+                        "connections was configured with an invalid value: " + lvMaxConnections);
+            }
+        }
+        logger.debug("onewire:connections = {}", lvMaxConnections);
+
+        String lvSimultaneousString = Objects.toString(pvConfig.get("simultaneous"), null);
+        if (StringUtils.isNotBlank(lvSimultaneousString)) {
+            cvSimultaneous = Boolean.parseBoolean(lvSimultaneousString);
+        }
+        logger.debug("onewire:simultaneous = {}", cvSimultaneous);
+
+        if (cvPool == null) {
+            cvMaxConnections = lvMaxConnections;
             logger.debug("Not connected to owserver yet. Trying to connect...");
             if (!connect()) {
                 logger.warn("Connection to owserver failed!");
             } else {
                 logger.debug("Success: connected to owserver.");
             }
+        } else if (cvPool.getMaxConnections() != lvMaxConnections) {
+            cvMaxConnections = lvMaxConnections;
+            reconnect();
         }
     }
 
+    /**
+     * Uses the given pool as the established connection to owserver.
+     * Visible for testing only.
+     */
+    static synchronized void setPool(OwserverConnectionPool pvPool) {
+        cvPool = pvPool;
+        cvIsEstablished = pvPool != null;
+    }
+
     /**
      * @return boolean, is the connection to oserver established
      */
@@ -259,40 +360,105 @@ public class OneWireConnection {
         return cvIsEstablished;
     }
 
+    /**
+     * @return the maximum number of simultaneously open connections to owserver
+     */
+    public static int getMaxConnections() {
+        return cvMaxConnections;
+    }
+
     /**
      * Checks if an device exists in 1-Wire network
      *
+     * @param pvConnection
      * @param pvDevicePropertyPath
      * @return
      * @throws IOException
      * @throws OwfsException
      */
-    private static synchronized boolean checkIfDeviceExists(String pvDevicePropertyPath)
+    private static boolean checkIfDeviceExists(OwfsConnection pvConnection, String pvDevicePropertyPath)
             throws IOException, OwfsException {
         String[] pvDevicePropertyPathParts = pvDevicePropertyPath.trim().split("/");
 
         String lvDevicePath = pvDevicePropertyPathParts[0];
         logger.debug("check if device exists '{}': ", new Object[] { lvDevicePath });
 
-        return OneWireConnection.getConnection().exists(lvDevicePath);
+        return pvConnection.exists(lvDevicePath);
     }
 
     /**
-     * Read a Value for a device property from 1-Wire network
+     * Read a Value for a device property from 1-Wire network. If the same
+     * device property is already being read by another thread, the result of
+     * that read is returned instead.
      *
      * @param pvDevicePropertyPath
      * @return device property value as String
      */
-    public static synchronized String readFromOneWire(AbstractOneWireDevicePropertyBindingConfig pvBindingConfig) {
+    public static String readFromOneWire(final AbstractOneWireDevicePropertyBindingConfig pvBindingConfig) {
+        String lvKey = pvBindingConfig.getDevicePropertyPath();
+        if (pvBindingConfig.isIgnore85CPowerOnResetValues()) {
+            lvKey += "#ignore85C";
+        }
+
+        FutureTask<String> lvRead = new FutureTask<String>(new Callable<String>() {
+            @Override
+            public String call() {
+                return readFromOneWireWithRetries(pvBindingConfig);
+            }
+        });
+        FutureTask<String> lvPendingRead = cvPendingReads.putIfAbsent(lvKey, lvRead);
+        if (lvPendingRead == null) {
+            try {
+                lvRead.run();
+            } finally {
+                cvPendingReads.remove(lvKey, lvRead);
+            }
+            lvPendingRead = lvRead;
+        } else {
+            logger.debug("'{}' is already being read, waiting for that result", lvKey);
+        }
+
+        try {
+            return lvPendingRead.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            logger.error("reading from path {} failed", pvBindingConfig.getDevicePropertyPath(), e.getCause());
+            return null;
+        }
+    }
+
+    private static String readFromOneWireWithRetries(AbstractOneWireDevicePropertyBindingConfig pvBindingConfig) {
         String lvDevicePropertyPath = pvBindingConfig.getDevicePropertyPath();
 
         int lvAttempt = 1;
         while (lvAttempt <= cvRetry) {
+            OwserverConnectionPool lvPool = cvPool;
+            if (lvPool == null) {
+                logger.warn("not connected to owserver, can't read '{}'", lvDevicePropertyPath);
+                return null;
+            }
+            OwfsConnection lvConnection = borrowConnection(lvPool);
+            if (lvConnection == null) {
+                logger.warn("no owserver connection available for read attempt {} '{}'", lvAttempt,
+                        lvDevicePropertyPath);
+                lvAttempt++;
+                continue;
+            }
+
+            boolean lvIsHealthy = true;
             try {
                 logger.debug("trying to read from '{}', read attempt={}",
                         new Object[] { lvDevicePropertyPath, lvAttempt });
-                if (checkIfDeviceExists(lvDevicePropertyPath)) {
-                    String lvReadValue = OneWireConnection.getConnection().read(lvDevicePropertyPath);
+                if (cvSimultaneous) {
+                    convertSimultaneously(lvConnection, pvBindingConfig);
+                }
+
+                long lvStart = System.nanoTime();
+                if (checkIfDeviceExists(lvConnection, lvDevicePropertyPath)) {
+                    String lvReadValue = lvConnection.read(lvDevicePropertyPath);
+                    cvStatistics.record(pvBindingConfig.getDeviceId(), (System.nanoTime() - lvStart) / 1000000);
                     logger.debug("Read value '{}' from {}, read attempt={}",
                             new Object[] { lvReadValue, lvDevicePropertyPath, lvAttempt });
 
@@ -319,16 +485,22 @@ public class OneWireConnection {
                     logger.debug(lvLogText, oe);
                 } else {
                     logger.error(lvLogText, oe);
-                    reconnect();
+                    lvIsHealthy = false;
+                    lvPool.invalidate(lvConnection);
                 }
             } catch (IOException ioe) {
                 logger.error("couldn't establish network connection while read attempt {} '{}' ip:port={}:{}",
                         lvAttempt, lvDevicePropertyPath, cvIp, cvPort, ioe);
-                reconnect();
+                lvIsHealthy = false;
+                lvPool.invalidate(lvConnection);
+                reconnect(lvPool);
             } catch (NumberFormatException lvNumberFormatException) {
                 logger.error(
                         "Ignoring 85C PowerOnReset values can only be used with temperature sensors! Read a value, which is not a number");
             } finally {
+                if (lvIsHealthy) {
+                    lvPool.release(lvConnection);
+                }
                 lvAttempt++;
             }
         }
@@ -336,20 +508,107 @@ public class OneWireConnection {
         return null;
     }
 
+    /**
+     * Starts a temperature conversion of all devices on the bus branch of the
+     * given device, unless this has been done shortly before. Temperature
+     * reads of the branch then return the converted values without waiting
+     * for a conversion each. Returns once the conversion time has passed, so
+     * that the converted rather than the previous or the 85C power on reset
+     * value is read. If the conversion can't be started, there is nothing to
+     * wait for and it is tried again after the validity period.
+     *
+     * @param pvConnection
+     * @param pvBindingConfig
+     * @throws IOException
+     * @throws OwfsException
+     */
+    private static void convertSimultaneously(OwfsConnection pvConnection,
+            AbstractOneWireDevicePropertyBindingConfig pvBindingConfig) throws IOException, OwfsException {
+        String lvPropertyName = pvBindingConfig.getPropertyName();
+        if (lvPropertyName == null || !lvPropertyName.startsWith("temperature")) {
+            return;
+        }
+
+        String lvDeviceId = pvBindingConfig.getDeviceId();
+        String lvBranch = lvDeviceId.substring(0, lvDeviceId.lastIndexOf('/') + 1);
+
+        AtomicLong lvLastConversion = cvConversions.get(lvBranch);
+        if (lvLastConversion == null) {
+            AtomicLong lvNewConversion = new AtomicLong();
+            lvLastConversion = cvConversions.putIfAbsent(lvBranch, lvNewConversion);
+            if (lvLastConversion == null) {
+                lvLastConversion = lvNewConversion;
+            }
+        }
+
+        long lvLast = lvLastConversion.get();
+        long lvNow = System.currentTimeMillis();
+        if (lvNow - lvLast >= SIMULTANEOUS_CONVERSION_VALIDITY && lvLastConversion.compareAndSet(lvLast, lvNow)) {
+            logger.debug("Starting simultaneous temperature conversion on bus branch '{}'", lvBranch);
+            boolean lvIsStarted = false;
+            try {
+                pvConnection.write(lvBranch + "simultaneous/temperature", "1");
+                lvIsStarted = true;
+            } catch (OwfsException oe) {
+                logger.warn("Can't start simultaneous temperature conversion on bus branch '{}': {}", lvBranch,
+                        oe.getMessage());
+                return;
+            } finally {
+                if (lvIsStarted) {
+                    // the conversion started when the write completed
+                    lvLastConversion.set(System.currentTimeMillis());
+                } else {
+                    // no conversion to wait for
+                    lvLastConversion.set(lvNow - SIMULTANEOUS_CONVERSION_TIME);
+                }
+            }
+        }
+
+        long lvRemaining;
+        while ((lvRemaining = lvLastConversion.get() + SIMULTANEOUS_CONVERSION_TIME
+                - System.currentTimeMillis()) > 0) {
+            try {
+                Thread.sleep(lvRemaining);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
     /**
      * Writes String to 1-Wire device property
      *
      * @param pvDevicePropertyPath
      * @param pvValue
      */
-    public static synchronized void writeToOneWire(String pvDevicePropertyPath, String pvValue) {
+    public static void writeToOneWire(String pvDevicePropertyPath, String pvValue) {
+        if (!ensureConnected()) {
+            logger.warn("Not connected to owserver, can't write '{}' to '{}'", pvValue, pvDevicePropertyPath);
+            return;
+        }
+
         int lvAttempt = 1;
         while (lvAttempt <= cvRetry) {
+            OwserverConnectionPool lvPool = cvPool;
+            if (lvPool == null) {
+                logger.warn("Not connected to owserver, can't write '{}' to '{}'", pvValue, pvDevicePropertyPath);
+                return;
+            }
+            OwfsConnection lvConnection = borrowConnection(lvPool);
+            if (lvConnection == null) {
+                logger.warn("No owserver connection available for write attempt {} to '{}'", lvAttempt,
+                        pvDevicePropertyPath);
+                lvAttempt++;
+                continue;
+            }
+
+            boolean lvIsHealthy = true;
             try {
                 logger.debug("Trying to write '{}' to '{}', write attempt={}", pvValue, pvDevicePropertyPath,
                         lvAttempt);
-                if (checkIfDeviceExists(pvDevicePropertyPath)) {
-                    OneWireConnection.getConnection().write(pvDevicePropertyPath, pvValue);
+                if (checkIfDeviceExists(lvConnection, pvDevicePropertyPath)) {
+                    lvConnection.write(pvDevicePropertyPath, pvValue);
                     return; // Success, exit
                 } else {
                     logger.info("There is no device for path {}, write attempt={}", pvDevicePropertyPath, lvAttempt);
@@ -357,14 +616,35 @@ public class OneWireConnection {
             } catch (OwfsException oe) {
                 logger.error("Writing {} to path {} attempt {} threw an exception", pvValue, pvDevicePropertyPath,
                         lvAttempt, oe);
-                reconnect();
+                lvIsHealthy = false;
+                lvPool.invalidate(lvConnection);
             } catch (IOException ioe) {
                 logger.error("Couldn't establish network connection while write attempt {} to '{}' ip:port={}:{}",
                         lvAttempt, pvDevicePropertyPath, cvIp, cvPort, ioe);
-                reconnect();
+                lvIsHealthy = false;
+                lvPool.invalidate(lvConnection);
+                reconnect(lvPool);
             } finally {
+                if (lvIsHealthy) {
+                    lvPool.release(lvConnection);
+                }
                 lvAttempt++;
             }
         }
     }
+
+    /**
+     * Borrows a connection from the given pool
+     *
+     * @return the connection, or <code>null</code> if no connection became
+     *         available in time
+     */
+    private static OwfsConnection borrowConnection(OwserverConnectionPool pvPool) {
+        try {
+            return pvPool.borrow(BORROW_TIMEOUT);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
 }
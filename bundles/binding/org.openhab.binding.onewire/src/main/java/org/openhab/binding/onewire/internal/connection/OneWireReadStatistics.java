@@ -0,0 +1,121 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.onewire.internal.connection;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Collects a read latency histogram per 1-Wire device and logs them
+ * periodically on debug level.
+ *
+ * @since 1.15.0
+ */
+class OneWireReadStatistics {
+
+    private static final Logger logger = LoggerFactory.getLogger(OneWireReadStatistics.class);
+
+    /**
+     * Upper bounds of the histogram buckets in milliseconds; the last bucket
+     * counts everything above
+     */
+    private static final long[] BUCKET_BOUNDS = { 10, 50, 100, 250, 500, 1000, 2500 };
+
+    private static final long LOG_INTERVAL = 5 * 60 * 1000L;
+
+    private final ConcurrentMap<String, Histogram> ivHistograms = new ConcurrentHashMap<String, Histogram>();
+
+    private final AtomicLong ivLastLog = new AtomicLong(System.currentTimeMillis());
+
+    /**
+     * Records the duration of a read and logs all histograms once the log
+     * interval has passed
+     *
+     * @param pvDevice
+     *            the device the value was read from
+     * @param pvMillis
+     *            the duration of the read in milliseconds
+     */
+    void record(String pvDevice, long pvMillis) {
+        Histogram lvHistogram = ivHistograms.get(pvDevice);
+        if (lvHistogram == null) {
+            Histogram lvNewHistogram = new Histogram();
+            lvHistogram = ivHistograms.putIfAbsent(pvDevice, lvNewHistogram);
+            if (lvHistogram == null) {
+                lvHistogram = lvNewHistogram;
+            }
+        }
+        lvHistogram.record(pvMillis);
+
+        long lvLastLog = ivLastLog.get();
+        long lvNow = System.currentTimeMillis();
+        if (logger.isDebugEnabled() && lvNow - lvLastLog >= LOG_INTERVAL && ivLastLog.compareAndSet(lvLastLog, lvNow)) {
+            log();
+        }
+    }
+
+    private void log() {
+        StringBuilder lvHeader = new StringBuilder();
+        for (long lvBound : BUCKET_BOUNDS) {
+            lvHeader.append(" <").append(lvBound).append("ms");
+        }
+        lvHeader.append(" >=").append(BUCKET_BOUNDS[BUCKET_BOUNDS.length - 1]).append("ms");
+        logger.debug("1-Wire read latency per device (count, max, buckets{})", lvHeader);
+
+        for (Map.Entry<String, Histogram> lvEntry : ivHistograms.entrySet()) {
+            logger.debug("{}: {}", lvEntry.getKey(), lvEntry.getValue());
+        }
+    }
+
+    /**
+     * A fixed bucket latency histogram
+     */
+    private static class Histogram {
+
+        private final AtomicLongArray ivBuckets = new AtomicLongArray(BUCKET_BOUNDS.length + 1);
+
+        private final AtomicLong ivCount = new AtomicLong();
+
+        private final AtomicLong ivMax = new AtomicLong();
+
+        void record(long pvMillis) {
+            int lvBucket = 0;
+            while (lvBucket < BUCKET_BOUNDS.length && pvMillis >= BUCKET_BOUNDS[lvBucket]) {
+                lvBucket++;
+            }
+            ivBuckets.incrementAndGet(lvBucket);
+            ivCount.incrementAndGet();
+
+            long lvMax;
+            while (pvMillis > (lvMax = ivMax.get()) && !ivMax.compareAndSet(lvMax, pvMillis)) {
+                // retry
+            }
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder lvBuilder = new StringBuilder();
+            lvBuilder.append(ivCount.get()).append(", ").append(ivMax.get()).append("ms,");
+            for (int lvIndex = 0; lvIndex < ivBuckets.length(); lvIndex++) {
+                lvBuilder.append(' ').append(ivBuckets.get(lvIndex));
+            }
+            return lvBuilder.toString();
+        }
+    }
+}
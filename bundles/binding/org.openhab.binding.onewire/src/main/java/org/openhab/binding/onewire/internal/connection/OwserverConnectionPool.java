@@ -0,0 +1,143 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.onewire.internal.connection;
+
+import java.io.IOException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.owfs.jowfsclient.OwfsConnection;
+import org.owfs.jowfsclient.OwfsConnectionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A bounded pool of owserver protocol connections. Every connection has its
+ * own socket, so requests on different connections are processed by owserver
+ * in parallel. Connections are opened lazily up to the configured maximum.
+ *
+ * @since 1.15.0
+ */
+class OwserverConnectionPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(OwserverConnectionPool.class);
+
+    private final OwfsConnectionFactory ivFactory;
+
+    private final int ivMaxConnections;
+
+    private final BlockingQueue<OwfsConnection> ivIdleConnections = new LinkedBlockingQueue<OwfsConnection>();
+
+    private final AtomicInteger ivOpenConnections = new AtomicInteger();
+
+    private volatile boolean ivIsClosed = false;
+
+    /**
+     * @param pvFactory
+     *            the factory new connections are created with
+     * @param pvMaxConnections
+     *            the maximum number of simultaneously open connections
+     */
+    OwserverConnectionPool(OwfsConnectionFactory pvFactory, int pvMaxConnections) {
+        this.ivFactory = pvFactory;
+        this.ivMaxConnections = Math.max(1, pvMaxConnections);
+    }
+
+    /**
+     * Adds an already established connection to the pool
+     */
+    void add(OwfsConnection pvConnection) {
+        ivOpenConnections.incrementAndGet();
+        ivIdleConnections.offer(pvConnection);
+    }
+
+    /**
+     * Borrows a connection from the pool. A new connection is opened if there
+     * is no idle one and the maximum has not been reached yet; otherwise this
+     * waits until another thread releases its connection.
+     *
+     * @param pvTimeout
+     *            the maximum time to wait in milliseconds
+     * @return a connection, or <code>null</code> if none became available
+     *         in time
+     * @throws InterruptedException
+     */
+    OwfsConnection borrow(long pvTimeout) throws InterruptedException {
+        if (ivIsClosed) {
+            return null;
+        }
+
+        OwfsConnection lvConnection = ivIdleConnections.poll();
+        if (lvConnection != null) {
+            return lvConnection;
+        }
+
+        while (true) {
+            int lvOpen = ivOpenConnections.get();
+            if (lvOpen >= ivMaxConnections) {
+                break;
+            }
+            if (ivOpenConnections.compareAndSet(lvOpen, lvOpen + 1)) {
+                logger.debug("Opening owserver connection {} of {}", lvOpen + 1, ivMaxConnections);
+                return ivFactory.createNewConnection();
+            }
+        }
+
+        return ivIdleConnections.poll(pvTimeout, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Returns a healthy connection to the pool
+     */
+    void release(OwfsConnection pvConnection) {
+        if (ivIsClosed) {
+            invalidate(pvConnection);
+        } else {
+            ivIdleConnections.offer(pvConnection);
+        }
+    }
+
+    /**
+     * Disconnects a broken connection and frees its slot in the pool
+     */
+    void invalidate(OwfsConnection pvConnection) {
+        ivOpenConnections.decrementAndGet();
+        disconnect(pvConnection);
+    }
+
+    /**
+     * Disconnects all idle connections. Connections which are borrowed at
+     * the time are disconnected when they are released.
+     */
+    void close() {
+        ivIsClosed = true;
+        OwfsConnection lvConnection;
+        while ((lvConnection = ivIdleConnections.poll()) != null) {
+            invalidate(lvConnection);
+        }
+    }
+
+    int getMaxConnections() {
+        return ivMaxConnections;
+    }
+
+    private void disconnect(OwfsConnection pvConnection) {
+        try {
+            pvConnection.disconnect();
+        } catch (IOException lvException) {
+            logger.debug("Error while disconnecting from owserver: {}", lvException.getMessage());
+        }
+    }
+}
@@ -12,6 +12,7 @@
  */
 package org.openhab.binding.onewire.internal.scheduler;
 
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
@@ -47,6 +48,11 @@ public class OneWireUpdateScheduler {
      */
     private static int cvScheduledExecutorServiceShutdownTimeout = 5;
 
+    /**
+     * Number of reader threads taking items from the update queue. Default value is <code>1</code>
+     */
+    private volatile int ivNumberOfReaders = 1;
+
     /**
      * list with items which wants to be updated
      */
@@ -65,19 +71,71 @@ public class OneWireUpdateScheduler {
     /**
      * is this scheduler running
      */
-    private boolean ivIsRunning = false;
+    private volatile boolean ivIsRunning = false;
+
+    /**
+     * these tasks run in separate Threads. They inform the Listeners, that an item wants to get updated
+     */
+    private final List<OneWireUpdateTask> ivOneWireUpdateTasks = new ArrayList<OneWireUpdateTask>();
 
     /**
-     * this task runs in an separate Thread. It informs the Listeners, that an item wants to get updated
+     * the listener which is informed about items which want to get updated
      */
-    private OneWireUpdateTask ivOneWireUpdateTask = null;
+    private final OneWireDevicePropertyWantsUpdateListener ivWantsUpdateListener;
 
     /**
      * @param pvWantsUpdateListener
      */
     public OneWireUpdateScheduler(OneWireDevicePropertyWantsUpdateListener pvWantsUpdateListener) {
         super();
-        ivOneWireUpdateTask = new OneWireUpdateTask(ivUpdateQueue, pvWantsUpdateListener);
+        ivWantsUpdateListener = pvWantsUpdateListener;
+    }
+
+    /**
+     * Sets the number of reader threads, which read items from the update queue in parallel. Running reader threads
+     * are adjusted immediately.
+     *
+     * @param pvNumberOfReaders
+     */
+    public void setNumberOfReaders(int pvNumberOfReaders) {
+        ivNumberOfReaders = Math.max(1, pvNumberOfReaders);
+        if (ivIsRunning) {
+            startReaderTasks();
+        }
+    }
+
+    /**
+     * Starts reader tasks until the configured number is running and stops superfluous ones
+     */
+    private void startReaderTasks() {
+        synchronized (ivOneWireUpdateTasks) {
+            for (Iterator<OneWireUpdateTask> lvIterator = ivOneWireUpdateTasks.iterator(); lvIterator.hasNext();) {
+                if (!lvIterator.next().isAlive()) {
+                    lvIterator.remove();
+                }
+            }
+            while (ivOneWireUpdateTasks.size() > ivNumberOfReaders) {
+                ivOneWireUpdateTasks.remove(ivOneWireUpdateTasks.size() - 1).interrupt();
+            }
+            while (ivOneWireUpdateTasks.size() < ivNumberOfReaders) {
+                OneWireUpdateTask lvTask = new OneWireUpdateTask(ivUpdateQueue, ivWantsUpdateListener,
+                        "OneWireBinding/ReaderTask-" + (ivOneWireUpdateTasks.size() + 1));
+                ivOneWireUpdateTasks.add(lvTask);
+                lvTask.start();
+            }
+        }
+    }
+
+    /**
+     * Stops all reader tasks
+     */
+    private void stopReaderTasks() {
+        synchronized (ivOneWireUpdateTasks) {
+            for (OneWireUpdateTask lvTask : ivOneWireUpdateTasks) {
+                lvTask.interrupt();
+            }
+            ivOneWireUpdateTasks.clear();
+        }
     }
 
     /**
@@ -86,9 +144,9 @@ public class OneWireUpdateScheduler {
     public void start() {
         logger.debug("Starting auto refresh scheduler");
 
-        logger.debug("Starting reader task.");
+        logger.debug("Starting {} reader task(s).", ivNumberOfReaders);
 
-        ivOneWireUpdateTask.start();
+        startReaderTasks();
 
         logger.debug("Starting schedule executor.");
         ivScheduledExecutorService = Executors.newScheduledThreadPool(cvNumberOfThreads);
@@ -118,8 +176,8 @@ public class OneWireUpdateScheduler {
             logger.debug("Auto refresh scheduler: interrupted while waiting for termination.");
         }
 
-        logger.debug("Stopping reader task");
-        ivOneWireUpdateTask.interrupt();
+        logger.debug("Stopping reader tasks");
+        stopReaderTasks();
         ivIsRunning = false;
     }
 
@@ -315,16 +373,8 @@ public class OneWireUpdateScheduler {
                 } else {
                     logger.debug("Autorefresh: Adding {} item(s) with refresh time {} to reader queue.",
                             lvItemNameList.size(), ivAutoRefreshTimeInSecs);
-                    logger.debug("Update Task isAlive: {}", ivOneWireUpdateTask.isAlive());
-                    if (!ivOneWireUpdateTask.isAlive()) {
-                        logger.debug("create and start a new Update Task again...");
-
-                        OneWireUpdateTask lvNewOneWireUpdateTask = new OneWireUpdateTask(ivUpdateQueue,
-                                ivOneWireUpdateTask.getIvWantsUpdateListener());
-                        ivOneWireUpdateTask = lvNewOneWireUpdateTask;
-
-                        ivOneWireUpdateTask.start();
-                    }
+                    // create and start Update Tasks again, which have died
+                    startReaderTasks();
                     synchronized (lvItemNameList) {
                         // increase performance one slower systems on startup
                         // only add items to queue which aren't already in queue
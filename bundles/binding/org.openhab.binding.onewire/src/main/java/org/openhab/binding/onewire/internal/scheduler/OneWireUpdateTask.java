@@ -38,8 +38,8 @@ public class OneWireUpdateTask extends Thread {
     private OneWireDevicePropertyWantsUpdateListener ivWantsUpdateListener;
 
     public OneWireUpdateTask(BlockingQueue<String> pvQueue,
-            OneWireDevicePropertyWantsUpdateListener pvWantsUpdateListener) {
-        super("OneWireBinding/ReaderTask");
+            OneWireDevicePropertyWantsUpdateListener pvWantsUpdateListener, String pvName) {
+        super(pvName);
         setDaemon(true);
         this.ivUpdateQueue = pvQueue;
         this.ivWantsUpdateListener = pvWantsUpdateListener;
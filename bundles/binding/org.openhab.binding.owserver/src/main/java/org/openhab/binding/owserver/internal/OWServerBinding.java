@@ -12,18 +12,16 @@
  */
 package org.openhab.binding.owserver.internal;
 
-import java.io.IOException;
-import java.io.StringReader;
+import java.util.ArrayList;
 import java.util.Dictionary;
 import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLStreamException;
 
 import org.apache.commons.lang.StringUtils;
 import org.openhab.binding.owserver.OWServerBindingProvider;
@@ -45,17 +43,13 @@ import org.osgi.service.cm.ConfigurationException;
 import org.osgi.service.cm.ManagedService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-import org.xml.sax.InputSource;
-import org.xml.sax.SAXException;
 
 /**
  * An active binding which requests the EDS OWServer data.
  *
- * This class parses the information from the EDS OW-Server XML file.
+ * This class parses the information from the EDS OW-Server XML file. Each
+ * server's details are fetched and parsed once per cache period, and all due
+ * items of that server are updated from the parsed {@link OWServerDetails}.
  *
  * @author Chris Jackson
  * @since 1.3.0
@@ -113,64 +107,15 @@ public class OWServerBinding extends AbstractActiveBinding<OWServerBindingProvid
         return "OWServer Refresh Service";
     }
 
-    String getVariable(String response, String romId, String name) {
-        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-
-        // Get the DOM Builder
-        DocumentBuilder builder = null;
-        try {
-            builder = factory.newDocumentBuilder();
-        } catch (ParserConfigurationException e) {
-            logger.error("Error parsing OWServer XML response " + e.getMessage());
-        }
-
-        // Load and Parse the XML document
-        // document contains the complete XML as a Tree.
-        Document document = null;
-        try {
-            InputSource is = new InputSource(new StringReader(response));
-            document = builder.parse(is);
-        } catch (SAXException e) {
-            logger.error("Error reading OWServer XML response " + e.getMessage());
-        } catch (IOException e) {
-            logger.error("Error reading OWServer XML response " + e.getMessage());
-        }
-
-        // Iterating through the nodes and extracting the data.
-        NodeList nodeList = document.getDocumentElement().getChildNodes();
-
-        for (int i = 0; i < nodeList.getLength(); i++) {
-            Node node = nodeList.item(i);
-            if (node.getNodeName().startsWith("owd_")) {
-                boolean romMatch = false;
-                NodeList childNodes = node.getChildNodes();
-                for (int j = 0; j < childNodes.getLength(); j++) {
-                    Node cNode = childNodes.item(j);
-
-                    // Identifying the child tag of employee encountered.
-                    if (cNode instanceof Element) {
-                        String content = cNode.getLastChild().getTextContent().trim();
-                        if (cNode.getNodeName().equals("ROMId") & content.equals(romId)) {
-                            romMatch = true;
-                        }
-
-                        String nname = cNode.getNodeName();
-                        if (nname.equals(name) & romMatch == true) {
-                            return content;
-                        }
-                    }
-                }
-            }
-        }
-
-        return null;
-    }
-
     /**
      * @{inheritDoc
      */
     @Override
     public void execute() {
+        long now = System.currentTimeMillis();
+
+        // Collect the items which are due for a refresh, grouped by server
+        Map<String, List<ItemRef>> dueItems = new HashMap<String, List<ItemRef>>();
         for (OWServerBindingProvider provider : providers) {
             for (String itemName : provider.getInBindingItemNames()) {
                 int refreshInterval = provider.getRefreshInterval(itemName);
@@ -180,68 +125,90 @@ public class OWServerBinding extends AbstractActiveBinding<OWServerBindingProvid
                     lastUpdateTimeStamp = 0L;
                 }
 
-                long age = System.currentTimeMillis() - lastUpdateTimeStamp;
-                boolean needsUpdate = age >= refreshInterval;
-
-                if (needsUpdate) {
-                    logger.debug("Item '{}' is about to be refreshed now", itemName);
-
-                    // Get the unit serverId from the binding, and relate that to the config
-                    String unit = provider.getServerId(itemName);
-                    OWServerConfig server = serverList.get(unit);
-                    needsUpdate = false;
-                    if (server == null) {
-                        needsUpdate = false;
-                        logger.error("Unknown OW server referenced: " + unit);
-
-                        continue;
-                    } else {
-                        age = System.currentTimeMillis() - server.lastUpdate;
-                        if (age >= cacheDuration) {
-                            needsUpdate = true;
-                        }
-                    }
+                long age = now - lastUpdateTimeStamp;
+                if (age < refreshInterval) {
+                    continue;
+                }
 
-                    String response = null;
-                    if (needsUpdate == true) {
-                        String address;
-                        if (server.user == null) {
-                            address = "http://" + server.host + "/details.xml";
-                        } else {
-                            address = "http://" + server.user + ":" + server.password + "@" + server.host
-                                    + "/details.xml";
-                        }
-                        logger.debug("Getting OWSERVER data from " + address);
-                        response = HttpUtil.executeUrl("GET", address, timeout);
-                        server.cache = response;
-
-                        if (response == null) {
-                            server.lastUpdate = (long) 0;
-                            logger.error("No response received from '{}'", address);
-                        } else {
-                            server.lastUpdate = System.currentTimeMillis();
-                        }
-                        serverList.put(address, server);
-                    } else {
-                        logger.debug("Using OWSERVER cache");
-                        response = server.cache;
-                    }
+                logger.debug("Item '{}' is about to be refreshed now", itemName);
 
-                    if (response != null) {
-                        String value = getVariable(response, provider.getRomId(itemName), provider.getName(itemName));
-                        if (value != null) {
-                            Class<? extends Item> itemType = provider.getItemType(itemName);
-                            State state = createState(itemType, value);
-                            eventPublisher.postUpdate(itemName, state);
-                        }
-                    }
+                // Get the unit serverId from the binding, and relate that to the config
+                String unit = provider.getServerId(itemName);
+                if (!serverList.containsKey(unit)) {
+                    logger.error("Unknown OW server referenced: " + unit);
+                    continue;
+                }
+
+                List<ItemRef> items = dueItems.get(unit);
+                if (items == null) {
+                    items = new ArrayList<ItemRef>();
+                    dueItems.put(unit, items);
+                }
+                items.add(new ItemRef(provider, itemName));
+            }
+        }
 
-                    lastUpdateMap.put(itemName, System.currentTimeMillis());
+        // Fetch and parse each server's details once, then update all its due items
+        for (Map.Entry<String, List<ItemRef>> entry : dueItems.entrySet()) {
+            OWServerDetails details = getDetails(serverList.get(entry.getKey()));
+
+            for (ItemRef item : entry.getValue()) {
+                if (details != null) {
+                    String value = details.getValue(item.provider.getRomId(item.itemName),
+                            item.provider.getName(item.itemName));
+                    if (value != null) {
+                        Class<? extends Item> itemType = item.provider.getItemType(item.itemName);
+                        State state = createState(itemType, value);
+                        eventPublisher.postUpdate(item.itemName, state);
+                    }
                 }
+
+                lastUpdateMap.put(item.itemName, System.currentTimeMillis());
             }
         }
     }
 
+    /**
+     * Returns the parsed details of the given server, fetching them from the
+     * server if the cached snapshot is older than the cache duration.
+     *
+     * @return the details, or <code>null</code> if they couldn't be retrieved
+     */
+    private OWServerDetails getDetails(OWServerConfig server) {
+        long age = System.currentTimeMillis() - server.lastUpdate;
+        if (age < cacheDuration) {
+            logger.debug("Using OWSERVER cache");
+            return server.cache;
+        }
+
+        String address;
+        if (server.user == null) {
+            address = "http://" + server.host + "/details.xml";
+        } else {
+            address = "http://" + server.user + ":" + server.password + "@" + server.host + "/details.xml";
+        }
+        logger.debug("Getting OWSERVER data from " + address);
+        String response = HttpUtil.executeUrl("GET", address, timeout);
+
+        server.cache = null;
+        server.lastUpdate = (long) 0;
+        if (response == null) {
+            logger.error("No response received from '{}'", address);
+            return null;
+        }
+
+        try {
+            long startTime = System.nanoTime();
+            server.cache = OWServerDetails.parse(response);
+            server.lastUpdate = System.currentTimeMillis();
+            logger.trace("Parsed OWSERVER details of {} devices in {}us", server.cache.getDeviceCount(),
+                    (System.nanoTime() - startTime) / 1000);
+        } catch (XMLStreamException e) {
+            logger.error("Error parsing OWServer XML response " + e.getMessage());
+        }
+        return server.cache;
+    }
+
     /**
      * Returns a {@link State} which is inherited from the {@link Item}s
      * accepted DataTypes. The call is delegated to the {@link TypeParser}. If
@@ -363,7 +330,7 @@ public class OWServerBinding extends AbstractActiveBinding<OWServerBindingProvid
         public String user;
         public String password;
         public Long lastUpdate;
-        public String cache;
+        public OWServerDetails cache;
 
         OWServerConfig() {
             lastUpdate = (long) 0;
@@ -371,7 +338,20 @@ public class OWServerBinding extends AbstractActiveBinding<OWServerBindingProvid
 
         @Override
         public String toString() {
-            return "OWServerCache [host=" + host + " last=" + lastUpdate + ", cache=" + cache + "]";
+            return "OWServerCache [host=" + host + " last=" + lastUpdate + "]";
+        }
+    }
+
+    /**
+     * An item due for a refresh, together with the provider it is bound by.
+     */
+    private static class ItemRef {
+        final OWServerBindingProvider provider;
+        final String itemName;
+
+        ItemRef(OWServerBindingProvider provider, String itemName) {
+            this.provider = provider;
+            this.itemName = itemName;
         }
     }
 
@@ -0,0 +1,99 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.owserver.internal;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.openhab.io.xml.XmlPathExtractor;
+import org.openhab.io.xml.XmlPathHandler;
+
+/**
+ * An immutable snapshot of the values of an OW-Server <code>details.xml</code>
+ * document, indexed by device ROM id and value name. The document is parsed
+ * once with a streaming parser, so all items of a server read from the same
+ * snapshot.
+ *
+ * @since 1.15.0
+ */
+public class OWServerDetails {
+
+    private static final String DEVICE_PATH = "*/owd_*";
+    private static final String VALUE_PATH = DEVICE_PATH + "/*";
+
+    private static final XmlPathExtractor EXTRACTOR = new XmlPathExtractor(DEVICE_PATH, VALUE_PATH);
+
+    private final Map<String, Map<String, String>> devices;
+
+    private OWServerDetails(Map<String, Map<String, String>> devices) {
+        this.devices = devices;
+    }
+
+    /**
+     * @return the value <code>name</code> of the device <code>romId</code>,
+     *         or <code>null</code> if there is no such value
+     */
+    public String getValue(String romId, String name) {
+        Map<String, String> values = devices.get(romId);
+        return values == null ? null : values.get(name);
+    }
+
+    /**
+     * @return the number of devices in this snapshot
+     */
+    public int getDeviceCount() {
+        return devices.size();
+    }
+
+    /**
+     * Parses an OW-Server <code>details.xml</code> document. Every child element
+     * of the root whose name starts with <code>owd_</code> describes a device;
+     * its child elements hold the device values, including the
+     * <code>ROMId</code> the device is indexed by.
+     *
+     * @param xml the document
+     * @return the parsed snapshot
+     * @throws XMLStreamException if the document is malformed
+     */
+    public static OWServerDetails parse(String xml) throws XMLStreamException {
+        final Map<String, Map<String, String>> devices = new HashMap<String, Map<String, String>>();
+
+        EXTRACTOR.extract(xml, new XmlPathHandler() {
+            private Map<String, String> values = new HashMap<String, String>();
+
+            @Override
+            public void value(String path, String name, String value) {
+                if (VALUE_PATH.equals(path)) {
+                    values.put(name, value);
+                }
+            }
+
+            @Override
+            public void end(String path, String name) {
+                if (DEVICE_PATH.equals(path)) {
+                    String romId = values.get("ROMId");
+                    if (romId != null) {
+                        devices.put(romId, Collections.unmodifiableMap(values));
+                    }
+                    values = new HashMap<String, String>();
+                }
+            }
+        });
+
+        return new OWServerDetails(Collections.unmodifiableMap(devices));
+    }
+
+}
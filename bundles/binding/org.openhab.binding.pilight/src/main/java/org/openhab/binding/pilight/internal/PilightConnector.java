@@ -62,10 +62,11 @@ public class PilightConnector extends Thread {
 
     private IPilightMessageReceivedCallback callback;
 
-    private ObjectMapper inputMapper = new ObjectMapper()
+    // the mappers are thread-safe once configured, so all connectors share them
+    private static final ObjectMapper INPUT_MAPPER = new ObjectMapper()
             .configure(org.codehaus.jackson.JsonParser.Feature.AUTO_CLOSE_SOURCE, false);
 
-    private ObjectMapper outputMapper = new ObjectMapper().configure(Feature.AUTO_CLOSE_TARGET, false)
+    private static final ObjectMapper OUTPUT_MAPPER = new ObjectMapper().configure(Feature.AUTO_CLOSE_TARGET, false)
             .setSerializationInclusion(Inclusion.NON_NULL);
 
     private boolean running = true;
@@ -98,18 +99,18 @@ public class PilightConnector extends Thread {
                             logger.debug("Received from pilight: {}", line);
                             if (line.startsWith("{\"message\":\"config\"")) {
                                 // Configuration received
-                                connection.setConfig(inputMapper.readValue(line, Message.class).getConfig());
+                                connection.setConfig(INPUT_MAPPER.readValue(line, Message.class).getConfig());
                                 configAction(ConfigModifyAction.ConfigReceived, null);
                             } else if (line.startsWith("{\"status\":")) {
                                 // Status message, we're not using this for now.
-                                Response response = inputMapper.readValue(line, Response.class);
+                                Response response = INPUT_MAPPER.readValue(line, Response.class);
                                 logger.trace("Response success: " + response.isSuccess());
                             } else if (line.equals("1")) {
                                 // pilight stopping
                                 throw new IOException("Connection to pilight lost");
                             } else {
                                 logger.debug(line);
-                                Status status = inputMapper.readValue(line, Status.class);
+                                Status status = INPUT_MAPPER.readValue(line, Status.class);
                                 callback.messageReceived(connection, status);
                             }
                         }
@@ -193,7 +194,7 @@ public class PilightConnector extends Thread {
             updatingConfig = true;
             logger.info("Updating pilight config");
             Socket socket = connection.getSocket();
-            outputMapper.writeValue(socket.getOutputStream(), new Action(Action.ACTION_REQUEST_CONFIG));
+            OUTPUT_MAPPER.writeValue(socket.getOutputStream(), new Action(Action.ACTION_REQUEST_CONFIG));
         }
     }
 
@@ -224,11 +225,11 @@ public class PilightConnector extends Thread {
                 options.setConfig(true);
                 identification.setOptions(options);
 
-                // For some reason, directly using the outputMapper to write to the socket's OutputStream doesn't work.
+                // For some reason, directly using the OUTPUT_MAPPER to write to the socket's OutputStream doesn't work.
                 PrintStream printStream = new PrintStream(socket.getOutputStream(), true);
-                printStream.println(outputMapper.writeValueAsString(identification));
+                printStream.println(OUTPUT_MAPPER.writeValueAsString(identification));
 
-                Response response = inputMapper.readValue(socket.getInputStream(), Response.class);
+                Response response = INPUT_MAPPER.readValue(socket.getInputStream(), Response.class);
 
                 if (response.getStatus().equals(Response.SUCCESS)) {
                     logger.info("Established connection to pilight server at {}:{}", connection.getHostname(),
@@ -268,7 +269,7 @@ public class PilightConnector extends Thread {
     private void doUpdateCall(Action action) {
         try {
             connection.setLastUpdate(new Date());
-            outputMapper.writeValue(connection.getSocket().getOutputStream(), action);
+            OUTPUT_MAPPER.writeValue(connection.getSocket().getOutputStream(), action);
         } catch (IOException e) {
             logger.debug("Error while sending update to pilight server", e);
         }
@@ -101,6 +101,13 @@ public class PlexConnector extends Thread {
 
     private static final String TOKEN_HEADER = "X-Plex-Token";
 
+    /** Reads the updates of API v1 */
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /** Reads the notifications of API v2, which are wrapped in a root object */
+    private static final ObjectMapper UNWRAPPING_MAPPER = new ObjectMapper()
+            .configure(Feature.UNWRAP_ROOT_VALUE, true);
+
     private final AsyncHttpClient client;
 
     private final WebSocketUpgradeHandler handler;
@@ -505,8 +512,6 @@ public class PlexConnector extends Thread {
      */
     private class PlexWebSocketListener implements WebSocketTextListener {
 
-        private final ObjectMapper mapper = new ObjectMapper();
-
         @Override
         public void onOpen(WebSocket webSocket) {
             logger.info("Plex websocket connected to {}:{}", connection.getUri().getHost(),
@@ -560,15 +565,13 @@ public class PlexConnector extends Thread {
             try {
                 switch (connection.getApiLevel()) {
                     case v1:
-                        mapper.configure(Feature.UNWRAP_ROOT_VALUE, false);
-                        Update update = mapper.readValue(message, Update.class);
+                        Update update = MAPPER.readValue(message, Update.class);
                         if (update.getType().equals("playing") && update.getChildren().size() > 0) {
                             return update.getChildren().get(0);
                         }
                         break;
                     case v2:
-                        mapper.configure(Feature.UNWRAP_ROOT_VALUE, true);
-                        NotificationContainer notificationContainer = mapper.readValue(message,
+                        NotificationContainer notificationContainer = UNWRAPPING_MAPPER.readValue(message,
                                 NotificationContainer.class);
                         if (notificationContainer.getStateNotifications().size() > 0) {
                             return notificationContainer.getStateNotifications().get(0);
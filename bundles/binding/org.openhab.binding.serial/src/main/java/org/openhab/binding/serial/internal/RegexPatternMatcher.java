@@ -13,9 +13,9 @@
 package org.openhab.binding.serial.internal;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -33,7 +33,7 @@ import org.slf4j.LoggerFactory;
  */
 public class RegexPatternMatcher {
     private static final Logger logger = LoggerFactory.getLogger(RegexPatternMatcher.class);
-    private static Map<String, Pattern> patternCache = new HashMap<>();
+    private static final ConcurrentMap<String, CompiledRegex> patternCache = new ConcurrentHashMap<>();
 
     /*
      * Regular expression to match or a substitution in form of
@@ -42,50 +42,119 @@ public class RegexPatternMatcher {
      */
     private static final Pattern SUBST_PATTERN = Pattern.compile("^s/(.*?[^\\\\])/(.*?[^\\\\])/(.*)$");
 
+    /** Characters with a special meaning in a regular expression */
+    private static final String REGEX_META_CHARACTERS = "\\^$.|?*+()[]{}";
+
     /**
-     * Returns compiled pattern for specific regular expression that is stored in patternCache
+     * A regular expression or substitution, split and compiled once.
      *
-     * @param regExpression
-     * @return
+     * @since 1.15.0
      */
-    private static Pattern getPattern(String regExpression) {
-        return cache(regExpression);
+    public static class CompiledRegex {
+        private final Pattern pattern;
+        private final String substitution;
+        private final boolean replaceAll;
+        private final String requiredLiteral;
+
+        private CompiledRegex(Pattern pattern, String substitution, boolean replaceAll, String requiredLiteral) {
+            this.pattern = pattern;
+            this.substitution = substitution;
+            this.replaceAll = replaceAll;
+            this.requiredLiteral = requiredLiteral;
+        }
+
+        /**
+         * Returns true if this is a substitution in form of "s/&lt;regex&gt;/result/".
+         */
+        public boolean isSubstitution() {
+            return substitution != null;
+        }
+
+        /**
+         * Returns the result of the substitution, or the first group of each
+         * match of the regular expression.
+         *
+         * @param source text to search in, must not be null
+         * @return Array of matched strings or empty array if none found
+         */
+        public String[] getMatches(String source) {
+            String trimmed = source.trim();
+            if (substitution != null) {
+                Matcher matcher = pattern.matcher(trimmed);
+                return new String[] { replaceAll ? matcher.replaceAll(substitution)
+                        : matcher.replaceFirst(substitution) };
+            }
+
+            // a line without the literal start of the expression can't match
+            if (requiredLiteral != null && !trimmed.contains(requiredLiteral)) {
+                return new String[0];
+            }
+
+            Matcher matcher = pattern.matcher(trimmed);
+            List<String> results = new ArrayList<>();
+            while (matcher.find()) {
+                // Only return first/primary group matches
+                // This way you can use secondary groups to quantify occurrence count
+                results.add(matcher.group(1));
+            }
+            return results.toArray(new String[results.size()]);
+        }
     }
 
     /**
-     * Returns true if given regular expression is a substitution pattern
-     * This fact is indicated by patternCache containing "null" for given pattern
+     * Returns the compiled form of a regular expression or substitution,
+     * compiling and caching it if it is not known yet.
      *
-     * @param regExpression
-     * @return
+     * @param regExpression regular expression to match or a substitution in form of "s/&lt;regex&gt;/result/g" (replace
+     *            all) or "s/&lt;regex&gt;/result/" (replace first)
+     * @return the compiled expression
+     * @throws java.util.regex.PatternSyntaxException if the expression is invalid
      */
-    private static boolean isSubtitution(String regExpression) {
-        return cache(regExpression) == null;
+    public static CompiledRegex compile(String regExpression) {
+        CompiledRegex compiled = patternCache.get(regExpression);
+        if (compiled == null) {
+            compiled = doCompile(regExpression);
+            CompiledRegex existing = patternCache.putIfAbsent(regExpression, compiled);
+            if (existing != null) {
+                compiled = existing;
+            }
+        }
+        return compiled;
+    }
+
+    private static CompiledRegex doCompile(String regExpression) {
+        Matcher substMatcher = SUBST_PATTERN.matcher(regExpression);
+
+        // Check if this pattern is a substitution
+        if (substMatcher.matches()) {
+            return new CompiledRegex(Pattern.compile(substMatcher.group(1)), substMatcher.group(2),
+                    substMatcher.group(3).equals("g"), null);
+        } else {
+            // Otherwise compile the pattern
+            return new CompiledRegex(Pattern.compile(regExpression, Pattern.DOTALL), null, false,
+                    getRequiredLiteral(regExpression));
+        }
     }
 
     /**
-     * Caches given regular expression.
-     * If the expression is a substitution pattern, it marks it as a substitution with a null
-     *
-     * @return Pattern from cache
-     * @see RegexPatternMatcher#isSubtitution isSubtitution
+     * Returns the literal text the regular expression starts with, which
+     * every match must contain, or null if there is none or it can't be
+     * determined safely.
      */
-    private static synchronized Pattern cache(String regExpression) {
-        if (!patternCache.containsKey(regExpression)) {
-            Matcher substMatcher = SUBST_PATTERN.matcher(regExpression);
-
-            // Check if this pattern is a substitution
-            if (substMatcher.matches()) {
-                // If so mark it in cache with null
-                patternCache.put(regExpression, null);
-            } else {
-                // Otherwise compile the pattern
-                Pattern pattern = Pattern.compile(regExpression, Pattern.DOTALL);
-                patternCache.put(regExpression, pattern);
-            }
+    static String getRequiredLiteral(String regExpression) {
+        if (regExpression.indexOf('|') >= 0) {
+            // the literal might be an alternative only
+            return null;
         }
-
-        return patternCache.get(regExpression);
+        int end = 0;
+        while (end < regExpression.length() && REGEX_META_CHARACTERS.indexOf(regExpression.charAt(end)) < 0) {
+            end++;
+        }
+        if (end < regExpression.length() && "?*{".indexOf(regExpression.charAt(end)) >= 0) {
+            // the last character is optional
+            end--;
+        }
+        return end > 0 ? regExpression.substring(0, end) : null;
     }
 
     /**
@@ -106,40 +175,7 @@ public class RegexPatternMatcher {
 
         logger.debug("about to transform '{}' by the function '{}'", source, regExpression);
 
-        // Check if RegEx is a substitution (s/<regex>/result/g) or (s/<regex>/result/)
-        if (isSubtitution(regExpression)) {
-            Matcher substMatcher = SUBST_PATTERN.matcher(regExpression);
-
-            // If there is no match of substitution, source is returned
-            String result = source;
-            if (substMatcher.matches()) {
-                logger.debug("Using substitution form of regex transformation");
-                String regex = substMatcher.group(1);
-                String substitution = substMatcher.group(2);
-                String options = substMatcher.group(3);
-
-                if (options.equals("g")) {
-                    result = source.trim().replaceAll(regex, substitution);
-                } else {
-                    result = source.trim().replaceFirst(regex, substitution);
-                }
-            }
-
-            return new String[] { result };
-        } else {
-            // Not a substitution, return matches
-            Matcher matcher = getPattern(regExpression).matcher(source.trim());
-
-            List<String> results = new ArrayList<>();
-
-            while (matcher.find()) {
-                // Only return first/primary group matches
-                // This way you can use secondary groups to quantify occurrence count
-                results.add(matcher.group(1));
-            }
-
-            return results.toArray(new String[results.size()]);
-        }
+        return compile(regExpression).getMatches(source);
     }
 
     /**
@@ -147,7 +183,7 @@ public class RegexPatternMatcher {
      *
      * @param regExpression
      */
-    public static synchronized void removePattern(String regExpression) {
+    public static void removePattern(String regExpression) {
         patternCache.remove(regExpression);
     }
 }
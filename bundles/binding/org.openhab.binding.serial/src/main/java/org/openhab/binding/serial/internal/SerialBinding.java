@@ -16,6 +16,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.regex.PatternSyntaxException;
 
 import org.apache.commons.lang.StringUtils;
 import org.openhab.core.events.AbstractEventSubscriber;
@@ -215,6 +216,12 @@ public class SerialBinding extends AbstractEventSubscriber implements BindingCon
                 if (substring.startsWith("REGEX(")) {
                     pattern = substring.substring(6, substring.length());
                     logger.debug("REGEX: '{}'", pattern);
+                    try {
+                        // compile once here, so the receiver only looks it up
+                        RegexPatternMatcher.compile(pattern);
+                    } catch (PatternSyntaxException e) {
+                        throw new BindingConfigParseException("Invalid REGEX '" + pattern + "': " + e.getMessage());
+                    }
                 } else if (substring.startsWith("FORMAT(")) {
                     format = substring.substring(7, substring.length());
                     logger.debug("FORMAT: '{}'", format);
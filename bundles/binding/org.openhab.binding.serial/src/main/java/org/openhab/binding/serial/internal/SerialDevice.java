@@ -17,15 +17,21 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.charset.Charset;
 import java.nio.charset.IllegalCharsetNameException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.TooManyListenersException;
+import java.util.regex.PatternSyntaxException;
 
 import org.apache.commons.codec.binary.Base64;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang.StringUtils;
+import org.openhab.binding.serial.internal.RegexPatternMatcher.CompiledRegex;
 import org.openhab.core.events.EventPublisher;
 import org.openhab.core.items.Item;
 import org.openhab.core.library.items.ContactItem;
@@ -39,7 +45,6 @@ import org.openhab.core.library.types.OnOffType;
 import org.openhab.core.library.types.OpenClosedType;
 import org.openhab.core.library.types.PercentType;
 import org.openhab.core.library.types.StringType;
-import org.openhab.core.transform.TransformationException;
 import org.openhab.core.types.State;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -76,8 +81,15 @@ public class SerialDevice implements SerialPortEventListener {
 
     private Map<String, ItemType> configMap;
 
+    /**
+     * The items with a pattern, grouped by pattern, so that each pattern is
+     * matched only once per received message
+     */
+    private volatile List<PatternGroup> patternIndex = Collections.emptyList();
+
     class ItemType {
         String pattern;
+        CompiledRegex regex;
         boolean base64;
         String onCommand;
         String offCommand;
@@ -90,6 +102,15 @@ public class SerialDevice implements SerialPortEventListener {
         Class<?> type;
     }
 
+    static class PatternGroup {
+        final CompiledRegex regex;
+        final List<String> itemNames = new ArrayList<>();
+
+        PatternGroup(CompiledRegex regex) {
+            this.regex = regex;
+        }
+    }
+
     public boolean isEmpty() {
         return configMap.isEmpty();
     }
@@ -103,6 +124,13 @@ public class SerialDevice implements SerialPortEventListener {
 
         ItemType typeItem = new ItemType();
         typeItem.pattern = pattern;
+        if (pattern != null) {
+            try {
+                typeItem.regex = RegexPatternMatcher.compile(pattern);
+            } catch (PatternSyntaxException e) {
+                logger.warn("Invalid pattern '{}' for item {}: {}", pattern, item.getName(), e.getMessage());
+            }
+        }
         typeItem.base64 = base64;
         typeItem.type = item.getClass();
         typeItem.onCommand = onCommand;
@@ -115,6 +143,7 @@ public class SerialDevice implements SerialPortEventListener {
         typeItem.format = format;
 
         configMap.put(item.getName(), typeItem);
+        rebuildPatternIndex();
     }
 
     public void removeConfig(String itemName) {
@@ -127,7 +156,28 @@ public class SerialDevice implements SerialPortEventListener {
             }
 
             configMap.remove(itemName);
+            rebuildPatternIndex();
+        }
+    }
+
+    /**
+     * Groups the items with a valid pattern by their pattern.
+     */
+    private void rebuildPatternIndex() {
+        Map<String, PatternGroup> groups = new LinkedHashMap<>();
+        for (Entry<String, ItemType> entry : configMap.entrySet()) {
+            ItemType itemType = entry.getValue();
+            if (itemType.regex == null) {
+                continue;
+            }
+            PatternGroup group = groups.get(itemType.pattern);
+            if (group == null) {
+                group = new PatternGroup(itemType.regex);
+                groups.put(itemType.pattern, group);
+            }
+            group.itemNames.add(entry.getKey());
         }
+        patternIndex = Collections.unmodifiableList(new ArrayList<>(groups.values()));
     }
 
     public SerialDevice(String port) {
@@ -347,40 +397,21 @@ public class SerialDevice implements SerialPortEventListener {
 
                     if (eventPublisher != null) {
                         if (configMap != null && !configMap.isEmpty()) {
-                            for (Entry<String, ItemType> entry : configMap.entrySet()) {
-                                String pattern = entry.getValue().pattern;
-                                // use pattern
-                                if (pattern != null) {
-                                    try {
-                                        String[] matches = RegexPatternMatcher.getMatches(pattern, result);
-
-                                        for (int i = 0; i < matches.length; i++) {
-                                            String match = matches[i];
-
-                                            try {
-                                                State state = null;
-
-                                                if (entry.getValue().type.equals(NumberItem.class)) {
-                                                    state = new DecimalType(match);
-                                                } else if (entry.getValue().type == RollershutterItem.class) {
-                                                    state = new PercentType(match);
-                                                } else if (entry.getValue().type == SwitchItem.class) {
-                                                    state = OnOffType.valueOf(match);
-                                                } else if (entry.getValue().type == ContactItem.class) {
-                                                    state = OpenClosedType.valueOf(match);
-                                                } else {
-                                                    state = new StringType(match);
-                                                }
-
-                                                eventPublisher.postUpdate(entry.getKey(), state);
-                                            } catch (NumberFormatException e) {
-                                                logger.warn("Unable to convert regex result '{}' for item {} to number",
-                                                        result, entry.getKey());
-                                            }
-                                        }
-                                    } catch (TransformationException e) {
-                                        logger.warn("Unable to transform!", e);
+                            // match each pattern once for all items using it
+                            for (PatternGroup group : patternIndex) {
+                                String[] matches = group.regex.getMatches(result);
+                                for (String itemName : group.itemNames) {
+                                    ItemType itemType = configMap.get(itemName);
+                                    if (itemType != null) {
+                                        publishMatches(itemName, itemType, matches, result);
                                     }
+                                }
+                            }
+
+                            for (Entry<String, ItemType> entry : configMap.entrySet()) {
+                                if (entry.getValue().pattern != null) {
+                                    // handled by the pattern index
+                                    continue;
                                 } else if (entry.getValue().type == StringItem.class) {
                                     if (entry.getValue().base64) {
                                         result = Base64.encodeBase64String(result.getBytes(charset));
@@ -429,6 +460,35 @@ public class SerialDevice implements SerialPortEventListener {
         }
     }
 
+    /**
+     * Publishes the matches of the pattern of an item as its states.
+     */
+    private void publishMatches(String itemName, ItemType itemType, String[] matches, String result) {
+        for (int i = 0; i < matches.length; i++) {
+            String match = matches[i];
+
+            try {
+                State state = null;
+
+                if (itemType.type.equals(NumberItem.class)) {
+                    state = new DecimalType(match);
+                } else if (itemType.type == RollershutterItem.class) {
+                    state = new PercentType(match);
+                } else if (itemType.type == SwitchItem.class) {
+                    state = OnOffType.valueOf(match);
+                } else if (itemType.type == ContactItem.class) {
+                    state = OpenClosedType.valueOf(match);
+                } else {
+                    state = new StringType(match);
+                }
+
+                eventPublisher.postUpdate(itemName, state);
+            } catch (NumberFormatException e) {
+                logger.warn("Unable to convert regex result '{}' for item {} to number", result, itemName);
+            }
+        }
+    }
+
     /**
      * Sends a string to the serial port of this device
      *
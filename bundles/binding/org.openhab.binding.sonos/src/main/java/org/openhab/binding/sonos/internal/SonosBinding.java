@@ -32,6 +32,7 @@ import org.apache.commons.lang.StringUtils;
 import org.openhab.binding.sonos.SonosBindingProvider;
 import org.openhab.binding.sonos.SonosCommandType;
 import org.openhab.core.binding.AbstractActiveBinding;
+import org.openhab.core.binding.BindingProvider;
 import org.openhab.core.library.types.DecimalType;
 import org.openhab.core.library.types.OnOffType;
 import org.openhab.core.library.types.StringType;
@@ -109,6 +110,9 @@ public class SonosBinding extends AbstractActiveBinding<SonosBindingProvider>imp
     private Map<String, SonosZonePlayerState> sonosSavedPlayerState = null;
     private List<SonosZoneGroup> sonosSavedGroupState = null;
 
+    /** the dispatch table for state variable changes, null if it has to be rebuilt */
+    private volatile SonosEventRoutes eventRoutes = null;
+
     private class PlayerCache extends ArrayList<SonosZonePlayer> {
 
         private static final long serialVersionUID = 7973128806169191738L;
@@ -289,6 +293,42 @@ public class SonosBinding extends AbstractActiveBinding<SonosBindingProvider>imp
         // Nothing to do here. We start the binding when the first item bindigconfig is processed
     }
 
+    @Override
+    public void removeBindingProvider(BindingProvider provider) {
+        super.removeBindingProvider(provider);
+        eventRoutes = null;
+    }
+
+    @Override
+    public void allBindingsChanged(BindingProvider provider) {
+        super.allBindingsChanged(provider);
+        eventRoutes = null;
+    }
+
+    @Override
+    public void bindingChanged(BindingProvider provider, String itemName) {
+        super.bindingChanged(provider, itemName);
+        eventRoutes = null;
+    }
+
+    /**
+     * @return the dispatch table for state variable changes, which is rebuilt
+     *         after the binding configurations have changed
+     */
+    private SonosEventRoutes getEventRoutes() {
+        SonosEventRoutes routes = eventRoutes;
+        if (routes == null) {
+            synchronized (this) {
+                routes = eventRoutes;
+                if (routes == null) {
+                    routes = SonosEventRoutes.build(providers);
+                    eventRoutes = routes;
+                }
+            }
+        }
+        return routes;
+    }
+
     @Override
     protected void internalReceiveCommand(String itemName, Command command) {
 
@@ -392,15 +432,18 @@ public class SonosBinding extends AbstractActiveBinding<SonosBindingProvider>imp
                 return;
             }
 
-            for (String stateVariable : values.keySet()) {
+            SonosEventRoutes routes = getEventRoutes();
+            String id = associatedPlayer.getId();
+            String udn = associatedPlayer.getUdn() != null ? associatedPlayer.getUdn().getIdentifierString() : null;
 
-                // find all the CommandTypes that are defined for each
-                // StateVariable
-                List<SonosCommandType> supportedCommands = SonosCommandType.getCommandByVariable(stateVariable);
+            for (Map.Entry<String, StateVariableValue> entry : values.entrySet()) {
 
-                StateVariableValue status = values.get(stateVariable);
+                // find all the CommandTypes and Items that are defined for
+                // each StateVariable of this player
+                StateVariableValue status = entry.getValue();
 
-                for (SonosCommandType sonosCommandType : supportedCommands) {
+                for (SonosEventRoutes.Route route : routes.getRoutes(id, udn, entry.getKey())) {
+                    SonosCommandType sonosCommandType = route.getCommandType();
 
                     // create a new State based on the type of Sonos Command and
                     // the status value in the map
@@ -413,36 +456,13 @@ public class SonosBinding extends AbstractActiveBinding<SonosBindingProvider>imp
                                 sonosCommandType.getTypeClass().toString());
                     }
 
-                    for (SonosBindingProvider provider : providers) {
-                        List<String> qualifiedItems = provider.getItemNames(
-                                sonosZonePlayerCache.getByDevice(device).getId(), sonosCommandType.getSonosCommand());
-                        List<String> qualifiedItemsByUDN = provider.getItemNames(
-                                sonosZonePlayerCache.getByDevice(device).getUdn().getIdentifierString(),
-                                sonosCommandType.getSonosCommand());
-
-                        for (String item : qualifiedItemsByUDN) {
-                            if (!qualifiedItems.contains(item)) {
-                                qualifiedItems.add(item);
-                            }
-                        }
+                    if (newState == null) {
+                        throw new IllegalClassException(
+                                "Cannot process update for the command of type " + sonosCommandType.toString());
+                    }
 
-                        for (String anItem : qualifiedItems) {
-                            // get the openHAB commands attached to each Item at
-                            // this given Provider
-                            List<Command> commands = provider.getCommands(anItem, sonosCommandType.getSonosCommand());
-
-                            if (provider.getAcceptedDataTypes(anItem).contains(sonosCommandType.getTypeClass())) {
-                                if (newState != null) {
-                                    eventPublisher.postUpdate(anItem, (State) newState);
-                                } else {
-                                    throw new IllegalClassException("Cannot process update for the command of type "
-                                            + sonosCommandType.toString());
-                                }
-                            } else {
-                                logger.warn("Cannot cast {} to an accepted state type for item {}",
-                                        sonosCommandType.getTypeClass().toString(), anItem);
-                            }
-                        }
+                    for (String anItem : route.getItemNames()) {
+                        eventPublisher.postUpdate(anItem, (State) newState);
                     }
                 }
             }
@@ -0,0 +1,196 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.sonos.internal;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.openhab.binding.sonos.SonosBindingProvider;
+import org.openhab.binding.sonos.SonosCommandType;
+import org.openhab.core.types.Command;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A dispatch table which maps a Sonos ID (player id or UDN) and a UPnP state
+ * variable to the command types and items that have to be updated when the
+ * variable changes. The table is immutable; it is rebuilt whenever the
+ * binding configurations change.
+ *
+ * @since 1.15.0
+ */
+public class SonosEventRoutes {
+
+    private static final Logger logger = LoggerFactory.getLogger(SonosEventRoutes.class);
+
+    private final Map<String, Map<String, List<Route>>> routes;
+
+    private SonosEventRoutes(Map<String, Map<String, List<Route>>> routes) {
+        this.routes = routes;
+    }
+
+    /**
+     * Returns the routes of a state variable of a Sonos player. Items bound
+     * to the player by both its id and its UDN are only contained once.
+     *
+     * @param id the id of the player
+     * @param udn the UDN of the player
+     * @param stateVariable the name of the state variable
+     * @return the routes, never <code>null</code>
+     */
+    public List<Route> getRoutes(String id, String udn, String stateVariable) {
+        List<Route> byId = getRoutes(id, stateVariable);
+        List<Route> byUdn = getRoutes(udn, stateVariable);
+        if (byUdn.isEmpty() || byUdn == byId) {
+            return byId;
+        }
+        if (byId.isEmpty()) {
+            return byUdn;
+        }
+
+        Map<SonosCommandType, List<String>> merged = new LinkedHashMap<SonosCommandType, List<String>>();
+        for (Route route : byId) {
+            merged.put(route.getCommandType(), new ArrayList<String>(route.getItemNames()));
+        }
+        for (Route route : byUdn) {
+            List<String> itemNames = merged.get(route.getCommandType());
+            if (itemNames == null) {
+                merged.put(route.getCommandType(), new ArrayList<String>(route.getItemNames()));
+            } else {
+                for (String itemName : route.getItemNames()) {
+                    if (!itemNames.contains(itemName)) {
+                        itemNames.add(itemName);
+                    }
+                }
+            }
+        }
+        return toRoutes(merged);
+    }
+
+    private List<Route> getRoutes(String sonosID, String stateVariable) {
+        if (sonosID != null) {
+            Map<String, List<Route>> byVariable = routes.get(sonosID);
+            if (byVariable != null) {
+                List<Route> result = byVariable.get(stateVariable);
+                if (result != null) {
+                    return result;
+                }
+            }
+        }
+        return Collections.emptyList();
+    }
+
+    /**
+     * Builds the dispatch table from the binding configurations of the given
+     * providers. Items which do not accept the type of a command type are
+     * reported once and left out.
+     */
+    public static SonosEventRoutes build(Collection<SonosBindingProvider> providers) {
+        // sonosID -> stateVariable -> command type -> item names
+        Map<String, Map<String, Map<SonosCommandType, List<String>>>> table = new HashMap<String, Map<String, Map<SonosCommandType, List<String>>>>();
+
+        for (SonosCommandType sonosCommandType : SonosCommandType.values()) {
+            if (sonosCommandType.getVariable() == null) {
+                continue;
+            }
+            String sonosCommand = sonosCommandType.getSonosCommand();
+            for (SonosBindingProvider provider : providers) {
+                for (String itemName : provider.getItemNames(sonosCommand)) {
+                    if (!provider.getAcceptedDataTypes(itemName).contains(sonosCommandType.getTypeClass())) {
+                        logger.warn("Cannot cast {} to an accepted state type for item {}",
+                                sonosCommandType.getTypeClass().toString(), itemName);
+                        continue;
+                    }
+                    for (Command command : provider.getCommands(itemName, sonosCommand)) {
+                        String sonosID = provider.getSonosID(itemName, command);
+                        if (sonosID == null) {
+                            continue;
+                        }
+
+                        Map<String, Map<SonosCommandType, List<String>>> byVariable = table.get(sonosID);
+                        if (byVariable == null) {
+                            byVariable = new HashMap<String, Map<SonosCommandType, List<String>>>();
+                            table.put(sonosID, byVariable);
+                        }
+                        Map<SonosCommandType, List<String>> byCommandType = byVariable
+                                .get(sonosCommandType.getVariable());
+                        if (byCommandType == null) {
+                            byCommandType = new LinkedHashMap<SonosCommandType, List<String>>();
+                            byVariable.put(sonosCommandType.getVariable(), byCommandType);
+                        }
+                        List<String> itemNames = byCommandType.get(sonosCommandType);
+                        if (itemNames == null) {
+                            itemNames = new ArrayList<String>();
+                            byCommandType.put(sonosCommandType, itemNames);
+                        }
+                        if (!itemNames.contains(itemName)) {
+                            itemNames.add(itemName);
+                        }
+                    }
+                }
+            }
+        }
+
+        Map<String, Map<String, List<Route>>> routes = new HashMap<String, Map<String, List<Route>>>();
+        int count = 0;
+        for (Map.Entry<String, Map<String, Map<SonosCommandType, List<String>>>> sonosEntry : table.entrySet()) {
+            Map<String, List<Route>> byVariable = new HashMap<String, List<Route>>();
+            for (Map.Entry<String, Map<SonosCommandType, List<String>>> variableEntry : sonosEntry.getValue()
+                    .entrySet()) {
+                List<Route> variableRoutes = toRoutes(variableEntry.getValue());
+                byVariable.put(variableEntry.getKey(), variableRoutes);
+                count += variableRoutes.size();
+            }
+            routes.put(sonosEntry.getKey(), byVariable);
+        }
+        logger.debug("Built Sonos event routes for {} Sonos IDs with {} routes", routes.size(), count);
+
+        return new SonosEventRoutes(routes);
+    }
+
+    private static List<Route> toRoutes(Map<SonosCommandType, List<String>> byCommandType) {
+        List<Route> result = new ArrayList<Route>(byCommandType.size());
+        for (Map.Entry<SonosCommandType, List<String>> entry : byCommandType.entrySet()) {
+            result.add(new Route(entry.getKey(), Collections.unmodifiableList(entry.getValue())));
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * The items which are updated with a state of a command type
+     */
+    public static class Route {
+
+        private final SonosCommandType commandType;
+        private final List<String> itemNames;
+
+        Route(SonosCommandType commandType, List<String> itemNames) {
+            this.commandType = commandType;
+            this.itemNames = itemNames;
+        }
+
+        public SonosCommandType getCommandType() {
+            return commandType;
+        }
+
+        public List<String> getItemNames() {
+            return itemNames;
+        }
+    }
+
+}
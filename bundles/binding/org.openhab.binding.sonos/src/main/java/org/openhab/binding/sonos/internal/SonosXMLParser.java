@@ -30,7 +30,6 @@
 package org.openhab.binding.sonos.internal;
 
 import java.io.IOException;
-import java.io.StringReader;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -44,6 +43,7 @@ import org.joda.time.format.DateTimeFormat;
 import org.joda.time.format.DateTimeFormatter;
 import org.joda.time.format.PeriodFormatter;
 import org.joda.time.format.PeriodFormatterBuilder;
+import org.openhab.io.xml.XmlParsers;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.teleal.cling.model.meta.StateVariable;
@@ -51,11 +51,8 @@ import org.teleal.cling.model.meta.StateVariableTypeDetails;
 import org.teleal.cling.model.state.StateVariableValue;
 import org.teleal.cling.model.types.StringDatatype;
 import org.xml.sax.Attributes;
-import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
-import org.xml.sax.XMLReader;
 import org.xml.sax.helpers.DefaultHandler;
-import org.xml.sax.helpers.XMLReaderFactory;
 
 /**
  * XMLParser is a set of helper classes and methods to parse XML string that are returned by Sonos players in the
@@ -112,11 +109,9 @@ public class SonosXMLParser {
      * @throws SAXException
      */
     public static List<SonosAlarm> getAlarmsFromStringResult(String xml) throws SAXException {
-        XMLReader reader = XMLReaderFactory.createXMLReader();
         AlarmHandler handler = new AlarmHandler();
-        reader.setContentHandler(handler);
         try {
-            reader.parse(new InputSource(new StringReader(xml)));
+            XmlParsers.parse(xml, handler);
         } catch (IOException e) {
             logger.error("Could not parse Alarms from String {}", xml);
         }
@@ -130,11 +125,9 @@ public class SonosXMLParser {
      * @throws SAXException
      */
     public static List<SonosEntry> getEntriesFromString(String xml) throws SAXException {
-        XMLReader reader = XMLReaderFactory.createXMLReader();
         EntryHandler handler = new EntryHandler();
-        reader.setContentHandler(handler);
         try {
-            reader.parse(new InputSource(new StringReader(xml)));
+            XmlParsers.parse(xml, handler);
         } catch (IOException e) {
             logger.error("Could not parse Entries from String {}", xml);
         }
@@ -150,11 +143,9 @@ public class SonosXMLParser {
      * @throws SAXException
      */
     public static SonosResourceMetaData getEmbededMetaDataFromResource(String xml) throws SAXException {
-        XMLReader reader = XMLReaderFactory.createXMLReader();
         EmbededMetaDataHandler handler = new EmbededMetaDataHandler();
-        reader.setContentHandler(handler);
         try {
-            reader.parse(new InputSource(new StringReader(xml)));
+            XmlParsers.parse(xml, handler);
         } catch (IOException e) {
             logger.error("Could not parse Entries from String {}", xml);
         }
@@ -169,11 +160,9 @@ public class SonosXMLParser {
      * @throws SAXException
      */
     public static List<SonosZoneGroup> getZoneGroupFromXML(String xml) throws SAXException {
-        XMLReader reader = XMLReaderFactory.createXMLReader();
         ZoneGroupHandler handler = new ZoneGroupHandler();
-        reader.setContentHandler(handler);
         try {
-            reader.parse(new InputSource(new StringReader(xml)));
+            XmlParsers.parse(xml, handler);
         } catch (IOException e) {
             // This should never happen - we're not performing I/O!
             logger.error("Could not parse ZoneGroup from String {}", xml);
@@ -184,11 +173,9 @@ public class SonosXMLParser {
     }
 
     public static List<String> getRadioTimeFromXML(String xml) throws SAXException {
-        XMLReader reader = XMLReaderFactory.createXMLReader();
         OpmlHandler handler = new OpmlHandler();
-        reader.setContentHandler(handler);
         try {
-            reader.parse(new InputSource(new StringReader(xml)));
+            XmlParsers.parse(xml, handler);
         } catch (IOException e) {
             // This should never happen - we're not performing I/O!
             logger.error("Could not parse RadioTime from String {}", xml);
@@ -199,11 +186,9 @@ public class SonosXMLParser {
     }
 
     public static Map<String, StateVariableValue> getRenderingControlFromXML(String xml) throws SAXException {
-        XMLReader reader = XMLReaderFactory.createXMLReader();
         RenderingControlEventHandler handler = new RenderingControlEventHandler();
-        reader.setContentHandler(handler);
         try {
-            reader.parse(new InputSource(new StringReader(xml)));
+            XmlParsers.parse(xml, handler);
         } catch (IOException e) {
             // This should never happen - we're not performing I/O!
             logger.debug("Could not parse Rendering Control event: {}", e);
@@ -212,11 +197,9 @@ public class SonosXMLParser {
     }
 
     public static Map<String, StateVariableValue> getAVTransportFromXML(String xml) throws SAXException {
-        XMLReader reader = XMLReaderFactory.createXMLReader();
         AVTransportEventHandler handler = new AVTransportEventHandler();
-        reader.setContentHandler(handler);
         try {
-            reader.parse(new InputSource(new StringReader(xml)));
+            XmlParsers.parse(xml, handler);
         } catch (IOException e) {
             // This should never happen - we're not performing I/O!
             logger.error("Could not parse AV Transport Event: {}", e);
@@ -225,12 +208,10 @@ public class SonosXMLParser {
     }
 
     public static SonosMetaData getMetaDataFromXML(String xml) throws SAXException {
-        XMLReader reader = XMLReaderFactory.createXMLReader();
         // logger.debug("getTrackFromXML {}",xml);
         MetaDataHandler handler = new MetaDataHandler();
-        reader.setContentHandler(handler);
         try {
-            reader.parse(new InputSource(new StringReader(xml)));
+            XmlParsers.parse(xml, handler);
         } catch (IOException e) {
             // This should never happen - we're not performing I/O!
             logger.error("Could not parse AV Transport Event: {}", e);
@@ -0,0 +1,183 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.weather.internal.utils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A (nested) property of a class, compiled into method handles. The nested
+ * objects are read from their fields, the value is read with the getter
+ * method and written to the field of the property. Accessors are created
+ * once per class and property and cached.
+ *
+ * @since 1.15.0
+ */
+public class PropertyAccessor {
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private static final ConcurrentMap<Class<?>, ConcurrentMap<String, PropertyAccessor>> accessors = new ConcurrentHashMap<Class<?>, ConcurrentMap<String, PropertyAccessor>>();
+
+    private final String property;
+    private final MethodHandle getter;
+    private final MethodHandle setter;
+
+    private PropertyAccessor(String property, MethodHandle getter, MethodHandle setter) {
+        this.property = property;
+        this.getter = getter;
+        this.setter = setter;
+    }
+
+    /**
+     * Returns the accessor of the property of the class.
+     */
+    public static PropertyAccessor getAccessor(Class<?> clazz, String property) throws Exception {
+        ConcurrentMap<String, PropertyAccessor> classAccessors = accessors.get(clazz);
+        if (classAccessors == null) {
+            classAccessors = new ConcurrentHashMap<String, PropertyAccessor>();
+            ConcurrentMap<String, PropertyAccessor> existing = accessors.putIfAbsent(clazz, classAccessors);
+            if (existing != null) {
+                classAccessors = existing;
+            }
+        }
+
+        PropertyAccessor accessor = classAccessors.get(property);
+        if (accessor == null) {
+            accessor = compile(clazz, property);
+            classAccessors.putIfAbsent(property, accessor);
+        }
+        return accessor;
+    }
+
+    /**
+     * Returns the value of the property, read with its getter method.
+     */
+    public Object getValue(Object instance) throws Exception {
+        if (getter == null) {
+            throw new NoSuchMethodException("No getter for property " + property);
+        }
+        try {
+            return (Object) getter.invokeExact(instance);
+        } catch (Throwable t) {
+            throw toException(t);
+        }
+    }
+
+    /**
+     * Writes the value to the field of the property.
+     */
+    public void setValue(Object instance, Object value) throws Exception {
+        if (setter == null) {
+            throw new IllegalAccessException("Property " + property + " is not writable");
+        }
+        try {
+            setter.invokeExact(instance, value);
+        } catch (Throwable t) {
+            throw toException(t);
+        }
+    }
+
+    /**
+     * Compiles the accessor of the property, nested properties are resolved
+     * like in {@link PropertyUtils#getNestedObject(Object, String)}.
+     */
+    private static PropertyAccessor compile(Class<?> clazz, String property) throws Exception {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+        Class<?> nestedClass = clazz;
+        MethodHandle nested = MethodHandles.identity(Object.class);
+        if (!PropertyUtils.isWeatherProperty(property)) {
+            String path = property;
+            while (PropertyResolver.hasNested(path)) {
+                Field field = getField(nestedClass, PropertyResolver.first(path));
+                nested = MethodHandles.filterReturnValue(nested, lookup.unreflectGetter(field).asType(GETTER_TYPE));
+                nestedClass = field.getType();
+                path = PropertyResolver.removeFirst(path);
+            }
+        }
+
+        String name = PropertyResolver.last(property);
+        Field field = null;
+        try {
+            field = getField(nestedClass, name);
+        } catch (NoSuchFieldException ex) {
+            // read-only property with a getter method only
+        }
+
+        MethodHandle getter = null;
+        try {
+            Method method = nestedClass.getMethod(toGetterString(name));
+            method.setAccessible(true);
+            getter = MethodHandles.filterReturnValue(nested, lookup.unreflect(method).asType(GETTER_TYPE));
+        } catch (NoSuchMethodException ex) {
+            if (field == null) {
+                throw ex;
+            }
+        }
+
+        MethodHandle setter = null;
+        if (field != null) {
+            try {
+                setter = MethodHandles.filterArguments(lookup.unreflectSetter(field).asType(SETTER_TYPE), 0, nested);
+            } catch (IllegalAccessException ex) {
+                // final field
+            }
+        }
+
+        return new PropertyAccessor(property, getter, setter);
+    }
+
+    /**
+     * Returns the accessible field of the class or one of its superclasses.
+     */
+    private static Field getField(Class<?> clazz, String name) throws NoSuchFieldException {
+        for (Class<?> cls = clazz; cls != null; cls = cls.getSuperclass()) {
+            try {
+                Field field = cls.getDeclaredField(name);
+                field.setAccessible(true);
+                return field;
+            } catch (NoSuchFieldException ex) {
+                // continue with superclass
+            }
+        }
+        throw new NoSuchFieldException(name + " in " + clazz.getName());
+    }
+
+    /**
+     * Converts the string to a getter property.
+     */
+    private static String toGetterString(String str) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("get");
+        sb.append(Character.toTitleCase(str.charAt(0)));
+        sb.append(str.substring(1));
+        return sb.toString();
+    }
+
+    private static Exception toException(Throwable t) {
+        if (t instanceof Error) {
+            throw (Error) t;
+        }
+        if (t instanceof Exception) {
+            return (Exception) t;
+        }
+        return new RuntimeException(t);
+    }
+
+}
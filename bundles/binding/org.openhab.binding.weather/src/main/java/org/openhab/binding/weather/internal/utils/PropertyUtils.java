@@ -16,11 +16,12 @@ import java.lang.reflect.Field;
 
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.lang.reflect.FieldUtils;
-import org.apache.commons.lang.reflect.MethodUtils;
 import org.openhab.binding.weather.internal.model.Weather;
 
 /**
  * Methods to get the value from a property or a getter method of an object.
+ * Properties are accessed through {@link PropertyAccessor}s, which are
+ * compiled once per class and property.
  *
  * @author Gerhard Riegler
  * @since 1.6.0
@@ -77,20 +78,15 @@ public class PropertyUtils {
      * methods getTemperature().getCurrent() are called.
      */
     public static Object getPropertyValue(Object instance, String property) throws Exception {
-        Object object = getNestedObject(instance, property);
-        String getMethod = toGetterString(PropertyResolver.last(property));
-        return MethodUtils.invokeMethod(object, getMethod, null);
+        return PropertyAccessor.getAccessor(instance.getClass(), property).getValue(instance);
     }
 
     /**
-     * Converts the string to a getter property.
+     * Sets the value of the field of the (nested) property of the object
+     * instance.
      */
-    private static String toGetterString(String str) {
-        StringBuilder sb = new StringBuilder();
-        sb.append("get");
-        sb.append(Character.toTitleCase(str.charAt(0)));
-        sb.append(str.substring(1));
-        return sb.toString();
+    public static void setPropertyValue(Object instance, String property, Object value) throws Exception {
+        PropertyAccessor.getAccessor(instance.getClass(), property).setValue(instance, value);
     }
 
 }
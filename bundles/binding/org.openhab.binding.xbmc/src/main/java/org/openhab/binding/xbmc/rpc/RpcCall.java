@@ -46,6 +46,9 @@ public abstract class RpcCall {
 
     private static final Logger logger = LoggerFactory.getLogger(RpcCall.class);
 
+    /** The mapper of all requests and notifications of the binding */
+    static final ObjectMapper MAPPER = new ObjectMapper();
+
     public class RpcException extends RuntimeException {
         private static final long serialVersionUID = 553643499122192425L;
 
@@ -61,8 +64,6 @@ public abstract class RpcCall {
     private final AsyncHttpClient client;
     private final String uri;
 
-    private final ObjectMapper mapper = new ObjectMapper();
-
     public RpcCall(AsyncHttpClient client, String uri) {
         this.client = client;
         this.uri = uri;
@@ -109,7 +110,7 @@ public abstract class RpcCall {
         }
 
         try {
-            return mapper.readValue(json, Map.class);
+            return MAPPER.readValue(json, Map.class);
         } catch (JsonParseException e) {
             throw new RpcException("Failed to parse JSON", e);
         } catch (JsonMappingException e) {
@@ -121,7 +122,7 @@ public abstract class RpcCall {
 
     private String writeJson(Map<String, Object> json) {
         try {
-            return mapper.writeValueAsString(json);
+            return MAPPER.writeValueAsString(json);
         } catch (JsonParseException e) {
             throw new RpcException("Failed to parse JSON", e);
         } catch (JsonMappingException e) {
@@ -26,7 +26,6 @@ import java.util.concurrent.TimeoutException;
 import org.apache.commons.lang.StringUtils;
 import org.codehaus.jackson.JsonParseException;
 import org.codehaus.jackson.map.JsonMappingException;
-import org.codehaus.jackson.map.ObjectMapper;
 import org.openhab.binding.xbmc.internal.XbmcHost;
 import org.openhab.binding.xbmc.rpc.calls.ApplicationGetProperties;
 import org.openhab.binding.xbmc.rpc.calls.ApplicationSetVolume;
@@ -192,8 +191,6 @@ public class XbmcConnector {
     }
 
     class XbmcWebSocketListener implements WebSocketTextListener {
-        private final ObjectMapper mapper = new ObjectMapper();
-
         @Override
         public void onOpen(WebSocket webSocket) {
             logger.debug("[{}]: Websocket opened", xbmc.getHostname());
@@ -229,7 +226,7 @@ public class XbmcConnector {
             logger.debug("[{}]: Message received: {}", xbmc.getHostname(), message);
             Map<String, Object> json;
             try {
-                json = mapper.readValue(message, Map.class);
+                json = RpcCall.MAPPER.readValue(message, Map.class);
             } catch (JsonParseException e) {
                 logger.error("Error parsing JSON", e);
                 return;
@@ -38,6 +38,14 @@ import com.thoughtworks.xstream.io.xml.StaxDriver;
 public class ZWaveProductDatabase {
     private static final Logger logger = LoggerFactory.getLogger(ZWaveProductDatabase.class);
 
+    /**
+     * XStream instances are thread safe once configured, and configuring one
+     * costs more than reading a product file, so they are shared by all
+     * database instances.
+     */
+    private static final XStream DATABASE_XSTREAM = createDatabaseXStream();
+    private static final XStream PRODUCT_FILE_XSTREAM = createProductFileXStream();
+
     ZWaveDbRoot database = null;
     Languages language = Languages.ENGLISH;
 
@@ -81,18 +89,10 @@ public class ZWaveProductDatabase {
             return;
         }
 
-        XStream xstream = new XStream(new StaxDriver());
-        xstream.alias("Manufacturers", ZWaveDbRoot.class);
-        xstream.alias("Manufacturer", ZWaveDbManufacturer.class);
-        xstream.alias("Product", ZWaveDbProduct.class);
-        xstream.alias("Reference", ZWaveDbProductReference.class);
-
-        xstream.processAnnotations(ZWaveDbRoot.class);
-
         try {
             // this.Manufacturer = (ZWaveDbManufacturer)
             InputStream x = entry.openStream();
-            database = (ZWaveDbRoot) xstream.fromXML(x);
+            database = (ZWaveDbRoot) DATABASE_XSTREAM.fromXML(x);
             if (database == null) {
                 return;
             }
@@ -101,6 +101,32 @@ public class ZWaveProductDatabase {
         }
     }
 
+    private static XStream createDatabaseXStream() {
+        XStream xstream = new XStream(new StaxDriver());
+        xstream.alias("Manufacturers", ZWaveDbRoot.class);
+        xstream.alias("Manufacturer", ZWaveDbManufacturer.class);
+        xstream.alias("Product", ZWaveDbProduct.class);
+        xstream.alias("Reference", ZWaveDbProductReference.class);
+
+        xstream.processAnnotations(ZWaveDbRoot.class);
+        return xstream;
+    }
+
+    private static XStream createProductFileXStream() {
+        XStream xstream = new XStream(new StaxDriver());
+        xstream.alias("Product", ZWaveDbProductFile.class);
+        xstream.alias("Configuration", ZWaveDbProductFile.ZWaveDbConfiguration.class);
+        xstream.alias("Parameter", ZWaveDbConfigurationParameter.class);
+        xstream.alias("Item", ZWaveDbConfigurationListItem.class);
+        xstream.alias("Associations", ZWaveDbProductFile.ZWaveDbAssociation.class);
+        xstream.alias("Group", ZWaveDbAssociationGroup.class);
+        xstream.alias("CommandClass", ZWaveDbProductFile.ZWaveDbCommandClassList.class);
+        xstream.alias("Class", ZWaveDbCommandClass.class);
+
+        xstream.processAnnotations(ZWaveDbProductFile.class);
+        return xstream;
+    }
+
     /**
      * Loads the product file relating to the requested version.
      *
@@ -130,22 +156,10 @@ public class ZWaveProductDatabase {
             return null;
         }
 
-        XStream xstream = new XStream(new StaxDriver());
-        xstream.alias("Product", ZWaveDbProductFile.class);
-        xstream.alias("Configuration", ZWaveDbProductFile.ZWaveDbConfiguration.class);
-        xstream.alias("Parameter", ZWaveDbConfigurationParameter.class);
-        xstream.alias("Item", ZWaveDbConfigurationListItem.class);
-        xstream.alias("Associations", ZWaveDbProductFile.ZWaveDbAssociation.class);
-        xstream.alias("Group", ZWaveDbAssociationGroup.class);
-        xstream.alias("CommandClass", ZWaveDbProductFile.ZWaveDbCommandClassList.class);
-        xstream.alias("Class", ZWaveDbCommandClass.class);
-
-        xstream.processAnnotations(ZWaveDbProductFile.class);
-
         try {
             // this.Manufacturer = (ZWaveDbManufacturer)
             InputStream x = entry.openStream();
-            productFile = (ZWaveDbProductFile) xstream.fromXML(x);
+            productFile = (ZWaveDbProductFile) PRODUCT_FILE_XSTREAM.fromXML(x);
         } catch (IOException e) {
             logger.error("Unable to load ZWave product file '{}' : {}", cfgFile, e.toString());
         }
@@ -43,7 +43,14 @@ import com.thoughtworks.xstream.io.xml.StaxDriver;
 public class ZWaveNodeSerializer {
 
     private static final Logger logger = LoggerFactory.getLogger(ZWaveNodeSerializer.class);
-    private final XStream stream = new XStream(new StaxDriver());
+
+    /**
+     * Processing the annotations of all command classes is expensive, and
+     * serializers are created for each node, so the configured stream is
+     * shared. All access is synchronized on it.
+     */
+    private static final XStream stream = createStream();
+
     private String folderName = "etc/zwave";
 
     /**
@@ -68,6 +75,11 @@ public class ZWaveNodeSerializer {
             logger.debug("Creating directory {}", folderName);
             folder.mkdirs();
         }
+        logger.trace("Initialized ZWaveNodeSerializer.");
+    }
+
+    private static XStream createStream() {
+        XStream stream = new XStream(new StaxDriver());
         stream.processAnnotations(ZWaveNode.class);
         stream.processAnnotations(ZWaveEndpoint.class);
         stream.processAnnotations(ZWaveDeviceClass.class);
@@ -86,7 +98,7 @@ public class ZWaveNodeSerializer {
             }
         }
         stream.processAnnotations(MeterScale.class);
-        logger.trace("Initialized ZWaveNodeSerializer.");
+        return stream;
     }
 
     /**
@@ -0,0 +1,209 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.gpio.linux;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.openhab.io.gpio.GPIOPin;
+import org.openhab.io.gpio.GPIOPinEventHandler;
+
+/**
+ * Tests the event poller against fake <code>sysfs</code> pin directories
+ * whose 'value' files are named pipes.
+ *
+ * @since 1.15.0
+ */
+public class GPIOEventPollerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final GPIOEventPoller poller = new GPIOEventPoller();
+    private final List<GPIOPinLinux> pins = new ArrayList<GPIOPinLinux>();
+    private final List<OutputStream> writers = new ArrayList<OutputStream>();
+    private final BlockingQueue<String> events = new LinkedBlockingQueue<String>();
+
+    private final GPIOPinEventHandler handler = new GPIOPinEventHandler() {
+        @Override
+        public void onEvent(GPIOPin pin, int value) {
+            events.add(((GPIOPinLinux) pin).getPinNumber() + "=" + value);
+        }
+
+        @Override
+        public void onError(GPIOPin pin, Exception exception) {
+            events.add(((GPIOPinLinux) pin).getPinNumber() + ":" + exception.getMessage());
+        }
+    };
+
+    @Before
+    public void setUp() {
+        assumeTrue(System.getProperty("os.name").toLowerCase().startsWith("linux"));
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        for (GPIOPinLinux pin : pins) {
+            pin.stopEventProcessing();
+        }
+        for (OutputStream writer : writers) {
+            writer.close();
+        }
+    }
+
+    private GPIOPinLinux createPin(int pinNumber, long debounceInterval) throws Exception {
+
+        File directory = folder.newFolder("gpio" + pinNumber);
+        assertTrue(new File(directory, "edge").createNewFile());
+        Process mkfifo = new ProcessBuilder("mkfifo", new File(directory, "value").getPath()).start();
+        assumeTrue(mkfifo.waitFor() == 0);
+
+        GPIOPinLinux pin = new GPIOPinLinux(pinNumber, directory.getPath(), debounceInterval, poller);
+        pins.add(pin);
+        return pin;
+    }
+
+    /** Opening the pipe for writing blocks until the poller has opened it. */
+    private OutputStream openValue(GPIOPinLinux pin) throws IOException {
+
+        OutputStream writer = new FileOutputStream(pin.getValuePath().toFile());
+        writers.add(writer);
+        return writer;
+    }
+
+    private static void write(OutputStream writer, String value) throws IOException {
+        writer.write(value.getBytes());
+        writer.flush();
+    }
+
+    private String nextEvent() throws InterruptedException {
+        return events.poll(5, TimeUnit.SECONDS);
+    }
+
+    private static int countPollerThreads() {
+
+        int count = 0;
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.isAlive() && "openHAB GPIO event poller".equals(thread.getName())) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Test
+    public void events_areDispatchedInOrder() throws Exception {
+
+        GPIOPinLinux pin = createPin(17, 0);
+        pin.addEventHandler(handler);
+        OutputStream value = openValue(pin);
+
+        for (int i = 0; i < 100; i++) {
+            write(value, i % 2 == 0 ? "1" : "0");
+            assertEquals("17=" + (i % 2 == 0 ? 1 : 0), nextEvent());
+        }
+    }
+
+    @Test
+    public void pins_sharePollerThread() throws Exception {
+
+        List<OutputStream> values = new ArrayList<OutputStream>();
+        for (int pinNumber = 0; pinNumber < 8; pinNumber++) {
+            GPIOPinLinux pin = createPin(pinNumber, 0);
+            pin.addEventHandler(handler);
+            values.add(openValue(pin));
+        }
+
+        assertEquals(1, countPollerThreads());
+
+        for (int pinNumber = 0; pinNumber < 8; pinNumber++) {
+            write(values.get(pinNumber), "1");
+            assertEquals(pinNumber + "=1", nextEvent());
+        }
+
+        for (GPIOPinLinux pin : pins) {
+            pin.removeEventHandler(handler);
+        }
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (countPollerThreads() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertFalse(poller.isRunning());
+        assertEquals(0, countPollerThreads());
+    }
+
+    @Test
+    public void debounce_reportsSettledValueOnce() throws Exception {
+
+        GPIOPinLinux pin = createPin(4, 100);
+        pin.addEventHandler(handler);
+        OutputStream value = openValue(pin);
+
+        write(value, "1");
+        write(value, "0");
+        write(value, "1");
+
+        assertEquals("4=1", nextEvent());
+        assertNull(events.poll(300, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void debounce_doesNotDelayOtherPins() throws Exception {
+
+        GPIOPinLinux slowPin = createPin(5, 1000);
+        GPIOPinLinux fastPin = createPin(6, 0);
+        slowPin.addEventHandler(handler);
+        fastPin.addEventHandler(handler);
+        OutputStream slowValue = openValue(slowPin);
+        OutputStream fastValue = openValue(fastPin);
+
+        long start = System.nanoTime();
+        write(slowValue, "1");
+        write(fastValue, "1");
+
+        assertEquals("6=1", nextEvent());
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 500);
+        assertEquals("5=1", nextEvent());
+    }
+
+    @Test
+    public void missingValueFile_isReportedAsError() throws Exception {
+
+        File directory = folder.newFolder("gpio9");
+        assertTrue(new File(directory, "edge").createNewFile());
+        GPIOPinLinux pin = new GPIOPinLinux(9, directory.getPath(), 0, poller);
+        pins.add(pin);
+
+        pin.addEventHandler(handler);
+
+        String event = nextEvent();
+        assertNotNull(event);
+        assertTrue(event, event.startsWith("9:Can't open"));
+    }
+}
@@ -0,0 +1,473 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.gpio.linux;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.openhab.io.gpio.GPIOPin;
+import org.openhab.io.gpio.GPIOPinEventHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.sun.jna.LastErrorException;
+import com.sun.jna.Memory;
+import com.sun.jna.NativeLong;
+
+/**
+ * Listens for interrupts of all pins with registered event handlers. A
+ * single thread waits for the 'value' files of all pins in one
+ * <code>poll()</code> call, applies the software debounce of each pin
+ * without blocking the other pins and hands the events over to one
+ * dispatcher thread, so the handlers are executed in the order the
+ * interrupts were received. The dispatch queue is bounded; if handlers
+ * can't keep up the oldest pending events are dropped.
+ * <p>
+ * Besides <code>sysfs</code> attributes the 'value' file may be a named
+ * pipe (FIFO). Every "0" or "1" written to the pipe is then reported like
+ * an interrupt, which allows to test pins and measure the event latency
+ * without GPIO hardware.
+ *
+ * @since 1.15.0
+ */
+public class GPIOEventPoller {
+
+    /** Maximum time in milliseconds the poller thread waits for events. */
+    static final int POLL_TIMEOUT = 1000;
+
+    /** Maximum number of events waiting for handler execution. */
+    static final int DISPATCH_QUEUE_CAPACITY = 1024;
+
+    private static final int READ_BUFFER_SIZE = 64;
+
+    private static final Logger logger = LoggerFactory.getLogger(GPIOEventPoller.class);
+
+    /** Guards registered pins and poller thread. */
+    private final Object lock = new Object();
+
+    /** Pins for which interrupts are listened. */
+    private final Set<GPIOPinLinux> registeredPins = new LinkedHashSet<GPIOPinLinux>();
+
+    /** Whether registered pins have been changed since the poller thread last looked at them. */
+    private boolean changed = false;
+
+    /** Poller thread, running only if there are registered pins. */
+    private PollerThread pollerThread = null;
+
+    /**
+     * Starts listening for interrupts of the pin, starts the poller thread
+     * if not running.
+     *
+     * @param pin the pin to listen for
+     * @throws IOException if the poller thread can't be started
+     */
+    public void register(GPIOPinLinux pin) throws IOException {
+
+        synchronized (lock) {
+            if (!registeredPins.add(pin)) {
+                return;
+            }
+            changed = true;
+
+            if (pollerThread == null) {
+                try {
+                    pollerThread = new PollerThread();
+                } catch (LastErrorException e) {
+                    registeredPins.remove(pin);
+                    throw new IOException("GPIO event poller can't be started: " + e.getMessage(), e);
+                }
+                pollerThread.start();
+            } else {
+                pollerThread.wakeup();
+            }
+        }
+    }
+
+    /**
+     * Stops listening for interrupts of the pin. The poller thread stops
+     * when there are no other registered pins.
+     *
+     * @param pin the pin to stop listening for
+     */
+    public void unregister(GPIOPinLinux pin) {
+
+        synchronized (lock) {
+            if (registeredPins.remove(pin)) {
+                changed = true;
+                if (pollerThread != null) {
+                    pollerThread.wakeup();
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks whether the poller thread is running.
+     *
+     * @return <code>true</code> if there is a running poller thread,
+     *         <code>false</code> otherwise
+     */
+    public boolean isRunning() {
+
+        synchronized (lock) {
+            return pollerThread != null;
+        }
+    }
+
+    /**
+     * Opened 'value' file of a pin.
+     */
+    private static class Watch {
+
+        private final GPIOPinLinux pin;
+        private final boolean fifo;
+        private int fd = -1;
+
+        /** Keeps a named pipe open for writing, so reading end is never hung up. */
+        private int writerFd = -1;
+
+        /** The last read value. */
+        private int value = GPIOPin.VALUE_LOW;
+
+        /** The time when debounce interval expires, in nanoseconds, or 0 if not debouncing. */
+        private long debounceDeadline = 0;
+
+        public Watch(GPIOPinLinux pin) throws IOException {
+
+            this.pin = pin;
+            this.fifo = !Files.isRegularFile(pin.getValuePath());
+
+            String path = pin.getValuePath().toString();
+            try {
+                fd = LibC.INSTANCE.open(path, LibC.O_RDONLY | LibC.O_NONBLOCK);
+                if (fifo) {
+                    writerFd = LibC.INSTANCE.open(path, LibC.O_WRONLY | LibC.O_NONBLOCK);
+                }
+            } catch (LastErrorException e) {
+                close();
+                throw new IOException("Can't open '" + path + "': " + e.getMessage(), e);
+            }
+        }
+
+        public short getEvents() {
+            return fifo ? LibC.POLLIN : LibC.POLLPRI;
+        }
+
+        /**
+         * Reads the value file, which also acknowledges the interrupt.
+         *
+         * @param buffer the buffer to read to
+         * @return the current value, for a named pipe the last value written
+         * @throws IOException if the value can't be read
+         */
+        public int read(Memory buffer) throws IOException {
+
+            int rc;
+
+            try {
+                if (!fifo) {
+                    LibC.INSTANCE.lseek(fd, new NativeLong(0), LibC.SEEK_SET);
+                }
+                rc = LibC.INSTANCE.read(fd, buffer, READ_BUFFER_SIZE);
+            } catch (LastErrorException e) {
+
+                /* Named pipe may be drained already */
+                if (fifo) {
+                    return value;
+                }
+                throw new IOException("Native 'read' function failed: " + e.getMessage(), e);
+            }
+
+            if (!fifo && rc < 1) {
+                throw new IOException("Unsupported return value from native 'read' function (" + rc + ")");
+            }
+
+            for (int i = 0; i < rc; i++) {
+                byte b = buffer.getByte(i);
+                if (b == '0') {
+                    value = GPIOPin.VALUE_LOW;
+                } else if (b == '1') {
+                    value = GPIOPin.VALUE_HIGH;
+                }
+            }
+
+            return value;
+        }
+
+        public void close() {
+
+            if (fd >= 0) {
+                LibC.INSTANCE.close(fd);
+                fd = -1;
+            }
+            if (writerFd >= 0) {
+                LibC.INSTANCE.close(writerFd);
+                writerFd = -1;
+            }
+        }
+    }
+
+    /**
+     * Waits for interrupts of all registered pins.
+     */
+    private class PollerThread extends Thread {
+
+        /** Pipe used to interrupt waiting when registered pins change. */
+        private final int[] wakeupFds = new int[2];
+
+        private final List<Watch> watches = new ArrayList<Watch>();
+        private final Memory buffer = new Memory(READ_BUFFER_SIZE);
+        private final ThreadPoolExecutor dispatcher;
+        private pollfd[] pollfdset;
+
+        public PollerThread() {
+
+            super("openHAB GPIO event poller");
+
+            LibC.INSTANCE.pipe(wakeupFds);
+
+            dispatcher = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<Runnable>(DISPATCH_QUEUE_CAPACITY), new ThreadFactory() {
+                        @Override
+                        public Thread newThread(Runnable runnable) {
+                            return new Thread(runnable, "openHAB GPIO event dispatcher");
+                        }
+                    }, new ThreadPoolExecutor.DiscardOldestPolicy() {
+                        @Override
+                        public void rejectedExecution(Runnable runnable, ThreadPoolExecutor executor) {
+                            if (executor.isShutdown()) {
+                                // events arriving while the poller is stopped are discarded silently
+                                return;
+                            }
+                            logger.warn("GPIO event handlers can't keep up, the oldest pending event is dropped");
+                            super.rejectedExecution(runnable, executor);
+                        }
+                    });
+
+            updatePollfdset();
+        }
+
+        public void wakeup() {
+
+            try {
+                LibC.INSTANCE.write(wakeupFds[1], new byte[] { 1 }, 1);
+            } catch (LastErrorException e) {
+                logger.warn("GPIO event poller can't be woken up: {}", e.getMessage());
+            }
+        }
+
+        @Override
+        public void run() {
+
+            try {
+                while (update()) {
+                    int rc = LibC.INSTANCE.poll(pollfdset, pollfdset.length, getTimeout());
+                    if (rc < 0) {
+                        throw new IOException("Unsupported return value from native 'poll' function (" + rc + ")");
+                    }
+
+                    if ((pollfdset[0].revents & LibC.POLLIN) != 0) {
+                        LibC.INSTANCE.read(wakeupFds[0], buffer, READ_BUFFER_SIZE);
+                    }
+
+                    long now = System.nanoTime();
+                    for (int i = 0; i < watches.size(); i++) {
+                        Watch watch = watches.get(i);
+                        try {
+                            if ((pollfdset[i + 1].revents & watch.getEvents()) != 0) {
+                                int value = watch.read(buffer);
+
+                                /* Software debounce, the value is read again when the interval expires */
+                                long debounceInterval = watch.pin.getDebounceInterval();
+                                if (debounceInterval > 0) {
+                                    if (watch.debounceDeadline == 0) {
+                                        watch.debounceDeadline = now
+                                                + TimeUnit.MILLISECONDS.toNanos(debounceInterval);
+                                    }
+                                } else {
+                                    dispatchEvent(watch.pin, value);
+                                }
+                            }
+
+                            if (watch.debounceDeadline != 0 && now - watch.debounceDeadline >= 0) {
+                                watch.debounceDeadline = 0;
+                                dispatchEvent(watch.pin, watch.read(buffer));
+                            }
+                        } catch (IOException e) {
+                            dispatchError(watch.pin, e);
+                            unregister(watch.pin);
+                        }
+                    }
+                }
+            } catch (Exception e) {
+                for (Watch watch : watches) {
+                    dispatchError(watch.pin, e);
+                }
+
+                synchronized (lock) {
+                    registeredPins.clear();
+                    if (pollerThread == this) {
+                        pollerThread = null;
+                    }
+                }
+            } finally {
+
+                /* Cleanup */
+                for (Watch watch : watches) {
+                    watch.close();
+                }
+                LibC.INSTANCE.close(wakeupFds[0]);
+                LibC.INSTANCE.close(wakeupFds[1]);
+                dispatcher.shutdown();
+            }
+        }
+
+        /**
+         * Opens the pins registered meanwhile and closes the unregistered
+         * ones.
+         *
+         * @return <code>false</code> if there are no more registered pins
+         *         and the thread should stop, <code>true</code> otherwise
+         */
+        private boolean update() {
+
+            List<GPIOPinLinux> pins;
+
+            synchronized (lock) {
+                if (!changed) {
+                    return true;
+                }
+                changed = false;
+
+                if (registeredPins.isEmpty()) {
+                    pollerThread = null;
+                    return false;
+                }
+                pins = new ArrayList<GPIOPinLinux>(registeredPins);
+            }
+
+            for (int i = watches.size() - 1; i >= 0; i--) {
+                Watch watch = watches.get(i);
+                if (!pins.remove(watch.pin)) {
+                    watch.close();
+                    watches.remove(i);
+                }
+            }
+
+            for (GPIOPinLinux pin : pins) {
+                try {
+                    Watch watch = new Watch(pin);
+
+                    /*
+                     * Prior calling poll() the file needs to be read or poll() will return immediately without real
+                     * interrupt received, a named pipe only signals written data
+                     */
+                    if (!watch.fifo) {
+                        watch.read(buffer);
+                    }
+                    watches.add(watch);
+                } catch (IOException e) {
+                    dispatchError(pin, e);
+                    unregister(pin);
+                }
+            }
+
+            updatePollfdset();
+            return true;
+        }
+
+        private void updatePollfdset() {
+
+            /* Native poll() needs the structures in contiguous memory */
+            pollfdset = (pollfd[]) new pollfd().toArray(watches.size() + 1);
+            pollfdset[0].fd = wakeupFds[0];
+            pollfdset[0].events = LibC.POLLIN;
+
+            for (int i = 0; i < watches.size(); i++) {
+                pollfdset[i + 1].fd = watches.get(i).fd;
+                pollfdset[i + 1].events = watches.get(i).getEvents();
+            }
+        }
+
+        /**
+         * Determines how long to wait for the next interrupt, either the
+         * poll timeout or the time until the earliest debounce interval
+         * expires.
+         */
+        private int getTimeout() {
+
+            long timeout = POLL_TIMEOUT;
+            long now = System.nanoTime();
+
+            for (Watch watch : watches) {
+                if (watch.debounceDeadline != 0) {
+                    long remaining = TimeUnit.NANOSECONDS.toMillis(watch.debounceDeadline - now + 999999);
+                    timeout = Math.min(timeout, Math.max(remaining, 0));
+                }
+            }
+
+            return (int) timeout;
+        }
+
+        private void dispatchEvent(final GPIOPinLinux pin, final int value) {
+
+            for (final GPIOPinEventHandler eventHandler : getEventHandlers(pin)) {
+                dispatcher.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            eventHandler.onEvent(pin, value);
+                        } catch (RuntimeException e) {
+                            logger.error("GPIO pin event handler failed", e);
+                        }
+                    }
+                });
+            }
+        }
+
+        private void dispatchError(final GPIOPinLinux pin, final Exception exception) {
+
+            for (final GPIOPinEventHandler eventHandler : getEventHandlers(pin)) {
+                dispatcher.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            eventHandler.onError(pin, exception);
+                        } catch (RuntimeException e) {
+                            logger.error("GPIO pin error handler failed", e);
+                        }
+                    }
+                });
+            }
+        }
+
+        private List<GPIOPinEventHandler> getEventHandlers(GPIOPinLinux pin) {
+
+            try {
+                return pin.getEventHandlers();
+            } catch (IOException e) {
+                logger.warn("Event handlers of GPIO pin {} can't be determined: {}", pin.getPinNumber(),
+                        e.getMessage());
+                return new ArrayList<GPIOPinEventHandler>();
+            }
+        }
+    }
+}
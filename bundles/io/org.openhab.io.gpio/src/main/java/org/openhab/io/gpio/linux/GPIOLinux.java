@@ -67,6 +67,9 @@ public class GPIOLinux implements GPIO, ManagedService {
     /** Database for GPIO pins which are in use. */
     private final HashMap<GPIOPin, Integer> gpioRegistry = new HashMap<GPIOPin, Integer>();
 
+    /** Listens for interrupts of all pins. */
+    private final GPIOEventPoller eventPoller = new GPIOEventPoller();
+
     /**
      * Discovers existing mount point for <code>sysfs</code> pseudo file system.
      */
@@ -242,7 +245,8 @@ public class GPIOLinux implements GPIO, ManagedService {
                     /* Wait for the export to proceed */
                     Thread.sleep(500);
                     /* Create backend object */
-                    pin = new GPIOPinLinux(pinNumber, SYSFS_CLASS_GPIO + "gpio" + pinNumber, defaultDebounceInterval);
+                    pin = new GPIOPinLinux(pinNumber, SYSFS_CLASS_GPIO + "gpio" + pinNumber, defaultDebounceInterval,
+                            eventPoller);
 
                     /* Register the pin */
                     gpioRegistry.put(pin, pinNumber);
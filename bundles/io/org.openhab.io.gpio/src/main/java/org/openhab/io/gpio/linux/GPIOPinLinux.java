@@ -18,20 +18,16 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import org.openhab.io.gpio.GPIOPin;
 import org.openhab.io.gpio.GPIOPinEventHandler;
 
-import com.sun.jna.LastErrorException;
-import com.sun.jna.NativeLong;
-import com.sun.jna.ptr.ByteByReference;
-
 /**
  * Implementation of <code>GPIOPin</code> interface for boards running
  * Linux OS. Based on kernel GPIO framework exposed to user space
@@ -52,11 +48,8 @@ public class GPIOPinLinux implements GPIOPin {
     /** Set of registered pin event handlers. */
     private Set<GPIOPinEventHandler> eventHandlers = new HashSet<GPIOPinEventHandler>();
 
-    /**
-     * Interrupt listening thread, running only if there are registered
-     * event handlers.
-     */
-    private EventListener eventListenerThread = null;
+    /** Listens for interrupts while there are registered event handlers. */
+    private final GPIOEventPoller eventPoller;
 
     private int pinNumber;
     private long debounceInterval;
@@ -73,8 +66,10 @@ public class GPIOPinLinux implements GPIOPin {
      * @param gpioPinDirectory path to pin directory in <code>sysfs</code>,
      *                             e.g. "/sys/class/gpio/gpio1"
      * @param debounceInterval default debounce interval
+     * @param eventPoller      poller listening for interrupts of the pin
      */
-    public GPIOPinLinux(int pinNumber, String gpioPinDirectory, long debounceInterval) {
+    public GPIOPinLinux(int pinNumber, String gpioPinDirectory, long debounceInterval,
+            GPIOEventPoller eventPoller) {
 
         this.pinNumber = pinNumber;
 
@@ -101,10 +96,11 @@ public class GPIOPinLinux implements GPIOPin {
         valuePath = Paths.get(gpioPinDirectory + "/value");
 
         this.debounceInterval = debounceInterval;
+        this.eventPoller = eventPoller;
     }
 
     /**
-     * Stops all spawned pin threads.
+     * Stops listening for pin interrupts.
      *
      * @throws IOException if can't obtain pin lock in timely fashion
      *                         or was interrupted while waiting for lock
@@ -114,17 +110,8 @@ public class GPIOPinLinux implements GPIOPin {
         try {
             if (pinLock.writeLock().tryLock(PINLOCK_TIMEOUT, PINLOCK_TIMEOUT_UNITS)) {
                 try {
-                    if (eventListenerThread != null) {
-                        eventHandlers = null;
-                        eventListenerThread.interrupt();
-                        eventListenerThread = null;
-
-                        /* Give some time to event listener thread to notice the interrupt and do cleanup */
-                        Thread.sleep(EventListener.POLL_TIMEOUT * 2);
-                    }
-                } catch (InterruptedException e) {
-                    throw new IOException(
-                            "The thread was interrupted while waiting for GPIO pin event listener thread to finish");
+                    eventHandlers.clear();
+                    eventPoller.unregister(this);
                 } finally {
                     pinLock.writeLock().unlock();
                 }
@@ -508,11 +495,12 @@ public class GPIOPinLinux implements GPIOPin {
                         throw new IllegalArgumentException("The event handler is already registered");
                     }
 
-                    /* Start event listener thread if not running */
-                    if (eventListenerThread == null) {
-                        eventListenerThread = new EventListener(this);
-                        eventListenerThread.setName("openHAB GPIO event listener (pin " + pinNumber + ")");
-                        eventListenerThread.start();
+                    /* Start listening for interrupts if not listening yet */
+                    try {
+                        eventPoller.register(this);
+                    } catch (IOException e) {
+                        eventHandlers.remove(eventHandler);
+                        throw e;
                     }
                 } finally {
                     pinLock.writeLock().unlock();
@@ -543,10 +531,9 @@ public class GPIOPinLinux implements GPIOPin {
                         throw new IllegalArgumentException("The event handler isn't registered");
                     }
 
-                    /* Stop event listener thread if there are no other registered handlers */
+                    /* Stop listening for interrupts if there are no other registered handlers */
                     if (eventHandlers.isEmpty()) {
-                        eventListenerThread.interrupt();
-                        eventListenerThread = null;
+                        eventPoller.unregister(this);
                     }
                 } finally {
                     pinLock.writeLock().unlock();
@@ -565,188 +552,40 @@ public class GPIOPinLinux implements GPIOPin {
     }
 
     /**
-     * Event listener thread, listens for interrupts and executes registered
-     * handlers each in its own thread.
+     * Returns path to the 'value' file of the pin.
      *
-     * @author Dancho Penev
-     * @since 1.5.0
+     * @return path to the 'value' file
      */
-    private class EventListener extends Thread {
-
-        private static final int POLL_TIMEOUT = 1000;
-
-        /** Pin object for which events are listened. */
-        private GPIOPinLinux pin;
-
-        public EventListener(GPIOPinLinux pin) {
-            this.pin = pin;
-        }
-
-        @Override
-        public void run() {
-
-            /* File descriptor for 'value' file */
-            int fd = -1;
-
-            /* Thread pool for event handlers */
-            ExecutorService executorService = Executors.newCachedThreadPool();
-
-            try {
-                int rc;
-                pollfd[] pollfdset = { new pollfd() };
-                ByteByReference value = new ByteByReference();
-                NativeLong zero = new NativeLong(0);
-
-                fd = LibC.INSTANCE.open(pin.valuePath.toString(), LibC.O_RDONLY | LibC.O_NONBLOCK);
-
-                pollfdset[0].fd = fd;
-                pollfdset[0].events = LibC.POLLPRI;
-
-                /*
-                 * Prior calling poll() the file needs to be read or poll() will return immediately without real
-                 * interrupt received
-                 */
-                try {
-                    LibC.INSTANCE.read(pollfdset[0].fd, value.getPointer(), 1);
-                } catch (LastErrorException e) {
-                }
+    Path getValuePath() {
+        return valuePath;
+    }
 
-                while (!interrupted()) {
-
-                    /*
-                     * Wait for GPIO interrupt or timeout to occur. Timeouts provides possibility to check thread
-                     * interrupt status
-                     */
-                    rc = LibC.INSTANCE.poll(pollfdset, 1, POLL_TIMEOUT);
-
-                    switch (rc) {
-
-                        /* Timeout, poll() again */
-                        case 0:
-                            continue;
-
-                        /* There is one file descriptor ready */
-                        case 1:
-                            /* Is interrupt received? */
-                            if ((pollfdset[0].revents & LibC.POLLPRI) > 0) {
-
-                                /* Software debounce */
-                                if (pin.debounceInterval > 0) {
-                                    Thread.sleep(pin.debounceInterval);
-                                }
-
-                                /* Go to file start and read first byte */
-                                LibC.INSTANCE.lseek(fd, zero, LibC.SEEK_SET);
-                                rc = LibC.INSTANCE.read(pollfdset[0].fd, value.getPointer(), 1);
-
-                                /* There is exactly one byte read */
-                                if (rc == 1) {
-
-                                    /* Execute event handlers each in its own thread */
-                                    try {
-                                        if (pinLock.readLock().tryLock(PINLOCK_TIMEOUT, PINLOCK_TIMEOUT_UNITS)) {
-                                            try {
-                                                for (GPIOPinEventHandler eventHandler : pin.eventHandlers) {
-                                                    EventHandlerExecutor eventHandlerExecutor = new EventHandlerExecutor(
-                                                            pin, eventHandler,
-                                                            Character.getNumericValue(value.getValue()));
-                                                    executorService.execute(eventHandlerExecutor);
-                                                }
-                                            } finally {
-                                                pin.pinLock.readLock().unlock();
-                                            }
-                                        } else {
-
-                                            /*
-                                             * Something wrong happened, throw an exception and move on or we are
-                                             * risking to block the whole system
-                                             */
-                                            throw new IOException("Read GPIO pin lock can't be aquired for "
-                                                    + PINLOCK_TIMEOUT + " " + PINLOCK_TIMEOUT_UNITS.toString());
-                                        }
-                                    } catch (InterruptedException e) {
-                                        throw new IOException(
-                                                "The thread was interrupted while waiting for read GPIO pin lock");
-                                    }
-
-                                    /* poll() again */
-                                    continue;
-                                } else {
-                                    throw new IOException(
-                                            "Unsupported return value from native 'read' function (" + rc + ")");
-                                }
-                            }
-                            break;
-                        default:
-                            throw new IOException("Unsupported return value from native 'poll' function (" + rc + ")");
-                    }
-                }
-            } catch (Exception e) {
+    /**
+     * Returns a snapshot of registered event handlers.
+     *
+     * @return registered event handlers
+     * @throws IOException if can't obtain pin lock in timely fashion
+     *                         or was interrupted while waiting for lock
+     */
+    List<GPIOPinEventHandler> getEventHandlers() throws IOException {
 
-                /* Execute error handlers each in its own thread */
+        try {
+            if (pinLock.readLock().tryLock(PINLOCK_TIMEOUT, PINLOCK_TIMEOUT_UNITS)) {
                 try {
-                    if (pinLock.readLock().tryLock(PINLOCK_TIMEOUT, PINLOCK_TIMEOUT_UNITS)) {
-                        try {
-                            for (GPIOPinEventHandler eventHandler : pin.eventHandlers) {
-                                EventHandlerExecutor eventHandlerExecutor = new EventHandlerExecutor(pin, eventHandler,
-                                        e);
-                                executorService.execute(eventHandlerExecutor);
-                            }
-                        } finally {
-                            pin.pinLock.readLock().unlock();
-                        }
-                    }
-                } catch (InterruptedException ex) {
+                    return new ArrayList<GPIOPinEventHandler>(eventHandlers);
+                } finally {
+                    pinLock.readLock().unlock();
                 }
-            } finally {
-
-                /* Cleanup */
-                LibC.INSTANCE.close(fd);
-                executorService.shutdown();
-            }
-        }
-
-        /**
-         * Executes callback functions.
-         *
-         * @author Dancho Penev
-         * @since 1.5.0
-         */
-        private class EventHandlerExecutor implements Runnable {
-
-            private static final int TYPE_EVENT = 0;
-            private static final int TYPE_ERROR = 1;
-
-            private int type;
-            private GPIOPinLinux pin;
-            private GPIOPinEventHandler eventHandler;
-            private int value;
-            private Exception exception;
-
-            public EventHandlerExecutor(GPIOPinLinux pin, GPIOPinEventHandler eventHandler, int value) {
-                this.type = TYPE_EVENT;
-                this.pin = pin;
-                this.eventHandler = eventHandler;
-                this.value = value;
-            }
-
-            public EventHandlerExecutor(GPIOPinLinux pin, GPIOPinEventHandler eventHandler, Exception exception) {
-                this.type = TYPE_ERROR;
-                this.pin = pin;
-                this.eventHandler = eventHandler;
-                this.exception = exception;
-            }
+            } else {
 
-            public void run() {
-                switch (type) {
-                    case TYPE_EVENT:
-                        eventHandler.onEvent(pin, value);
-                        break;
-                    case TYPE_ERROR:
-                        eventHandler.onError(pin, exception);
-                        break;
-                }
+                /*
+                 * Something wrong happened, throw an exception and move on or we are risking to block the whole system
+                 */
+                throw new IOException("Read GPIO pin lock can't be aquired for " + PINLOCK_TIMEOUT + " "
+                        + PINLOCK_TIMEOUT_UNITS.toString());
             }
+        } catch (InterruptedException e) {
+            throw new IOException("The thread was interrupted while waiting for read GPIO pin lock");
         }
     }
 }
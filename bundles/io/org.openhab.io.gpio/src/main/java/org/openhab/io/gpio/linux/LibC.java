@@ -31,9 +31,15 @@ public interface LibC extends Library {
     /** Open for reading only. */
     public static final int O_RDONLY = 00;
 
+    /** Open for writing only. */
+    public static final int O_WRONLY = 01;
+
     /** Open in nonblocking mode. */
     public static final int O_NONBLOCK = 04000;
 
+    /** There is data to read. */
+    public static final short POLLIN = 0x001;
+
     /** There is urgent data to read. */
     public static final short POLLPRI = 0x002;
 
@@ -120,4 +126,28 @@ public interface LibC extends Library {
      *             error code returned in errno
      */
     public NativeLong lseek(int fd, NativeLong offset, int whence) throws LastErrorException;
+
+    /**
+     * Write up to <code>count</code> bytes from the buffer starting at
+     * <code>buf</code> to the file descriptor <code>fd</code>.
+     *
+     * @param fd file descriptor of file to write to
+     * @param buf the buffer to write from
+     * @param count number of bytes to write
+     * @return number of written bytes on success, otherwise -1
+     * @throws LastErrorException exception representing a non-zero
+     *             error code returned in errno
+     */
+    public int write(int fd, byte[] buf, int count) throws LastErrorException;
+
+    /**
+     * Creates a unidirectional data channel.
+     *
+     * @param fds array of two elements receiving the file descriptor of
+     *            the read end and the write end of the pipe
+     * @return zero on success, otherwise -1
+     * @throws LastErrorException exception representing a non-zero
+     *             error code returned in errno
+     */
+    public int pipe(int[] fds) throws LastErrorException;
 }
@@ -0,0 +1,78 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.simulator;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import org.junit.Test;
+import org.openhab.io.simulator.Frame.Direction;
+
+/**
+ * @since 1.15.0
+ */
+public class FrameLogTest {
+
+    @Test
+    public void read_parsesHexAndTextFrames() throws IOException {
+        FrameLog log = FrameLog.read(new StringReader("# a capture\n" //
+                + "0 < 68 0b 0B 68\n" //
+                + "\n" //
+                + "12.5 > 105BFE59 16\n" //
+                + "1000\t<\t\"/ISk5\\\\2MT382\\r\\n\\x21\"\n"));
+
+        List<Frame> frames = log.getFrames();
+        assertEquals(3, frames.size());
+        assertEquals(new Frame(0, Direction.IN, new byte[] { 0x68, 0x0B, 0x0B, 0x68 }), frames.get(0));
+        assertEquals(new Frame(12500, Direction.OUT, new byte[] { 0x10, 0x5B, (byte) 0xFE, 0x59, 0x16 }),
+                frames.get(1));
+        assertEquals(new Frame(1000000, Direction.IN, "/ISk5\\2MT382\r\n!".getBytes("US-ASCII")), frames.get(2));
+    }
+
+    @Test
+    public void getIncomingFrames_returnsFramesOfTheDevice() throws IOException {
+        FrameLog log = FrameLog.read(new StringReader("0 < 01\n1 > 02\n2 < 03\n"));
+
+        List<Frame> incoming = log.getIncomingFrames();
+        assertEquals(2, incoming.size());
+        assertArrayEquals(new byte[] { 3 }, incoming.get(1).getData());
+    }
+
+    @Test
+    public void read_reportsInvalidLine() {
+        try {
+            FrameLog.read(new StringReader("0 < 01\n5 < 0G\n"));
+            fail();
+        } catch (IOException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("Invalid frame in line 2"));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parseFrame_rejectsOddNumberOfHexDigits() {
+        FrameLog.parseFrame("0 < 0 1");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parseFrame_rejectsMissingDirection() {
+        FrameLog.parseFrame("0 01 02");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parseFrame_rejectsUnterminatedText() {
+        FrameLog.parseFrame("0 < \"abc");
+    }
+}
@@ -0,0 +1,144 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.simulator;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.net.Socket;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.openhab.core.library.types.DecimalType;
+
+/**
+ * @since 1.15.0
+ */
+public class FrameReplayerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static FrameLog log() throws IOException {
+        return FrameLog.read(new StringReader("0 < 01 02\n100 > FF\n200 < 03\n400 < \"ab\"\n"));
+    }
+
+    @Test
+    public void replay_writesIncomingFramesWithSpeedUp() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        LatencyRecorder recorder = new LatencyRecorder();
+
+        long start = System.nanoTime();
+        int written = new FrameReplayer(log(), 4).replay(out, recorder);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals(3, written);
+        assertArrayEquals(new byte[] { 1, 2, 3, 'a', 'b' }, out.toByteArray());
+        assertEquals(3, recorder.getSummary().getFrames());
+        // 400 ms captured, replayed four times faster
+        assertTrue("took " + elapsedMillis + " ms", elapsedMillis >= 95 && elapsedMillis < 1000);
+    }
+
+    @Test
+    public void replay_repeatsFrames() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        int written = new FrameReplayer(log(), 0).replay(out, null, 100);
+
+        assertEquals(300, written);
+        assertEquals(500, out.size());
+    }
+
+    @Test
+    public void replay_overTcpEndpoint() throws Exception {
+        try (TcpEndpoint endpoint = new TcpEndpoint();
+                Socket binding = new Socket("127.0.0.1", endpoint.getPort())) {
+            endpoint.awaitConnection(1000);
+            new FrameReplayer(log(), 0).replay(endpoint.getOutputStream(), null);
+
+            byte[] received = new byte[5];
+            new DataInputStream(binding.getInputStream()).readFully(received);
+            assertArrayEquals(new byte[] { 1, 2, 3, 'a', 'b' }, received);
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void awaitConnection_failsWithoutBinding() throws Exception {
+        try (TcpEndpoint endpoint = new TcpEndpoint()) {
+            endpoint.awaitConnection(10);
+        }
+    }
+
+    @Test
+    public void replay_overPtyEndpoint() throws Exception {
+        assumeTrue(PtyEndpoint.isSupported());
+
+        try (PtyEndpoint endpoint = PtyEndpoint.open(folder.getRoot());
+                FileInputStream binding = new FileInputStream(new File(endpoint.getAddress()))) {
+            new FrameReplayer(log(), 0).replay(endpoint.getOutputStream(), null);
+
+            byte[] received = new byte[5];
+            new DataInputStream(binding).readFully(received);
+            assertArrayEquals(new byte[] { 1, 2, 3, 'a', 'b' }, received);
+        }
+    }
+
+    @Test
+    public void recordingEventPublisher_recordsLatencyOfUpdates() throws Exception {
+        LatencyRecorder recorder = new LatencyRecorder();
+        RecordingEventPublisher publisher = new RecordingEventPublisher(recorder);
+
+        publisher.postUpdate("Ignored", new DecimalType(1));
+        recorder.frameSent();
+        publisher.postUpdate("Power", new DecimalType(2));
+        publisher.postUpdate("Power", new DecimalType(3));
+
+        assertTrue(recorder.awaitUpdates(2, 1, TimeUnit.SECONDS));
+        LatencyRecorder.Summary summary = recorder.getSummary();
+        assertEquals(1, summary.getFrames());
+        assertEquals(2, summary.getUpdates());
+        assertTrue(summary.getPercentileMicros(50) <= summary.getMaxMicros());
+        assertEquals(new DecimalType(3), publisher.getState("Power"));
+        assertFalse(recorder.awaitUpdates(3, 10, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void latencyRecorder_resetForgetsPreviousReplay() {
+        LatencyRecorder recorder = new LatencyRecorder();
+        recorder.frameSent(1000000);
+        recorder.updateReceived(3000000);
+
+        recorder.reset();
+        LatencyRecorder.Summary summary = recorder.getSummary();
+        assertEquals(0, summary.getFrames());
+        assertEquals(0, summary.getUpdates());
+        assertEquals(0, summary.getDrainMicros());
+
+        recorder.frameSent(5000000);
+        recorder.frameSent(6000000);
+        recorder.updateReceived(6500000);
+        summary = recorder.getSummary();
+        assertEquals(2, summary.getFrames());
+        assertEquals(1, summary.getUpdates());
+        assertEquals(500, summary.getDrainMicros());
+        assertEquals(500, summary.getMaxMicros());
+    }
+}
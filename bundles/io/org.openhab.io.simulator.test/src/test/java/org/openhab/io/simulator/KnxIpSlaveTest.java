@@ -0,0 +1,139 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.simulator;
+
+import static org.junit.Assert.*;
+
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @since 1.15.0
+ */
+public class KnxIpSlaveTest {
+
+    private KnxIpSlave slave;
+    private DatagramSocket client;
+
+    @Before
+    public void setUp() throws Exception {
+        slave = new KnxIpSlave();
+        client = new DatagramSocket();
+        client.setSoTimeout(1000);
+        client.connect(new InetSocketAddress("127.0.0.1", slave.getPort()));
+    }
+
+    @After
+    public void tearDown() {
+        client.close();
+        slave.close();
+    }
+
+    private static byte[] frame(int serviceType, int... body) {
+        byte[] frame = new byte[6 + body.length];
+        frame[0] = 0x06;
+        frame[1] = 0x10;
+        frame[2] = (byte) (serviceType >> 8);
+        frame[3] = (byte) serviceType;
+        frame[5] = (byte) frame.length;
+        for (int i = 0; i < body.length; i++) {
+            frame[6 + i] = (byte) body[i];
+        }
+        return frame;
+    }
+
+    private void send(byte[] frame) throws Exception {
+        client.send(new DatagramPacket(frame, frame.length));
+    }
+
+    private byte[] receive() throws Exception {
+        DatagramPacket packet = new DatagramPacket(new byte[512], 512);
+        client.receive(packet);
+        return Arrays.copyOf(packet.getData(), packet.getLength());
+    }
+
+    private static int serviceType(byte[] frame) {
+        return (frame[2] & 0xFF) << 8 | frame[3] & 0xFF;
+    }
+
+    private void connect() throws Exception {
+        send(frame(KnxIpSlave.CONNECT_REQUEST, 8, 1, 0, 0, 0, 0, 0, 0, 8, 1, 0, 0, 0, 0, 0, 0, 4, 4, 2, 0));
+        byte[] response = receive();
+        assertEquals(KnxIpSlave.CONNECT_RESPONSE, serviceType(response));
+        assertEquals(1, response[6]);
+        assertEquals(0, response[7]);
+    }
+
+    @Test
+    public void parseGroupAddress() {
+        assertEquals(0x0A03, KnxIpSlave.parseGroupAddress("1/2/3"));
+        assertEquals(0x0A03, KnxIpSlave.parseGroupAddress("1/515"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parseGroupAddress_rejectsInvalidAddress() {
+        KnxIpSlave.parseGroupAddress("1.2.3");
+    }
+
+    @Test
+    public void groupValueRead_isConfirmedAndAnswered() throws Exception {
+        slave.setGroupValue("1/2/3", new byte[] { 0x0C, 0x1A });
+        connect();
+
+        // L_Data.req, group value read of 1/2/3
+        send(frame(KnxIpSlave.TUNNELLING_REQUEST, 4, 1, 0, 0, 0x11, 0, 0xBC, 0xE0, 0, 0, 0x0A, 0x03, 1, 0, 0));
+
+        byte[] ack = receive();
+        assertEquals(KnxIpSlave.TUNNELLING_ACK, serviceType(ack));
+        byte[] confirmation = receive();
+        assertEquals(KnxIpSlave.TUNNELLING_REQUEST, serviceType(confirmation));
+        assertEquals(0, confirmation[8]);
+        assertEquals(KnxIpSlave.L_DATA_CON, confirmation[10] & 0xFF);
+
+        byte[] response = receive();
+        assertEquals(KnxIpSlave.TUNNELLING_REQUEST, serviceType(response));
+        assertEquals(1, response[8]);
+        assertArrayEquals(new byte[] { 0x29, 0, (byte) 0xBC, (byte) 0xE0, 0x11, (byte) 0xFA, 0x0A, 0x03, 3, 0, 0x40,
+                0x0C, 0x1A }, Arrays.copyOfRange(response, 10, response.length));
+        assertEquals(1, slave.getReads());
+    }
+
+    @Test
+    public void groupValueWrite_isStored() throws Exception {
+        connect();
+
+        // L_Data.req, group value write of 1 to 1/2/4
+        send(frame(KnxIpSlave.TUNNELLING_REQUEST, 4, 1, 0, 0, 0x11, 0, 0xBC, 0xE0, 0, 0, 0x0A, 0x04, 1, 0, 0x81));
+        receive();
+        receive();
+
+        assertArrayEquals(new byte[] { 1 }, slave.getGroupValue("1/2/4"));
+    }
+
+    @Test
+    public void connectionState_isReported() throws Exception {
+        connect();
+
+        send(frame(KnxIpSlave.CONNECTIONSTATE_REQUEST, 1, 0, 8, 1, 0, 0, 0, 0, 0, 0));
+        byte[] response = receive();
+
+        assertEquals(KnxIpSlave.CONNECTIONSTATE_RESPONSE, serviceType(response));
+        assertEquals(0, response[7]);
+    }
+}
@@ -0,0 +1,95 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.simulator;
+
+import static org.junit.Assert.*;
+
+import java.io.DataInputStream;
+import java.net.Socket;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @since 1.15.0
+ */
+public class ModbusTcpSlaveTest {
+
+    private ModbusTcpSlave slave;
+
+    @Before
+    public void setUp() throws Exception {
+        slave = new ModbusTcpSlave();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        slave.close();
+    }
+
+    private static byte[] bytes(int... values) {
+        byte[] bytes = new byte[values.length];
+        for (int i = 0; i < values.length; i++) {
+            bytes[i] = (byte) values[i];
+        }
+        return bytes;
+    }
+
+    @Test
+    public void handle_readsHoldingRegisters() {
+        slave.setHoldingRegister(10, 0x1234);
+        slave.setHoldingRegister(11, 0xFFFF);
+
+        assertArrayEquals(bytes(3, 4, 0x12, 0x34, 0xFF, 0xFF), slave.handle(bytes(3, 0, 10, 0, 2)));
+    }
+
+    @Test
+    public void handle_readsCoils() {
+        slave.setCoil(1, true);
+        slave.setCoil(8, true);
+
+        assertArrayEquals(bytes(1, 2, 0x02, 0x01), slave.handle(bytes(1, 0, 0, 0, 9)));
+    }
+
+    @Test
+    public void handle_writesCoilsAndRegisters() {
+        assertArrayEquals(bytes(5, 0, 7, 0xFF, 0), slave.handle(bytes(5, 0, 7, 0xFF, 0)));
+        assertArrayEquals(bytes(16, 0, 20, 0, 2), slave.handle(bytes(16, 0, 20, 0, 2, 4, 0, 1, 0, 2)));
+
+        assertTrue(slave.getCoil(7));
+        assertEquals(1, slave.getHoldingRegister(20));
+        assertEquals(2, slave.getHoldingRegister(21));
+    }
+
+    @Test
+    public void handle_returnsExceptions() {
+        assertArrayEquals(bytes(0x87, ModbusTcpSlave.ILLEGAL_FUNCTION), slave.handle(bytes(7, 0, 0, 0, 1)));
+        assertArrayEquals(bytes(0x83, ModbusTcpSlave.ILLEGAL_DATA_VALUE), slave.handle(bytes(3, 0, 0, 0, 126)));
+        assertArrayEquals(bytes(0x84, ModbusTcpSlave.ILLEGAL_DATA_ADDRESS), slave.handle(bytes(4, 0xFF, 0xFF, 0, 2)));
+    }
+
+    @Test
+    public void serve_answersRequestsOverTcp() throws Exception {
+        slave.setInputRegister(0, 230);
+
+        try (Socket socket = new Socket("127.0.0.1", slave.getPort())) {
+            socket.getOutputStream().write(bytes(0, 42, 0, 0, 0, 6, 1, 4, 0, 0, 0, 1));
+            byte[] response = new byte[11];
+            new DataInputStream(socket.getInputStream()).readFully(response);
+
+            assertArrayEquals(bytes(0, 42, 0, 0, 0, 5, 1, 4, 2, 0, 230), response);
+        }
+        assertEquals(1, slave.getRequests());
+    }
+}
@@ -0,0 +1,97 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.simulator;
+
+import java.util.Arrays;
+
+/**
+ * A frame of a captured conversation between a binding and a device.
+ *
+ * @since 1.15.0
+ */
+public class Frame {
+
+    /**
+     * The direction in which a frame has been sent.
+     */
+    public enum Direction {
+        /** from the device to the binding, written as <code>&lt;</code> */
+        IN,
+        /** from the binding to the device, written as <code>&gt;</code> */
+        OUT
+    }
+
+    private final long offsetMicros;
+    private final Direction direction;
+    private final byte[] data;
+
+    /**
+     * @param offsetMicros the time the frame has been sent at in microseconds
+     *            since the start of the capture
+     * @param direction the direction of the frame
+     * @param data the bytes of the frame
+     */
+    public Frame(long offsetMicros, Direction direction, byte[] data) {
+        this.offsetMicros = offsetMicros;
+        this.direction = direction;
+        this.data = data.clone();
+    }
+
+    public long getOffsetMicros() {
+        return offsetMicros;
+    }
+
+    public Direction getDirection() {
+        return direction;
+    }
+
+    public byte[] getData() {
+        return data.clone();
+    }
+
+    int getLength() {
+        return data.length;
+    }
+
+    byte[] getDataInternal() {
+        return data;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(offsetMicros / 1000.0).append(direction == Direction.IN ? " <" : " >");
+        for (byte b : data) {
+            sb.append(String.format(" %02X", b & 0xFF));
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * (int) (offsetMicros ^ (offsetMicros >>> 32)) + direction.hashCode())
+                + Arrays.hashCode(data);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof Frame)) {
+            return false;
+        }
+        Frame other = (Frame) obj;
+        return offsetMicros == other.offsetMicros && direction == other.direction && Arrays.equals(data, other.data);
+    }
+}
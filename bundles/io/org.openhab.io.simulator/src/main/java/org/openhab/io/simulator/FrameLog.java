@@ -0,0 +1,231 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.simulator;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.openhab.io.simulator.Frame.Direction;
+
+/**
+ * A captured conversation between a binding and a device. A frame log is a
+ * text file with one frame per line:
+ *
+ * <pre>
+ * # milliseconds  direction  data
+ * 0        &lt; 68 0B 0B 68 53 FE A6 ...
+ * 12.5     &gt; 10 5B FE 59 16
+ * 1000     &lt; "/ISk5\2MT382-1000\r\n"
+ * </pre>
+ *
+ * The time is the offset since the start of the capture in milliseconds,
+ * the direction is <code>&lt;</code> for frames sent by the device and
+ * <code>&gt;</code> for frames sent by the binding. The data is either
+ * hexadecimal bytes, or text in double quotes with the escapes
+ * <code>\r \n \t \\ \" \xHH</code>, e.g. for line based protocols.
+ * Empty lines and lines starting with <code>#</code> are ignored.
+ *
+ * @since 1.15.0
+ */
+public class FrameLog {
+
+    private static final Charset ASCII = Charset.forName("US-ASCII");
+
+    private final List<Frame> frames;
+
+    public FrameLog(List<Frame> frames) {
+        this.frames = Collections.unmodifiableList(new ArrayList<Frame>(frames));
+    }
+
+    /**
+     * Reads a frame log from a file.
+     *
+     * @throws IOException if the file can't be read or has an invalid line
+     */
+    public static FrameLog read(File file) throws IOException {
+        try (InputStream in = new FileInputStream(file)) {
+            return read(in);
+        }
+    }
+
+    /**
+     * Reads a frame log from a stream, e.g. a test resource.
+     *
+     * @throws IOException if the stream can't be read or has an invalid line
+     */
+    public static FrameLog read(InputStream in) throws IOException {
+        return read(new InputStreamReader(in, ASCII));
+    }
+
+    /**
+     * Reads a frame log.
+     *
+     * @throws IOException if the log can't be read or has an invalid line
+     */
+    public static FrameLog read(Reader reader) throws IOException {
+        BufferedReader lines = new BufferedReader(reader);
+        List<Frame> frames = new ArrayList<Frame>();
+        String line;
+        int number = 0;
+        while ((line = lines.readLine()) != null) {
+            number++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            try {
+                frames.add(parseFrame(line));
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Invalid frame in line " + number + ": " + e.getMessage(), e);
+            }
+        }
+        return new FrameLog(frames);
+    }
+
+    static Frame parseFrame(String line) {
+        int timeEnd = indexOfWhitespace(line, 0);
+        if (timeEnd < 0) {
+            throw new IllegalArgumentException("missing direction");
+        }
+        long offsetMicros;
+        try {
+            offsetMicros = new BigDecimal(line.substring(0, timeEnd)).movePointRight(3).longValue();
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("invalid time '" + line.substring(0, timeEnd) + "'");
+        }
+
+        String rest = line.substring(timeEnd).trim();
+        Direction direction;
+        if (rest.startsWith("<")) {
+            direction = Direction.IN;
+        } else if (rest.startsWith(">")) {
+            direction = Direction.OUT;
+        } else {
+            throw new IllegalArgumentException("invalid direction, expected < or >");
+        }
+
+        String data = rest.substring(1).trim();
+        return new Frame(offsetMicros, direction, data.startsWith("\"") ? parseText(data) : parseHex(data));
+    }
+
+    private static int indexOfWhitespace(String s, int from) {
+        for (int i = from; i < s.length(); i++) {
+            if (Character.isWhitespace(s.charAt(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static byte[] parseHex(String data) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(data.length() / 2);
+        int high = -1;
+        for (int i = 0; i < data.length(); i++) {
+            char c = data.charAt(i);
+            if (Character.isWhitespace(c)) {
+                if (high >= 0) {
+                    throw new IllegalArgumentException("odd number of hex digits");
+                }
+                continue;
+            }
+            int digit = Character.digit(c, 16);
+            if (digit < 0) {
+                throw new IllegalArgumentException("invalid hex digit '" + c + "'");
+            }
+            if (high < 0) {
+                high = digit;
+            } else {
+                bytes.write(high << 4 | digit);
+                high = -1;
+            }
+        }
+        if (high >= 0) {
+            throw new IllegalArgumentException("odd number of hex digits");
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] parseText(String data) {
+        if (data.length() < 2 || !data.endsWith("\"")) {
+            throw new IllegalArgumentException("unterminated text");
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(data.length());
+        for (int i = 1; i < data.length() - 1; i++) {
+            char c = data.charAt(i);
+            if (c != '\\') {
+                bytes.write(c);
+                continue;
+            }
+            if (++i >= data.length() - 1) {
+                throw new IllegalArgumentException("incomplete escape");
+            }
+            char escaped = data.charAt(i);
+            switch (escaped) {
+                case 'r':
+                    bytes.write('\r');
+                    break;
+                case 'n':
+                    bytes.write('\n');
+                    break;
+                case 't':
+                    bytes.write('\t');
+                    break;
+                case '\\':
+                case '"':
+                    bytes.write(escaped);
+                    break;
+                case 'x':
+                    if (i + 2 >= data.length()) {
+                        throw new IllegalArgumentException("incomplete escape");
+                    }
+                    bytes.write(Integer.parseInt(data.substring(i + 1, i + 3), 16));
+                    i += 2;
+                    break;
+                default:
+                    throw new IllegalArgumentException("invalid escape '\\" + escaped + "'");
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Returns all frames in the order they have been captured.
+     */
+    public List<Frame> getFrames() {
+        return frames;
+    }
+
+    /**
+     * Returns the frames which have been sent by the device.
+     */
+    public List<Frame> getIncomingFrames() {
+        List<Frame> incoming = new ArrayList<Frame>();
+        for (Frame frame : frames) {
+            if (frame.getDirection() == Direction.IN) {
+                incoming.add(frame);
+            }
+        }
+        return incoming;
+    }
+}
@@ -0,0 +1,115 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.simulator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Replays the frames a device has sent, as captured in a {@link FrameLog},
+ * with their original timing or faster. The frames the binding has sent are
+ * not replayed; devices which answer requests are simulated by
+ * {@link ModbusTcpSlave} and {@link KnxIpSlave}.
+ *
+ * @since 1.15.0
+ */
+public class FrameReplayer {
+
+    /** below this the replayer spins instead of sleeping, to keep the timing */
+    private static final long SPIN_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+
+    private final List<Frame> frames;
+    private final double speedUp;
+
+    /**
+     * @param log the captured frames
+     * @param speedUp how many times faster than captured the frames are
+     *            replayed, e.g. 1 for the original timing, or 0 to replay
+     *            them as fast as possible
+     */
+    public FrameReplayer(FrameLog log, double speedUp) {
+        if (speedUp < 0) {
+            throw new IllegalArgumentException("The speed-up must not be negative");
+        }
+        this.frames = log.getIncomingFrames();
+        this.speedUp = speedUp;
+    }
+
+    /**
+     * Replays the frames once.
+     *
+     * @param out the stream to write the frames to, see
+     *            {@link SimulatorEndpoint#getOutputStream()}
+     * @param recorder the recorder to note the frames in, or <code>null</code>
+     * @return the number of frames written
+     */
+    public int replay(OutputStream out, LatencyRecorder recorder) throws IOException, InterruptedException {
+        return replay(out, recorder, 1);
+    }
+
+    /**
+     * Replays the frames a number of times, e.g. to replay a short capture
+     * for long enough to measure. The repetitions follow each other with the
+     * average gap between two frames.
+     *
+     * @param out the stream to write the frames to, see
+     *            {@link SimulatorEndpoint#getOutputStream()}
+     * @param recorder the recorder to note the frames in, or <code>null</code>
+     * @param repeat how many times to replay the frames
+     * @return the number of frames written
+     */
+    public int replay(OutputStream out, LatencyRecorder recorder, int repeat)
+            throws IOException, InterruptedException {
+        if (frames.isEmpty()) {
+            return 0;
+        }
+        long firstOffset = frames.get(0).getOffsetMicros();
+        long duration = frames.get(frames.size() - 1).getOffsetMicros() - firstOffset;
+        long period = frames.size() > 1 ? duration + duration / (frames.size() - 1) : 0;
+
+        int written = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < repeat; i++) {
+            for (Frame frame : frames) {
+                if (speedUp > 0) {
+                    long offsetMicros = i * period + frame.getOffsetMicros() - firstOffset;
+                    waitUntil(start + (long) (offsetMicros * 1000 / speedUp));
+                }
+                out.write(frame.getDataInternal());
+                out.flush();
+                if (recorder != null) {
+                    recorder.frameSent();
+                }
+                written++;
+            }
+        }
+        return written;
+    }
+
+    private static void waitUntil(long deadline) throws InterruptedException {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            if (remaining > SPIN_NANOS) {
+                Thread.sleep(TimeUnit.NANOSECONDS.toMillis(remaining - SPIN_NANOS) + 1);
+            } else {
+                LockSupport.parkNanos(remaining);
+            }
+        }
+    }
+}
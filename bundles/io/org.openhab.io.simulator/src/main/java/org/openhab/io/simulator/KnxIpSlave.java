@@ -0,0 +1,378 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.simulator;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A KNXnet/IP tunnelling server on a loopback UDP port, standing in for a
+ * KNX/IP interface with devices behind it. It answers group value reads from
+ * its own table of group values, stores the group values the binding writes
+ * and sends group telegrams to the binding, e.g. replayed from a
+ * {@link FrameLog} of cEMI frames through {@link #getIndicationStream()}.
+ * <p>
+ * It serves one tunnelling connection at a time and does not repeat frames
+ * the binding doesn't acknowledge.
+ *
+ * @since 1.15.0
+ */
+public class KnxIpSlave implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(KnxIpSlave.class);
+
+    static final int CONNECT_REQUEST = 0x0205;
+    static final int CONNECT_RESPONSE = 0x0206;
+    static final int CONNECTIONSTATE_REQUEST = 0x0207;
+    static final int CONNECTIONSTATE_RESPONSE = 0x0208;
+    static final int DISCONNECT_REQUEST = 0x0209;
+    static final int DISCONNECT_RESPONSE = 0x020A;
+    static final int TUNNELLING_REQUEST = 0x0420;
+    static final int TUNNELLING_ACK = 0x0421;
+
+    static final int L_DATA_REQ = 0x11;
+    static final int L_DATA_CON = 0x2E;
+    static final int L_DATA_IND = 0x29;
+
+    static final int GROUP_VALUE_READ = 0x000;
+    static final int GROUP_VALUE_RESPONSE = 0x040;
+    static final int GROUP_VALUE_WRITE = 0x080;
+
+    private static final int CHANNEL_ID = 1;
+    private static final int E_NO_MORE_CONNECTIONS = 0x24;
+
+    /** the individual address of the tunnel and of the simulated devices, 1.1.250 */
+    private static final int INDIVIDUAL_ADDRESS = 0x11FA;
+
+    private final DatagramSocket socket;
+    private final Map<Integer, byte[]> groupValues = new ConcurrentHashMap<Integer, byte[]>();
+    private final AtomicLong reads = new AtomicLong();
+
+    private SocketAddress client;
+    private int sendSequence;
+
+    private volatile LatencyRecorder recorder;
+
+    /**
+     * Starts a tunnelling server on a free port.
+     */
+    public KnxIpSlave() throws IOException {
+        socket = new DatagramSocket(new InetSocketAddress(InetAddress.getByName("127.0.0.1"), 0));
+
+        Thread receiver = new Thread("KNXnet/IP slave " + getPort()) {
+            @Override
+            public void run() {
+                receive();
+            }
+        };
+        receiver.setDaemon(true);
+        receiver.start();
+    }
+
+    public int getPort() {
+        return socket.getLocalPort();
+    }
+
+    /**
+     * Notes every telegram sent to the binding in the recorder, so that the
+     * latency from the telegram to the update the binding posts for it is
+     * recorded.
+     */
+    public void setRecorder(LatencyRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    /**
+     * Returns the number of group value reads answered so far.
+     */
+    public long getReads() {
+        return reads.get();
+    }
+
+    /**
+     * Sets the value of a group address to a value of up to 6 bits, e.g. a
+     * boolean (DPT 1) or a control value (DPT 2 and 3), which is encoded in
+     * the APCI.
+     *
+     * @param groupAddress the group address, e.g. <code>1/2/3</code>
+     */
+    public void setGroupValue(String groupAddress, int value) {
+        groupValues.put(parseGroupAddress(groupAddress), new byte[] { (byte) (value & 0x3F) });
+    }
+
+    /**
+     * Sets the value of a group address to the bytes of a longer value, e.g. a
+     * two byte float (DPT 9), which follow the APCI.
+     *
+     * @param groupAddress the group address, e.g. <code>1/2/3</code>
+     */
+    public void setGroupValue(String groupAddress, byte[] data) {
+        byte[] value = new byte[data.length + 1];
+        System.arraycopy(data, 0, value, 1, data.length);
+        groupValues.put(parseGroupAddress(groupAddress), value);
+    }
+
+    /**
+     * Returns the value of a group address as it would be transmitted: the
+     * first byte holds the bits of a short value, the following bytes the
+     * bytes of a longer value. Returns <code>null</code> if the group address
+     * has no value.
+     */
+    public byte[] getGroupValue(String groupAddress) {
+        byte[] value = groupValues.get(parseGroupAddress(groupAddress));
+        return value == null ? null : value.clone();
+    }
+
+    /**
+     * Sends a group value write to the binding, as if a device had sent it.
+     */
+    public void sendGroupWrite(String groupAddress, int value) throws IOException {
+        sendCemi(createGroupTelegram(L_DATA_IND, parseGroupAddress(groupAddress), GROUP_VALUE_WRITE,
+                new byte[] { (byte) (value & 0x3F) }));
+    }
+
+    /**
+     * Returns a stream which sends every array written to it in one call as a
+     * cEMI frame to the binding, e.g. to replay captured bus traffic with a
+     * {@link FrameReplayer}.
+     */
+    public OutputStream getIndicationStream() {
+        return new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                write(new byte[] { (byte) b }, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                sendCemi(Arrays.copyOfRange(b, off, off + len));
+            }
+        };
+    }
+
+    /**
+     * Parses a group address of three (<code>main/middle/sub</code>) or two
+     * (<code>main/sub</code>) levels.
+     */
+    static int parseGroupAddress(String groupAddress) {
+        String[] levels = groupAddress.split("/");
+        try {
+            if (levels.length == 3) {
+                return (Integer.parseInt(levels[0]) & 0x1F) << 11 | (Integer.parseInt(levels[1]) & 0x07) << 8
+                        | Integer.parseInt(levels[2]) & 0xFF;
+            } else if (levels.length == 2) {
+                return (Integer.parseInt(levels[0]) & 0x1F) << 11 | Integer.parseInt(levels[1]) & 0x7FF;
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        throw new IllegalArgumentException("Invalid group address '" + groupAddress + "'");
+    }
+
+    private void receive() {
+        byte[] buffer = new byte[512];
+        DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+        while (!socket.isClosed()) {
+            try {
+                packet.setLength(buffer.length);
+                socket.receive(packet);
+                handle(Arrays.copyOf(packet.getData(), packet.getLength()), packet.getSocketAddress());
+            } catch (IOException e) {
+                if (!socket.isClosed()) {
+                    logger.warn("KNXnet/IP slave failed to receive", e);
+                }
+            } catch (RuntimeException e) {
+                logger.warn("KNXnet/IP slave received an invalid frame", e);
+            }
+        }
+    }
+
+    private void handle(byte[] frame, SocketAddress sender) throws IOException {
+        if (frame.length < 6 || frame[0] != 0x06 || frame[1] != 0x10) {
+            return;
+        }
+        int serviceType = word(frame, 2);
+        switch (serviceType) {
+            case CONNECT_REQUEST:
+                connect(sender);
+                break;
+            case CONNECTIONSTATE_REQUEST:
+                send(CONNECTIONSTATE_RESPONSE, new byte[] { frame[6], status(frame[6]) }, sender);
+                break;
+            case DISCONNECT_REQUEST:
+                send(DISCONNECT_RESPONSE, new byte[] { frame[6], status(frame[6]) }, sender);
+                synchronized (this) {
+                    client = null;
+                }
+                break;
+            case TUNNELLING_REQUEST:
+                // connection header: length, channel id, sequence counter, reserved
+                send(TUNNELLING_ACK, new byte[] { 4, frame[7], frame[8], 0 }, sender);
+                handleCemi(Arrays.copyOfRange(frame, 10, frame.length));
+                break;
+            default:
+                // tunnelling acks of the binding and services not supported
+                break;
+        }
+    }
+
+    private synchronized void connect(SocketAddress sender) throws IOException {
+        if (client != null && !client.equals(sender)) {
+            send(CONNECT_RESPONSE, new byte[] { 0, E_NO_MORE_CONNECTIONS }, sender);
+            return;
+        }
+        client = sender;
+        sendSequence = 0;
+        InetSocketAddress local = (InetSocketAddress) socket.getLocalSocketAddress();
+        byte[] ip = local.getAddress().getAddress();
+        int port = local.getPort();
+        byte[] body = new byte[] {
+                // channel id and status
+                CHANNEL_ID, 0,
+                // data endpoint HPAI: UDP, address, port
+                8, 1, ip[0], ip[1], ip[2], ip[3], (byte) (port >> 8), (byte) port,
+                // CRD: tunnel connection, individual address
+                4, 4, (byte) (INDIVIDUAL_ADDRESS >> 8), (byte) INDIVIDUAL_ADDRESS };
+        send(CONNECT_RESPONSE, body, sender);
+    }
+
+    private synchronized byte status(byte channel) {
+        // 0x21: no connection with this channel id
+        return (byte) (channel == CHANNEL_ID && client != null ? 0 : 0x21);
+    }
+
+    private void handleCemi(byte[] cemi) throws IOException {
+        if (cemi.length < 2 || (cemi[0] & 0xFF) != L_DATA_REQ) {
+            return;
+        }
+        // skip the additional info to the control field
+        int ctrl = 2 + (cemi[1] & 0xFF);
+        if (cemi.length < ctrl + 9) {
+            return;
+        }
+
+        byte[] response = null;
+        boolean groupDestination = (cemi[ctrl + 1] & 0x80) != 0;
+        if (groupDestination) {
+            int groupAddress = word(cemi, ctrl + 4);
+            int length = cemi[ctrl + 6] & 0xFF;
+            int apci = (cemi[ctrl + 7] & 0x03) << 8 | cemi[ctrl + 8] & 0xC0;
+            if (apci == GROUP_VALUE_READ) {
+                byte[] value = groupValues.get(groupAddress);
+                if (value != null) {
+                    reads.incrementAndGet();
+                    response = createGroupTelegram(L_DATA_IND, groupAddress, GROUP_VALUE_RESPONSE, value);
+                }
+            } else if (apci == GROUP_VALUE_WRITE && cemi.length >= ctrl + 8 + length) {
+                byte[] value = Arrays.copyOfRange(cemi, ctrl + 8, ctrl + 8 + length);
+                value[0] &= 0x3F;
+                groupValues.put(groupAddress, value);
+            }
+        }
+
+        // confirm the request as sent on the bus, then answer it
+        byte[] confirmation = cemi.clone();
+        confirmation[0] = (byte) L_DATA_CON;
+        sendCemi(confirmation, false);
+        if (response != null) {
+            sendCemi(response);
+        }
+    }
+
+    /**
+     * Creates a cEMI frame of a group telegram from the simulated device.
+     *
+     * @param value the short value in the first byte, followed by the bytes
+     *            of a longer value
+     */
+    static byte[] createGroupTelegram(int messageCode, int groupAddress, int apci, byte[] value) {
+        byte[] cemi = new byte[10 + value.length];
+        cemi[0] = (byte) messageCode;
+        // no additional info
+        cemi[1] = 0;
+        // standard frame, no repetition, broadcast, low priority
+        cemi[2] = (byte) 0xBC;
+        // group destination, hop count 6
+        cemi[3] = (byte) 0xE0;
+        cemi[4] = (byte) (INDIVIDUAL_ADDRESS >> 8);
+        cemi[5] = (byte) INDIVIDUAL_ADDRESS;
+        cemi[6] = (byte) (groupAddress >> 8);
+        cemi[7] = (byte) groupAddress;
+        cemi[8] = (byte) value.length;
+        cemi[9] = (byte) (apci >> 8 & 0x03);
+        cemi[10] = (byte) (apci & 0xC0 | value[0] & 0x3F);
+        System.arraycopy(value, 1, cemi, 11, value.length - 1);
+        return cemi;
+    }
+
+    private void sendCemi(byte[] cemi) throws IOException {
+        sendCemi(cemi, true);
+    }
+
+    private void sendCemi(byte[] cemi, boolean record) throws IOException {
+        SocketAddress target;
+        byte sequence;
+        synchronized (this) {
+            target = client;
+            if (target == null) {
+                throw new IOException("No binding is connected to the KNXnet/IP slave");
+            }
+            sequence = (byte) sendSequence++;
+        }
+        byte[] body = new byte[4 + cemi.length];
+        body[0] = 4;
+        body[1] = CHANNEL_ID;
+        body[2] = sequence;
+        System.arraycopy(cemi, 0, body, 4, cemi.length);
+        send(TUNNELLING_REQUEST, body, target);
+
+        LatencyRecorder recorder = this.recorder;
+        if (record && recorder != null) {
+            recorder.frameSent();
+        }
+    }
+
+    private void send(int serviceType, byte[] body, SocketAddress target) throws IOException {
+        byte[] frame = new byte[6 + body.length];
+        frame[0] = 0x06;
+        frame[1] = 0x10;
+        frame[2] = (byte) (serviceType >> 8);
+        frame[3] = (byte) serviceType;
+        frame[4] = (byte) (frame.length >> 8);
+        frame[5] = (byte) frame.length;
+        System.arraycopy(body, 0, frame, 6, body.length);
+        socket.send(new DatagramPacket(frame, frame.length, target));
+    }
+
+    private static int word(byte[] data, int offset) {
+        return (data[offset] & 0xFF) << 8 | data[offset + 1] & 0xFF;
+    }
+
+    @Override
+    public void close() {
+        socket.close();
+    }
+}
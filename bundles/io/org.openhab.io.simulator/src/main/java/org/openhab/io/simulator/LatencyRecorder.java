@@ -0,0 +1,176 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.simulator;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the latency from a frame being written to the wire to the state
+ * update the binding posts for it.
+ * <p>
+ * An update is attributed to the latest frame written before it. This is
+ * exact as long as the binding processes a frame before the next one
+ * arrives; if it falls behind, the backlog shows in the time it takes to
+ * receive all expected updates after the last frame, see
+ * {@link Summary#getDrainMicros()}.
+ *
+ * @since 1.15.0
+ */
+public class LatencyRecorder {
+
+    private long firstFrameNanos;
+    private long lastFrameNanos;
+    private int frames;
+
+    private long lastUpdateNanos;
+    private long[] latencies = new long[1024];
+    private int updates;
+
+    /**
+     * Notes that a frame has been written to the wire now.
+     */
+    public void frameSent() {
+        frameSent(System.nanoTime());
+    }
+
+    synchronized void frameSent(long nanos) {
+        if (frames == 0) {
+            firstFrameNanos = nanos;
+        }
+        lastFrameNanos = nanos;
+        frames++;
+    }
+
+    /**
+     * Notes that the binding has posted an update now.
+     */
+    public void updateReceived() {
+        updateReceived(System.nanoTime());
+    }
+
+    synchronized void updateReceived(long nanos) {
+        if (frames == 0) {
+            // not caused by a replayed frame, e.g. an initial refresh
+            return;
+        }
+        if (updates == latencies.length) {
+            latencies = Arrays.copyOf(latencies, updates * 2);
+        }
+        latencies[updates++] = nanos - lastFrameNanos;
+        lastUpdateNanos = nanos;
+        notifyAll();
+    }
+
+    /**
+     * Waits until the given number of updates have been received.
+     *
+     * @return true if the updates have been received, false if the timeout
+     *         elapsed before
+     */
+    public synchronized boolean awaitUpdates(int count, long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (updates < count) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return false;
+            }
+            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+        }
+        return true;
+    }
+
+    /**
+     * Forgets all frames and updates recorded so far, e.g. after a warm-up.
+     */
+    public synchronized void reset() {
+        firstFrameNanos = 0;
+        lastFrameNanos = 0;
+        frames = 0;
+        lastUpdateNanos = 0;
+        updates = 0;
+    }
+
+    public synchronized Summary getSummary() {
+        long[] sorted = Arrays.copyOf(latencies, updates);
+        Arrays.sort(sorted);
+        return new Summary(frames, sorted, frames == 0 ? 0 : lastFrameNanos - firstFrameNanos,
+                updates == 0 ? 0 : lastUpdateNanos - lastFrameNanos);
+    }
+
+    /**
+     * The latencies and rates of a replay.
+     */
+    public static class Summary {
+
+        private final int frames;
+        private final long[] latencies;
+        private final long replayNanos;
+        private final long drainNanos;
+
+        Summary(int frames, long[] sortedLatencies, long replayNanos, long drainNanos) {
+            this.frames = frames;
+            this.latencies = sortedLatencies;
+            this.replayNanos = replayNanos;
+            this.drainNanos = Math.max(0, drainNanos);
+        }
+
+        public int getFrames() {
+            return frames;
+        }
+
+        public int getUpdates() {
+            return latencies.length;
+        }
+
+        /**
+         * Returns the latency below which the given percentage of the updates
+         * have been posted, in microseconds.
+         */
+        public long getPercentileMicros(double percentile) {
+            if (latencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile / 100.0 * latencies.length) - 1;
+            return latencies[Math.max(0, Math.min(index, latencies.length - 1))] / 1000;
+        }
+
+        public long getMaxMicros() {
+            return getPercentileMicros(100);
+        }
+
+        /**
+         * Returns the time from the last frame to the last update in
+         * microseconds, which grows if the binding can't keep up.
+         */
+        public long getDrainMicros() {
+            return drainNanos / 1000;
+        }
+
+        /**
+         * Returns the number of updates per second over the whole replay.
+         */
+        public double getUpdatesPerSecond() {
+            long nanos = replayNanos + drainNanos;
+            return nanos == 0 ? 0 : latencies.length * 1e9 / nanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                    "frames=%d updates=%d updates/s=%.1f p50=%dus p90=%dus p99=%dus max=%dus drain=%dus", frames,
+                    getUpdates(), getUpdatesPerSecond(), getPercentileMicros(50), getPercentileMicros(90),
+                    getPercentileMicros(99), getMaxMicros(), getDrainMicros());
+        }
+    }
+}
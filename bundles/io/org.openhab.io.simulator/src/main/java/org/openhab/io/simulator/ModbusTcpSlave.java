@@ -0,0 +1,321 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.simulator;
+
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A Modbus TCP slave on a loopback port, which answers the reads and writes
+ * of coils, discrete inputs, holding and input registers from its own
+ * register tables, for any unit id. It accepts any number of connections.
+ *
+ * @since 1.15.0
+ */
+public class ModbusTcpSlave implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ModbusTcpSlave.class);
+
+    static final int READ_COILS = 1;
+    static final int READ_DISCRETE_INPUTS = 2;
+    static final int READ_HOLDING_REGISTERS = 3;
+    static final int READ_INPUT_REGISTERS = 4;
+    static final int WRITE_SINGLE_COIL = 5;
+    static final int WRITE_SINGLE_REGISTER = 6;
+    static final int WRITE_MULTIPLE_COILS = 15;
+    static final int WRITE_MULTIPLE_REGISTERS = 16;
+
+    static final int ILLEGAL_FUNCTION = 1;
+    static final int ILLEGAL_DATA_ADDRESS = 2;
+    static final int ILLEGAL_DATA_VALUE = 3;
+
+    private static final int TABLE_SIZE = 65536;
+
+    private final boolean[] coils = new boolean[TABLE_SIZE];
+    private final boolean[] discreteInputs = new boolean[TABLE_SIZE];
+    private final short[] holdingRegisters = new short[TABLE_SIZE];
+    private final short[] inputRegisters = new short[TABLE_SIZE];
+
+    private final ServerSocket serverSocket;
+    private final List<Socket> connections = new CopyOnWriteArrayList<Socket>();
+    private final AtomicLong requests = new AtomicLong();
+
+    private volatile long responseDelayMillis;
+    private volatile LatencyRecorder recorder;
+
+    /**
+     * Starts a slave on a free port.
+     */
+    public ModbusTcpSlave() throws IOException {
+        serverSocket = new ServerSocket();
+        serverSocket.setReuseAddress(true);
+        serverSocket.bind(new InetSocketAddress(InetAddress.getByName("127.0.0.1"), 0));
+
+        Thread acceptor = new Thread("Modbus TCP slave " + getPort()) {
+            @Override
+            public void run() {
+                acceptConnections();
+            }
+        };
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Delays every response, e.g. to simulate a slow device behind a gateway.
+     */
+    public void setResponseDelay(long millis) {
+        this.responseDelayMillis = millis;
+    }
+
+    /**
+     * Notes every response in the recorder, so that the latency from the
+     * response to the update the binding posts for it is recorded.
+     */
+    public void setRecorder(LatencyRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    /**
+     * Returns the number of requests answered so far.
+     */
+    public long getRequests() {
+        return requests.get();
+    }
+
+    public synchronized void setCoil(int address, boolean value) {
+        coils[address] = value;
+    }
+
+    public synchronized boolean getCoil(int address) {
+        return coils[address];
+    }
+
+    public synchronized void setDiscreteInput(int address, boolean value) {
+        discreteInputs[address] = value;
+    }
+
+    public synchronized void setHoldingRegister(int address, int value) {
+        holdingRegisters[address] = (short) value;
+    }
+
+    public synchronized int getHoldingRegister(int address) {
+        return holdingRegisters[address] & 0xFFFF;
+    }
+
+    public synchronized void setInputRegister(int address, int value) {
+        inputRegisters[address] = (short) value;
+    }
+
+    private void acceptConnections() {
+        while (!serverSocket.isClosed()) {
+            try {
+                final Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                connections.add(socket);
+                Thread handler = new Thread("Modbus TCP slave " + getPort() + " connection") {
+                    @Override
+                    public void run() {
+                        serve(socket);
+                    }
+                };
+                handler.setDaemon(true);
+                handler.start();
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) {
+                    logger.warn("Modbus TCP slave failed to accept a connection", e);
+                }
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try {
+            DataInputStream in = new DataInputStream(socket.getInputStream());
+            OutputStream out = socket.getOutputStream();
+            byte[] header = new byte[7];
+            while (true) {
+                // MBAP header: transaction id, protocol id, length, unit id
+                in.readFully(header);
+                int length = (header[4] & 0xFF) << 8 | header[5] & 0xFF;
+                if (length < 2 || length > 254) {
+                    logger.warn("Modbus TCP slave received an invalid length {}, closing the connection", length);
+                    return;
+                }
+                byte[] pdu = new byte[length - 1];
+                in.readFully(pdu);
+
+                byte[] response = handle(pdu);
+                requests.incrementAndGet();
+                if (responseDelayMillis > 0) {
+                    Thread.sleep(responseDelayMillis);
+                }
+
+                byte[] frame = new byte[7 + response.length];
+                System.arraycopy(header, 0, frame, 0, 4);
+                frame[4] = (byte) ((response.length + 1) >> 8);
+                frame[5] = (byte) (response.length + 1);
+                frame[6] = header[6];
+                System.arraycopy(response, 0, frame, 7, response.length);
+                out.write(frame);
+                out.flush();
+
+                LatencyRecorder recorder = this.recorder;
+                if (recorder != null) {
+                    recorder.frameSent();
+                }
+            }
+        } catch (EOFException e) {
+            // the binding has closed the connection
+        } catch (SocketException e) {
+            // the slave or the binding has closed the connection
+        } catch (IOException e) {
+            logger.warn("Modbus TCP slave connection failed", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            connections.remove(socket);
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // already closed
+            }
+        }
+    }
+
+    /**
+     * Returns the response PDU for a request PDU.
+     */
+    synchronized byte[] handle(byte[] pdu) {
+        int function = pdu[0] & 0xFF;
+        if (pdu.length < 5) {
+            return exception(function, ILLEGAL_DATA_VALUE);
+        }
+        int address = word(pdu, 1);
+        int value = word(pdu, 3);
+
+        switch (function) {
+            case READ_COILS:
+                return readBits(function, coils, address, value);
+            case READ_DISCRETE_INPUTS:
+                return readBits(function, discreteInputs, address, value);
+            case READ_HOLDING_REGISTERS:
+                return readRegisters(function, holdingRegisters, address, value);
+            case READ_INPUT_REGISTERS:
+                return readRegisters(function, inputRegisters, address, value);
+            case WRITE_SINGLE_COIL:
+                if (value != 0xFF00 && value != 0x0000) {
+                    return exception(function, ILLEGAL_DATA_VALUE);
+                }
+                coils[address] = value == 0xFF00;
+                return pdu.clone();
+            case WRITE_SINGLE_REGISTER:
+                holdingRegisters[address] = (short) value;
+                return pdu.clone();
+            case WRITE_MULTIPLE_COILS:
+                if (value < 1 || value > 1968 || pdu.length < 6 + (value + 7) / 8) {
+                    return exception(function, ILLEGAL_DATA_VALUE);
+                }
+                if (address + value > TABLE_SIZE) {
+                    return exception(function, ILLEGAL_DATA_ADDRESS);
+                }
+                for (int i = 0; i < value; i++) {
+                    coils[address + i] = (pdu[6 + i / 8] & 1 << i % 8) != 0;
+                }
+                return new byte[] { pdu[0], pdu[1], pdu[2], pdu[3], pdu[4] };
+            case WRITE_MULTIPLE_REGISTERS:
+                if (value < 1 || value > 123 || pdu.length < 6 + value * 2) {
+                    return exception(function, ILLEGAL_DATA_VALUE);
+                }
+                if (address + value > TABLE_SIZE) {
+                    return exception(function, ILLEGAL_DATA_ADDRESS);
+                }
+                for (int i = 0; i < value; i++) {
+                    holdingRegisters[address + i] = (short) word(pdu, 6 + i * 2);
+                }
+                return new byte[] { pdu[0], pdu[1], pdu[2], pdu[3], pdu[4] };
+            default:
+                return exception(function, ILLEGAL_FUNCTION);
+        }
+    }
+
+    private static byte[] readBits(int function, boolean[] table, int address, int quantity) {
+        if (quantity < 1 || quantity > 2000) {
+            return exception(function, ILLEGAL_DATA_VALUE);
+        }
+        if (address + quantity > TABLE_SIZE) {
+            return exception(function, ILLEGAL_DATA_ADDRESS);
+        }
+        int bytes = (quantity + 7) / 8;
+        byte[] response = new byte[2 + bytes];
+        response[0] = (byte) function;
+        response[1] = (byte) bytes;
+        for (int i = 0; i < quantity; i++) {
+            if (table[address + i]) {
+                response[2 + i / 8] |= 1 << i % 8;
+            }
+        }
+        return response;
+    }
+
+    private static byte[] readRegisters(int function, short[] table, int address, int quantity) {
+        if (quantity < 1 || quantity > 125) {
+            return exception(function, ILLEGAL_DATA_VALUE);
+        }
+        if (address + quantity > TABLE_SIZE) {
+            return exception(function, ILLEGAL_DATA_ADDRESS);
+        }
+        byte[] response = new byte[2 + quantity * 2];
+        response[0] = (byte) function;
+        response[1] = (byte) (quantity * 2);
+        for (int i = 0; i < quantity; i++) {
+            response[2 + i * 2] = (byte) (table[address + i] >> 8);
+            response[3 + i * 2] = (byte) table[address + i];
+        }
+        return response;
+    }
+
+    private static byte[] exception(int function, int code) {
+        return new byte[] { (byte) (function | 0x80), (byte) code };
+    }
+
+    private static int word(byte[] data, int offset) {
+        return (data[offset] & 0xFF) << 8 | data[offset + 1] & 0xFF;
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        for (Socket socket : connections) {
+            socket.close();
+        }
+    }
+}
@@ -0,0 +1,150 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.simulator;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.ProcessBuilder.Redirect;
+
+/**
+ * A pseudo serial port for bindings which talk to a serial device, e.g. a
+ * DSMR P1 port, an RFXCOM transceiver or a Z-Wave controller. Java can't
+ * create a pseudo terminal itself, so a pair of linked pseudo terminals is
+ * created with <a href="http://www.dest-unreach.org/socat/">socat</a>, which
+ * has to be installed. The binding opens one end as its serial port, the
+ * simulator reads and writes the other end.
+ * <p>
+ * RXTX only opens ports it knows, so the port has to be added with
+ * <code>-Dgnu.io.rxtx.SerialPorts=&lt;address&gt;</code>.
+ *
+ * @since 1.15.0
+ */
+public class PtyEndpoint implements SimulatorEndpoint {
+
+    private static final long STARTUP_TIMEOUT = 5000;
+
+    private final Process socat;
+    private final File device;
+    private final InputStream in;
+    private final OutputStream out;
+
+    private PtyEndpoint(Process socat, File device, File simulator) throws IOException {
+        this.socat = socat;
+        this.device = device;
+        this.in = new FileInputStream(simulator);
+        this.out = new FileOutputStream(simulator);
+    }
+
+    /**
+     * Returns true if socat is available to create pseudo serial ports.
+     */
+    public static boolean isSupported() {
+        try {
+            Process process = new ProcessBuilder("socat", "-V").redirectErrorStream(true).start();
+            process.getInputStream().close();
+            return process.waitFor() == 0;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Creates a pseudo serial port.
+     *
+     * @param directory the directory to create the links to the pseudo
+     *            terminals in, the binding side is called <code>binding</code>
+     * @throws IOException if socat is not available or fails
+     */
+    public static PtyEndpoint open(File directory) throws IOException {
+        File device = new File(directory, "binding");
+        File simulator = new File(directory, "simulator");
+        Process socat = new ProcessBuilder("socat", "pty,raw,echo=0,link=" + simulator.getAbsolutePath(),
+                "pty,raw,echo=0,link=" + device.getAbsolutePath()).redirectErrorStream(true)
+                        .redirectOutput(Redirect.INHERIT).start();
+
+        long deadline = System.currentTimeMillis() + STARTUP_TIMEOUT;
+        while (!device.exists() || !simulator.exists()) {
+            if (!isAlive(socat)) {
+                throw new IOException("socat failed to create the pseudo terminals, exit code " + socat.exitValue());
+            }
+            if (System.currentTimeMillis() > deadline) {
+                socat.destroy();
+                throw new IOException("socat hasn't created the pseudo terminals in " + directory);
+            }
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                socat.destroy();
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for socat", e);
+            }
+        }
+
+        try {
+            return new PtyEndpoint(socat, device, simulator);
+        } catch (IOException e) {
+            socat.destroy();
+            throw e;
+        }
+    }
+
+    private static boolean isAlive(Process process) {
+        try {
+            process.exitValue();
+            return false;
+        } catch (IllegalThreadStateException e) {
+            return true;
+        }
+    }
+
+    @Override
+    public String getAddress() {
+        return device.getAbsolutePath();
+    }
+
+    /**
+     * Returns immediately, as opening a pseudo terminal can't be observed
+     * from the other end; whatever is written before the binding has opened
+     * the port is buffered by the pseudo terminal.
+     */
+    @Override
+    public void awaitConnection(long timeoutMillis) {
+    }
+
+    @Override
+    public InputStream getInputStream() {
+        return in;
+    }
+
+    @Override
+    public OutputStream getOutputStream() {
+        return out;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            in.close();
+            out.close();
+        } finally {
+            socat.destroy();
+        }
+    }
+}
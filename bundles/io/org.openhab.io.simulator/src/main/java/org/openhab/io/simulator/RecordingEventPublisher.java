@@ -0,0 +1,70 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.simulator;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.openhab.core.events.EventPublisher;
+import org.openhab.core.types.Command;
+import org.openhab.core.types.State;
+
+/**
+ * An {@link EventPublisher} to set on the binding under test, which notes
+ * every posted update in a {@link LatencyRecorder} and keeps the latest state
+ * of each item.
+ *
+ * @since 1.15.0
+ */
+public class RecordingEventPublisher implements EventPublisher {
+
+    private final LatencyRecorder recorder;
+    private final Map<String, State> states = new ConcurrentHashMap<String, State>();
+    private final Map<String, Command> commands = new ConcurrentHashMap<String, Command>();
+
+    public RecordingEventPublisher(LatencyRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    @Override
+    public void sendCommand(String itemName, Command command) {
+        commands.put(itemName, command);
+    }
+
+    @Override
+    public void postCommand(String itemName, Command command) {
+        commands.put(itemName, command);
+    }
+
+    @Override
+    public void postUpdate(String itemName, State newState) {
+        recorder.updateReceived();
+        states.put(itemName, newState);
+    }
+
+    /**
+     * Returns the latest state posted for the item, or <code>null</code> if
+     * none has been posted.
+     */
+    public State getState(String itemName) {
+        return states.get(itemName);
+    }
+
+    /**
+     * Returns the latest command sent for the item, or <code>null</code> if
+     * none has been sent.
+     */
+    public Command getCommand(String itemName) {
+        return commands.get(itemName);
+    }
+}
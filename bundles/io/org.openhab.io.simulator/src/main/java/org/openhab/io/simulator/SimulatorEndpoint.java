@@ -0,0 +1,52 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.simulator;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * The device side of a connection a binding under test connects to, through
+ * which the simulator reads what the binding sends and writes what the
+ * device would send.
+ *
+ * @since 1.15.0
+ */
+public interface SimulatorEndpoint extends Closeable {
+
+    /**
+     * Returns the address the binding has to be configured with, e.g. a
+     * <code>host:port</code> or a serial port name.
+     */
+    String getAddress();
+
+    /**
+     * Waits until the binding has connected to the endpoint.
+     *
+     * @param timeoutMillis how long to wait at most
+     * @throws IOException if the binding hasn't connected in time
+     */
+    void awaitConnection(long timeoutMillis) throws IOException;
+
+    /**
+     * Returns the stream of the bytes sent by the binding.
+     */
+    InputStream getInputStream() throws IOException;
+
+    /**
+     * Returns the stream to send bytes to the binding.
+     */
+    OutputStream getOutputStream() throws IOException;
+}
@@ -0,0 +1,102 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.simulator;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+
+/**
+ * An endpoint on a loopback TCP port the binding connects to, e.g. instead
+ * of a KNX/IP router, a Modbus TCP slave or a serial-to-ethernet adapter.
+ *
+ * @since 1.15.0
+ */
+public class TcpEndpoint implements SimulatorEndpoint {
+
+    private final ServerSocket serverSocket;
+    private Socket socket;
+
+    /**
+     * Opens an endpoint on a free port.
+     */
+    public TcpEndpoint() throws IOException {
+        this(0);
+    }
+
+    /**
+     * Opens an endpoint on the given port, or on a free port if it is 0.
+     */
+    public TcpEndpoint(int port) throws IOException {
+        serverSocket = new ServerSocket();
+        serverSocket.setReuseAddress(true);
+        serverSocket.bind(new InetSocketAddress(InetAddress.getByName("127.0.0.1"), port));
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    @Override
+    public String getAddress() {
+        return "127.0.0.1:" + getPort();
+    }
+
+    @Override
+    public synchronized void awaitConnection(long timeoutMillis) throws IOException {
+        if (socket != null) {
+            return;
+        }
+        serverSocket.setSoTimeout((int) Math.max(1, timeoutMillis));
+        try {
+            socket = serverSocket.accept();
+        } catch (SocketTimeoutException e) {
+            throw new IOException("The binding hasn't connected to " + getAddress() + " within " + timeoutMillis
+                    + " ms", e);
+        }
+        socket.setTcpNoDelay(true);
+    }
+
+    @Override
+    public synchronized InputStream getInputStream() throws IOException {
+        return getSocket().getInputStream();
+    }
+
+    @Override
+    public synchronized OutputStream getOutputStream() throws IOException {
+        return getSocket().getOutputStream();
+    }
+
+    private Socket getSocket() throws IOException {
+        if (socket == null) {
+            throw new IOException("The binding hasn't connected to " + getAddress() + " yet");
+        }
+        return socket;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            if (socket != null) {
+                socket.close();
+            }
+        } finally {
+            serverSocket.close();
+        }
+    }
+}
@@ -0,0 +1,168 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.cul.internal;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.io.transport.cul.CULListener;
+
+public class CULSendSchedulerTest {
+
+    private CULSendScheduler sut;
+
+    @Before
+    public void setUp() {
+        sut = new CULSendScheduler();
+    }
+
+    @Test
+    public void add_absoluteFS20CommandSupersedesQueuedCommand() throws Exception {
+        sut.add("F12345610");
+        sut.add("F12345700");
+        sut.add("F12345600");
+
+        assertEquals("F12345700", sut.take());
+        assertEquals("F12345600", sut.take());
+        assertEquals(0, sut.getQueueSize());
+        assertEquals(1, sut.getCoalescedCommands());
+    }
+
+    @Test
+    public void add_toggleIsNotSuperseded() throws Exception {
+        sut.add("F12345612");
+        sut.add("F12345612");
+
+        assertEquals(2, sut.getQueueSize());
+        assertEquals(0, sut.getCoalescedCommands());
+    }
+
+    @Test
+    public void add_fhtSingleRegisterWriteSupersedesSameRegister() throws Exception {
+        sut.add("T12344128");
+        sut.add("T12343E00");
+        sut.add("T1234412C");
+
+        assertEquals("T12343E00", sut.take());
+        assertEquals("T1234412C", sut.take());
+    }
+
+    @Test
+    public void add_fhtMultiRegisterWriteIsNotSuperseded() throws Exception {
+        sut.add("T12346312640A");
+        sut.add("T12346312640B");
+
+        assertEquals(2, sut.getQueueSize());
+    }
+
+    @Test
+    public void take_holdsBackCommandWithoutCredit() throws Exception {
+        sut.creditReported(0);
+        sut.add("F12345610");
+
+        final CountDownLatch taken = new CountDownLatch(1);
+        Thread sender = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    sut.take();
+                    taken.countDown();
+                } catch (InterruptedException e) {
+                    // test finished
+                }
+            }
+        };
+        sender.start();
+
+        assertFalse(taken.await(200, TimeUnit.MILLISECONDS));
+        assertEquals(1, sut.getCreditWaits());
+
+        sut.creditReported(CULSendScheduler.MAX_CREDIT);
+        assertTrue(taken.await(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void take_sendsCommandsWithoutAirtimeWithoutCredit() throws Exception {
+        sut.creditReported(0);
+        sut.add("V");
+
+        assertEquals("V", sut.take());
+    }
+
+    @Test
+    public void take_deductsAirtimeFromEstimatedCredit() throws Exception {
+        sut.creditReported(100);
+        sut.add("F12345610");
+        sut.take();
+
+        assertEquals(100 - CULSendScheduler.FS20_AIRTIME, sut.getEstimatedCredit());
+        assertTrue(sut.isCreditReportDue());
+        assertFalse(sut.isCreditReportDue());
+    }
+
+    @Test
+    public void take_returnsNullWhenClosed() throws Exception {
+        sut.close();
+
+        assertNull(sut.take());
+    }
+
+    @Test
+    public void receiveRing_deliversInOrder() throws Exception {
+        final List<String> received = new ArrayList<String>();
+        final CountDownLatch done = new CountDownLatch(100);
+        List<CULListener> listeners = new CopyOnWriteArrayList<CULListener>();
+        listeners.add(new CULListener() {
+            @Override
+            public void dataReceived(String data) {
+                received.add(data);
+                done.countDown();
+            }
+
+            @Override
+            public void error(Exception e) {
+            }
+        });
+        CULReceiveRing ring = new CULReceiveRing("test", listeners, 128);
+        ring.start();
+        for (int i = 0; i < 100; i++) {
+            ring.put(String.valueOf(i));
+        }
+
+        assertTrue(done.await(1, TimeUnit.SECONDS));
+        ring.close();
+        for (int i = 0; i < 100; i++) {
+            assertEquals(String.valueOf(i), received.get(i));
+        }
+    }
+
+    @Test
+    public void receiveRing_dropsOldestWhenFull() throws Exception {
+        CULReceiveRing ring = new CULReceiveRing("test", new CopyOnWriteArrayList<CULListener>(), 2);
+        ring.put("a");
+        ring.put("b");
+        ring.put("c");
+
+        assertEquals(1, ring.getDropped());
+        assertEquals("b", ring.take());
+        assertEquals("c", ring.take());
+    }
+
+}
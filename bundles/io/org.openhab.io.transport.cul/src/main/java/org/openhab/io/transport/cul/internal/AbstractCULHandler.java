@@ -12,12 +12,8 @@
  */
 package org.openhab.io.transport.cul.internal;
 
-import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
-import java.util.concurrent.LinkedTransferQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.openhab.io.transport.cul.CULCommunicationException;
 import org.openhab.io.transport.cul.CULDeviceException;
@@ -39,7 +35,9 @@ public abstract class AbstractCULHandler<T extends CULConfig> implements CULHand
     /**
      * Thread which sends all queued commands to the CUL.
      * The Thread waits on a CUL response before sending a new
-     * command to prevent race conditions.
+     * command to prevent race conditions. The commands are released by the
+     * {@link CULSendScheduler} as far as the duty cycle credits allow, and a
+     * credit report is requested after each command which is transmitted.
      *
      * @author Till Klocke
      * @since 1.4.0
@@ -64,34 +62,42 @@ public abstract class AbstractCULHandler<T extends CULConfig> implements CULHand
             String command = null;
 
             while (!isInterrupted()) {
+                if (sendScheduler.isCreditReportDue()) {
+                    writeAndWait("X\r\n");
+                }
                 try {
-                    command = sendQueue.take();
+                    command = sendScheduler.take();
                 } catch (InterruptedException e) {
-                    logger.warn("Failed to wait for queue: " + e.toString());
+                    logger.debug("Interrupted while waiting for queue: " + e.toString());
+                    break;
                 }
                 if (command == null) {
-                    continue;
-                }
-                if (!command.endsWith("\r\n")) {
-                    command = command + "\r\n";
-                }
-                try {
-                    logger.trace("Writing message: {}", command);
-
-                    writeMessage(command);
-                    if (async_cmds.contains(command.subSequence(0, 1))) {
-                        continue;
-                    }
-                    long start_ms = System.nanoTime();
-                    waitOnCulResponse();
-                    logger.trace("Response took {} ms", (System.nanoTime() - start_ms) / 1000000);
-                } catch (CULCommunicationException e) {
-                    logger.warn("Error while writing command to CUL", e);
+                    break;
                 }
+                writeAndWait(command);
             }
             logger.warn("Sending thread interrupted");
         }
 
+        private void writeAndWait(String command) {
+            if (!command.endsWith("\r\n")) {
+                command = command + "\r\n";
+            }
+            try {
+                logger.trace("Writing message: {}", command);
+
+                writeMessage(command);
+                if (async_cmds.contains(command.subSequence(0, 1))) {
+                    return;
+                }
+                long start_ms = System.nanoTime();
+                waitOnCulResponse();
+                logger.trace("Response took {} ms", (System.nanoTime() - start_ms) / 1000000);
+            } catch (CULCommunicationException e) {
+                logger.warn("Error while writing command to CUL", e);
+            }
+        }
+
         private synchronized void waitOnCulResponse() {
             try {
                 wait(waitForResponse_ms);
@@ -113,43 +119,20 @@ public abstract class AbstractCULHandler<T extends CULConfig> implements CULHand
         }
     }
 
-    /**
-     * Wrapper class wraps a CULListener and a received Strings and gets
-     * executed by a executor in its own thread.
-     *
-     * @author Till Klocke
-     * @since 1.4.0
-     *
-     */
-    private static class NotifyDataReceivedRunner implements Runnable {
-
-        private String message;
-        private CULListener listener;
-
-        public NotifyDataReceivedRunner(CULListener listener, String message) {
-            this.message = message;
-            this.listener = listener;
-        }
+    protected SendThread sendThread = new SendThread();
 
-        @Override
-        public void run() {
-            listener.dataReceived(message);
-        }
+    protected T config;
 
-    }
+    protected List<CULListener> listeners = new CopyOnWriteArrayList<CULListener>();
 
     /**
-     * Executor to handle received messages. Every listern should be called in
-     * its own thread.
+     * Delivers the received messages to the listeners in order, in a single
+     * thread.
      */
-    protected Executor receiveExecutor = Executors.newCachedThreadPool();
-    protected SendThread sendThread = new SendThread();
-
-    protected T config;
-
-    protected List<CULListener> listeners = new ArrayList<CULListener>();
+    protected CULReceiveRing receiveRing = new CULReceiveRing("CUL receive dispatcher", listeners,
+            CULReceiveRing.DEFAULT_CAPACITY);
 
-    protected BlockingQueue<String> sendQueue = new LinkedTransferQueue<String>();
+    protected CULSendScheduler sendScheduler = new CULSendScheduler();
     protected int credit10ms = 0;
 
     protected AbstractCULHandler(T config) {
@@ -180,13 +163,16 @@ public abstract class AbstractCULHandler<T extends CULConfig> implements CULHand
         openHardware();
 
         registerListener(sendThread);
+        receiveRing.start();
         sendThread.start();
     }
 
     @Override
     public void close() {
+        sendScheduler.close();
         sendThread.interrupt();
         unregisterListener(sendThread);
+        receiveRing.close();
 
         closeHardware();
     }
@@ -208,18 +194,13 @@ public abstract class AbstractCULHandler<T extends CULConfig> implements CULHand
     @Override
     public void send(String command) {
         if (isMessageAllowed(command)) {
-            if (sendQueue.offer(command)) {
-                requestCreditReport();
-            } else {
-                log.warn("Send buffer overrun. Doing reset");
-                sendQueue.clear();
-            }
+            sendScheduler.add(command);
         }
     }
 
     @Override
     public void sendWithoutCheck(String message) throws CULCommunicationException {
-        sendQueue.offer(message);
+        sendScheduler.add(message);
     }
 
     /**
@@ -240,14 +221,13 @@ public abstract class AbstractCULHandler<T extends CULConfig> implements CULHand
     }
 
     /**
-     * Notifies each CULListener about the received data in its own thread.
+     * Queues the received data for the CULListeners, which are notified in
+     * the order the data was received.
      *
      * @param data
      */
     protected void notifyDataReceived(String data) {
-        for (final CULListener listener : listeners) {
-            receiveExecutor.execute(new NotifyDataReceivedRunner(listener, data));
-        }
+        receiveRing.put(data);
     }
 
     protected void notifyError(Exception e) {
@@ -266,10 +246,12 @@ public abstract class AbstractCULHandler<T extends CULConfig> implements CULHand
         log.debug("Received raw message from CUL: {}", data);
         if ("EOB".equals(data)) {
             log.warn("(EOB) End of Buffer. Last message lost. Try sending less messages per time slot to the CUL");
+            sendScheduler.overflowReported(false);
             return;
         } else if ("LOVF".equals(data)) {
             log.warn(
                     "(LOVF) Limit Overflow: Last message lost. You are using more than 1% transmitting time. Reduce the number of rf messages");
+            sendScheduler.overflowReported(true);
             return;
         } else if (data.matches("^\\d+\\s+\\d+")) {
             processCreditReport(data);
@@ -286,7 +268,9 @@ public abstract class AbstractCULHandler<T extends CULConfig> implements CULHand
         // Credit report received
         String[] report = data.split(" ");
         credit10ms = Integer.parseInt(report[report.length - 1]);
-        log.debug("credit10ms = {}", credit10ms);
+        log.debug("credit10ms = {}, {} commands queued, {} received messages pending", credit10ms,
+                sendScheduler.getQueueSize(), receiveRing.getDepth());
+        sendScheduler.creditReported(credit10ms);
     }
 
     /**
@@ -300,19 +284,6 @@ public abstract class AbstractCULHandler<T extends CULConfig> implements CULHand
         return credit10ms;
     }
 
-    /**
-     * write out request for a credit report directly to CUL
-     */
-    private void requestCreditReport() {
-        /* this requests a report which provides credit10ms */
-        log.trace("Requesting credit report");
-        try {
-            sendWithoutCheck("X\r\n");
-        } catch (CULCommunicationException e) {
-            log.warn("Error requesting credit report from CUL", e);
-        }
-    }
-
     /**
      * Write a message to the CUL.
      *
@@ -0,0 +1,155 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.cul.internal;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.openhab.io.transport.cul.CULListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A bounded ring buffer of the lines received from a CUL with a single
+ * consumer thread, which delivers the lines to the listeners in the order
+ * they were received. If the listeners do not keep up and the buffer is full,
+ * the oldest line is dropped.
+ *
+ * @since 1.15.0
+ */
+public class CULReceiveRing implements Runnable {
+
+    private static final Logger logger = LoggerFactory.getLogger(CULReceiveRing.class);
+
+    /** The default number of lines the buffer can hold */
+    static final int DEFAULT_CAPACITY = 256;
+
+    private final String[] lines;
+    private final List<CULListener> listeners;
+    private final String name;
+
+    private long head = 0;
+    private long tail = 0;
+    private boolean closed = false;
+
+    private int maxDepth;
+    private long dropped;
+
+    /**
+     * @param name the name of the consumer thread
+     * @param listeners the listeners to deliver the lines to, must be safe for
+     *            iteration while listeners are added or removed
+     * @param capacity the number of lines the buffer can hold
+     */
+    public CULReceiveRing(String name, List<CULListener> listeners, int capacity) {
+        this.name = name;
+        this.listeners = listeners;
+        this.lines = new String[capacity];
+    }
+
+    /**
+     * Starts the consumer thread.
+     */
+    public synchronized void start() {
+        closed = false;
+        Thread thread = new Thread(this, name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops the consumer thread; lines which have not been delivered yet are
+     * discarded.
+     */
+    public synchronized void close() {
+        closed = true;
+        head = tail;
+        Arrays.fill(lines, null);
+        notifyAll();
+    }
+
+    /**
+     * Appends a received line, dropping the oldest line if the buffer is full.
+     */
+    public synchronized void put(String line) {
+        if (tail - head == lines.length) {
+            dropped++;
+            logger.warn("CUL receive buffer full, dropping line {}", lines[(int) (head % lines.length)]);
+            lines[(int) (head % lines.length)] = null;
+            head++;
+        }
+        lines[(int) (tail % lines.length)] = line;
+        tail++;
+        maxDepth = Math.max(maxDepth, (int) (tail - head));
+        notifyAll();
+    }
+
+    /**
+     * Takes the oldest line, waiting until a line is available.
+     *
+     * @return the line, or <code>null</code> if the buffer has been closed
+     */
+    synchronized String take() throws InterruptedException {
+        while (!closed && head == tail) {
+            wait();
+        }
+        if (closed) {
+            return null;
+        }
+        int index = (int) (head % lines.length);
+        String line = lines[index];
+        lines[index] = null;
+        head++;
+        return line;
+    }
+
+    @Override
+    public void run() {
+        try {
+            String line;
+            while ((line = take()) != null) {
+                for (CULListener listener : listeners) {
+                    try {
+                        listener.dataReceived(line);
+                    } catch (RuntimeException e) {
+                        logger.warn("CUL listener failed to process {}", line, e);
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            logger.debug("CUL receive thread interrupted");
+        }
+    }
+
+    /**
+     * Returns the number of lines waiting to be delivered.
+     */
+    public synchronized int getDepth() {
+        return (int) (tail - head);
+    }
+
+    /**
+     * Returns the largest number of lines that were waiting to be delivered.
+     */
+    public synchronized int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * Returns the number of lines dropped because the buffer was full.
+     */
+    public synchronized long getDropped() {
+        return dropped;
+    }
+
+}
@@ -0,0 +1,328 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.cul.internal;
+
+import java.util.Iterator;
+import java.util.LinkedList;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Queues the commands for a CUL and releases them only as far as the duty
+ * cycle credits of the CUL allow.
+ *
+ * The CUL may only transmit 1% of the time. It keeps a credit of transmit
+ * time in 10ms units, which is refilled with one unit per second up to a
+ * maximum, and reports it with the <code>X</code> command. The scheduler
+ * estimates the current credit from the last report, the time passed since
+ * and the estimated airtime of the commands sent since, and holds back a
+ * command until its airtime is covered.
+ *
+ * A queued FS20 command which sets an absolute state, or a FHT command which
+ * writes a single register, is superseded by a newer command of the same kind
+ * for the same address and register: the queued command is dropped and the
+ * newer one is queued at the end.
+ *
+ * @since 1.15.0
+ */
+public class CULSendScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(CULSendScheduler.class);
+
+    /** The maximum credit of the culfw in 10ms units */
+    static final int MAX_CREDIT = 900;
+
+    /** Estimated airtime of a FS20 command including its repetitions */
+    static final int FS20_AIRTIME = 25;
+
+    /** Estimated airtime of a FHT command including its repetitions */
+    static final int FHT_AIRTIME = 25;
+
+    /** Estimated airtime of a MAX! command sent with the 1 second preamble */
+    static final int MAX_AIRTIME = 101;
+
+    /** Estimated airtime of a MAX! command sent without preamble */
+    static final int MAX_FAST_AIRTIME = 1;
+
+    /** Estimated airtime of an Intertechno command including its repetitions */
+    static final int INTERTECHNO_AIRTIME = 30;
+
+    /** The time to hold back RF commands after the CUL reported a buffer overflow */
+    static final long OVERFLOW_BACKOFF = 1000;
+
+    /** The interval in which the statistics are logged */
+    private static final long STATISTICS_LOG_INTERVAL = 5 * 60 * 1000;
+
+    private final LinkedList<String> queue = new LinkedList<String>();
+
+    private int reportedCredit = -1;
+    private long reportTime;
+    private int spentSinceReport;
+    private long backoffUntil;
+    private boolean creditReportDue = true;
+    private boolean closed = false;
+
+    private int maxQueueSize;
+    private long sentCommands;
+    private long coalescedCommands;
+    private long creditWaits;
+    private long creditWaitTime;
+    private long overflows;
+    private long lastStatisticsLog = System.currentTimeMillis();
+
+    /**
+     * Queues a command. A queued command which is superseded by the command
+     * is removed.
+     *
+     * @param command the command without line ending
+     */
+    public synchronized void add(String command) {
+        if (closed) {
+            return;
+        }
+        String key = getCoalesceKey(command);
+        if (key != null) {
+            for (Iterator<String> iter = queue.iterator(); iter.hasNext();) {
+                if (key.equals(getCoalesceKey(iter.next()))) {
+                    iter.remove();
+                    coalescedCommands++;
+                    logger.trace("Command {} supersedes a queued command", command);
+                    break;
+                }
+            }
+        }
+        queue.add(command);
+        maxQueueSize = Math.max(maxQueueSize, queue.size());
+        notifyAll();
+    }
+
+    /**
+     * Takes the next command, waiting until a command is queued and the
+     * estimated credit of the CUL covers its airtime.
+     *
+     * @return the command, or <code>null</code> if the scheduler has been
+     *         closed
+     * @throws InterruptedException if the thread was interrupted while waiting
+     */
+    public synchronized String take() throws InterruptedException {
+        long waitStart = 0;
+        while (!closed) {
+            if (queue.isEmpty()) {
+                wait();
+                continue;
+            }
+
+            String command = queue.getFirst();
+            int airtime = getAirtime(command);
+            long delay = airtime == 0 ? 0 : getDelay(airtime, System.currentTimeMillis());
+            if (delay <= 0) {
+                queue.removeFirst();
+                if (waitStart != 0) {
+                    creditWaitTime += System.currentTimeMillis() - waitStart;
+                }
+                if (airtime > 0) {
+                    spentSinceReport += airtime;
+                    creditReportDue = true;
+                }
+                sentCommands++;
+                logStatistics();
+                return command;
+            }
+
+            if (waitStart == 0) {
+                waitStart = System.currentTimeMillis();
+                creditWaits++;
+                logger.debug("Holding back CUL command {} for {} ms, estimated credit {} is too low", command,
+                        delay, getEstimatedCredit(waitStart));
+            }
+            wait(delay);
+        }
+        return null;
+    }
+
+    /**
+     * Returns true once after a command with airtime was taken, to request a
+     * new credit report from the CUL.
+     */
+    public synchronized boolean isCreditReportDue() {
+        boolean due = creditReportDue;
+        creditReportDue = false;
+        return due;
+    }
+
+    /**
+     * Updates the credit with a report of the CUL.
+     *
+     * @param credit10ms the reported credit in 10ms units
+     */
+    public synchronized void creditReported(int credit10ms) {
+        reportedCredit = credit10ms;
+        reportTime = System.currentTimeMillis();
+        spentSinceReport = 0;
+        notifyAll();
+    }
+
+    /**
+     * Holds back the commands with airtime for a second after the CUL dropped
+     * a message, and requests a new credit report.
+     *
+     * @param limitOverflow true if the duty cycle limit was exceeded, false if
+     *            the send buffer of the CUL was full
+     */
+    public synchronized void overflowReported(boolean limitOverflow) {
+        overflows++;
+        long now = System.currentTimeMillis();
+        backoffUntil = now + OVERFLOW_BACKOFF;
+        if (limitOverflow) {
+            reportedCredit = 0;
+            reportTime = now;
+            spentSinceReport = 0;
+        }
+        creditReportDue = true;
+    }
+
+    /**
+     * Removes all queued commands and wakes up the threads waiting for a
+     * command.
+     */
+    public synchronized void close() {
+        closed = true;
+        queue.clear();
+        notifyAll();
+    }
+
+    /**
+     * Returns the number of queued commands.
+     */
+    public synchronized int getQueueSize() {
+        return queue.size();
+    }
+
+    /**
+     * Returns the largest number of queued commands so far.
+     */
+    public synchronized int getMaxQueueSize() {
+        return maxQueueSize;
+    }
+
+    /**
+     * Returns the number of commands which were superseded by a newer one.
+     */
+    public synchronized long getCoalescedCommands() {
+        return coalescedCommands;
+    }
+
+    /**
+     * Returns the number of times a command was held back for lack of credit.
+     */
+    public synchronized long getCreditWaits() {
+        return creditWaits;
+    }
+
+    /**
+     * Returns the estimated credit of the CUL in 10ms units, -1 if the CUL has
+     * not reported its credit yet.
+     */
+    public synchronized int getEstimatedCredit() {
+        return getEstimatedCredit(System.currentTimeMillis());
+    }
+
+    /**
+     * Returns the time in milliseconds until the estimated credit covers the
+     * airtime.
+     */
+    private long getDelay(int airtime, long now) {
+        if (now < backoffUntil) {
+            return backoffUntil - now;
+        }
+        int credit = getEstimatedCredit(now);
+        if (credit < 0 || credit >= Math.min(airtime, MAX_CREDIT)) {
+            return 0;
+        }
+        // one unit is refilled every second
+        return (Math.min(airtime, MAX_CREDIT) - credit) * 1000L;
+    }
+
+    private int getEstimatedCredit(long now) {
+        if (reportedCredit < 0) {
+            return -1;
+        }
+        long refilled = (now - reportTime) / 1000;
+        return (int) Math.max(0, Math.min(MAX_CREDIT, reportedCredit + refilled) - spentSinceReport);
+    }
+
+    /**
+     * Returns the estimated airtime of a command in 10ms units, 0 for
+     * commands which are not transmitted.
+     */
+    static int getAirtime(String command) {
+        if (command.startsWith("F")) {
+            return FS20_AIRTIME;
+        } else if (command.startsWith("T") && command.length() > 7) {
+            // T01<housecode> only sets the FHT id of the CUL
+            return FHT_AIRTIME;
+        } else if (command.startsWith("Zs")) {
+            return MAX_AIRTIME;
+        } else if (command.startsWith("Zf")) {
+            return MAX_FAST_AIRTIME;
+        } else if (command.startsWith("is")) {
+            return INTERTECHNO_AIRTIME;
+        }
+        return 0;
+    }
+
+    /**
+     * Returns the key of the device, and register if applicable, a command
+     * sets, or <code>null</code> if the command must not be superseded.
+     */
+    static String getCoalesceKey(String command) {
+        String trimmed = command.trim();
+        if (trimmed.length() == 9 || trimmed.length() == 11) {
+            if (trimmed.charAt(0) == 'F' && isAbsoluteFS20Command(trimmed.substring(7, 9))) {
+                // F<housecode><address><command>[<time>]
+                return trimmed.substring(0, 7);
+            }
+        }
+        if (trimmed.length() == 9 && trimmed.charAt(0) == 'T') {
+            // T<housecode><register><value>
+            return trimmed.substring(0, 7);
+        }
+        return null;
+    }
+
+    /**
+     * Returns true if the FS20 command sets a state which does not depend on
+     * the previous one, like off, on or a dim level, but not toggle or dim
+     * up/down.
+     */
+    private static boolean isAbsoluteFS20Command(String hex) {
+        try {
+            return Integer.parseInt(hex, 16) <= 0x11;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private void logStatistics() {
+        long now = System.currentTimeMillis();
+        if (now - lastStatisticsLog >= STATISTICS_LOG_INTERVAL) {
+            lastStatisticsLog = now;
+            logger.debug(
+                    "CUL send statistics: {} sent, {} queued (max {}), {} superseded, {} held back for {} ms, {} overflows, estimated credit {}",
+                    sentCommands, queue.size(), maxQueueSize, coalescedCommands, creditWaits, creditWaitTime,
+                    overflows, getEstimatedCredit(now));
+        }
+    }
+
+}
@@ -0,0 +1,123 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.xml;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlRootElement;
+
+import org.junit.Test;
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * @since 1.15.0
+ */
+public class XmlParsersTest {
+
+    @XmlRootElement(name = "device")
+    public static class Device {
+        @XmlAttribute(name = "id")
+        public String id;
+    }
+
+    private static class CountingHandler extends DefaultHandler {
+        private int elements;
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            elements++;
+        }
+    }
+
+    @Test
+    public void parse_reusesIdleParser() throws IOException, SAXException {
+        CountingHandler handler = new CountingHandler();
+        XmlParsers.parse("<a><b/><c/></a>", handler);
+        int idle = XmlParsers.getIdleReaderCount();
+        XmlParsers.parse("<a/>", handler);
+
+        assertEquals(4, handler.elements);
+        assertTrue(idle > 0);
+        assertEquals(idle, XmlParsers.getIdleReaderCount());
+    }
+
+    @Test
+    public void parse_allowsNestedDocuments() throws IOException, SAXException {
+        final CountingHandler inner = new CountingHandler();
+        CountingHandler outer = new CountingHandler() {
+            private final StringBuilder text = new StringBuilder();
+
+            @Override
+            public void characters(char[] ch, int start, int length) {
+                text.append(ch, start, length);
+            }
+
+            @Override
+            public void endElement(String uri, String localName, String qName) throws SAXException {
+                try {
+                    XmlParsers.parse(text.toString(), inner);
+                } catch (IOException e) {
+                    throw new SAXException(e);
+                }
+            }
+        };
+        XmlParsers.parse("<event>&lt;a&gt;&lt;b/&gt;&lt;/a&gt;</event>", outer);
+
+        assertEquals(2, inner.elements);
+    }
+
+    @Test
+    public void parse_doesNotPoolFailedParser() throws IOException, SAXException {
+        XmlParsers.parse("<a/>", new CountingHandler());
+        int idle = XmlParsers.getIdleReaderCount();
+        try {
+            XmlParsers.parse("<a>", new CountingHandler());
+            fail("Malformed document was parsed");
+        } catch (SAXException e) {
+            // expected
+        }
+
+        assertEquals(idle - 1, XmlParsers.getIdleReaderCount());
+    }
+
+    @Test
+    public void parse_doesNotResolveExternalEntities() throws IOException, SAXException {
+        final StringBuilder text = new StringBuilder();
+        XmlParsers.parse("<!DOCTYPE a [<!ENTITY e SYSTEM \"file:///etc/hostname\">]><a>&e;</a>", new DefaultHandler() {
+            @Override
+            public void characters(char[] ch, int start, int length) {
+                text.append(ch, start, length);
+            }
+        });
+
+        assertEquals("", text.toString());
+    }
+
+    @Test
+    public void getJAXBContext_isCached() throws JAXBException {
+        assertSame(XmlParsers.getJAXBContext(Device.class), XmlParsers.getJAXBContext(Device.class));
+    }
+
+    @Test
+    public void unmarshal_readsDocument() throws JAXBException {
+        Device device = XmlParsers.unmarshal("<device id=\"42\"/>", Device.class);
+
+        assertEquals("42", device.id);
+    }
+}
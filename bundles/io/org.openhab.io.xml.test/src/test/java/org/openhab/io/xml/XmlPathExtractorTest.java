@@ -0,0 +1,85 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.xml;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.junit.Test;
+
+/**
+ * @since 1.15.0
+ */
+public class XmlPathExtractorTest {
+
+    private static final String DETAILS = "<Devices-Detail-Response xmlns=\"http://www.embeddeddatasystems.com/schema/owserver\">"
+            + "<PollCount>12</PollCount>" //
+            + "<owd_DS18B20 Description=\"Programmable resolution thermometer\">" //
+            + "<Name>DS18B20</Name><ROMId>5F00000123ABCD28</ROMId><Temperature Units=\"Centigrade\"> 21.5 </Temperature>"
+            + "</owd_DS18B20>" //
+            + "<owd_DS2438><ROMId>A1000001B2C3D426</ROMId><Humidity><![CDATA[45]]>.2</Humidity></owd_DS2438>"
+            + "</Devices-Detail-Response>";
+
+    @Test
+    public void extract_returnsFirstValueOfEachPath() throws XMLStreamException {
+        Map<String, String> values = new XmlPathExtractor("Devices-Detail-Response/PollCount", "*/owd_*/ROMId",
+                "*/Missing").extract(DETAILS);
+
+        assertEquals(2, values.size());
+        assertEquals("12", values.get("Devices-Detail-Response/PollCount"));
+        assertEquals("5F00000123ABCD28", values.get("*/owd_*/ROMId"));
+    }
+
+    @Test
+    public void extract_reportsValuesAndEndsInDocumentOrder() throws XMLStreamException {
+        final List<String> events = new ArrayList<String>();
+        new XmlPathExtractor("*/owd_*", "*/owd_*/*").extract(DETAILS, new XmlPathHandler() {
+            @Override
+            public void value(String path, String name, String value) {
+                events.add(name + "=" + value);
+            }
+
+            @Override
+            public void end(String path, String name) {
+                if (path.equals("*/owd_*")) {
+                    events.add("end " + name);
+                }
+            }
+        });
+
+        assertEquals("[Name=DS18B20, ROMId=5F00000123ABCD28, Temperature=21.5, end owd_DS18B20, "
+                + "ROMId=A1000001B2C3D426, Humidity=45.2, end owd_DS2438]", events.toString());
+    }
+
+    @Test
+    public void extract_ignoresElementsWithChildren() throws XMLStreamException {
+        Map<String, String> values = new XmlPathExtractor("a/b").extract("<a><b><c>1</c></b><b>2</b></a>");
+
+        assertEquals("2", values.get("a/b"));
+    }
+
+    @Test(expected = XMLStreamException.class)
+    public void extract_rejectsMalformedDocument() throws XMLStreamException {
+        new XmlPathExtractor("a/b").extract("<a><b>1</a>");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_rejectsEmptyPath() {
+        new XmlPathExtractor("/");
+    }
+}
@@ -0,0 +1,220 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.xml;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.xml.XMLConstants;
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParserFactory;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.xml.sax.ContentHandler;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * Shared XML parsing infrastructure for bindings that parse many small
+ * documents. Looking up a parser factory and creating a parser typically
+ * costs more than parsing a device event or poll response, so this class
+ * keeps them for reuse:
+ * <ul>
+ * <li>SAX parsers are pooled. A parser is borrowed by one thread for the
+ * duration of a single parse and returned afterwards, so handlers may parse
+ * nested documents.</li>
+ * <li>The StAX input factory is created and configured once; creating stream
+ * readers from it is thread-safe.</li>
+ * <li>JAXB contexts are created once per bound class.</li>
+ * </ul>
+ * All parsers are configured to neither load external DTDs nor resolve
+ * external entities.
+ *
+ * @since 1.15.0
+ */
+public final class XmlParsers {
+
+    /** The maximum number of idle SAX parsers kept for reuse */
+    static final int MAX_IDLE_READERS = 16;
+
+    private static final SAXParserFactory SAX_FACTORY = createSaxFactory();
+
+    private static final XMLInputFactory INPUT_FACTORY = createInputFactory();
+
+    private static final Queue<XMLReader> IDLE_READERS = new ConcurrentLinkedQueue<XMLReader>();
+
+    private static final ConcurrentMap<Class<?>, JAXBContext> JAXB_CONTEXTS = new ConcurrentHashMap<Class<?>, JAXBContext>();
+
+    private static final DefaultHandler NO_HANDLER = new DefaultHandler();
+
+    private XmlParsers() {
+    }
+
+    /**
+     * Parses the xml string with a pooled, namespace aware SAX parser.
+     *
+     * @param xml the document to parse
+     * @param handler the handler which receives the content of the document
+     * @throws IOException if the document can't be read
+     * @throws SAXException if the document is malformed or the handler fails
+     */
+    public static void parse(String xml, ContentHandler handler) throws IOException, SAXException {
+        parse(new InputSource(new StringReader(xml)), handler);
+    }
+
+    /**
+     * Parses the input with a pooled, namespace aware SAX parser.
+     *
+     * @param input the document to parse
+     * @param handler the handler which receives the content of the document
+     * @throws IOException if the document can't be read
+     * @throws SAXException if the document is malformed or the handler fails
+     */
+    public static void parse(InputSource input, ContentHandler handler) throws IOException, SAXException {
+        XMLReader reader = IDLE_READERS.poll();
+        if (reader == null) {
+            reader = createReader();
+        }
+        reader.setContentHandler(handler);
+        // a parser which failed is not reused, as its state is unknown
+        reader.parse(input);
+        reader.setContentHandler(NO_HANDLER);
+        if (IDLE_READERS.size() < MAX_IDLE_READERS) {
+            IDLE_READERS.offer(reader);
+        }
+    }
+
+    /**
+     * @return the number of idle SAX parsers in the pool
+     */
+    static int getIdleReaderCount() {
+        return IDLE_READERS.size();
+    }
+
+    /**
+     * Returns the shared StAX input factory. The factory must not be
+     * reconfigured, as it is shared by all bundles.
+     *
+     * @return the shared input factory
+     */
+    public static XMLInputFactory getInputFactory() {
+        return INPUT_FACTORY;
+    }
+
+    /**
+     * Creates a StAX stream reader from the shared input factory. Text
+     * content is coalesced, so each text node is reported as a single event.
+     *
+     * @param reader the document to read
+     * @return the stream reader, to be closed by the caller
+     * @throws XMLStreamException if the stream reader can't be created
+     */
+    public static XMLStreamReader createStreamReader(Reader reader) throws XMLStreamException {
+        return INPUT_FACTORY.createXMLStreamReader(reader);
+    }
+
+    /**
+     * Returns the JAXB context of the given class, creating it on first use.
+     *
+     * @param type the JAXB annotated class
+     * @return the cached context
+     * @throws JAXBException if the context can't be created
+     */
+    public static JAXBContext getJAXBContext(Class<?> type) throws JAXBException {
+        JAXBContext context = JAXB_CONTEXTS.get(type);
+        if (context == null) {
+            context = JAXBContext.newInstance(type);
+            JAXBContext existing = JAXB_CONTEXTS.putIfAbsent(type, context);
+            if (existing != null) {
+                context = existing;
+            }
+        }
+        return context;
+    }
+
+    /**
+     * Unmarshals the xml string with the cached JAXB context of the given
+     * class, reading it through the shared StAX input factory.
+     *
+     * @param xml the document to unmarshal
+     * @param type the JAXB annotated class of the document's root element
+     * @return the unmarshalled document
+     * @throws JAXBException if the document is malformed or doesn't match the class
+     */
+    public static <T> T unmarshal(String xml, Class<T> type) throws JAXBException {
+        XMLStreamReader reader;
+        try {
+            reader = createStreamReader(new StringReader(xml));
+        } catch (XMLStreamException e) {
+            throw new JAXBException(e);
+        }
+        try {
+            Object result = getJAXBContext(type).createUnmarshaller().unmarshal(reader);
+            if (!type.isInstance(result)) {
+                throw new JAXBException("Document is not a " + type.getName());
+            }
+            return type.cast(result);
+        } finally {
+            try {
+                reader.close();
+            } catch (XMLStreamException e) {
+                // nothing to release for a string
+            }
+        }
+    }
+
+    private static XMLReader createReader() throws SAXException {
+        try {
+            return SAX_FACTORY.newSAXParser().getXMLReader();
+        } catch (ParserConfigurationException e) {
+            throw new SAXException(e);
+        }
+    }
+
+    private static SAXParserFactory createSaxFactory() {
+        SAXParserFactory factory = SAXParserFactory.newInstance();
+        factory.setNamespaceAware(true);
+        setFeature(factory, XMLConstants.FEATURE_SECURE_PROCESSING, true);
+        setFeature(factory, "http://xml.org/sax/features/external-general-entities", false);
+        setFeature(factory, "http://xml.org/sax/features/external-parameter-entities", false);
+        setFeature(factory, "http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+        return factory;
+    }
+
+    private static void setFeature(SAXParserFactory factory, String feature, boolean value) {
+        try {
+            factory.setFeature(feature, value);
+        } catch (ParserConfigurationException | SAXException e) {
+            // the parser doesn't know the feature, so it doesn't load external content through it
+        }
+    }
+
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return factory;
+    }
+}
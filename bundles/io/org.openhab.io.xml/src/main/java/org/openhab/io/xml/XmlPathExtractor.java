@@ -0,0 +1,172 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.xml;
+
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Extracts the text values of the elements at given paths from a document in
+ * a single streaming pass, without building a DOM tree.
+ * <p>
+ * A path lists the local names of the elements from the root element down,
+ * separated by '/', e.g. <code>Devices-Detail-Response/PollCount</code>. A
+ * path segment <code>*</code> matches any element and a segment ending with
+ * <code>*</code> matches all elements starting with the text before it, so
+ * <code>&#42;/owd_&#42;/ROMId</code> matches the ROM id of every device in an
+ * OW-Server document.
+ * <p>
+ * An extractor is immutable and may be shared between threads.
+ *
+ * @since 1.15.0
+ */
+public final class XmlPathExtractor {
+
+    private final String[] paths;
+    private final String[][] segments;
+
+    /**
+     * Creates an extractor for the given paths.
+     *
+     * @param paths the paths to extract
+     * @throws IllegalArgumentException if a path is empty
+     */
+    public XmlPathExtractor(String... paths) {
+        this.paths = paths.clone();
+        this.segments = new String[paths.length][];
+        for (int i = 0; i < paths.length; i++) {
+            String path = paths[i].startsWith("/") ? paths[i].substring(1) : paths[i];
+            if (path.isEmpty()) {
+                throw new IllegalArgumentException("Empty path");
+            }
+            segments[i] = path.split("/");
+        }
+    }
+
+    /**
+     * Extracts the first value of each path.
+     *
+     * @param xml the document
+     * @return the value of the first element without child elements matching
+     *         each path, keyed by path; paths without a match are missing
+     * @throws XMLStreamException if the document is malformed
+     */
+    public Map<String, String> extract(String xml) throws XMLStreamException {
+        final Map<String, String> values = new LinkedHashMap<String, String>();
+
+        extract(xml, new XmlPathHandler() {
+            @Override
+            public void value(String path, String name, String value) {
+                if (!values.containsKey(path)) {
+                    values.put(path, value);
+                }
+            }
+        });
+        return values;
+    }
+
+    /**
+     * Reports all elements matching a path to the handler.
+     *
+     * @param xml the document
+     * @param handler receives the matching elements
+     * @throws XMLStreamException if the document is malformed
+     */
+    public void extract(String xml, XmlPathHandler handler) throws XMLStreamException {
+        extract(new StringReader(xml), handler);
+    }
+
+    /**
+     * Reports all elements matching a path to the handler.
+     *
+     * @param input the document
+     * @param handler receives the matching elements
+     * @throws XMLStreamException if the document is malformed
+     */
+    public void extract(Reader input, XmlPathHandler handler) throws XMLStreamException {
+        // number of leading segments of each path matched by the current element and its ancestors
+        int[] matched = new int[paths.length];
+        int depth = 0;
+        StringBuilder text = new StringBuilder();
+        boolean capture = false;
+        boolean leaf = false;
+
+        XMLStreamReader reader = XmlParsers.createStreamReader(input);
+        try {
+            while (reader.hasNext()) {
+                switch (reader.next()) {
+                    case XMLStreamConstants.START_ELEMENT:
+                        depth++;
+                        String name = reader.getLocalName();
+                        capture = false;
+                        for (int i = 0; i < paths.length; i++) {
+                            if (matched[i] == depth - 1 && depth <= segments[i].length
+                                    && matches(segments[i][depth - 1], name)) {
+                                matched[i] = depth;
+                                capture |= depth == segments[i].length;
+                            }
+                        }
+                        text.setLength(0);
+                        leaf = true;
+                        break;
+                    case XMLStreamConstants.CHARACTERS:
+                    case XMLStreamConstants.CDATA:
+                        if (capture) {
+                            text.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                        }
+                        break;
+                    case XMLStreamConstants.END_ELEMENT:
+                        for (int i = 0; i < paths.length; i++) {
+                            if (matched[i] == depth) {
+                                if (depth == segments[i].length) {
+                                    if (leaf) {
+                                        handler.value(paths[i], reader.getLocalName(), text.toString().trim());
+                                    }
+                                    handler.end(paths[i], reader.getLocalName());
+                                }
+                                matched[i] = depth - 1;
+                            }
+                        }
+                        depth--;
+                        capture = false;
+                        leaf = false;
+                        break;
+                    default:
+                        break;
+                }
+            }
+        } finally {
+            reader.close();
+        }
+    }
+
+    private static boolean matches(String segment, String name) {
+        int last = segment.length() - 1;
+        if (last >= 0 && segment.charAt(last) == '*') {
+            return name.regionMatches(0, segment, 0, last);
+        }
+        return segment.equals(name);
+    }
+
+    @Override
+    public String toString() {
+        return "XmlPathExtractor" + Arrays.toString(paths);
+    }
+}
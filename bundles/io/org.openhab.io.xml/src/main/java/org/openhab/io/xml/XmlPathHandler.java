@@ -0,0 +1,40 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.xml;
+
+/**
+ * Receives the elements an {@link XmlPathExtractor} found, in document order.
+ *
+ * @since 1.15.0
+ */
+public abstract class XmlPathHandler {
+
+    /**
+     * Called for each element without child elements that matches a path.
+     *
+     * @param path the path the element matched, as passed to the extractor
+     * @param name the local name of the element
+     * @param value the trimmed text content of the element
+     */
+    public abstract void value(String path, String name, String value);
+
+    /**
+     * Called at the end of each element that matches a path, after the
+     * values of all elements inside it. Does nothing by default.
+     *
+     * @param path the path the element matched, as passed to the extractor
+     * @param name the local name of the element
+     */
+    public void end(String path, String name) {
+    }
+}
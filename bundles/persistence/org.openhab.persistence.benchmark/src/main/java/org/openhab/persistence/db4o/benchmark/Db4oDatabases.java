@@ -0,0 +1,118 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.db4o.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Date;
+
+import org.openhab.core.library.types.DecimalType;
+import org.openhab.core.persistence.HistoricItem;
+import org.openhab.persistence.db4o.internal.Db4oItem;
+
+import com.db4o.Db4oEmbedded;
+import com.db4o.ObjectContainer;
+import com.db4o.ObjectSet;
+import com.db4o.config.EmbeddedConfiguration;
+import com.db4o.query.Query;
+
+/**
+ * Creates the db4o database files of the benchmarks. Generating millions of
+ * states takes a long time, so the files are kept in the temporary directory
+ * and reused by later forks and runs.
+ *
+ * @since 1.15.0
+ */
+final class Db4oDatabases {
+
+    /** The number of items the states are spread over */
+    static final int ITEMS = 100;
+
+    /** The item all queries of the benchmarks are made for */
+    static final String QUERIED_ITEM = "Item42";
+
+    private static final long START = 1546300800000L; // 2019-01-01T00:00:00Z
+    private static final int COMMIT_SIZE = 10000;
+
+    private Db4oDatabases() {
+    }
+
+    /**
+     * Returns a database file with the given number of states, one state
+     * per minute and item, created on the first call.
+     *
+     * @param states the number of stored states
+     * @param indexed whether the file is created with the name and timestamp
+     *            indexes, or as by versions of the service before the indexes
+     * @return the database file
+     */
+    static synchronized File get(int states, boolean indexed) throws IOException {
+        File file = new File(System.getProperty("java.io.tmpdir"),
+                "openhab-db4o-" + states + (indexed ? "-indexed" : "") + ".db4o");
+        if (file.exists()) {
+            return file;
+        }
+
+        File tempFile = new File(file.getPath() + ".tmp");
+        Files.deleteIfExists(tempFile.toPath());
+
+        ObjectContainer db = Db4oEmbedded.openFile(newConfiguration(indexed), tempFile.getPath());
+        try {
+            for (int index = 0; index < states; index++) {
+                Db4oItem item = new Db4oItem();
+                item.setName("Item" + (index % ITEMS));
+                item.setState(new DecimalType(index % 1000));
+                item.setTimestamp(new Date(START + (index / ITEMS) * 60000L));
+                db.store(item);
+                if ((index + 1) % COMMIT_SIZE == 0) {
+                    db.commit();
+                }
+            }
+            db.commit();
+        } finally {
+            db.close();
+        }
+
+        Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+        return file;
+    }
+
+    /**
+     * @param indexed whether the indexes of {@link Db4oItem} are declared
+     * @return a configuration to open a database file with
+     */
+    static EmbeddedConfiguration newConfiguration(boolean indexed) {
+        EmbeddedConfiguration config = Db4oEmbedded.newConfiguration();
+        if (indexed) {
+            Db4oItem.configure(config.common());
+        }
+        return config;
+    }
+
+    /**
+     * Executes the query of the persistence service for the latest states of
+     * {@link #QUERIED_ITEM}.
+     *
+     * @param db the database to query
+     * @return the states of the item, latest first
+     */
+    static ObjectSet<HistoricItem> queryLatest(ObjectContainer db) {
+        Query query = db.query();
+        query.constrain(Db4oItem.class);
+        query.descend("name").constrain(QUERIED_ITEM).equal();
+        query.descend("timestamp").orderDescending();
+        return query.execute();
+    }
+}
@@ -0,0 +1,97 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.db4o.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.TimeUnit;
+
+import org.openhab.persistence.db4o.internal.Db4oItem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.db4o.Db4oEmbedded;
+import com.db4o.ObjectContainer;
+
+/**
+ * Measures the first query of the db4o persistence service after an upgrade,
+ * when the name and timestamp indexes of {@link Db4oItem} are built for a
+ * database file created without them. db4o builds the indexes when the class
+ * is first used after opening the file, so every invocation opens a fresh
+ * copy of the file and queries it. Querying it without indexes is the
+ * baseline.
+ *
+ * @since 1.15.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class Db4oIndexBuildBenchmark {
+
+    @Param({ "1000000", "10000000" })
+    public int states;
+
+    private File original;
+    private File copy;
+
+    @Setup(Level.Trial)
+    public void createDatabase() throws IOException {
+        original = Db4oDatabases.get(states, false);
+        copy = new File(original.getPath() + ".copy");
+    }
+
+    @Setup(Level.Invocation)
+    public void copyDatabase() throws IOException {
+        Files.copy(original.toPath(), copy.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteCopy() throws IOException {
+        Files.deleteIfExists(copy.toPath());
+    }
+
+    private int firstQuery(boolean indexed) {
+        ObjectContainer db = Db4oEmbedded.openFile(Db4oDatabases.newConfiguration(indexed), copy.getPath());
+        try {
+            return Db4oDatabases.queryLatest(db).size();
+        } finally {
+            db.close();
+        }
+    }
+
+    @Benchmark
+    public int firstQueryWithIndexes() {
+        return firstQuery(true);
+    }
+
+    @Benchmark
+    public int firstQueryWithoutIndexes() {
+        return firstQuery(false);
+    }
+}
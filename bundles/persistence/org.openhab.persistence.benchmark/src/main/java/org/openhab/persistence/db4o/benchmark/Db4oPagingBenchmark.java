@@ -0,0 +1,110 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.db4o.benchmark;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openhab.core.persistence.HistoricItem;
+import org.openhab.persistence.db4o.internal.Db4oPersistenceService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.db4o.Db4oEmbedded;
+import com.db4o.ObjectContainer;
+import com.db4o.ObjectSet;
+import com.db4o.config.EmbeddedConfiguration;
+import com.db4o.config.QueryEvaluationMode;
+
+/**
+ * Measures a query of the db4o persistence service for one page of the
+ * latest states of an item, with immediate and lazy query evaluation. The
+ * page is read by walking the results as the service does, and by
+ * determining the size of the results first as the service did before.
+ *
+ * @since 1.15.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Db4oPagingBenchmark {
+
+    private static final int PAGE_SIZE = 50;
+
+    @Param({ "1000000", "10000000" })
+    public int states;
+
+    @Param({ "IMMEDIATE", "LAZY" })
+    public String evaluationMode;
+
+    @Param({ "0", "100" })
+    public int pageNumber;
+
+    private ObjectContainer db;
+
+    @Setup
+    public void setUp() throws IOException {
+        EmbeddedConfiguration config = Db4oDatabases.newConfiguration(true);
+        if ("LAZY".equals(evaluationMode)) {
+            config.common().queries().evaluationMode(QueryEvaluationMode.LAZY);
+        }
+        db = Db4oEmbedded.openFile(config, Db4oDatabases.get(states, true).getPath());
+
+        // an empty page would silently make the benchmark meaningless
+        if (walkPage().size() != PAGE_SIZE || subListPage().size() != PAGE_SIZE) {
+            throw new IllegalStateException("Page " + pageNumber + " of " + Db4oDatabases.QUERIED_ITEM
+                    + " is not complete");
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        db.close();
+    }
+
+    @Benchmark
+    public List<HistoricItem> walkPage() {
+        return Db4oPersistenceService.page(Db4oDatabases.queryLatest(db).iterator(), pageNumber * PAGE_SIZE,
+                PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<HistoricItem> subListPage() {
+        ObjectSet<HistoricItem> results = Db4oDatabases.queryLatest(db);
+
+        int startIndex = pageNumber * PAGE_SIZE;
+        if (startIndex < results.size()) {
+            int endIndex = startIndex + PAGE_SIZE;
+            if (endIndex > results.size()) {
+                endIndex = results.size();
+            }
+            return results.subList(startIndex, endIndex);
+        }
+        return Collections.emptyList();
+    }
+}
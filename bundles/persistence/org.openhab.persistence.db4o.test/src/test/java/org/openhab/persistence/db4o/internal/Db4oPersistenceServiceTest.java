@@ -14,11 +14,14 @@ package org.openhab.persistence.db4o.internal;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
 import org.apache.commons.io.FileUtils;
 import org.junit.Before;
 import org.junit.Test;
+import org.openhab.core.persistence.HistoricItem;
 import org.openhab.persistence.db4o.internal.Db4oPersistenceService.BackupJob;
 
 import junit.framework.Assert;
@@ -67,4 +70,26 @@ public class Db4oPersistenceServiceTest {
         }
     }
 
+    @Test
+    public void testPage() {
+        List<HistoricItem> results = new ArrayList<HistoricItem>();
+        for (int index = 0; index < 25; index++) {
+            Db4oItem item = new Db4oItem();
+            item.setName("Item" + index);
+            results.add(item);
+        }
+
+        List<HistoricItem> page = Db4oPersistenceService.page(results.iterator(), 10, 10);
+        Assert.assertEquals(10, page.size());
+        Assert.assertEquals("Item10", page.get(0).getName());
+        Assert.assertEquals("Item19", page.get(9).getName());
+
+        page = Db4oPersistenceService.page(results.iterator(), 20, 10);
+        Assert.assertEquals(5, page.size());
+        Assert.assertEquals("Item24", page.get(4).getName());
+
+        page = Db4oPersistenceService.page(results.iterator(), 30, 10);
+        Assert.assertTrue(page.isEmpty());
+    }
+
 }
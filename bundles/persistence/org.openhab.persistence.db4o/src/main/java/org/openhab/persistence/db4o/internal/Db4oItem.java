@@ -18,7 +18,8 @@ import java.util.Date;
 import org.openhab.core.persistence.HistoricItem;
 import org.openhab.core.types.State;
 
-import com.db4o.config.Configuration;
+import com.db4o.config.CommonConfiguration;
+import com.db4o.config.ObjectClass;
 
 /**
  * This is a Java bean used to persist item states with timestamps in the database.
@@ -65,12 +66,18 @@ public class Db4oItem implements HistoricItem {
         return DateFormat.getDateTimeInstance().format(timestamp) + ": " + name + " -> " + state.toString();
     }
 
-    static /* default */ void configure(Configuration config) {
-        config.objectClass(Db4oItem.class).objectField("name").indexed(true);
-        config.objectClass(Db4oItem.class).objectField("timestamp").indexed(true);
+    /**
+     * Declares the field indexes on <code>name</code> and <code>timestamp</code>.
+     * This has to be applied to the configuration the database file is opened
+     * with, db4o then builds missing indexes while opening the file.
+     */
+    public static void configure(CommonConfiguration config) {
+        ObjectClass objectClass = config.objectClass(Db4oItem.class);
+        objectClass.objectField("name").indexed(true);
+        objectClass.objectField("timestamp").indexed(true);
 
-        config.objectClass(Db4oItem.class).cascadeOnUpdate(false);
-        config.objectClass(Db4oItem.class).cascadeOnDelete(true);
+        objectClass.cascadeOnUpdate(false);
+        objectClass.cascadeOnDelete(true);
     }
 
 }
@@ -25,6 +25,9 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.openhab.core.items.Item;
@@ -33,6 +36,7 @@ import org.openhab.core.persistence.FilterCriteria.Ordering;
 import org.openhab.core.persistence.HistoricItem;
 import org.openhab.core.persistence.PersistenceService;
 import org.openhab.core.persistence.QueryablePersistenceService;
+import org.osgi.framework.BundleContext;
 import org.quartz.CronScheduleBuilder;
 import org.quartz.CronTrigger;
 import org.quartz.DisallowConcurrentExecution;
@@ -51,6 +55,8 @@ import org.slf4j.LoggerFactory;
 import com.db4o.Db4oEmbedded;
 import com.db4o.ObjectContainer;
 import com.db4o.ObjectSet;
+import com.db4o.config.EmbeddedConfiguration;
+import com.db4o.config.QueryEvaluationMode;
 import com.db4o.ext.DatabaseClosedException;
 import com.db4o.ext.Db4oException;
 import com.db4o.ext.ExtObjectContainer;
@@ -74,24 +80,60 @@ public class Db4oPersistenceService implements QueryablePersistenceService {
 
     private static final String SCHEDULER_GROUP = "DB4O_SchedulerGroup";
 
-    private static ObjectContainer db;
+    private static volatile ObjectContainer db;
+
+    /**
+     * evaluate queries lazily while the result page is walked instead of
+     * materializing the whole result set up front (optional, defaults to 'false')
+     */
+    private boolean lazyQueries = false;
 
     @Override
     public String getName() {
         return SERVICE_NAME;
     }
 
-    public void activate() {
+    public void activate(final BundleContext bundleContext, final Map<String, Object> config) {
+        lazyQueries = isLazyQueries(config);
+
         File folder = new File(DB_FOLDER);
         if (!folder.exists()) {
             folder.mkdirs();
         }
         openDbFile();
-        Db4oItem.configure(db.ext().configure());
 
         scheduleJob();
     }
 
+    /**
+     * Reopens the database if the query evaluation mode has changed, as it
+     * can only be set when the database is opened.
+     */
+    public synchronized void modified(final Map<String, Object> config) {
+        boolean lazy = isLazyQueries(config);
+        if (lazy == lazyQueries) {
+            return;
+        }
+        lazyQueries = lazy;
+
+        ObjectContainer container = db;
+        if (container != null) {
+            try {
+                container.commit();
+            } catch (Db4oException e) {
+                logger.warn("Error committing transaction before reopening the database: {}", e.getMessage());
+            }
+            container.close();
+        }
+        openDbFile();
+        logger.debug("Reopened db4o database with {} query evaluation", lazy ? "lazy" : "immediate");
+    }
+
+    private static boolean isLazyQueries(Map<String, Object> config) {
+        String lazyQueriesString = config == null ? null : (String) config.get("lazyqueries");
+        return lazyQueriesString != null && Boolean.parseBoolean(lazyQueriesString.trim());
+    }
+
     public void deactivate() {
         cancelAllJobs();
 
@@ -136,15 +178,16 @@ public class Db4oPersistenceService implements QueryablePersistenceService {
             if (filter == null) {
                 filter = new FilterCriteria();
             }
+            // constrain the name first, it is the most selective index
+            if (filter.getItemName() != null) {
+                query.descend("name").constrain(filter.getItemName()).equal();
+            }
             if (filter.getBeginDate() != null) {
                 query.descend("timestamp").constrain(filter.getBeginDate()).greater().equal();
             }
             if (filter.getEndDate() != null) {
                 query.descend("timestamp").constrain(filter.getEndDate()).smaller().equal();
             }
-            if (filter.getItemName() != null) {
-                query.descend("name").constrain(filter.getItemName()).equal();
-            }
             if (filter.getState() != null && filter.getOperator() != null) {
                 switch (filter.getOperator()) {
                     case EQ:
@@ -175,19 +218,34 @@ public class Db4oPersistenceService implements QueryablePersistenceService {
             }
             ObjectSet<HistoricItem> results = query.execute();
 
-            int startIndex = filter.getPageNumber() * filter.getPageSize();
-            if (startIndex < results.size()) {
-                int endIndex = startIndex + filter.getPageSize();
-                if (endIndex > results.size()) {
-                    endIndex = results.size();
-                }
-                return results.subList(startIndex, endIndex);
-            }
+            return page(results.iterator(), filter.getPageNumber() * filter.getPageSize(), filter.getPageSize());
         }
 
         return Collections.emptyList();
     }
 
+    /**
+     * Walks the given results only as far as needed for the requested page,
+     * without determining the total size of the result set first.
+     *
+     * @param results the query results in the requested order
+     * @param startIndex the index of the first result to return
+     * @param pageSize the maximum number of results to return
+     * @return the requested page of results
+     */
+    public static List<HistoricItem> page(Iterator<HistoricItem> results, int startIndex, int pageSize) {
+        List<HistoricItem> page = new ArrayList<HistoricItem>(Math.min(pageSize, 1000));
+        int index = 0;
+        while (index < startIndex && results.hasNext()) {
+            results.next();
+            index++;
+        }
+        while (page.size() < pageSize && results.hasNext()) {
+            page.add(results.next());
+        }
+        return page;
+    }
+
     /**
      * Creates a new Query and returns it. In case the Database is closed for
      * some reason we'll try to reopen it again and try to create a query a
@@ -208,8 +266,23 @@ public class Db4oPersistenceService implements QueryablePersistenceService {
         return query;
     }
 
-    private static void openDbFile() {
-        db = Db4oEmbedded.openFile(Db4oEmbedded.newConfiguration(), DB_FOLDER + File.separator + DB_FILE_NAME);
+    private synchronized void openDbFile() {
+        ObjectContainer container = db;
+        if (container != null && !container.ext().isClosed()) {
+            // reopened by another thread in the meantime
+            return;
+        }
+
+        EmbeddedConfiguration config = Db4oEmbedded.newConfiguration();
+        Db4oItem.configure(config.common());
+        if (lazyQueries) {
+            config.common().queries().evaluationMode(QueryEvaluationMode.LAZY);
+        }
+
+        // db4o builds configured field indexes which are missing in the file while opening it
+        long startTime = System.currentTimeMillis();
+        db = Db4oEmbedded.openFile(config, DB_FOLDER + File.separator + DB_FILE_NAME);
+        logger.debug("Opened db4o database in {}ms", System.currentTimeMillis() - startTime);
     }
 
     /**
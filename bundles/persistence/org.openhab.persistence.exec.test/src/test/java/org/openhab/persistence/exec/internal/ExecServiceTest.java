@@ -52,4 +52,14 @@ public class ExecServiceTest {
         Assert.assertEquals(expected, result);
     }
 
+    @Test
+    public void testFormatRecord() {
+        Date date = Calendar.getInstance().getTime();
+        String timestamp = String.format("%1$tFT%1$tT.%1$tL%1$tz", date);
+
+        Assert.assertEquals("Temperature\t21.5\t" + timestamp, service.formatRecord("Temperature", "21.5", date));
+        Assert.assertEquals("Message\tline1\\nline2\\ttab\\\\\t" + timestamp,
+                service.formatRecord("Message", "line1\nline2\ttab\\", date));
+    }
+
 }
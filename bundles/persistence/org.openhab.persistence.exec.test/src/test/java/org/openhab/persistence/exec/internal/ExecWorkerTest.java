@@ -0,0 +1,84 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.exec.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeFalse;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Runs {@link ExecWorker}s with shell commands, so these tests are skipped
+ * on Windows.
+ *
+ * @since 1.15.0
+ */
+public class ExecWorkerTest {
+
+    private ExecWorker worker;
+    private File file;
+
+    @Before
+    public void setUp() throws IOException {
+        assumeFalse(System.getProperty("os.name").toLowerCase().startsWith("windows"));
+        file = File.createTempFile("execworker", ".txt");
+    }
+
+    @After
+    public void tearDown() {
+        if (worker != null) {
+            worker.stop();
+        }
+        if (file != null) {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testRecordsAreWrittenToTheProcess() throws Exception {
+        worker = new ExecWorker("tee " + file.getAbsolutePath(), 10, 1000, 100);
+        worker.start();
+
+        assertTrue(worker.offer("Temperature\t21.5"));
+        assertTrue(worker.offer("Humidity\t45"));
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (FileUtils.readLines(file, "UTF-8").size() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(Arrays.asList("Temperature\t21.5", "Humidity\t45"), FileUtils.readLines(file, "UTF-8"));
+        assertEquals(2, worker.getWrittenCount());
+    }
+
+    @Test
+    public void testTerminatedProcessIsRestartedWhileIdle() throws Exception {
+        worker = new ExecWorker("true", 10, 1000, 10);
+        worker.start();
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (worker.getRestartCount() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(worker.getRestartCount() > 0);
+        assertEquals(0, worker.getWrittenCount());
+    }
+
+}
@@ -15,8 +15,13 @@ package org.openhab.persistence.exec.internal;
 import java.io.BufferedReader;
 import java.io.InputStreamReader;
 import java.util.Calendar;
+import java.util.Date;
 import java.util.Formatter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+import org.apache.commons.lang.StringUtils;
 import org.openhab.core.items.Item;
 import org.openhab.core.persistence.PersistenceService;
 import org.slf4j.Logger;
@@ -25,6 +30,11 @@ import org.slf4j.LoggerFactory;
 /**
  * This is the implementation of the Exec {@link PersistenceService}.
  *
+ * Aliases starting with {@value #WORKER_PREFIX} denote a long-lived worker
+ * process, which is started once and receives every state as a
+ * tab-separated record of item name, state and timestamp on its standard
+ * input. All other aliases are executed once per stored state.
+ *
  * @author Henrik Sjöstrand
  * @author Thomas.Eichstaedt-Engelen
  * @since 1.1.0
@@ -33,6 +43,38 @@ public class ExecService implements PersistenceService {
 
     private static final Logger logger = LoggerFactory.getLogger(ExecService.class);
 
+    static final String WORKER_PREFIX = "worker:";
+
+    private int workerQueueSize = 1000;
+    private long workerOfferTimeout = 1000;
+    private long workerRestartDelay = 5000;
+
+    private final ConcurrentMap<String, ExecWorker> workers = new ConcurrentHashMap<String, ExecWorker>();
+
+    public void activate(final Map<String, Object> config) {
+        String tmpString = (String) config.get("workerQueueSize");
+        if (StringUtils.isNotBlank(tmpString)) {
+            workerQueueSize = Integer.parseInt(tmpString);
+        }
+
+        tmpString = (String) config.get("workerOfferTimeout");
+        if (StringUtils.isNotBlank(tmpString)) {
+            workerOfferTimeout = Long.parseLong(tmpString);
+        }
+
+        tmpString = (String) config.get("workerRestartDelay");
+        if (StringUtils.isNotBlank(tmpString)) {
+            workerRestartDelay = Long.parseLong(tmpString);
+        }
+    }
+
+    public void deactivate() {
+        for (ExecWorker worker : workers.values()) {
+            worker.stop();
+        }
+        workers.clear();
+    }
+
     /**
      * @{inheritDoc
      */
@@ -46,6 +88,12 @@ public class ExecService implements PersistenceService {
      */
     @Override
     public void store(Item item, String alias) {
+        if (alias != null && alias.startsWith(WORKER_PREFIX)) {
+            getWorker(alias.substring(WORKER_PREFIX.length()).trim())
+                    .offer(formatRecord(item.getName(), item.getState().toString(), new Date()));
+            return;
+        }
+
         String execCmd = null;
         BufferedReader reader = null;
 
@@ -116,4 +164,49 @@ public class ExecService implements PersistenceService {
         return String.format(alias, values);
     }
 
+    private ExecWorker getWorker(String command) {
+        ExecWorker worker = workers.get(command);
+        if (worker == null) {
+            ExecWorker newWorker = new ExecWorker(command, workerQueueSize, workerOfferTimeout, workerRestartDelay);
+            worker = workers.putIfAbsent(command, newWorker);
+            if (worker == null) {
+                worker = newWorker;
+                worker.start();
+            }
+        }
+        return worker;
+    }
+
+    /**
+     * Formats a worker record as item name, state and ISO 8601 timestamp,
+     * separated by tabs. Backslashes, tabs and line breaks within the state
+     * are escaped as <code>\\</code>, <code>\t</code>, <code>\n</code> and
+     * <code>\r</code>.
+     */
+    protected String formatRecord(String itemName, String state, Date timestamp) {
+        StringBuilder record = new StringBuilder(itemName.length() + state.length() + 32);
+        record.append(itemName).append('\t');
+        for (int i = 0; i < state.length(); i++) {
+            char c = state.charAt(i);
+            switch (c) {
+                case '\\':
+                    record.append("\\\\");
+                    break;
+                case '\t':
+                    record.append("\\t");
+                    break;
+                case '\n':
+                    record.append("\\n");
+                    break;
+                case '\r':
+                    record.append("\\r");
+                    break;
+                default:
+                    record.append(c);
+            }
+        }
+        record.append('\t').append(String.format("%1$tFT%1$tT.%1$tL%1$tz", timestamp));
+        return record.toString();
+    }
+
 }
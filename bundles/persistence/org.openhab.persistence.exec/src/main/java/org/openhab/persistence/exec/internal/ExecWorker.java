@@ -0,0 +1,291 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.exec.internal;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A long-lived process which receives item states as line-delimited records
+ * on its standard input. The process is started once and restarted if it
+ * terminates. Records are handed over through a bounded queue, so a slow
+ * process blocks the persisting thread for at most the configured offer
+ * timeout before records are dropped.
+ *
+ * @since 1.15.0
+ */
+public class ExecWorker {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExecWorker.class);
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private static final long REPORT_INTERVAL = 60000;
+
+    /** The interval in which an idle writer checks whether the process is still alive */
+    private static final long LIVENESS_INTERVAL = 1000;
+
+    private final String command;
+    private final BlockingQueue<String> queue;
+    private final long offerTimeout;
+    private final long restartDelay;
+
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong restarts = new AtomicLong();
+
+    private volatile Thread writerThread;
+    private volatile boolean running = false;
+    private Process process;
+
+    /**
+     * @param command the command line of the worker process
+     * @param queueSize the maximum number of records waiting to be written
+     * @param offerTimeout the time in milliseconds a record waits for space in a full queue before it is dropped
+     * @param restartDelay the time in milliseconds to wait before a terminated process is restarted
+     */
+    public ExecWorker(String command, int queueSize, long offerTimeout, long restartDelay) {
+        this.command = command;
+        this.queue = new ArrayBlockingQueue<String>(queueSize);
+        this.offerTimeout = offerTimeout;
+        this.restartDelay = restartDelay;
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        startWriterThread();
+    }
+
+    private void startWriterThread() {
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                writeRecords();
+            }
+        }, "Exec persistence worker [" + command + "]");
+        thread.setDaemon(true);
+        writerThread = thread;
+        thread.start();
+    }
+
+    /**
+     * Starts a new writer thread if the current one died unexpectedly.
+     */
+    private void ensureWriterAlive() {
+        Thread thread = writerThread;
+        if (running && thread != null && !thread.isAlive()) {
+            synchronized (this) {
+                if (running && writerThread == thread) {
+                    logger.warn("Writer thread of exec worker [{}] died, restarting it", command);
+                    restarts.incrementAndGet();
+                    startWriterThread();
+                }
+            }
+        }
+    }
+
+    public synchronized void stop() {
+        running = false;
+        if (writerThread != null) {
+            writerThread.interrupt();
+            try {
+                writerThread.join(restartDelay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            writerThread = null;
+        }
+        logger.debug("Stopped exec worker [{}]: {} records written, {} dropped, {} restarts", command, written.get(),
+                dropped.get(), restarts.get());
+    }
+
+    /**
+     * Queues a record for the worker process. If the queue is full, waits up
+     * to the offer timeout for space.
+     *
+     * @param record the record to write, without a line terminator
+     * @return <code>true</code> if the record was queued, <code>false</code> if it was dropped
+     */
+    public boolean offer(String record) {
+        ensureWriterAlive();
+        try {
+            if (queue.offer(record, offerTimeout, TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (dropped.incrementAndGet() % 1000 == 1) {
+            logger.warn("Exec worker [{}] can't keep up, dropped {} records so far", command, dropped.get());
+        }
+        return false;
+    }
+
+    public String getCommand() {
+        return command;
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public long getWrittenCount() {
+        return written.get();
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public long getRestartCount() {
+        return restarts.get();
+    }
+
+    private void writeRecords() {
+        Writer writer = null;
+        String record = null;
+        long lastReport = System.currentTimeMillis();
+        long lastWritten = 0;
+        while (running) {
+            try {
+                if (writer == null) {
+                    writer = startProcess();
+                }
+                if (record == null) {
+                    record = queue.poll(LIVENESS_INTERVAL, TimeUnit.MILLISECONDS);
+                    if (record == null) {
+                        // notice a terminated process while there is nothing to write
+                        Integer exitValue = getExitValue();
+                        if (exitValue != null) {
+                            throw new IOException("process terminated with exit value " + exitValue);
+                        }
+                        continue;
+                    }
+                }
+                writer.write(record);
+                writer.write('\n');
+                written.incrementAndGet();
+                record = null;
+
+                // write whatever is queued already before flushing the pipe
+                while ((record = queue.poll()) != null) {
+                    writer.write(record);
+                    writer.write('\n');
+                    written.incrementAndGet();
+                }
+                writer.flush();
+
+                long now = System.currentTimeMillis();
+                if (now - lastReport >= REPORT_INTERVAL && logger.isDebugEnabled()) {
+                    long count = written.get();
+                    logger.debug("Exec worker [{}] wrote {} records/s, queue depth {}, {} dropped, {} restarts",
+                            command, (count - lastWritten) * 1000 / (now - lastReport), queue.size(), dropped.get(),
+                            restarts.get());
+                    lastReport = now;
+                    lastWritten = count;
+                }
+            } catch (InterruptedException e) {
+                break;
+            } catch (IOException e) {
+                logger.warn("Exec worker [{}] failed, restarting it in {}ms: {}", command, restartDelay,
+                        e.getMessage());
+                destroyProcess(writer);
+                writer = null;
+                restarts.incrementAndGet();
+                try {
+                    Thread.sleep(restartDelay);
+                } catch (InterruptedException ie) {
+                    break;
+                }
+            }
+        }
+        destroyProcess(writer);
+    }
+
+    private Writer startProcess() throws IOException {
+        logger.debug("Starting exec worker [{}]", command);
+        process = Runtime.getRuntime().exec(command);
+        drain(process.getInputStream(), "Output");
+        drain(process.getErrorStream(), "Error");
+        return new BufferedWriter(new OutputStreamWriter(process.getOutputStream(), UTF8));
+    }
+
+    /**
+     * @return the exit value of the process, or <code>null</code> if it is still running
+     */
+    private Integer getExitValue() {
+        try {
+            return process.exitValue();
+        } catch (IllegalThreadStateException e) {
+            return null;
+        }
+    }
+
+    private void destroyProcess(Writer writer) {
+        if (writer != null) {
+            try {
+                writer.close();
+            } catch (IOException hidden) {
+            }
+        }
+        if (process != null) {
+            process.destroy();
+            process = null;
+        }
+    }
+
+    /**
+     * Consumes an output stream of the worker process, so that the process
+     * doesn't block on a full pipe.
+     */
+    private void drain(final InputStream stream, final String name) {
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                BufferedReader reader = new BufferedReader(new InputStreamReader(stream));
+                try {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        logger.debug("{} from exec worker [{}] is: {}", name, command, line);
+                    }
+                } catch (IOException e) {
+                    // the process has terminated
+                } finally {
+                    try {
+                        reader.close();
+                    } catch (IOException hidden) {
+                    }
+                }
+            }
+        }, "Exec persistence worker " + name.toLowerCase() + " [" + command + "]");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+}
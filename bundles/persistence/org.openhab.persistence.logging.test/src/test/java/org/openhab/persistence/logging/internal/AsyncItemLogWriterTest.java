@@ -0,0 +1,161 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.logging.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the binary format of the {@link AsyncItemLogWriter}.
+ *
+ * @since 1.15.0
+ */
+public class AsyncItemLogWriterTest {
+
+    private static final long HOUR = 3600000;
+
+    private File folder;
+    private AsyncItemLogWriter writer;
+
+    @Before
+    public void setUp() throws IOException {
+        folder = File.createTempFile("asyncitemlog", "");
+        folder.delete();
+        folder.mkdirs();
+    }
+
+    @After
+    public void tearDown() {
+        if (writer != null) {
+            writer.stop();
+        }
+        File[] files = folder.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        folder.delete();
+    }
+
+    @Test
+    public void testBinaryRoundTrip() throws Exception {
+        writer = new AsyncItemLogWriter(folder.getPath(), null, true, 1024, 100, 1000, 0, 1);
+        writer.start();
+
+        assertTrue(writer.write(new ItemLogRecord("sensors", "Temperature", "21.5", 1000L)));
+        assertTrue(writer.write(new ItemLogRecord("sensors", "Message", "Grüße\nzweite Zeile", 2000L)));
+        assertTrue(writer.write(new ItemLogRecord("switches", "Light", "ON", 3000L)));
+        writer.stop();
+
+        List<ItemLogRecord> sensors = read(new File(folder, "sensors.bin"));
+        assertEquals(2, sensors.size());
+        assertRecord("sensors", "Temperature", "21.5", 1000L, sensors.get(0));
+        assertRecord("sensors", "Message", "Grüße\nzweite Zeile", 2000L, sensors.get(1));
+
+        List<ItemLogRecord> switches = read(new File(folder, "switches.bin"));
+        assertEquals(1, switches.size());
+        assertRecord("switches", "Light", "ON", 3000L, switches.get(0));
+    }
+
+    @Test
+    public void testStopFlushesBufferedRecords() throws Exception {
+        // neither the flush size nor the flush interval is reached before the writer is stopped
+        writer = new AsyncItemLogWriter(folder.getPath(), null, true, 10000, 100000, HOUR, 0, 1);
+        writer.start();
+        for (int i = 0; i < 5000; i++) {
+            assertTrue(writer.write(new ItemLogRecord("items", "Counter", Integer.toString(i), i)));
+        }
+        writer.stop();
+
+        List<ItemLogRecord> records = read(new File(folder, "items.bin"));
+        assertEquals(5000, records.size());
+        for (int i = 0; i < 5000; i++) {
+            assertEquals(Integer.toString(i), records.get(i).getState());
+        }
+        assertEquals(0, writer.getDroppedCount());
+    }
+
+    @Test
+    public void testIdleWriterWritesNewRecord() throws Exception {
+        writer = new AsyncItemLogWriter(folder.getPath(), null, true, 1024, 1, HOUR, 0, 1);
+        writer.start();
+        // give the writer time to park on the empty buffer
+        Thread.sleep(100);
+        writer.write(new ItemLogRecord("items", "Switch", "OFF", 1000L));
+
+        File file = new File(folder, "items.bin");
+        long deadline = System.currentTimeMillis() + 5000;
+        while (file.length() <= BinaryItemLogReader.MAGIC.length + 1 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        List<ItemLogRecord> records = read(file);
+        assertEquals(1, records.size());
+        assertRecord("items", "Switch", "OFF", 1000L, records.get(0));
+    }
+
+    @Test
+    public void testRotation() throws Exception {
+        writer = new AsyncItemLogWriter(folder.getPath(), null, true, 1024, 1, 1000, 100, 2);
+        writer.start();
+        for (int i = 0; i < 20; i++) {
+            writer.write(new ItemLogRecord("items", "Counter", Integer.toString(i), i));
+        }
+        writer.stop();
+
+        List<ItemLogRecord> records = new ArrayList<ItemLogRecord>();
+        records.addAll(read(new File(folder, "items.bin.2")));
+        records.addAll(read(new File(folder, "items.bin.1")));
+        records.addAll(read(new File(folder, "items.bin")));
+        assertFalse(new File(folder, "items.bin.3").exists());
+        assertTrue(new File(folder, "items.bin").length() <= 100);
+        // the oldest records have been rotated out, the remaining ones are in order
+        assertTrue(records.size() < 20);
+        for (int i = 0; i < records.size(); i++) {
+            assertEquals(Integer.toString(20 - records.size() + i), records.get(i).getState());
+        }
+    }
+
+    private static List<ItemLogRecord> read(File file) throws IOException {
+        List<ItemLogRecord> records = new ArrayList<ItemLogRecord>();
+        BinaryItemLogReader reader = new BinaryItemLogReader(file);
+        try {
+            ItemLogRecord record;
+            while ((record = reader.next()) != null) {
+                records.add(record);
+            }
+        } finally {
+            reader.close();
+        }
+        return records;
+    }
+
+    private static void assertRecord(String alias, String itemName, String state, long timestamp,
+            ItemLogRecord record) {
+        assertEquals(alias, record.getAlias());
+        assertEquals(itemName, record.getItemName());
+        assertEquals(state, record.getState());
+        assertEquals(timestamp, record.getTimestamp());
+    }
+
+}
@@ -0,0 +1,87 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.logging.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+
+import org.junit.Test;
+
+/**
+ * @since 1.15.0
+ */
+public class BinaryItemLogReaderTest {
+
+    @Test
+    public void testReadRecords() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.write(BinaryItemLogReader.MAGIC);
+        out.write(BinaryItemLogReader.VERSION);
+        out.writeLong(1546300800000L);
+        out.writeShort(5);
+        out.write("Light".getBytes("UTF-8"));
+        out.writeInt(2);
+        out.write("ON".getBytes("UTF-8"));
+
+        BinaryItemLogReader reader = new BinaryItemLogReader(new ByteArrayInputStream(bytes.toByteArray()), "items");
+        ItemLogRecord record = reader.next();
+        assertEquals("items", record.getAlias());
+        assertEquals("Light", record.getItemName());
+        assertEquals("ON", record.getState());
+        assertEquals(1546300800000L, record.getTimestamp());
+        assertNull(reader.next());
+        reader.close();
+    }
+
+    @Test
+    public void testEmptyFile() throws IOException {
+        byte[] header = new byte[] { 'O', 'H', 'I', 'L', BinaryItemLogReader.VERSION };
+        BinaryItemLogReader reader = new BinaryItemLogReader(new ByteArrayInputStream(header), "items");
+        assertNull(reader.next());
+        reader.close();
+    }
+
+    @Test(expected = IOException.class)
+    public void testTextFileIsRejected() throws IOException {
+        new BinaryItemLogReader(new ByteArrayInputStream("2019-01-01 00:00:00 - Light: ON\n".getBytes("UTF-8")),
+                "items");
+    }
+
+    @Test(expected = IOException.class)
+    public void testUnknownVersionIsRejected() throws IOException {
+        byte[] header = new byte[] { 'O', 'H', 'I', 'L', 99 };
+        new BinaryItemLogReader(new ByteArrayInputStream(header), "items");
+    }
+
+    @Test(expected = EOFException.class)
+    public void testTruncatedRecord() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.write(BinaryItemLogReader.MAGIC);
+        out.write(BinaryItemLogReader.VERSION);
+        out.writeLong(1546300800000L);
+        out.writeShort(5);
+        out.write("Li".getBytes("UTF-8"));
+
+        BinaryItemLogReader reader = new BinaryItemLogReader(new ByteArrayInputStream(bytes.toByteArray()), "items");
+        reader.next();
+    }
+
+}
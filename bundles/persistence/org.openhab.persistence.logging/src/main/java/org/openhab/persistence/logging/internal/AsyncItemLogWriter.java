@@ -0,0 +1,307 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.logging.internal;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.PatternLayout;
+
+/**
+ * Writes item states to per-alias log files from a single background thread.
+ * Producers hand over states through a lock-free {@link RingBuffer} and are
+ * never blocked; if the buffer is full, the state is dropped and counted. The
+ * writer thread parks while the buffer is empty and is unparked by the next
+ * producer.
+ * Files are flushed once <code>flushSize</code> records have been written or
+ * <code>flushInterval</code> has passed, and are optionally rotated by size.
+ *
+ * @since 1.15.0
+ */
+public class AsyncItemLogWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncItemLogWriter.class);
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private final RingBuffer<ItemLogRecord> buffer;
+    private final String folder;
+    private final String pattern;
+    private final boolean binary;
+    private final int flushSize;
+    private final long flushInterval;
+    private final long maxFileSize;
+    private final int maxFiles;
+
+    private final AtomicLong dropped = new AtomicLong();
+
+    /** Set by the writer thread before it parks, so that producers know they have to wake it up */
+    private final AtomicBoolean idle = new AtomicBoolean();
+
+    private final Map<String, LogFile> files = new HashMap<String, LogFile>();
+    private final ByteArrayOutputStream scratch = new ByteArrayOutputStream(256);
+    private final DataOutputStream scratchData = new DataOutputStream(scratch);
+    private PatternLayout layout;
+
+    private volatile boolean running = false;
+    private volatile Thread thread;
+
+    /**
+     * @param folder the folder log files are written to
+     * @param pattern the logback pattern for text log files
+     * @param binary write the compact binary format instead of text, see {@link BinaryItemLogReader}
+     * @param bufferSize the number of states which can be buffered
+     * @param flushSize the number of written records after which files are flushed
+     * @param flushInterval the maximum time in milliseconds before written records are flushed
+     * @param maxFileSize the size in bytes after which a log file is rotated, or 0 to disable rotation
+     * @param maxFiles the number of rotated files kept per alias
+     */
+    public AsyncItemLogWriter(String folder, String pattern, boolean binary, int bufferSize, int flushSize,
+            long flushInterval, long maxFileSize, int maxFiles) {
+        this.buffer = new RingBuffer<ItemLogRecord>(bufferSize);
+        this.folder = folder;
+        this.pattern = pattern;
+        this.binary = binary;
+        this.flushSize = Math.max(1, flushSize);
+        this.flushInterval = flushInterval;
+        this.maxFileSize = maxFileSize;
+        this.maxFiles = Math.max(1, maxFiles);
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        if (!binary) {
+            layout = new PatternLayout();
+            layout.setContext((LoggerContext) LoggerFactory.getILoggerFactory());
+            layout.setPattern(pattern);
+            layout.start();
+        }
+        running = true;
+        thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                writeRecords();
+            }
+        }, "Logging persistence writer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops the writer thread after all buffered states have been written.
+     */
+    public synchronized void stop() {
+        running = false;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            thread = null;
+        }
+        if (dropped.get() > 0) {
+            logger.warn("Logging persistence dropped {} states because the buffer was full", dropped.get());
+        }
+    }
+
+    /**
+     * Queues a state for writing without blocking.
+     *
+     * @return <code>false</code> if the buffer is full and the state was dropped
+     */
+    public boolean write(ItemLogRecord record) {
+        if (buffer.offer(record)) {
+            if (idle.get() && idle.compareAndSet(true, false)) {
+                LockSupport.unpark(thread);
+            }
+            return true;
+        }
+        if (dropped.incrementAndGet() % 10000 == 1) {
+            logger.warn("Logging persistence buffer is full, dropped {} states so far", dropped.get());
+        }
+        return false;
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    private void writeRecords() {
+        int unflushed = 0;
+        long lastFlush = System.currentTimeMillis();
+        while (running || buffer.size() > 0) {
+            ItemLogRecord record = buffer.poll();
+            if (record == null) {
+                long untilFlush = lastFlush + flushInterval - System.currentTimeMillis();
+                if (unflushed > 0 && untilFlush <= 0) {
+                    flushAll();
+                    unflushed = 0;
+                    lastFlush = System.currentTimeMillis();
+                }
+                idle.set(true);
+                // check again, as a producer which queued a state before the flag was set won't unpark this thread
+                if (running && buffer.size() == 0) {
+                    if (unflushed > 0) {
+                        LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(Math.max(1, untilFlush)));
+                    } else {
+                        LockSupport.park(this);
+                    }
+                }
+                idle.set(false);
+                continue;
+            }
+
+            try {
+                getFile(record.getAlias()).write(encode(record));
+            } catch (IOException e) {
+                logger.warn("Error logging state of item '{}' to '{}': {}", record.getItemName(), record.getAlias(),
+                        e.getMessage());
+                closeFile(record.getAlias());
+            }
+
+            if (++unflushed >= flushSize) {
+                flushAll();
+                unflushed = 0;
+                lastFlush = System.currentTimeMillis();
+            }
+        }
+        flushAll();
+        for (String alias : files.keySet().toArray(new String[files.size()])) {
+            closeFile(alias);
+        }
+    }
+
+    private byte[] encode(ItemLogRecord record) throws IOException {
+        if (!binary) {
+            return layout.doLayout(new ItemLoggingEvent(record.getItemName(), record.getState(), record.getTimestamp()))
+                    .getBytes(UTF8);
+        }
+
+        scratch.reset();
+        byte[] name = record.getItemName().getBytes(UTF8);
+        byte[] state = record.getState().getBytes(UTF8);
+        scratchData.writeLong(record.getTimestamp());
+        scratchData.writeShort(name.length);
+        scratchData.write(name);
+        scratchData.writeInt(state.length);
+        scratchData.write(state);
+        return scratch.toByteArray();
+    }
+
+    private LogFile getFile(String alias) throws IOException {
+        LogFile file = files.get(alias);
+        if (file == null) {
+            String extension = binary ? LoggingPersistenceService.BINARY_FILEEXT : LoggingPersistenceService.LOG_FILEEXT;
+            file = new LogFile(new File(folder, alias + extension));
+            files.put(alias, file);
+        }
+        return file;
+    }
+
+    private void flushAll() {
+        for (Map.Entry<String, LogFile> entry : files.entrySet()) {
+            try {
+                entry.getValue().out.flush();
+            } catch (IOException e) {
+                logger.warn("Error flushing log file for '{}': {}", entry.getKey(), e.getMessage());
+            }
+        }
+    }
+
+    private void closeFile(String alias) {
+        LogFile file = files.remove(alias);
+        if (file != null) {
+            file.close();
+        }
+    }
+
+    /**
+     * An open log file, which is rotated once it exceeds the maximum file size.
+     */
+    private class LogFile {
+
+        private final File file;
+        private OutputStream out;
+        private long size;
+
+        LogFile(File file) throws IOException {
+            this.file = file;
+            open();
+        }
+
+        void write(byte[] bytes) throws IOException {
+            if (maxFileSize > 0 && size > 0 && size + bytes.length > maxFileSize) {
+                rotate();
+            }
+            out.write(bytes);
+            size += bytes.length;
+        }
+
+        private void open() throws IOException {
+            File parent = file.getParentFile();
+            if (parent != null && !parent.exists()) {
+                parent.mkdirs();
+            }
+            size = file.length();
+            out = new BufferedOutputStream(new FileOutputStream(file, true), 8192);
+            if (binary && size == 0) {
+                out.write(BinaryItemLogReader.MAGIC);
+                out.write(BinaryItemLogReader.VERSION);
+                size = BinaryItemLogReader.MAGIC.length + 1;
+            }
+        }
+
+        private void rotate() throws IOException {
+            out.close();
+            new File(file.getPath() + "." + maxFiles).delete();
+            for (int index = maxFiles - 1; index >= 1; index--) {
+                File rotated = new File(file.getPath() + "." + index);
+                if (rotated.exists()) {
+                    rotated.renameTo(new File(file.getPath() + "." + (index + 1)));
+                }
+            }
+            file.renameTo(new File(file.getPath() + ".1"));
+            logger.debug("Rotated log file '{}'", file);
+            open();
+        }
+
+        void close() {
+            try {
+                out.close();
+            } catch (IOException e) {
+                logger.debug("Error closing log file '{}': {}", file, e.getMessage());
+            }
+        }
+    }
+
+}
@@ -0,0 +1,121 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.logging.internal;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Date;
+
+/**
+ * Reads the binary log files written by the logging persistence service.
+ *
+ * A file starts with the four bytes <code>OHIL</code> and a version byte,
+ * followed by records of the form
+ * <ul>
+ * <li>timestamp in milliseconds since the epoch (8 bytes)</li>
+ * <li>item name length (2 bytes) and UTF-8 item name</li>
+ * <li>state length (4 bytes) and UTF-8 state</li>
+ * </ul>
+ * All numbers are big-endian.
+ *
+ * The reader can be run on its own to print a binary log file as text:
+ * <code>java -cp &lt;bundle jar&gt; org.openhab.persistence.logging.internal.BinaryItemLogReader &lt;file&gt;</code>
+ *
+ * @since 1.15.0
+ */
+public class BinaryItemLogReader implements Closeable {
+
+    static final byte[] MAGIC = new byte[] { 'O', 'H', 'I', 'L' };
+    static final int VERSION = 1;
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private final String alias;
+    private final DataInputStream in;
+
+    public BinaryItemLogReader(File file) throws IOException {
+        this(new FileInputStream(file), stripExtension(file.getName()));
+    }
+
+    public BinaryItemLogReader(InputStream stream, String alias) throws IOException {
+        this.alias = alias;
+        this.in = new DataInputStream(new BufferedInputStream(stream));
+
+        byte[] magic = new byte[MAGIC.length];
+        in.readFully(magic);
+        if (!Arrays.equals(magic, MAGIC)) {
+            in.close();
+            throw new IOException("Not a binary item log file");
+        }
+        int version = in.readUnsignedByte();
+        if (version != VERSION) {
+            in.close();
+            throw new IOException("Unsupported binary item log version " + version);
+        }
+    }
+
+    /**
+     * @return the next record, or <code>null</code> at the end of the file
+     */
+    public ItemLogRecord next() throws IOException {
+        long timestamp;
+        try {
+            timestamp = in.readLong();
+        } catch (EOFException e) {
+            return null;
+        }
+        byte[] name = new byte[in.readUnsignedShort()];
+        in.readFully(name);
+        byte[] state = new byte[in.readInt()];
+        in.readFully(state);
+        return new ItemLogRecord(alias, new String(name, UTF8), new String(state, UTF8), timestamp);
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private static String stripExtension(String fileName) {
+        int index = fileName.indexOf(LoggingPersistenceService.BINARY_FILEEXT);
+        return index > 0 ? fileName.substring(0, index) : fileName;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: BinaryItemLogReader <file>...");
+            return;
+        }
+        for (String fileName : args) {
+            BinaryItemLogReader reader = new BinaryItemLogReader(new File(fileName));
+            try {
+                ItemLogRecord record;
+                while ((record = reader.next()) != null) {
+                    System.out.println(String.format("%1$tF %1$tT.%1$tL - %2$-25s: %3$s",
+                            new Date(record.getTimestamp()), record.getItemName(), record.getState()));
+                }
+            } finally {
+                reader.close();
+            }
+        }
+    }
+
+}
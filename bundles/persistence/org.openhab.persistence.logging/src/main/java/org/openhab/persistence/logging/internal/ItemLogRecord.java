@@ -0,0 +1,51 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.logging.internal;
+
+/**
+ * An item state captured for asynchronous logging, or read back from a
+ * binary log file.
+ *
+ * @since 1.15.0
+ */
+public class ItemLogRecord {
+
+    private final String alias;
+    private final String itemName;
+    private final String state;
+    private final long timestamp;
+
+    public ItemLogRecord(String alias, String itemName, String state, long timestamp) {
+        this.alias = alias;
+        this.itemName = itemName;
+        this.state = state;
+        this.timestamp = timestamp;
+    }
+
+    public String getAlias() {
+        return alias;
+    }
+
+    public String getItemName() {
+        return itemName;
+    }
+
+    public String getState() {
+        return state;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+}
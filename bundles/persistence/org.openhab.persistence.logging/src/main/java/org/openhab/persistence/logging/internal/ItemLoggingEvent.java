@@ -36,6 +36,13 @@ public class ItemLoggingEvent extends LoggingEvent {
         setTimeStamp((new Date()).getTime());
     }
 
+    public ItemLoggingEvent(String itemName, String state, long timestamp) {
+        super();
+        setLoggerName(itemName);
+        setMessage(state);
+        setTimeStamp(timestamp);
+    }
+
     @Override
     public String getLoggerName() {
         return super.getLoggerName();
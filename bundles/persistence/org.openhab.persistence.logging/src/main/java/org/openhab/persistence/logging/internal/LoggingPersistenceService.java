@@ -13,8 +13,8 @@
 package org.openhab.persistence.logging.internal;
 
 import java.io.File;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.lang.StringUtils;
 import org.openhab.core.items.Item;
@@ -32,6 +32,10 @@ import ch.qos.logback.core.FileAppender;
  * This is a {@link PersistenceService} implementation, which logs item states through
  * a logback file appender.
  *
+ * In asynchronous mode, states are instead handed to an {@link AsyncItemLogWriter},
+ * which writes them in batches from a background thread, either as text using the
+ * configured pattern or in a compact binary format.
+ *
  * @author Kai Kreuzer
  * @since 1.0.0
  */
@@ -40,14 +44,17 @@ public class LoggingPersistenceService implements PersistenceService {
     private static final Logger logger = LoggerFactory.getLogger(LoggingPersistenceService.class);
 
     private static final String LOG_FOLDER = "logs";
-    private static final String LOG_FILEEXT = ".log";
+    static final String LOG_FILEEXT = ".log";
+    static final String BINARY_FILEEXT = ".bin";
 
     private static final String DEFAULT_PATTERN = "%date{ISO8601} - %-25logger: %msg%n";
 
     private String pattern = null;
     private boolean initialized = false;
 
-    private Map<String, FileAppender<ILoggingEvent>> appenders = new HashMap<String, FileAppender<ILoggingEvent>>();
+    private Map<String, FileAppender<ILoggingEvent>> appenders = new ConcurrentHashMap<String, FileAppender<ILoggingEvent>>();
+
+    private AsyncItemLogWriter asyncWriter = null;
 
     /**
      * @{inheritDoc}
@@ -57,10 +64,43 @@ public class LoggingPersistenceService implements PersistenceService {
         if (StringUtils.isBlank(pattern)) {
             pattern = DEFAULT_PATTERN;
         }
+
+        if (Boolean.parseBoolean((String) config.get("async"))) {
+            boolean binary = "binary".equalsIgnoreCase((String) config.get("format"));
+            int bufferSize = getInt(config, "bufferSize", 65536);
+            int flushSize = getInt(config, "flushSize", 1000);
+            int flushInterval = getInt(config, "flushInterval", 1000);
+            long maxFileSize = getInt(config, "maxFileSize", 0) * 1024L;
+            int maxFiles = getInt(config, "maxFiles", 5);
+
+            asyncWriter = new AsyncItemLogWriter(LOG_FOLDER, pattern, binary, bufferSize, flushSize, flushInterval,
+                    maxFileSize, maxFiles);
+            asyncWriter.start();
+            logger.debug("Logging item states asynchronously in {} format", binary ? "binary" : "text");
+        }
         initialized = true;
     }
 
+    private int getInt(Map<String, Object> config, String key, int defaultValue) {
+        String value = (String) config.get(key);
+        if (StringUtils.isBlank(value)) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            logger.warn("Invalid value '{}' for '{}', using {}", value, key, defaultValue);
+            return defaultValue;
+        }
+    }
+
     public void deactivate(final int reason) {
+        initialized = false;
+        if (asyncWriter != null) {
+            asyncWriter.stop();
+            asyncWriter = null;
+        }
+
         for (FileAppender<ILoggingEvent> appender : appenders.values()) {
             appender.stop();
         }
@@ -90,11 +130,19 @@ public class LoggingPersistenceService implements PersistenceService {
     @Override
     public void store(Item item, String alias) {
         if (initialized) {
+            AsyncItemLogWriter writer = asyncWriter;
+            if (writer != null) {
+                writer.write(new ItemLogRecord(alias, item.getName(), item.getState().toString(),
+                        System.currentTimeMillis()));
+                return;
+            }
+
             FileAppender<ILoggingEvent> appender = appenders.get(alias);
             if (appender == null) {
                 synchronized (appenders) {
                     // do a second check in case one exists by now
-                    if (!appenders.containsKey(alias)) {
+                    appender = appenders.get(alias);
+                    if (appender == null) {
                         appender = createNewAppender(alias);
                         appenders.put(alias, appender);
                     }
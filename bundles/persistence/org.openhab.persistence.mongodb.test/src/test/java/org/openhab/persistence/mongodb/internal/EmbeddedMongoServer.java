@@ -0,0 +1,394 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mongodb.internal;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import org.bson.BasicBSONEncoder;
+import org.bson.types.ObjectId;
+
+import com.mongodb.BasicDBList;
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBCollection;
+import com.mongodb.DBObject;
+import com.mongodb.DefaultDBDecoder;
+
+/**
+ * An in-memory stand-in for a MongoDB 2.6 server. It speaks as much of the
+ * wire protocol as the MongoDB Java driver needs to connect, insert documents
+ * with insert commands, create indexes and find documents, and supports the
+ * query operators used by the persistence service. All collections share one
+ * list of documents.
+ *
+ * @since 1.15.0
+ */
+class EmbeddedMongoServer implements Closeable {
+
+    private static final int OP_REPLY = 1;
+    private static final int OP_QUERY = 2004;
+    private static final int OP_GET_MORE = 2005;
+
+    private final ServerSocket serverSocket;
+    private final List<Socket> sockets = Collections.synchronizedList(new ArrayList<Socket>());
+
+    private final List<DBObject> documents = new ArrayList<DBObject>();
+    private final List<DBObject> indexes = new ArrayList<DBObject>();
+    private final List<DBObject> queries = new ArrayList<DBObject>();
+    private final List<Integer> insertSizes = new ArrayList<Integer>();
+    private int failingInserts;
+    private boolean storeFailingInserts;
+
+    EmbeddedMongoServer() throws IOException {
+        serverSocket = new ServerSocket(0, 50, InetAddress.getByName("127.0.0.1"));
+
+        Thread acceptor = new Thread("Embedded MongoDB server") {
+            @Override
+            public void run() {
+                try {
+                    while (true) {
+                        final Socket socket = serverSocket.accept();
+                        sockets.add(socket);
+                        Thread connection = new Thread("Embedded MongoDB connection") {
+                            @Override
+                            public void run() {
+                                serve(socket);
+                            }
+                        };
+                        connection.setDaemon(true);
+                        connection.start();
+                    }
+                } catch (IOException e) {
+                    // closed
+                }
+            }
+        };
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    /**
+     * @return the URL to connect to the server with
+     */
+    String getUrl() {
+        return "mongodb://127.0.0.1:" + serverSocket.getLocalPort();
+    }
+
+    /**
+     * @return the stored documents in the order of insertion
+     */
+    synchronized List<DBObject> getDocuments() {
+        return new ArrayList<DBObject>(documents);
+    }
+
+    /**
+     * @return the keys of the created indexes
+     */
+    synchronized List<DBObject> getIndexes() {
+        return new ArrayList<DBObject>(indexes);
+    }
+
+    /**
+     * @return the queries of all finds, with the number of skipped documents as <code>$skip</code>
+     */
+    synchronized List<DBObject> getQueries() {
+        return new ArrayList<DBObject>(queries);
+    }
+
+    /**
+     * @return the number of documents of every insert command received
+     */
+    synchronized List<Integer> getInsertSizes() {
+        return new ArrayList<Integer>(insertSizes);
+    }
+
+    /**
+     * Lets the next insert commands fail.
+     *
+     * @param count the number of insert commands to fail
+     * @param store whether the documents are stored nevertheless, like an
+     *            insert whose reply is lost
+     */
+    synchronized void failNextInserts(int count, boolean store) {
+        failingInserts = count;
+        storeFailingInserts = store;
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        synchronized (sockets) {
+            for (Socket socket : sockets) {
+                socket.close();
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try {
+            DataInputStream in = new DataInputStream(socket.getInputStream());
+            OutputStream out = socket.getOutputStream();
+            while (true) {
+                byte[] lengthBytes = new byte[4];
+                in.readFully(lengthBytes);
+                byte[] message = new byte[ByteBuffer.wrap(lengthBytes).order(ByteOrder.LITTLE_ENDIAN).getInt()];
+                System.arraycopy(lengthBytes, 0, message, 0, 4);
+                in.readFully(message, 4, message.length - 4);
+
+                ByteBuffer buffer = ByteBuffer.wrap(message).order(ByteOrder.LITTLE_ENDIAN);
+                buffer.position(4);
+                int requestId = buffer.getInt();
+                buffer.getInt(); // responseTo
+                int opCode = buffer.getInt();
+
+                if (opCode == OP_QUERY) {
+                    buffer.getInt(); // flags
+                    String namespace = readCString(buffer);
+                    int skip = buffer.getInt();
+                    int limit = Math.abs(buffer.getInt());
+                    DBObject query = readDocument(buffer);
+
+                    List<DBObject> reply;
+                    if (namespace.endsWith(".$cmd")) {
+                        reply = Collections.singletonList(command(query));
+                    } else {
+                        reply = find(query, skip, limit);
+                    }
+                    out.write(reply(requestId, reply));
+                } else if (opCode == OP_GET_MORE) {
+                    out.write(reply(requestId, Collections.<DBObject> emptyList()));
+                }
+                // other operations, like killing cursors, have no reply
+                out.flush();
+            }
+        } catch (EOFException e) {
+            // client disconnected
+        } catch (IOException e) {
+            // closed
+        }
+    }
+
+    private static String readCString(ByteBuffer buffer) {
+        int start = buffer.position();
+        while (buffer.get() != 0) {
+            // find the terminating zero
+        }
+        return new String(buffer.array(), start, buffer.position() - start - 1, StandardCharsets.UTF_8);
+    }
+
+    private static DBObject readDocument(ByteBuffer buffer) {
+        int length = buffer.getInt(buffer.position());
+        byte[] document = Arrays.copyOfRange(buffer.array(), buffer.position(), buffer.position() + length);
+        buffer.position(buffer.position() + length);
+        return new DefaultDBDecoder().decode(document, (DBCollection) null);
+    }
+
+    private static byte[] reply(int requestId, List<DBObject> documents) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        BasicBSONEncoder encoder = new BasicBSONEncoder();
+        for (DBObject document : documents) {
+            body.write(encoder.encode(document));
+        }
+
+        ByteBuffer message = ByteBuffer.allocate(36 + body.size()).order(ByteOrder.LITTLE_ENDIAN);
+        message.putInt(36 + body.size()).putInt(0).putInt(requestId).putInt(OP_REPLY);
+        message.putInt(0); // response flags
+        message.putLong(0); // no cursor, all documents are returned at once
+        message.putInt(0); // starting from
+        message.putInt(documents.size());
+        message.put(body.toByteArray());
+        return message.array();
+    }
+
+    private synchronized DBObject command(DBObject command) {
+        if (command.containsField("$query")) {
+            command = (DBObject) command.get("$query");
+        }
+        String name = command.keySet().iterator().next();
+
+        if ("ismaster".equalsIgnoreCase(name)) {
+            return new BasicDBObject("ismaster", true).append("maxBsonObjectSize", 16 * 1024 * 1024)
+                    .append("maxMessageSizeBytes", 48000000).append("maxWriteBatchSize", 1000)
+                    .append("localTime", new Date()).append("maxWireVersion", 2).append("minWireVersion", 0)
+                    .append("ok", 1.0);
+        } else if ("buildinfo".equalsIgnoreCase(name)) {
+            BasicDBList versionArray = new BasicDBList();
+            versionArray.addAll(Arrays.asList(2, 6, 0, 0));
+            return new BasicDBObject("version", "2.6.0").append("versionArray", versionArray).append("ok", 1.0);
+        } else if ("createIndexes".equals(name)) {
+            for (Object index : (List<?>) command.get("indexes")) {
+                indexes.add((DBObject) ((DBObject) index).get("key"));
+            }
+            return new BasicDBObject("ok", 1.0);
+        } else if ("insert".equals(name)) {
+            return insert((List<?>) command.get("documents"));
+        } else {
+            return new BasicDBObject("ok", 1.0);
+        }
+    }
+
+    private DBObject insert(List<?> newDocuments) {
+        insertSizes.add(newDocuments.size());
+
+        boolean fail = failingInserts > 0;
+        if (fail) {
+            failingInserts--;
+            if (!storeFailingInserts) {
+                return new BasicDBObject("ok", 0.0).append("errmsg", "not master").append("code", 10107);
+            }
+        }
+
+        BasicDBList writeErrors = new BasicDBList();
+        int inserted = 0;
+        for (int index = 0; index < newDocuments.size(); index++) {
+            DBObject document = (DBObject) newDocuments.get(index);
+            if (findById(document.get("_id")) != null) {
+                writeErrors.add(new BasicDBObject("index", index).append("code", 11000).append("errmsg",
+                        "E11000 duplicate key error index: _id_ dup key: { : " + document.get("_id") + " }"));
+            } else {
+                documents.add(document);
+                inserted++;
+            }
+        }
+
+        if (fail) {
+            return new BasicDBObject("ok", 0.0).append("errmsg", "socket exception").append("code", 9001);
+        }
+        DBObject result = new BasicDBObject("ok", 1.0).append("n", inserted);
+        if (!writeErrors.isEmpty()) {
+            result.put("writeErrors", writeErrors);
+        }
+        return result;
+    }
+
+    private DBObject findById(Object id) {
+        for (DBObject document : documents) {
+            if (document.get("_id").equals(id)) {
+                return document;
+            }
+        }
+        return null;
+    }
+
+    private synchronized List<DBObject> find(DBObject query, int skip, int limit) {
+        DBObject criteria = query;
+        DBObject orderBy = null;
+        if (query.containsField("$query")) {
+            criteria = (DBObject) query.get("$query");
+            orderBy = (DBObject) query.get("$orderby");
+        }
+        queries.add(new BasicDBObject(criteria.toMap()).append("$skip", skip));
+
+        List<DBObject> results = new ArrayList<DBObject>();
+        for (DBObject document : documents) {
+            if (matches(document, criteria)) {
+                results.add(document);
+            }
+        }
+        if (orderBy != null) {
+            final DBObject order = orderBy;
+            Collections.sort(results, new Comparator<DBObject>() {
+                @Override
+                public int compare(DBObject document1, DBObject document2) {
+                    for (String field : order.keySet()) {
+                        int result = compareValues(document1.get(field), document2.get(field));
+                        if (result != 0) {
+                            return ((Number) order.get(field)).intValue() < 0 ? -result : result;
+                        }
+                    }
+                    return 0;
+                }
+            });
+        }
+
+        int end = limit == 0 ? results.size() : Math.min(results.size(), skip + limit);
+        return skip < end ? results.subList(skip, end) : Collections.<DBObject> emptyList();
+    }
+
+    private static boolean matches(DBObject document, DBObject criteria) {
+        for (String field : criteria.keySet()) {
+            Object condition = criteria.get(field);
+            if ("$or".equals(field)) {
+                boolean any = false;
+                for (Object alternative : (List<?>) condition) {
+                    any |= matches(document, (DBObject) alternative);
+                }
+                if (!any) {
+                    return false;
+                }
+            } else if (condition instanceof DBObject && !(condition instanceof List)) {
+                for (Map.Entry<?, ?> operator : ((Map<?, ?>) ((DBObject) condition).toMap()).entrySet()) {
+                    if (!matches(document.get(field), (String) operator.getKey(), operator.getValue())) {
+                        return false;
+                    }
+                }
+            } else if (!matches(document.get(field), "$eq", condition)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean matches(Object value, String operator, Object operand) {
+        if (value == null) {
+            return "$ne".equals(operator) && operand != null;
+        }
+        int result = compareValues(value, operand);
+        switch (operator) {
+            case "$eq":
+                return result == 0;
+            case "$ne":
+                return result != 0;
+            case "$gt":
+                return result > 0;
+            case "$gte":
+                return result >= 0;
+            case "$lt":
+                return result < 0;
+            case "$lte":
+                return result <= 0;
+            default:
+                throw new IllegalArgumentException("Unsupported query operator " + operator);
+        }
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static int compareValues(Object value1, Object value2) {
+        if (value1 instanceof Number && value2 instanceof Number) {
+            return Double.compare(((Number) value1).doubleValue(), ((Number) value2).doubleValue());
+        } else if ((value1 instanceof Date && value2 instanceof Date)
+                || (value1 instanceof ObjectId && value2 instanceof ObjectId)
+                || (value1 instanceof String && value2 instanceof String)) {
+            return ((Comparable) value1).compareTo(value2);
+        } else {
+            return String.valueOf(value1).compareTo(String.valueOf(value2));
+        }
+    }
+}
@@ -0,0 +1,220 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mongodb.internal;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.core.library.items.StringItem;
+import org.openhab.core.library.types.StringType;
+import org.openhab.core.persistence.FilterCriteria;
+import org.openhab.core.persistence.FilterCriteria.Ordering;
+import org.openhab.core.persistence.HistoricItem;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+
+/**
+ * Tests the {@link MongoDBPersistenceService} against an {@link EmbeddedMongoServer}.
+ *
+ * @since 1.15.0
+ */
+public class MongoDBPersistenceServiceTest {
+
+    private static final long TIMEOUT = 5000;
+
+    private EmbeddedMongoServer server;
+    private MongoDBPersistenceService service;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new EmbeddedMongoServer();
+        service = new MongoDBPersistenceService();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        service.deactivate(0);
+        server.close();
+    }
+
+    private void activate(int bulkSize, long bulkInterval) {
+        Map<String, Object> config = new HashMap<String, Object>();
+        config.put("url", server.getUrl());
+        config.put("database", "openhab");
+        config.put("collection", "states");
+        config.put("bulkSize", String.valueOf(bulkSize));
+        config.put("bulkInterval", String.valueOf(bulkInterval));
+        service.activate(null, config);
+    }
+
+    private void store(String state) {
+        StringItem item = new StringItem("Item");
+        item.setState(new StringType(state));
+        service.store(item);
+    }
+
+    private void awaitDocuments(int count) throws InterruptedException {
+        long end = System.currentTimeMillis() + TIMEOUT;
+        while (server.getDocuments().size() < count && System.currentTimeMillis() < end) {
+            Thread.sleep(10);
+        }
+        assertEquals(count, server.getDocuments().size());
+    }
+
+    private List<String> queryPage(Ordering ordering, int pageNumber) {
+        FilterCriteria filter = new FilterCriteria().setItemName("Item").setOrdering(ordering).setPageSize(2)
+                .setPageNumber(pageNumber);
+        List<String> states = new ArrayList<String>();
+        for (HistoricItem historicItem : service.query(filter)) {
+            states.add(historicItem.getState().toString());
+        }
+        return states;
+    }
+
+    @Test
+    public void activate_createsCompoundIndexOfQueries() {
+        activate(0, 1000);
+
+        assertTrue(server.getIndexes().contains(new BasicDBObject("item", 1).append("timestamp", 1).append("_id", 1)));
+    }
+
+    @Test
+    public void store_writesStateWithoutBulkSize() {
+        activate(0, 1000);
+
+        store("a");
+
+        List<DBObject> documents = server.getDocuments();
+        assertEquals(1, documents.size());
+        assertEquals("Item", documents.get(0).get("item"));
+        assertEquals("a", documents.get(0).get("value"));
+    }
+
+    @Test
+    public void store_buffersUntilBulkSizeIsReached() throws InterruptedException {
+        activate(3, 60000);
+
+        store("a");
+        store("b");
+        assertTrue(server.getDocuments().isEmpty());
+
+        store("c");
+        awaitDocuments(3);
+        assertEquals(Arrays.asList(3), server.getInsertSizes());
+    }
+
+    @Test
+    public void store_flushesAfterBulkInterval() throws InterruptedException {
+        activate(100, 50);
+
+        store("a");
+
+        awaitDocuments(1);
+    }
+
+    @Test
+    public void deactivate_flushesBuffer() {
+        activate(100, 60000);
+
+        store("a");
+        service.deactivate(0);
+
+        assertEquals(1, server.getDocuments().size());
+    }
+
+    @Test
+    public void store_retriesFailedBulkInsert() throws InterruptedException {
+        activate(2, 50);
+        server.failNextInserts(1, false);
+
+        store("a");
+        store("b");
+
+        awaitDocuments(2);
+        assertEquals(Arrays.asList(2, 2), server.getInsertSizes());
+    }
+
+    @Test
+    public void store_doesNotRetryDocumentsStoredByFailedBulkInsert() throws InterruptedException {
+        activate(2, 50);
+        server.failNextInserts(1, true);
+
+        store("a");
+        store("b");
+
+        // the retry finds both documents stored already
+        long end = System.currentTimeMillis() + TIMEOUT;
+        while (server.getInsertSizes().size() < 2 && System.currentTimeMillis() < end) {
+            Thread.sleep(10);
+        }
+        Thread.sleep(200);
+        assertEquals(Arrays.asList(2, 2), server.getInsertSizes());
+        assertEquals(2, server.getDocuments().size());
+    }
+
+    @Test
+    public void query_continuesPagesAfterLastTimestamp() {
+        activate(0, 1000);
+        for (String state : Arrays.asList("a", "b", "c", "d", "e")) {
+            store(state);
+        }
+
+        assertEquals(Arrays.asList("a", "b"), queryPage(Ordering.ASCENDING, 0));
+        assertEquals(Arrays.asList("c", "d"), queryPage(Ordering.ASCENDING, 1));
+        assertEquals(Arrays.asList("e"), queryPage(Ordering.ASCENDING, 2));
+
+        List<DBObject> queries = server.getQueries();
+        assertEquals(3, queries.size());
+        assertFalse(queries.get(0).containsField("$or"));
+        assertTrue(queries.get(1).containsField("$or"));
+        assertEquals(0, queries.get(1).get("$skip"));
+        assertTrue(queries.get(2).containsField("$or"));
+        assertEquals(0, queries.get(2).get("$skip"));
+    }
+
+    @Test
+    public void query_continuesDescendingPagesAfterLastTimestamp() {
+        activate(0, 1000);
+        for (String state : Arrays.asList("a", "b", "c", "d", "e")) {
+            store(state);
+        }
+
+        assertEquals(Arrays.asList("e", "d"), queryPage(Ordering.DESCENDING, 0));
+        assertEquals(Arrays.asList("c", "b"), queryPage(Ordering.DESCENDING, 1));
+        assertEquals(Arrays.asList("a"), queryPage(Ordering.DESCENDING, 2));
+    }
+
+    @Test
+    public void query_skipsToPageWithoutPreviousPage() {
+        activate(0, 1000);
+        for (String state : Arrays.asList("a", "b", "c", "d", "e")) {
+            store(state);
+        }
+
+        assertEquals(Arrays.asList("e"), queryPage(Ordering.ASCENDING, 2));
+
+        DBObject query = server.getQueries().get(0);
+        assertFalse(query.containsField("$or"));
+        assertEquals(4, query.get("$skip"));
+    }
+}
@@ -17,8 +17,16 @@ import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Collections;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.lang.StringUtils;
 import org.bson.types.ObjectId;
@@ -50,6 +58,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.mongodb.BasicDBObject;
+import com.mongodb.BulkWriteError;
+import com.mongodb.BulkWriteException;
+import com.mongodb.BulkWriteOperation;
+import com.mongodb.BulkWriteResult;
 import com.mongodb.DBCollection;
 import com.mongodb.DBCursor;
 import com.mongodb.DBObject;
@@ -59,6 +71,11 @@ import com.mongodb.MongoClientURI;
 /**
  * This is the implementation of the MongoDB {@link PersistenceService}.
  *
+ * If a bulk size is configured, states are buffered and written with
+ * unordered bulk inserts once the buffer is full or the bulk interval has
+ * passed. Consecutive pages of the same query continue from the last seen
+ * timestamp instead of skipping over all previous pages.
+ *
  * @author Thorsten Hoeger
  * @since 1.5.0
  */
@@ -72,6 +89,15 @@ public class MongoDBPersistenceService implements QueryablePersistenceService {
 
     private static final Logger logger = LoggerFactory.getLogger(MongoDBPersistenceService.class);
 
+    /** The number of page positions remembered for range based paging */
+    private static final int PAGE_CURSOR_CACHE_SIZE = 100;
+
+    /** Failed bulk inserts are buffered again as long as the buffer holds no more than this many bulks */
+    private static final int MAX_BUFFERED_BULKS = 100;
+
+    /** The error code of a document whose id is already stored */
+    private static final int DUPLICATE_KEY_ERROR = 11000;
+
     private String url;
     private String db;
     private String collection;
@@ -82,6 +108,23 @@ public class MongoDBPersistenceService implements QueryablePersistenceService {
     private MongoClient cl;
     private DBCollection mongoCollection;
 
+    // Bulk writes - disabled if bulkSize is 0
+    private int bulkSize = 0;
+    private long bulkInterval = 1000;
+
+    private final BlockingQueue<DBObject> pendingObjects = new LinkedBlockingQueue<DBObject>();
+    private final Object flushLock = new Object();
+    private volatile ScheduledExecutorService flushScheduler = null;
+
+    private final Map<String, PageCursor> pageCursors = new LinkedHashMap<String, PageCursor>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, PageCursor> eldest) {
+            return size() > PAGE_CURSOR_CACHE_SIZE;
+        }
+    };
+
     public void activate(final BundleContext bundleContext, final Map<String, Object> config) {
         url = (String) config.get("url");
         logger.debug("MongoDB URL {}", url);
@@ -102,15 +145,41 @@ public class MongoDBPersistenceService implements QueryablePersistenceService {
                     "The MongoDB database collection is missing - please configure the mongodb:collection parameter in openhab.cfg");
         }
 
+        stopFlushScheduler();
+        flushPendingObjects();
+
+        String bulkSizeString = (String) config.get("bulkSize");
+        if (StringUtils.isNotBlank(bulkSizeString)) {
+            bulkSize = Integer.parseInt(bulkSizeString);
+        }
+        String bulkIntervalString = (String) config.get("bulkInterval");
+        if (StringUtils.isNotBlank(bulkIntervalString)) {
+            bulkInterval = Long.parseLong(bulkIntervalString);
+        }
+
         disconnectFromDatabase();
         connectToDatabase();
 
+        if (bulkSize > 0) {
+            ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory());
+            scheduler.scheduleWithFixedDelay(new Runnable() {
+                @Override
+                public void run() {
+                    flushPendingObjects();
+                }
+            }, bulkInterval, bulkInterval, TimeUnit.MILLISECONDS);
+            flushScheduler = scheduler;
+            logger.debug("MongoDB bulk writes of up to {} states every {}ms", bulkSize, bulkInterval);
+        }
+
         // connection has been established ... initialization completed!
         initialized = true;
     }
 
     public void deactivate(final int reason) {
         logger.debug("MongoDB persistence bundle stopping. Disconnecting from database.");
+        stopFlushScheduler();
+        flushPendingObjects();
         disconnectFromDatabase();
     }
 
@@ -169,11 +238,124 @@ public class MongoDBPersistenceService implements QueryablePersistenceService {
         obj.put(FIELD_REALNAME, realName);
         obj.put(FIELD_TIMESTAMP, new Date());
         obj.put(FIELD_VALUE, value);
-        this.mongoCollection.save(obj);
+
+        ScheduledExecutorService scheduler = flushScheduler;
+        if (bulkSize > 0 && scheduler != null) {
+            pendingObjects.add(obj);
+            if (pendingObjects.size() >= bulkSize) {
+                try {
+                    scheduler.execute(new Runnable() {
+                        @Override
+                        public void run() {
+                            flushPendingObjects();
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    // the scheduler is shutting down and flushes the buffer itself
+                }
+            }
+            logger.debug("MongoDB buffered {}={}", name, value);
+            return;
+        }
+
+        this.mongoCollection.insert(obj);
 
         logger.debug("MongoDB save {}={}", name, value);
     }
 
+    /**
+     * Writes all buffered states with unordered bulk inserts of at most
+     * <code>bulkSize</code> documents. The documents of a failed bulk insert
+     * are buffered again and retried with the next flush, unless the buffer
+     * already holds <code>MAX_BUFFERED_BULKS</code> bulks or the service is
+     * stopping. Then they are dropped.
+     */
+    private void flushPendingObjects() {
+        synchronized (flushLock) {
+            if (pendingObjects.isEmpty()) {
+                return;
+            }
+
+            DBCollection collection = this.mongoCollection;
+            if (collection == null) {
+                logger.warn("MongoDB not connected. Dropping {} buffered states.", pendingObjects.size());
+                pendingObjects.clear();
+                return;
+            }
+
+            List<DBObject> objects = new ArrayList<DBObject>(bulkSize);
+            while (pendingObjects.drainTo(objects, bulkSize) > 0) {
+                long startTime = System.currentTimeMillis();
+                try {
+                    BulkWriteOperation bulk = collection.initializeUnorderedBulkOperation();
+                    for (DBObject obj : objects) {
+                        bulk.insert(obj);
+                    }
+                    BulkWriteResult result = bulk.execute();
+                    logger.debug("MongoDB bulk inserted {} states in {}ms", result.getInsertedCount(),
+                            System.currentTimeMillis() - startTime);
+                } catch (BulkWriteException e) {
+                    if (!handleFailedObjects(getFailedObjects(objects, e), e.getMessage())) {
+                        break;
+                    }
+                } catch (Exception e) {
+                    if (!handleFailedObjects(objects, e.getMessage())) {
+                        break;
+                    }
+                }
+                objects.clear();
+            }
+        }
+    }
+
+    /**
+     * Returns the documents of a bulk insert which have not been stored.
+     * Documents which are rejected because their id is already stored have
+     * been inserted by an earlier attempt of a failed bulk insert.
+     */
+    private static List<DBObject> getFailedObjects(List<DBObject> objects, BulkWriteException e) {
+        List<DBObject> failedObjects = new ArrayList<DBObject>();
+        for (BulkWriteError error : e.getWriteErrors()) {
+            if (error.getCode() != DUPLICATE_KEY_ERROR) {
+                failedObjects.add(objects.get(error.getIndex()));
+            }
+        }
+        return failedObjects;
+    }
+
+    /**
+     * Buffers the documents of a failed bulk insert again or drops them.
+     *
+     * @return true to continue with the next bulk, false if the documents
+     *         are retried with the next flush
+     */
+    private boolean handleFailedObjects(List<DBObject> failedObjects, String message) {
+        if (failedObjects.isEmpty()) {
+            return true;
+        }
+        if (flushScheduler != null && pendingObjects.size() + failedObjects.size() <= bulkSize * MAX_BUFFERED_BULKS) {
+            pendingObjects.addAll(failedObjects);
+            logger.error("MongoDB bulk insert of {} states failed, retrying later: {}", failedObjects.size(),
+                    message);
+            return false;
+        }
+        logger.error("MongoDB bulk insert of {} states failed. Dropping them: {}", failedObjects.size(), message);
+        return true;
+    }
+
+    private void stopFlushScheduler() {
+        ScheduledExecutorService scheduler = flushScheduler;
+        if (scheduler != null) {
+            flushScheduler = null;
+            scheduler.shutdown();
+            try {
+                scheduler.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
     private Object convertValue(State state) {
         Object value;
         if (state instanceof PercentType) {
@@ -217,6 +399,11 @@ public class MongoDBPersistenceService implements QueryablePersistenceService {
             BasicDBObject idx = new BasicDBObject();
             idx.append(FIELD_TIMESTAMP, 1).append(FIELD_ITEM, 1);
             this.mongoCollection.createIndex(idx);
+
+            // queries select by item and sort by timestamp and id
+            BasicDBObject itemIdx = new BasicDBObject();
+            itemIdx.append(FIELD_ITEM, 1).append(FIELD_TIMESTAMP, 1).append(FIELD_ID, 1);
+            this.mongoCollection.createIndex(itemIdx);
             logger.debug("Connect MongoDB ... done");
         } catch (Exception e) {
             logger.error("Failed to connect to database {}", this.url);
@@ -229,6 +416,9 @@ public class MongoDBPersistenceService implements QueryablePersistenceService {
      */
     private void disconnectFromDatabase() {
         this.mongoCollection = null;
+        synchronized (pageCursors) {
+            pageCursors.clear();
+        }
         if (this.cl != null) {
             this.cl.close();
         }
@@ -262,17 +452,49 @@ public class MongoDBPersistenceService implements QueryablePersistenceService {
             Object value = convertValue(filter.getState());
             query.put(FIELD_VALUE, new BasicDBObject(op, value));
         }
+        BasicDBObject timestampQuery = new BasicDBObject();
         if (filter.getBeginDate() != null) {
-            query.put(FIELD_TIMESTAMP, new BasicDBObject("$gte", filter.getBeginDate()));
+            timestampQuery.put("$gte", filter.getBeginDate());
         }
         if (filter.getEndDate() != null) {
-            query.put(FIELD_TIMESTAMP, new BasicDBObject("$lte", filter.getEndDate()));
+            timestampQuery.put("$lte", filter.getEndDate());
+        }
+
+        boolean ascending = filter.getOrdering() == Ordering.ASCENDING;
+        int skip = filter.getPageNumber() * filter.getPageSize();
+
+        // Continue from where the previous page of the same query ended, so
+        // that deep pages don't have to skip over all previous documents
+        String pageKey = null;
+        if (filter.getPageNumber() > 0) {
+            pageKey = getPageKey(filter);
+            PageCursor pageCursor;
+            synchronized (pageCursors) {
+                pageCursor = pageCursors.get(pageKey);
+            }
+            if (pageCursor != null && pageCursor.pageNumber == filter.getPageNumber() - 1) {
+                // documents sorting after the last one of the previous page, with the id breaking timestamp ties
+                String after = ascending ? "$gt" : "$lt";
+                List<DBObject> resume = new ArrayList<DBObject>(2);
+                resume.add(new BasicDBObject(FIELD_TIMESTAMP, new BasicDBObject(after, pageCursor.lastTimestamp)));
+                resume.add(new BasicDBObject(FIELD_TIMESTAMP, pageCursor.lastTimestamp).append(FIELD_ID,
+                        new BasicDBObject(after, pageCursor.lastId)));
+                query.put("$or", resume);
+                skip = 0;
+            }
+        }
+        if (!timestampQuery.isEmpty()) {
+            query.put(FIELD_TIMESTAMP, timestampQuery);
         }
 
-        Integer sortDir = (filter.getOrdering() == Ordering.ASCENDING) ? 1 : -1;
-        DBCursor cursor = this.mongoCollection.find(query).sort(new BasicDBObject(FIELD_TIMESTAMP, sortDir))
-                .skip(filter.getPageNumber() * filter.getPageSize()).limit(filter.getPageSize());
+        // the id makes the order of documents with the same timestamp stable across pages
+        Integer sortDir = ascending ? 1 : -1;
+        DBCursor cursor = this.mongoCollection.find(query)
+                .sort(new BasicDBObject(FIELD_TIMESTAMP, sortDir).append(FIELD_ID, sortDir)).skip(skip)
+                .limit(filter.getPageSize());
 
+        Date lastTimestamp = null;
+        Object lastId = null;
         while (cursor.hasNext()) {
             BasicDBObject obj = (BasicDBObject) cursor.next();
 
@@ -295,12 +517,36 @@ public class MongoDBPersistenceService implements QueryablePersistenceService {
                 state = new StringType(obj.getString(FIELD_VALUE));
             }
 
-            items.add(new MongoDBItem(name, state, obj.getDate(FIELD_TIMESTAMP)));
+            Date timestamp = obj.getDate(FIELD_TIMESTAMP);
+            lastTimestamp = timestamp;
+            lastId = obj.get(FIELD_ID);
+
+            items.add(new MongoDBItem(name, state, timestamp));
+        }
+
+        // Remember where a full page ended for the next page of this query
+        if (items.size() == filter.getPageSize() && lastTimestamp != null) {
+            if (pageKey == null) {
+                pageKey = getPageKey(filter);
+            }
+            synchronized (pageCursors) {
+                pageCursors.put(pageKey, new PageCursor(filter.getPageNumber(), lastTimestamp, lastId));
+            }
         }
 
         return items;
     }
 
+    /**
+     * Builds a key identifying a query independent of the requested page.
+     */
+    private String getPageKey(FilterCriteria filter) {
+        return filter.getItemName() + "|" + filter.getOperator() + "|" + filter.getState() + "|"
+                + (filter.getBeginDate() != null ? filter.getBeginDate().getTime() : "") + "|"
+                + (filter.getEndDate() != null ? filter.getEndDate().getTime() : "") + "|" + filter.getOrdering()
+                + "|" + filter.getPageSize();
+    }
+
     private String convertOperator(Operator operator) {
         switch (operator) {
             case EQ:
@@ -334,6 +580,30 @@ public class MongoDBPersistenceService implements QueryablePersistenceService {
         return item;
     }
 
+    /**
+     * The position at which a page of a query ended.
+     */
+    private static class PageCursor {
+        private final int pageNumber;
+        private final Date lastTimestamp;
+        private final Object lastId;
+
+        PageCursor(int pageNumber, Date lastTimestamp, Object lastId) {
+            this.pageNumber = pageNumber;
+            this.lastTimestamp = lastTimestamp;
+            this.lastId = lastId;
+        }
+    }
+
+    private static class NamedThreadFactory implements ThreadFactory {
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "MongoDB bulk writer");
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
     public static class MongoDBItem implements HistoricItem {
 
         final private String name;
@@ -0,0 +1,270 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mysql.internal;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A bounded pool of connections to the mySQL server. Connections are opened
+ * lazily up to the configured maximum and handed out one caller at a time.
+ * Every pooled connection keeps its own LRU cache of prepared statements keyed
+ * by their SQL text, so the per-item INSERT and SELECT statements are only
+ * prepared once per connection.
+ *
+ * @since 1.15.0
+ */
+class MysqlConnectionPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(MysqlConnectionPool.class);
+
+    /** Idle connections older than this are validated before they are handed out again */
+    private static final long VALIDATION_INTERVAL = 30000;
+
+    /** Longest single wait for an idle connection before checking for a free slot again */
+    private static final long WAIT_SLICE = 50;
+
+    private final String name;
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int waitTimeout;
+    private final int maxSize;
+    private final int statementCacheSize;
+
+    private final BlockingQueue<PooledConnection> idle;
+    private final AtomicInteger size = new AtomicInteger();
+    private volatile boolean closed = false;
+
+    /**
+     * @param name
+     *            name of the pool, only used for logging
+     * @param maxSize
+     *            the maximum number of open connections
+     * @param statementCacheSize
+     *            the number of prepared statements cached per connection
+     * @param waitTimeout
+     *            the session wait_timeout in seconds, or -1 to keep the server default
+     */
+    MysqlConnectionPool(String name, String url, String user, String password, int maxSize, int statementCacheSize,
+            int waitTimeout) {
+        this.name = name;
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.maxSize = Math.max(1, maxSize);
+        this.statementCacheSize = Math.max(1, statementCacheSize);
+        this.waitTimeout = waitTimeout;
+        this.idle = new ArrayBlockingQueue<PooledConnection>(this.maxSize);
+    }
+
+    /**
+     * Takes a connection from the pool, opening a new one if the pool has not
+     * reached its maximum size yet. Otherwise waits up to
+     * <code>timeoutMillis</code> for another caller to release a connection.
+     *
+     * @return a valid connection which has to be handed back through
+     *         {@link #release(PooledConnection)} or {@link #invalidate(PooledConnection)}
+     * @throws SQLException if no connection could be opened or none became available in time
+     */
+    PooledConnection borrow(long timeoutMillis) throws SQLException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (true) {
+            if (closed) {
+                throw new SQLException("mySQL: the " + name + " connection pool is closed");
+            }
+
+            PooledConnection connection = idle.poll();
+            if (connection == null) {
+                if (size.incrementAndGet() <= maxSize) {
+                    try {
+                        return open();
+                    } catch (SQLException e) {
+                        size.decrementAndGet();
+                        throw e;
+                    }
+                }
+                size.decrementAndGet();
+
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    throw new SQLException("mySQL: timed out waiting for a " + name + " connection");
+                }
+                // a discarded connection frees a slot without offering anything to the idle queue,
+                // so wait in short slices and try to open a new connection in between
+                try {
+                    connection = idle.poll(Math.min(remaining, WAIT_SLICE), TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new SQLException("mySQL: interrupted while waiting for a " + name + " connection");
+                }
+                if (connection == null) {
+                    continue;
+                }
+            }
+
+            if (connection.isUsable()) {
+                return connection;
+            }
+            logger.debug("mySQL: discarding invalid {} connection", name);
+            discard(connection);
+        }
+    }
+
+    /**
+     * Hands a connection back to the pool after successful use.
+     */
+    void release(PooledConnection connection) {
+        connection.lastUsed = System.currentTimeMillis();
+        if (closed || !idle.offer(connection)) {
+            discard(connection);
+        }
+    }
+
+    /**
+     * Hands back a connection which failed during use. It is closed rather
+     * than returned to the pool.
+     */
+    void invalidate(PooledConnection connection) {
+        discard(connection);
+    }
+
+    /**
+     * Closes all idle connections. Connections currently in use are closed
+     * once they are handed back.
+     */
+    void close() {
+        closed = true;
+        List<PooledConnection> connections = new ArrayList<PooledConnection>();
+        idle.drainTo(connections);
+        for (PooledConnection connection : connections) {
+            discard(connection);
+        }
+        logger.debug("mySQL: closed {} connection pool", name);
+    }
+
+    private PooledConnection open() throws SQLException {
+        logger.debug("mySQL: opening {} connection to {}", name, url);
+        Connection connection = DriverManager.getConnection(url, user, password);
+        if (waitTimeout != -1) {
+            try {
+                Statement st = connection.createStatement();
+                try {
+                    st.executeUpdate("SET SESSION wait_timeout=" + waitTimeout);
+                } finally {
+                    st.close();
+                }
+            } catch (SQLException e) {
+                connection.close();
+                throw e;
+            }
+        }
+        return new PooledConnection(connection, statementCacheSize);
+    }
+
+    private void discard(PooledConnection connection) {
+        size.decrementAndGet();
+        connection.close();
+    }
+
+    /**
+     * A connection handed out by {@link MysqlConnectionPool}, together with its
+     * prepared statement cache. Statements returned by {@link #prepare(String)}
+     * are owned by the cache and must not be closed by the caller.
+     */
+    static class PooledConnection {
+
+        private final Connection connection;
+        private final Map<String, PreparedStatement> statements;
+        private long lastUsed = System.currentTimeMillis();
+
+        PooledConnection(Connection connection, final int cacheSize) {
+            this.connection = connection;
+            this.statements = new LinkedHashMap<String, PreparedStatement>(16, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                    if (size() > cacheSize) {
+                        closeQuietly(eldest.getValue());
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        Connection getConnection() {
+            return connection;
+        }
+
+        /**
+         * Returns the cached prepared statement for the given SQL, preparing it
+         * on first use.
+         */
+        PreparedStatement prepare(String sql) throws SQLException {
+            PreparedStatement statement = statements.get(sql);
+            if (statement == null) {
+                statement = connection.prepareStatement(sql);
+                statements.put(sql, statement);
+            } else {
+                statement.clearParameters();
+            }
+            return statement;
+        }
+
+        private boolean isUsable() {
+            if (System.currentTimeMillis() - lastUsed < VALIDATION_INTERVAL) {
+                return true;
+            }
+            try {
+                return connection.isValid(5);
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        private void close() {
+            for (PreparedStatement statement : statements.values()) {
+                closeQuietly(statement);
+            }
+            statements.clear();
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                logger.debug("mySQL: failed closing connection: {}", e.getMessage());
+            }
+        }
+
+        private static void closeQuietly(Statement statement) {
+            try {
+                statement.close();
+            } catch (SQLException hidden) {
+            }
+        }
+    }
+}
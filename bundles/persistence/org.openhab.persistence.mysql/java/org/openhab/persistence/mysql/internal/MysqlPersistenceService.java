@@ -12,8 +12,6 @@
  */
 package org.openhab.persistence.mysql.internal;
 
-import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -26,8 +24,19 @@ import java.util.Collections;
 import java.util.Formatter;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -57,6 +66,7 @@ import org.openhab.core.persistence.PersistenceService;
 import org.openhab.core.persistence.QueryablePersistenceService;
 import org.openhab.core.types.State;
 import org.openhab.core.types.UnDefType;
+import org.openhab.persistence.mysql.internal.MysqlConnectionPool.PooledConnection;
 import org.osgi.framework.BundleContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -82,6 +92,10 @@ import org.slf4j.LoggerFactory;
  * keep the best resolution, we store as a number in SQL and convert to
  * DecimalType before persisting to MySQL.
  *
+ * Stores and queries use separate connection pools so that long running
+ * history queries never hold up the persisting of new states. Optionally,
+ * states are queued and written in batches of multi-row INSERT statements.
+ *
  * @author Henrik Sjöstrand
  * @author Thomas.Eichstaedt-Engelen
  * @author Chris Jackson
@@ -103,7 +117,7 @@ public class MysqlPersistenceService implements QueryablePersistenceService {
     protected ItemRegistry itemRegistry;
 
     // Error counter - used to reconnect to database on error
-    private int errCnt;
+    private final AtomicInteger errCnt = new AtomicInteger();
     private int errReconnectThreshold = 0;
 
     private int waitTimeout = -1;
@@ -111,9 +125,28 @@ public class MysqlPersistenceService implements QueryablePersistenceService {
     // Time used for persisting items, False: MySQL Server time (default), True: openHAB Server time
     private boolean localtime = false;
 
-    private Connection connection = null;
+    // Connection pool sizes and the number of prepared statements cached per connection
+    private int writeConnections = 1;
+    private int readConnections = 2;
+    private int statementCacheSize = 50;
+    private long connectionTimeout = 10000;
+
+    // Write batching - disabled if batchSize is 0
+    private int batchSize = 0;
+    private long batchInterval = 1000;
+
+    private volatile MysqlConnectionPool writePool = null;
+    private volatile MysqlConnectionPool readPool = null;
+
+    // Failed batches are queued again as long as the queue holds no more than this many batches
+    private static final int MAX_QUEUED_BATCHES = 100;
+
+    private final BlockingQueue<PendingState> pendingStates = new LinkedBlockingQueue<PendingState>();
+    private final Object flushLock = new Object();
+    private volatile ScheduledExecutorService flushScheduler = null;
 
-    private Map<String, String> sqlTables = new HashMap<String, String>();
+    private final Object tableLock = new Object();
+    private Map<String, String> sqlTables = new ConcurrentHashMap<String, String>();
     private Map<String, String> sqlTypes = new HashMap<String, String>();
 
     /**
@@ -155,6 +188,8 @@ public class MysqlPersistenceService implements QueryablePersistenceService {
             sqlTypes.put(itemType, value);
         }
 
+        stopFlushScheduler();
+        flushPendingStates();
         disconnectFromDatabase();
 
         url = (String) config.get("url");
@@ -191,6 +226,43 @@ public class MysqlPersistenceService implements QueryablePersistenceService {
             localtime = Boolean.parseBoolean(tmpString);
         }
 
+        tmpString = (String) config.get("writeConnections");
+        if (StringUtils.isNotBlank(tmpString)) {
+            writeConnections = Integer.parseInt(tmpString);
+        }
+
+        tmpString = (String) config.get("readConnections");
+        if (StringUtils.isNotBlank(tmpString)) {
+            readConnections = Integer.parseInt(tmpString);
+        }
+
+        tmpString = (String) config.get("statementCacheSize");
+        if (StringUtils.isNotBlank(tmpString)) {
+            statementCacheSize = Integer.parseInt(tmpString);
+        }
+
+        tmpString = (String) config.get("batchSize");
+        if (StringUtils.isNotBlank(tmpString)) {
+            batchSize = Integer.parseInt(tmpString);
+        }
+
+        tmpString = (String) config.get("batchInterval");
+        if (StringUtils.isNotBlank(tmpString)) {
+            batchInterval = Long.parseLong(tmpString);
+        }
+
+        if (batchSize > 0) {
+            ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory());
+            scheduler.scheduleWithFixedDelay(new Runnable() {
+                @Override
+                public void run() {
+                    flushPendingStates();
+                }
+            }, batchInterval, batchInterval, TimeUnit.MILLISECONDS);
+            flushScheduler = scheduler;
+            logger.debug("mySQL: batching up to {} states every {}ms.", batchSize, batchInterval);
+        }
+
         // reconnect to the database in case the configuration has changed.
         connectToDatabase();
 
@@ -202,6 +274,8 @@ public class MysqlPersistenceService implements QueryablePersistenceService {
 
     public void deactivate(final int reason) {
         logger.debug("mySQL persistence bundle stopping. Disconnecting from database.");
+        stopFlushScheduler();
+        flushPendingStates();
         disconnectFromDatabase();
     }
 
@@ -256,10 +330,6 @@ public class MysqlPersistenceService implements QueryablePersistenceService {
     }
 
     private String getTable(Item item) {
-        PreparedStatement statement = null;
-        String sqlCmd = null;
-        int rowId = 0;
-
         String itemName = item.getName();
         String tableName = sqlTables.get(itemName);
 
@@ -268,6 +338,45 @@ public class MysqlPersistenceService implements QueryablePersistenceService {
             return tableName;
         }
 
+        // Table creation is serialized so that concurrent stores of a new item
+        // don't add it to the Items table twice
+        synchronized (tableLock) {
+            tableName = sqlTables.get(itemName);
+            if (tableName != null) {
+                return tableName;
+            }
+
+            MysqlConnectionPool pool = writePool;
+            if (pool == null) {
+                return null;
+            }
+
+            PooledConnection connection;
+            try {
+                connection = pool.borrow(connectionTimeout);
+            } catch (SQLException e) {
+                errCnt.incrementAndGet();
+                logger.error("mySQL: Could not get a connection to create table for item '{}': {}", itemName,
+                        e.getMessage());
+                return null;
+            }
+
+            try {
+                return createTable(connection, item);
+            } finally {
+                pool.release(connection);
+            }
+        }
+    }
+
+    private String createTable(PooledConnection connection, Item item) {
+        PreparedStatement statement = null;
+        String sqlCmd = null;
+        int rowId = 0;
+
+        String itemName = item.getName();
+        String tableName = null;
+
         logger.debug("mySQL: no Table found for itemName={} get:{}", itemName, sqlTables.get(itemName));
 
         // Create a new entry in the Items table. This is the translation of
@@ -275,7 +384,7 @@ public class MysqlPersistenceService implements QueryablePersistenceService {
         try {
             sqlCmd = new String("INSERT INTO Items (ItemName) VALUES (?)");
 
-            statement = connection.prepareStatement(sqlCmd, Statement.RETURN_GENERATED_KEYS);
+            statement = connection.getConnection().prepareStatement(sqlCmd, Statement.RETURN_GENERATED_KEYS);
             statement.setString(1, itemName);
             statement.executeUpdate();
 
@@ -292,7 +401,7 @@ public class MysqlPersistenceService implements QueryablePersistenceService {
             tableName = new String("Item" + rowId);
             logger.debug("mySQL: new item {} is Item{}", itemName, rowId);
         } catch (SQLException e) {
-            errCnt++;
+            errCnt.incrementAndGet();
             logger.error("mySQL: Could not create entry for '{}' in table 'Items' with statement '{}': {}", itemName,
                     sqlCmd, e.getMessage());
         } finally {
@@ -318,13 +427,13 @@ public class MysqlPersistenceService implements QueryablePersistenceService {
         logger.debug("mySQL: query: {}", sqlCmd);
 
         try {
-            statement = connection.prepareStatement(sqlCmd);
+            statement = connection.getConnection().prepareStatement(sqlCmd);
             statement.executeUpdate();
 
             logger.debug("mySQL: Table created for item '{}' with datatype {} in SQL database.", itemName, mysqlType);
             sqlTables.put(itemName, tableName);
         } catch (Exception e) {
-            errCnt++;
+            errCnt.incrementAndGet();
 
             logger.error("mySQL: Could not create table for item '{}' with statement '{}': {}", itemName, sqlCmd,
                     e.getMessage());
@@ -346,11 +455,11 @@ public class MysqlPersistenceService implements QueryablePersistenceService {
             logger.debug("mySQL: query: {}", sqlCmd);
 
             try {
-                statement = connection.prepareStatement(sqlCmd);
+                statement = connection.getConnection().prepareStatement(sqlCmd);
                 statement.setString(1, itemName);
                 statement.executeUpdate();
             } catch (Exception e) {
-                errCnt++;
+                errCnt.incrementAndGet();
 
                 logger.error("mySQL: Could not remove index for item '{}' with statement '{}': ", itemName, sqlCmd,
                         e.getMessage());
@@ -362,6 +471,7 @@ public class MysqlPersistenceService implements QueryablePersistenceService {
                     }
                 }
             }
+            return null;
         }
 
         return tableName;
@@ -392,7 +502,7 @@ public class MysqlPersistenceService implements QueryablePersistenceService {
             logger.warn(
                     "mySQL: No connection to database. Cannot persist item '{}'! "
                             + "Will retry connecting to database when error count:{} equals errReconnectThreshold:{}",
-                    item, errCnt, errReconnectThreshold);
+                    item, errCnt.get(), errReconnectThreshold);
             return;
         }
 
@@ -436,47 +546,196 @@ public class MysqlPersistenceService implements QueryablePersistenceService {
         long timeNow = Calendar.getInstance().getTimeInMillis();
         Timestamp timestamp = new Timestamp(timeNow);
 
+        // In batch mode the state is written later, so the timestamp has to be taken now
+        ScheduledExecutorService scheduler = flushScheduler;
+        if (batchSize > 0 && scheduler != null) {
+            pendingStates.add(new PendingState(tableName, value, timestamp));
+            if (pendingStates.size() >= batchSize) {
+                try {
+                    scheduler.execute(new Runnable() {
+                        @Override
+                        public void run() {
+                            flushPendingStates();
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    // the scheduler is shutting down and flushes the queue itself
+                }
+            }
+            logger.debug("mySQL: Queued item '{}' as '{}'[{}] for SQL database at {}.", item.getName(),
+                    item.getState().toString(), value, timestamp.toString());
+            return;
+        }
+
+        MysqlConnectionPool pool = writePool;
+        if (pool == null) {
+            return;
+        }
+
         String sqlCmd = null;
-        PreparedStatement statement = null;
+        PooledConnection connection = null;
         try {
+            connection = pool.borrow(connectionTimeout);
+
+            PreparedStatement statement;
             if (localtime) {
                 sqlCmd = new String(
                         "INSERT INTO " + tableName + " (TIME, VALUE) VALUES(?,?) ON DUPLICATE KEY UPDATE VALUE=?;");
-                statement = connection.prepareStatement(sqlCmd);
+                statement = connection.prepare(sqlCmd);
                 statement.setTimestamp(1, timestamp);
                 statement.setString(2, value);
                 statement.setString(3, value);
             } else {
                 sqlCmd = new String(
                         "INSERT INTO " + tableName + " (TIME, VALUE) VALUES(NOW(),?) ON DUPLICATE KEY UPDATE VALUE=?;");
-                statement = connection.prepareStatement(sqlCmd);
+                statement = connection.prepare(sqlCmd);
                 statement.setString(1, value);
                 statement.setString(2, value);
             }
 
             statement.executeUpdate();
+            pool.release(connection);
+            connection = null;
 
             logger.debug("mySQL: Stored item '{}' as '{}'[{}] in SQL database at {}.", item.getName(),
                     item.getState().toString(), value, timestamp.toString());
             logger.debug("mySQL: query: {}", sqlCmd);
 
             // Success
-            errCnt = 0;
+            errCnt.set(0);
         } catch (Exception e) {
-            errCnt++;
+            errCnt.incrementAndGet();
 
             logger.error("mySQL: Could not store item '{}' in database with " + "statement '{}': {}", item.getName(),
                     sqlCmd, e.getMessage());
         } finally {
-            if (statement != null) {
-                try {
-                    statement.close();
-                } catch (Exception hidden) {
+            if (connection != null) {
+                pool.invalidate(connection);
+            }
+        }
+    }
+
+    /**
+     * Writes all queued states, grouped by table. Full batches of
+     * <code>batchSize</code> rows are written with one multi-row INSERT
+     * statement each, the remaining rows with the single-row INSERT statement.
+     * So only two statements per table are ever prepared, and a partial batch
+     * never pushes the frequently used statements out of the statement cache.
+     */
+    private void flushPendingStates() {
+        synchronized (flushLock) {
+            if (pendingStates.isEmpty()) {
+                return;
+            }
+
+            List<PendingState> states = new ArrayList<PendingState>();
+            pendingStates.drainTo(states);
+
+            MysqlConnectionPool pool = writePool;
+            if (pool == null) {
+                logger.warn("mySQL: No connection to database. Dropping {} queued states.", states.size());
+                return;
+            }
+
+            Map<String, List<PendingState>> statesByTable = new LinkedHashMap<String, List<PendingState>>();
+            for (PendingState state : states) {
+                List<PendingState> tableStates = statesByTable.get(state.tableName);
+                if (tableStates == null) {
+                    tableStates = new ArrayList<PendingState>();
+                    statesByTable.put(state.tableName, tableStates);
+                }
+                tableStates.add(state);
+            }
+
+            long timerStart = System.currentTimeMillis();
+            PooledConnection connection = null;
+            try {
+                connection = pool.borrow(connectionTimeout);
+                for (Entry<String, List<PendingState>> entry : statesByTable.entrySet()) {
+                    List<PendingState> tableStates = entry.getValue();
+                    int from = 0;
+                    for (; from + batchSize <= tableStates.size(); from += batchSize) {
+                        writeBatch(connection, entry.getKey(), tableStates.subList(from, from + batchSize));
+                    }
+                    writeRows(connection, entry.getKey(), tableStates.subList(from, tableStates.size()));
+                }
+                pool.release(connection);
+                connection = null;
+
+                logger.debug("mySQL: Stored {} queued states in {} tables in {}ms", states.size(),
+                        statesByTable.size(), System.currentTimeMillis() - timerStart);
+
+                // Success
+                errCnt.set(0);
+            } catch (SQLException e) {
+                errCnt.incrementAndGet();
+                // rows written before the failure are simply updated again on the next attempt
+                if (flushScheduler != null && pendingStates.size() + states.size() <= batchSize * MAX_QUEUED_BATCHES) {
+                    pendingStates.addAll(states);
+                    logger.error("mySQL: Could not store {} queued states in database, retrying later: {}",
+                            states.size(), e.getMessage());
+                } else {
+                    logger.error("mySQL: Could not store {} queued states in database. Dropping them: {}",
+                            states.size(), e.getMessage());
+                }
+            } finally {
+                if (connection != null) {
+                    pool.invalidate(connection);
                 }
             }
         }
     }
 
+    private void writeBatch(PooledConnection connection, String tableName, List<PendingState> states)
+            throws SQLException {
+        StringBuilder sqlCmd = new StringBuilder("INSERT INTO ").append(tableName).append(" (TIME, VALUE) VALUES");
+        for (int i = 0; i < states.size(); i++) {
+            sqlCmd.append(i == 0 ? "(?,?)" : ",(?,?)");
+        }
+        sqlCmd.append(" ON DUPLICATE KEY UPDATE VALUE=VALUES(VALUE);");
+
+        PreparedStatement statement = connection.prepare(sqlCmd.toString());
+        int index = 1;
+        for (PendingState state : states) {
+            statement.setTimestamp(index++, state.timestamp);
+            statement.setString(index++, state.value);
+        }
+        statement.executeUpdate();
+    }
+
+    /**
+     * Writes the states with the single-row statement also used without
+     * batching, sent to the server as one JDBC batch.
+     */
+    private void writeRows(PooledConnection connection, String tableName, List<PendingState> states)
+            throws SQLException {
+        if (states.isEmpty()) {
+            return;
+        }
+        PreparedStatement statement = connection
+                .prepare("INSERT INTO " + tableName + " (TIME, VALUE) VALUES(?,?) ON DUPLICATE KEY UPDATE VALUE=?;");
+        for (PendingState state : states) {
+            statement.setTimestamp(1, state.timestamp);
+            statement.setString(2, state.value);
+            statement.setString(3, state.value);
+            statement.addBatch();
+        }
+        statement.executeBatch();
+    }
+
+    private void stopFlushScheduler() {
+        ScheduledExecutorService scheduler = flushScheduler;
+        if (scheduler != null) {
+            flushScheduler = null;
+            scheduler.shutdown();
+            try {
+                scheduler.awaitTermination(connectionTimeout, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
     /**
      * @{inheritDoc
      */
@@ -491,52 +750,42 @@ public class MysqlPersistenceService implements QueryablePersistenceService {
      * @return true if connection has been established, false otherwise
      */
     private boolean isConnected() {
-        // Check if connection is valid
-        try {
-            if (connection != null && !connection.isValid(5000)) {
-                errCnt++;
-                logger.error("mySQL: Connection is not valid!");
-            }
-        } catch (SQLException e) {
-            errCnt++;
-
-            logger.error("mySQL: Error while checking connection: {}", e);
-        }
-
         // Error check. If we have 'errReconnectThreshold' errors in a row, then
         // reconnect to the database
-        if (errReconnectThreshold != 0 && errCnt >= errReconnectThreshold) {
+        if (errReconnectThreshold != 0 && errCnt.get() >= errReconnectThreshold) {
             logger.error("mySQL: Error count exceeded {}. Disconnecting database.", errReconnectThreshold);
             disconnectFromDatabase();
         }
-        return connection != null;
+        return writePool != null;
     }
 
     /**
      * Connects to the database
      */
-    private void connectToDatabase() {
+    private synchronized void connectToDatabase() {
+        if (writePool != null) {
+            return;
+        }
+
+        MysqlConnectionPool newWritePool = null;
+        PooledConnection connection = null;
         try {
             // Reset the error counter
-            errCnt = 0;
+            errCnt.set(0);
 
             logger.debug("mySQL: Attempting to connect to database {}", url);
             Class.forName(driverClass).newInstance();
-            connection = DriverManager.getConnection(url, user, password);
+            newWritePool = new MysqlConnectionPool("write", url, user, password, writeConnections,
+                    statementCacheSize, waitTimeout);
+            connection = newWritePool.borrow(connectionTimeout);
             logger.debug("mySQL: Connected to database {}", url);
 
-            Statement st = connection.createStatement();
+            Statement st = connection.getConnection().createStatement();
             int result = st.executeUpdate("SHOW TABLES LIKE 'Items'");
             st.close();
 
-            if (waitTimeout != -1) {
-                logger.debug("mySQL: Setting wait_timeout to {} seconds.", waitTimeout);
-                st = connection.createStatement();
-                st.executeUpdate("SET SESSION wait_timeout=" + waitTimeout);
-                st.close();
-            }
             if (result == 0) {
-                st = connection.createStatement();
+                st = connection.getConnection().createStatement();
                 st.executeUpdate(
                         "CREATE TABLE Items (ItemId INT NOT NULL AUTO_INCREMENT,ItemName VARCHAR(200) NOT NULL,PRIMARY KEY (ItemId));",
                         Statement.RETURN_GENERATED_KEYS);
@@ -544,7 +793,7 @@ public class MysqlPersistenceService implements QueryablePersistenceService {
             }
 
             // Retrieve the table array
-            st = connection.createStatement();
+            st = connection.getConnection().createStatement();
 
             // Turn use of the cursor on.
             st.setFetchSize(50);
@@ -554,7 +803,20 @@ public class MysqlPersistenceService implements QueryablePersistenceService {
             }
             rs.close();
             st.close();
+
+            newWritePool.release(connection);
+            connection = null;
+
+            readPool = new MysqlConnectionPool("read", url, user, password, readConnections, statementCacheSize,
+                    waitTimeout);
+            writePool = newWritePool;
         } catch (Exception e) {
+            if (connection != null) {
+                newWritePool.invalidate(connection);
+            }
+            if (newWritePool != null) {
+                newWritePool.close();
+            }
             logger.error(
                     "mySQL: Failed connecting to the SQL database using: driverClass={}, url={}, user={}",
                     driverClass, url, user, e);
@@ -564,15 +826,15 @@ public class MysqlPersistenceService implements QueryablePersistenceService {
     /**
      * Disconnects from the database
      */
-    private void disconnectFromDatabase() {
-        if (connection != null) {
-            try {
-                connection.close();
-                logger.debug("mySQL: Disconnected from database {}", url);
-            } catch (Exception e) {
-                logger.error("mySQL: Failed disconnecting from the SQL database {}", e);
-            }
-            connection = null;
+    private synchronized void disconnectFromDatabase() {
+        if (writePool != null) {
+            writePool.close();
+            writePool = null;
+            logger.debug("mySQL: Disconnected from database {}", url);
+        }
+        if (readPool != null) {
+            readPool.close();
+            readPool = null;
         }
     }
 
@@ -637,7 +899,10 @@ public class MysqlPersistenceService implements QueryablePersistenceService {
             return Collections.emptyList();
         }
 
+        // Dates and paging are passed as statement parameters, so the SQL
+        // only varies with the filter shape and stays in the statement cache
         String filterString = new String();
+        List<String> dateParameters = new ArrayList<String>(2);
 
         if (filter.getBeginDate() != null) {
             if (filterString.isEmpty()) {
@@ -645,7 +910,8 @@ public class MysqlPersistenceService implements QueryablePersistenceService {
             } else {
                 filterString += " AND";
             }
-            filterString += " TIME>'" + mysqlDateFormat.format(filter.getBeginDate()) + "'";
+            filterString += " TIME>?";
+            dateParameters.add(mysqlDateFormat.format(filter.getBeginDate()));
         }
         if (filter.getEndDate() != null) {
             if (filterString.isEmpty()) {
@@ -653,7 +919,8 @@ public class MysqlPersistenceService implements QueryablePersistenceService {
             } else {
                 filterString += " AND";
             }
-            filterString += " TIME<'" + mysqlDateFormat.format(filter.getEndDate().getTime()) + "'";
+            filterString += " TIME<?";
+            dateParameters.add(mysqlDateFormat.format(filter.getEndDate().getTime()));
         }
 
         if (filter.getOrdering() == Ordering.ASCENDING) {
@@ -662,15 +929,22 @@ public class MysqlPersistenceService implements QueryablePersistenceService {
             filterString += " ORDER BY Time DESC";
         }
 
-        if (filter.getPageSize() != 0x7fffffff) {
-            filterString += " LIMIT " + filter.getPageNumber() * filter.getPageSize() + "," + filter.getPageSize();
+        boolean paged = filter.getPageSize() != 0x7fffffff;
+        if (paged) {
+            filterString += " LIMIT ?,?";
+        }
+
+        MysqlConnectionPool pool = readPool;
+        if (pool == null) {
+            logger.debug("Query aborted on item {} - mySQL not connected!", filter.getItemName());
+            return Collections.emptyList();
         }
 
+        PooledConnection connection = null;
         try {
             long timerStart = System.currentTimeMillis();
 
-            // Retrieve the table array
-            Statement st = connection.createStatement();
+            connection = pool.borrow(connectionTimeout);
 
             String queryString = new String();
             queryString = "SELECT Time, Value FROM " + table;
@@ -680,10 +954,20 @@ public class MysqlPersistenceService implements QueryablePersistenceService {
 
             logger.debug("mySQL: query:" + queryString);
 
+            PreparedStatement st = connection.prepare(queryString);
+            int index = 1;
+            for (String date : dateParameters) {
+                st.setString(index++, date);
+            }
+            if (paged) {
+                st.setInt(index++, filter.getPageNumber() * filter.getPageSize());
+                st.setInt(index++, filter.getPageSize());
+            }
+
             // Turn use of the cursor on.
             st.setFetchSize(50);
 
-            ResultSet rs = st.executeQuery(queryString);
+            ResultSet rs = st.executeQuery();
 
             long count = 0;
             List<HistoricItem> items = new ArrayList<HistoricItem>();
@@ -716,19 +1000,48 @@ public class MysqlPersistenceService implements QueryablePersistenceService {
             }
 
             rs.close();
-            st.close();
+            pool.release(connection);
+            connection = null;
 
             long timerStop = System.currentTimeMillis();
             logger.debug("mySQL: query returned {} rows in {}ms", count, timerStop - timerStart);
 
             // Success
-            errCnt = 0;
+            errCnt.set(0);
 
             return items;
         } catch (SQLException e) {
-            errCnt++;
+            errCnt.incrementAndGet();
             logger.error("mySQL: Error running querying : ", e.getMessage());
+        } finally {
+            if (connection != null) {
+                pool.invalidate(connection);
+            }
         }
         return null;
     }
+
+    /**
+     * A state waiting in the write batch queue.
+     */
+    private static class PendingState {
+        private final String tableName;
+        private final String value;
+        private final Timestamp timestamp;
+
+        PendingState(String tableName, String value, Timestamp timestamp) {
+            this.tableName = tableName;
+            this.value = value;
+            this.timestamp = timestamp;
+        }
+    }
+
+    private static class NamedThreadFactory implements ThreadFactory {
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "mySQL batch writer");
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
 }